@@ -0,0 +1,83 @@
+package com.example.payment_transfer_service.dto;
+
+import com.example.payment_transfer_service.entity.TransactionStatus;
+import com.example.payment_transfer_service.entity.TransactionType;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Response serialization with the same Jackson defaults Spring MVC uses:
+ * <ul>
+ *     <li>{@code transferResult} - the body of every transfer response</li>
+ *     <li>{@code historyRow} - one transaction history row</li>
+ *     <li>{@code historyPage} - a full history page of {@code pageSize} rows</li>
+ * </ul>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JsonSerializationBenchmark {
+
+    @Param({"50"})
+    private int pageSize;
+
+    private ObjectWriter writer;
+    private TransferResult transferResult;
+    private UserTransactionHistory historyRow;
+    private List<UserTransactionHistory> historyPage;
+
+    @Setup
+    public void setUp() {
+        ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        writer = objectMapper.writer();
+
+        transferResult = TransferResult.success("TXN0000000001", "Transfer completed successfully",
+                TransactionType.INTERNAL_TRANSFER);
+        historyPage = new ArrayList<>(pageSize);
+        for (int i = 0; i < pageSize; i++) {
+            historyPage.add(UserTransactionHistory.builder()
+                    .id(String.format("TXN%010d", i))
+                    .sourceAccountId("ACC00000001")
+                    .sourceAccountName("Checking")
+                    .destinationAccountId("ACC00000002")
+                    .destinationAccountName("Savings")
+                    .amount(new BigDecimal("12.34").add(BigDecimal.valueOf(i)))
+                    .currency("USD")
+                    .status(TransactionStatus.COMPLETED)
+                    .transactionType(TransactionType.INTERNAL_TRANSFER)
+                    .description("Rent")
+                    .reference("REF-" + i)
+                    .createdAt(LocalDateTime.now())
+                    .completedAt(LocalDateTime.now())
+                    .build());
+        }
+        historyRow = historyPage.get(0);
+    }
+
+    @Benchmark
+    public byte[] transferResult() throws JsonProcessingException {
+        return writer.writeValueAsBytes(transferResult);
+    }
+
+    @Benchmark
+    public byte[] historyRow() throws JsonProcessingException {
+        return writer.writeValueAsBytes(historyRow);
+    }
+
+    @Benchmark
+    public byte[] historyPage() throws JsonProcessingException {
+        return writer.writeValueAsBytes(historyPage);
+    }
+}
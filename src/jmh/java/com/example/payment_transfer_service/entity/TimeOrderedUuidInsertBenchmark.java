@@ -0,0 +1,93 @@
+package com.example.payment_transfer_service.entity;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Comparator;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * Insert throughput into a table whose primary key is a 36-character UUID string, as in
+ * {@code payment_transactions} and {@code transaction_audit}, once the table already holds
+ * {@code tableRows} rows. The table lives in an on-disk H2 database with a page cache much smaller than the
+ * table, so random keys pay for touching cold index pages while time-ordered keys append to the right edge.
+ * Scores are rows per second.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TimeOrderedUuidInsertBenchmark {
+
+    private static final int BATCH_SIZE = 1_000;
+    private static final int CACHE_SIZE_KB = 8 * 1024;
+
+    public enum KeyType {
+        RANDOM(() -> UUID.randomUUID().toString()),
+        TIME_ORDERED(() -> TimeOrderedUuidGenerator.nextUuid().toString());
+
+        private final Supplier<String> ids;
+
+        KeyType(Supplier<String> ids) {
+            this.ids = ids;
+        }
+    }
+
+    @Param({"RANDOM", "TIME_ORDERED"})
+    private KeyType keyType;
+
+    @Param({"100000", "1000000"})
+    private int tableRows;
+
+    private Path directory;
+    private Connection connection;
+    private PreparedStatement insert;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        directory = Files.createTempDirectory(Paths.get("target"), "jmh-ids-");
+        connection = DriverManager.getConnection(
+                "jdbc:h2:file:" + directory.toAbsolutePath().resolve("ids") + ";CACHE_SIZE=" + CACHE_SIZE_KB, "sa", "");
+        connection.setAutoCommit(false);
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE ids (id VARCHAR(36) PRIMARY KEY, payload VARCHAR(64) NOT NULL)");
+        }
+        insert = connection.prepareStatement("INSERT INTO ids (id, payload) VALUES (?, ?)");
+        for (int loaded = 0; loaded < tableRows; loaded += BATCH_SIZE) {
+            insertBatch();
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        insert.close();
+        connection.close();
+        try (Stream<Path> files = Files.walk(directory)) {
+            files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public void insertBatch() throws SQLException {
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            insert.setString(1, keyType.ids.get());
+            insert.setString(2, "transfer payload of typical width, 48 characters");
+            insert.addBatch();
+        }
+        insert.executeBatch();
+        connection.commit();
+    }
+}
@@ -0,0 +1,91 @@
+package com.example.payment_transfer_service.security;
+
+import com.example.payment_transfer_service.entity.User;
+import com.example.payment_transfer_service.entity.UserStatus;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-request cost of authenticating a bearer token:
+ * <ul>
+ *     <li>{@code legacyValidateThenParse} - the previous filter path, two parser builds, two key derivations
+ *     and two HMAC checks per request</li>
+ *     <li>{@code sharedParser} - one verification with the shared key and parser, as on a cache miss</li>
+ *     <li>{@code cachedVerify} - a repeated token answered from the verified-token cache</li>
+ * </ul>
+ * and of issuing one at login:
+ * <ul>
+ *     <li>{@code createPrincipal} - building the principal from the loaded user</li>
+ *     <li>{@code generateToken} - signing a token for that principal</li>
+ * </ul>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JwtAuthenticationBenchmark {
+
+    private static final String SECRET = "mySecretKeyThatShouldBeAtLeast256BitsLongForHS256Algorithm";
+
+    private JwtUtil jwtUtil;
+    private String token;
+    private User user;
+    private UserPrincipal principal;
+
+    @Setup
+    public void setUp() {
+        jwtUtil = new JwtUtil(SECRET, 3_600_000, 10_000);
+        principal = new UserPrincipal("USR12345", "testuser", null, null, null, null, true, 0, List.of("ROLE_USER"));
+        token = jwtUtil.generateJwtToken(principal);
+        jwtUtil.verify(token);
+
+        user = new User();
+        user.setId("USR12345");
+        user.setUsername("testuser");
+        user.setEmail("test@example.com");
+        user.setFirstName("Test");
+        user.setLastName("User");
+        user.setPasswordHash("$2a$10$abcdefghijklmnopqrstuv");
+        user.setStatus(UserStatus.ACTIVE);
+    }
+
+    @Benchmark
+    public String legacyValidateThenParse() {
+        Jwts.parserBuilder()
+                .setSigningKey(Keys.hmacShaKeyFor(SECRET.getBytes()))
+                .build()
+                .parseClaimsJws(token);
+        return Jwts.parserBuilder()
+                .setSigningKey(Keys.hmacShaKeyFor(SECRET.getBytes()))
+                .build()
+                .parseClaimsJws(token)
+                .getBody()
+                .getSubject();
+    }
+
+    @Benchmark
+    public String sharedParser() {
+        return jwtUtil.verifySignature(token).orElseThrow().subject();
+    }
+
+    @Benchmark
+    public String cachedVerify() {
+        return jwtUtil.verify(token).orElseThrow().subject();
+    }
+
+    @Benchmark
+    public UserPrincipal createPrincipal() {
+        return UserPrincipal.create(user);
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return jwtUtil.generateJwtToken(principal);
+    }
+}
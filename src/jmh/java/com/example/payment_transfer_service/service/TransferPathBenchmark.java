@@ -0,0 +1,94 @@
+package com.example.payment_transfer_service.service;
+
+import com.example.payment_transfer_service.dto.UserTransactionHistory;
+import com.example.payment_transfer_service.entity.Account;
+import com.example.payment_transfer_service.entity.AccountStatus;
+import com.example.payment_transfer_service.entity.Transaction;
+import com.example.payment_transfer_service.entity.TransactionStatus;
+import com.example.payment_transfer_service.entity.TransactionType;
+import com.example.payment_transfer_service.repository.AccountRepository;
+import org.openjdk.jmh.annotations.*;
+
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * In-memory cost of the transfer path once the rows are loaded:
+ * <ul>
+ *     <li>{@code validateAndApply} - status, currency and funds checks followed by the BigDecimal debit and
+ *     credit, against a repository whose {@code save} returns its argument</li>
+ *     <li>{@code mapHistoryRow} - mapping one transaction to a history row with resolved account names</li>
+ * </ul>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class TransferPathBenchmark {
+
+    private static final BigDecimal AMOUNT = new BigDecimal("12.34");
+
+    private PaymentTransferService service;
+    private Account source;
+    private Account destination;
+    private Transaction transaction;
+    private Map<String, String> accountNames;
+
+    @Setup
+    public void setUp() {
+        AccountRepository accountRepository = (AccountRepository) Proxy.newProxyInstance(
+                AccountRepository.class.getClassLoader(),
+                new Class<?>[]{AccountRepository.class},
+                (proxy, method, args) -> args != null && args.length == 1 ? args[0] : null);
+        service = new PaymentTransferService(accountRepository, null, null, null, null, null, null, null, null,
+                null, null, null, null, null, null);
+
+        source = account("ACC00000001", "1000000.00");
+        destination = account("ACC00000002", "1000000.00");
+
+        transaction = new Transaction();
+        transaction.setId("TXN0000000001");
+        transaction.setSourceAccountId(source.getId());
+        transaction.setDestinationAccountId(destination.getId());
+        transaction.setAmount(AMOUNT);
+        transaction.setCurrency("USD");
+        transaction.setStatus(TransactionStatus.COMPLETED);
+        transaction.setTransactionType(TransactionType.INTERNAL_TRANSFER);
+        transaction.setDescription("Rent");
+        transaction.setReference("REF-1");
+        transaction.setCreatedAt(LocalDateTime.now());
+        transaction.setCompletedAt(LocalDateTime.now());
+        accountNames = Map.of(source.getId(), "Checking", destination.getId(), "Savings");
+    }
+
+    /**
+     * Moves the amount back and forth so balances stay bounded across iterations.
+     */
+    @Benchmark
+    public BigDecimal validateAndApply() {
+        service.validateAccountsForTransfer(source, destination, AMOUNT);
+        service.processTransfer(source, destination, AMOUNT);
+        service.validateAccountsForTransfer(destination, source, AMOUNT);
+        service.processTransfer(destination, source, AMOUNT);
+        return source.getBalance();
+    }
+
+    @Benchmark
+    public UserTransactionHistory mapHistoryRow() {
+        return service.mapToUserTransactionHistory(transaction, accountNames);
+    }
+
+    private static Account account(String id, String balance) {
+        Account account = new Account();
+        account.setId(id);
+        account.setBalance(new BigDecimal(balance));
+        account.setCurrency("USD");
+        account.setStatus(AccountStatus.ACTIVE);
+        return account;
+    }
+}
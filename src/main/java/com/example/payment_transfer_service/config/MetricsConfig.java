@@ -0,0 +1,71 @@
+package com.example.payment_transfer_service.config;
+
+import com.example.payment_transfer_service.security.PasswordHashingExecutor;
+import com.example.payment_transfer_service.security.PrincipalCache;
+import com.example.payment_transfer_service.service.AuditWriter;
+import com.example.payment_transfer_service.service.OptimisticContentionPolicy;
+import com.example.payment_transfer_service.service.TransferWorkQueue;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Publishes the counters behind the {@code /api/v1/ops} endpoints as Micrometer meters, so they can be
+ * scraped alongside the transfer timers. Hikari pool and Hibernate statistics are bound by Spring Boot.
+ */
+@Configuration
+public class MetricsConfig {
+
+    @Bean
+    public MeterBinder transferQueueMetrics(TransferWorkQueue transferWorkQueue) {
+        return registry -> {
+            Gauge.builder("transfer.queue.depth", transferWorkQueue, queue -> queue.getStats().getDepth())
+                    .description("Transfers waiting for an asynchronous worker")
+                    .register(registry);
+            FunctionCounter.builder("transfer.queue.rejected", transferWorkQueue, queue -> queue.getStats().getRejected())
+                    .description("Asynchronous transfers rejected because the queue was full")
+                    .register(registry);
+        };
+    }
+
+    @Bean
+    public MeterBinder optimisticLockingMetrics(OptimisticContentionPolicy contentionPolicy) {
+        return registry -> {
+            FunctionCounter.builder("transfer.optimistic.conflicts", contentionPolicy, policy -> policy.getStats().getConflicts())
+                    .description("Version conflicts of the optimistic transfer engine")
+                    .register(registry);
+            FunctionCounter.builder("transfer.optimistic.fallbacks", contentionPolicy, policy -> policy.getStats().getFallbacks())
+                    .description("Optimistic transfers completed on the pessimistic path")
+                    .register(registry);
+        };
+    }
+
+    @Bean
+    public MeterBinder auditWriterMetrics(AuditWriter auditWriter) {
+        return registry -> {
+            Gauge.builder("audit.writer.queue.depth", auditWriter, writer -> writer.getStats().getQueueDepth())
+                    .description("Audits waiting to be written")
+                    .register(registry);
+            FunctionCounter.builder("audit.writer.spilled", auditWriter, writer -> writer.getStats().getSpilled())
+                    .description("Audits spilled to the local file")
+                    .register(registry);
+        };
+    }
+
+    @Bean
+    public MeterBinder authenticationMetrics(PasswordHashingExecutor passwordHashingExecutor, PrincipalCache principalCache) {
+        return registry -> {
+            Gauge.builder("auth.password.hashing.queue.depth", passwordHashingExecutor, executor -> executor.getStats().getDepth())
+                    .description("Password hashes waiting for a hashing worker")
+                    .register(registry);
+            FunctionCounter.builder("auth.password.hashing.rejected", passwordHashingExecutor, executor -> executor.getStats().getRejected())
+                    .description("Password hashes rejected because the hashing queue was full")
+                    .register(registry);
+            Gauge.builder("auth.principal.cache.hit.ratio", principalCache, cache -> cache.getStats().getHitRate())
+                    .description("Hit ratio of the authenticated principal cache")
+                    .register(registry);
+        };
+    }
+}
@@ -3,7 +3,10 @@ package com.example.payment_transfer_service.controller;
 import com.example.payment_transfer_service.dto.*;
 import com.example.payment_transfer_service.entity.AccountStatus;
 import com.example.payment_transfer_service.service.AccountService;
+import com.example.payment_transfer_service.service.LedgerService;
 import com.example.payment_transfer_service.service.PaymentTransferService;
+import com.example.payment_transfer_service.service.StatementExportService;
+import com.example.payment_transfer_service.service.StatementFormat;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.ArraySchema;
@@ -15,10 +18,16 @@ import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @RestController
@@ -30,6 +39,8 @@ public class AccountController {
 
     private final AccountService accountService;
     private final PaymentTransferService paymentTransferService;
+    private final StatementExportService statementExportService;
+    private final LedgerService ledgerService;
 
     @Operation(
             summary = "Create new account",
@@ -182,7 +193,8 @@ public class AccountController {
 
     @Operation(
             summary = "Get account transactions",
-            description = "Retrieve transaction history for a specific account"
+            description = "Retrieve the most recent transactions of a specific account. When more history exists, " +
+                    "the X-Next-Cursor header carries a cursor for /api/v1/transactions/account/{accountId}/history"
     )
     @ApiResponses(value = {
             @ApiResponse(
@@ -215,8 +227,108 @@ public class AccountController {
             @PathVariable String accountId,
             @Parameter(description = "User ID for authorization", required = true, example = "user123")
             @RequestParam String userId) {
-        List<UserTransactionHistory> transactions =
-                paymentTransferService.getAccountTransactionHistory(accountId, userId);
-        return ResponseEntity.ok(transactions);
+        TransactionHistoryPage page = paymentTransferService.getAccountTransactionHistory(accountId, userId);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.isHasMore()) {
+            response.header(TransactionHistoryPage.NEXT_CURSOR_HEADER, page.getNextCursor());
+        }
+        return response.body(page.getItems());
+    }
+
+    @Operation(
+            summary = "Get account balance at a point in time",
+            description = "Return the balance of an account as of the given time, read from the latest ledger " +
+                    "posting at or before it. Without a time the current balance is returned"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Balance retrieved successfully",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = AccountBalance.class)
+                    )
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "Account does not belong to user",
+                    content = @Content
+            ),
+            @ApiResponse(
+                    responseCode = "401",
+                    description = "Unauthorized - Invalid or missing token",
+                    content = @Content
+            ),
+            @ApiResponse(
+                    responseCode = "404",
+                    description = "Account not found",
+                    content = @Content
+            )
+    })
+    @GetMapping("/{accountId}/balance")
+    public ResponseEntity<AccountBalance> getAccountBalance(
+            @Parameter(description = "Account ID", required = true, example = "acc123")
+            @PathVariable String accountId,
+            @Parameter(description = "User ID for authorization", required = true, example = "user123")
+            @RequestParam String userId,
+            @Parameter(description = "Point in time (ISO date-time), defaults to now", example = "2024-01-31T23:59:59")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime asOf) {
+        return ResponseEntity.ok(ledgerService.getBalanceAsOf(accountId, userId, asOf));
+    }
+
+    @Operation(
+            summary = "Export account statement",
+            description = "Stream the completed transfers of an account in a period as NDJSON or CSV, oldest first, " +
+                    "each with the account balance after it. " +
+                    "Rows are written as they are read from the database; the response is gzip-compressed " +
+                    "when the client sends Accept-Encoding: gzip"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Statement stream",
+                    content = {
+                            @Content(mediaType = "application/x-ndjson"),
+                            @Content(mediaType = "text/csv")
+                    }
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "Account does not belong to user, unsupported format or invalid period",
+                    content = @Content
+            ),
+            @ApiResponse(
+                    responseCode = "401",
+                    description = "Unauthorized - Invalid or missing token",
+                    content = @Content
+            )
+    })
+    @GetMapping("/{accountId}/statement")
+    public ResponseEntity<StreamingResponseBody> exportStatement(
+            @Parameter(description = "Account ID to export", required = true, example = "acc123")
+            @PathVariable String accountId,
+            @Parameter(description = "User ID for authorization", required = true, example = "user123")
+            @RequestParam String userId,
+            @Parameter(description = "Output format: ndjson or csv", example = "csv")
+            @RequestParam(defaultValue = "ndjson") String format,
+            @Parameter(description = "Inclusive start of the period (ISO date-time)", example = "2024-01-01T00:00:00")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @Parameter(description = "Exclusive end of the period (ISO date-time), defaults to now", example = "2024-02-01T00:00:00")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        StatementFormat statementFormat = StatementFormat.from(format);
+        LocalDateTime periodStart = from != null ? from : LocalDateTime.of(1970, 1, 1, 0, 0);
+        LocalDateTime periodEnd = to != null ? to : LocalDateTime.now();
+        statementExportService.validateStatementRequest(accountId, userId, periodStart, periodEnd);
+
+        StreamingResponseBody body = outputStream -> statementExportService.writeStatement(
+                accountId, statementFormat, periodStart, periodEnd, outputStream);
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(statementFormat.getContentType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename("statement-" + accountId + "." + statementFormat.getFileExtension())
+                        .build()
+                        .toString())
+                .body(body);
     }
 }
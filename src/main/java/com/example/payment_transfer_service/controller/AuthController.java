@@ -1,10 +1,12 @@
 package com.example.payment_transfer_service.controller;
 
 import com.example.payment_transfer_service.dto.*;
-import com.example.payment_transfer_service.entity.User;
-import com.example.payment_transfer_service.repository.UserRepository;
+import com.example.payment_transfer_service.exception.PasswordHashingBusyException;
 import com.example.payment_transfer_service.security.JwtUtil;
+import com.example.payment_transfer_service.security.LoginThrottle;
+import com.example.payment_transfer_service.security.TokenRevocationRegistry;
 import com.example.payment_transfer_service.security.UserPrincipal;
+import com.example.payment_transfer_service.security.VerifiedJwt;
 import com.example.payment_transfer_service.service.UserService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -13,16 +15,18 @@ import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.InternalAuthenticationServiceException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
+import org.springframework.security.core.AuthenticationException;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.web.bind.annotation.*;
 
 @RestController
@@ -33,10 +37,10 @@ import org.springframework.web.bind.annotation.*;
 public class AuthController {
 
     private final AuthenticationManager authenticationManager;
-    private final UserRepository userRepository;
-    private final PasswordEncoder passwordEncoder;
     private final JwtUtil jwtUtil;
     private final UserService userService;
+    private final TokenRevocationRegistry tokenRevocationRegistry;
+    private final LoginThrottle loginThrottle;
 
     @Operation(
             summary = "User login",
@@ -60,36 +64,59 @@ public class AuthController {
                     responseCode = "400",
                     description = "Invalid request format",
                     content = @Content
+            ),
+            @ApiResponse(
+                    responseCode = "429",
+                    description = "Too many failed login attempts for this username or client",
+                    content = @Content
+            ),
+            @ApiResponse(
+                    responseCode = "503",
+                    description = "Password verification capacity exhausted, retry shortly",
+                    content = @Content
             )
     })
     @PostMapping("/login")
     public ResponseEntity<LoginResponse> login(
             @Parameter(description = "User login credentials", required = true)
-            @Valid @RequestBody LoginRequest request) {
+            @Valid @RequestBody LoginRequest request,
+            HttpServletRequest httpRequest) {
         log.info("Login attempt for username: {}", request.getUsername());
 
-        Authentication authentication = authenticationManager.authenticate(
-                new UsernamePasswordAuthenticationToken(request.getUsername(), request.getPassword())
-        );
+        String clientIp = httpRequest.getRemoteAddr();
+        loginThrottle.checkAllowed(request.getUsername(), clientIp);
+
+        Authentication authentication;
+        try {
+            authentication = authenticationManager.authenticate(
+                    new UsernamePasswordAuthenticationToken(request.getUsername(), request.getPassword())
+            );
+        } catch (InternalAuthenticationServiceException e) {
+            if (e.getCause() instanceof PasswordHashingBusyException busy) {
+                throw busy;
+            }
+            throw e;
+        } catch (AuthenticationException e) {
+            loginThrottle.recordFailure(request.getUsername(), clientIp);
+            throw e;
+        }
+        loginThrottle.recordSuccess(request.getUsername());
 
         SecurityContextHolder.getContext().setAuthentication(authentication);
         UserPrincipal userPrincipal = (UserPrincipal) authentication.getPrincipal();
-        String jwt = jwtUtil.generateJwtToken(userPrincipal.getId());
-
-        User user = userRepository.findById(userPrincipal.getId())
-                .orElseThrow(() -> new RuntimeException("User not found"));
+        String jwt = jwtUtil.generateJwtToken(userPrincipal);
 
         LoginResponse response = LoginResponse.builder()
                 .token(jwt)
                 .tokenType("Bearer")
-                .userId(user.getId())
-                .username(user.getUsername())
-                .email(user.getEmail())
-                .firstName(user.getFirstName())
-                .lastName(user.getLastName())
+                .userId(userPrincipal.getId())
+                .username(userPrincipal.getUsername())
+                .email(userPrincipal.getEmail())
+                .firstName(userPrincipal.getFirstName())
+                .lastName(userPrincipal.getLastName())
                 .build();
 
-        log.info("User {} logged in successfully", user.getUsername());
+        log.info("User {} logged in successfully", userPrincipal.getUsername());
         return ResponseEntity.ok(response);
     }
 
@@ -127,7 +154,7 @@ public class AuthController {
 
     @Operation(
             summary = "User logout",
-            description = "Clear user session (client-side token removal required)"
+            description = "Revoke the presented JWT token so it is rejected on every instance"
     )
     @ApiResponses(value = {
             @ApiResponse(
@@ -137,6 +164,10 @@ public class AuthController {
     })
     @PostMapping("/logout")
     public ResponseEntity<Void> logout() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.getCredentials() instanceof VerifiedJwt token) {
+            tokenRevocationRegistry.revokeToken(token);
+        }
         SecurityContextHolder.clearContext();
         return ResponseEntity.ok().build();
     }
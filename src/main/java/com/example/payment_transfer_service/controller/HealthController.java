@@ -1,6 +1,10 @@
 package com.example.payment_transfer_service.controller;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.health.HealthComponent;
+import org.springframework.boot.actuate.health.HealthEndpoint;
+import org.springframework.boot.actuate.health.Status;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -8,37 +12,59 @@ import java.time.LocalDateTime;
 import java.util.HashMap;
 import java.util.Map;
 
+/**
+ * Public health endpoints backed by the Actuator health contributors (database, disk space and the
+ * liveness and readiness states). Responds with 503 when the checked status is not {@code UP}.
+ */
 @RestController
 @RequestMapping("/api/v1/health")
 @RequiredArgsConstructor
 public class HealthController {
 
+    private final HealthEndpoint healthEndpoint;
+
     @GetMapping
     public ResponseEntity<Map<String, Object>> healthCheck() {
+        Status status = healthEndpoint.health().getStatus();
+
         Map<String, Object> health = new HashMap<>();
-        health.put("status", "UP");
+        health.put("status", status.getCode());
         health.put("timestamp", LocalDateTime.now());
         health.put("service", "payment-transfer-service");
         health.put("version", "1.0.0");
 
-        return ResponseEntity.ok(health);
+        return withStatus(status, health);
     }
 
     @GetMapping("/ready")
     public ResponseEntity<Map<String, Object>> readinessCheck() {
+        Status status = groupStatus("readiness");
+
         Map<String, Object> ready = new HashMap<>();
-        ready.put("status", "READY");
+        ready.put("status", Status.UP.equals(status) ? "READY" : "NOT_READY");
         ready.put("timestamp", LocalDateTime.now());
 
-        return ResponseEntity.ok(ready);
+        return withStatus(status, ready);
     }
 
     @GetMapping("/live")
     public ResponseEntity<Map<String, Object>> livenessCheck() {
+        Status status = groupStatus("liveness");
+
         Map<String, Object> live = new HashMap<>();
-        live.put("status", "ALIVE");
+        live.put("status", Status.UP.equals(status) ? "ALIVE" : "DOWN");
         live.put("timestamp", LocalDateTime.now());
 
-        return ResponseEntity.ok(live);
+        return withStatus(status, live);
+    }
+
+    private Status groupStatus(String group) {
+        HealthComponent health = healthEndpoint.healthForPath(group);
+        return health != null ? health.getStatus() : Status.UNKNOWN;
+    }
+
+    private ResponseEntity<Map<String, Object>> withStatus(Status status, Map<String, Object> body) {
+        HttpStatus httpStatus = Status.UP.equals(status) ? HttpStatus.OK : HttpStatus.SERVICE_UNAVAILABLE;
+        return ResponseEntity.status(httpStatus).body(body);
     }
 }
@@ -0,0 +1,208 @@
+package com.example.payment_transfer_service.controller;
+
+import com.example.payment_transfer_service.dto.AccountStripingStats;
+import com.example.payment_transfer_service.dto.AuditWriterStats;
+import com.example.payment_transfer_service.dto.BalanceCheckpointStats;
+import com.example.payment_transfer_service.dto.HotAccountsReport;
+import com.example.payment_transfer_service.dto.LoginThrottleStats;
+import com.example.payment_transfer_service.dto.OptimisticLockingStats;
+import com.example.payment_transfer_service.dto.OutboxRelayStats;
+import com.example.payment_transfer_service.dto.PasswordHashingStats;
+import com.example.payment_transfer_service.dto.PrincipalCacheStats;
+import com.example.payment_transfer_service.dto.TokenRevocationStats;
+import com.example.payment_transfer_service.dto.TransferCombiningStats;
+import com.example.payment_transfer_service.dto.TransferLanesReport;
+import com.example.payment_transfer_service.dto.TransferQueueStats;
+import com.example.payment_transfer_service.security.LoginThrottle;
+import com.example.payment_transfer_service.security.PasswordHashingExecutor;
+import com.example.payment_transfer_service.security.PrincipalCache;
+import com.example.payment_transfer_service.security.TokenRevocationRegistry;
+import com.example.payment_transfer_service.service.AccountLaneExecutor;
+import com.example.payment_transfer_service.service.AuditWriter;
+import com.example.payment_transfer_service.service.BalanceCheckpointJob;
+import com.example.payment_transfer_service.service.HotAccountTracker;
+import com.example.payment_transfer_service.service.OptimisticContentionPolicy;
+import com.example.payment_transfer_service.service.OutboxRelay;
+import com.example.payment_transfer_service.service.StripeRebalanceJob;
+import com.example.payment_transfer_service.service.StripedBalanceService;
+import com.example.payment_transfer_service.service.TransferCombiner;
+import com.example.payment_transfer_service.service.TransferWorkQueue;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/v1/ops")
+@RequiredArgsConstructor
+@Tag(name = "Operations", description = "Runtime counters for tuning the transfer pipeline")
+@SecurityRequirement(name = "bearerAuth")
+public class OperationsController {
+
+    private final OptimisticContentionPolicy contentionPolicy;
+    private final TransferWorkQueue transferWorkQueue;
+    private final AuditWriter auditWriter;
+    private final OutboxRelay outboxRelay;
+    private final PrincipalCache principalCache;
+    private final TokenRevocationRegistry tokenRevocationRegistry;
+    private final PasswordHashingExecutor passwordHashingExecutor;
+    private final LoginThrottle loginThrottle;
+    private final HotAccountTracker hotAccountTracker;
+    private final BalanceCheckpointJob balanceCheckpointJob;
+    private final StripedBalanceService stripedBalances;
+    private final StripeRebalanceJob stripeRebalanceJob;
+    private final TransferCombiner transferCombiner;
+    private final AccountLaneExecutor accountLanes;
+
+    @Operation(
+            summary = "Optimistic transfer counters",
+            description = "Attempts, version conflicts, retries and pessimistic fallbacks of the optimistic transfer engine"
+    )
+    @GetMapping("/transfer-engine/optimistic")
+    public ResponseEntity<OptimisticLockingStats> getOptimisticLockingStats() {
+        return ResponseEntity.ok(contentionPolicy.getStats());
+    }
+
+    @Operation(
+            summary = "Transfer combining counters",
+            description = "Combined writes, transfers absorbed per write and transfers that ran on their own because they were alone in their window or their combined write failed"
+    )
+    @GetMapping("/transfer-engine/combining")
+    public ResponseEntity<TransferCombiningStats> getTransferCombiningStats() {
+        return ResponseEntity.ok(transferCombiner.getStats());
+    }
+
+    @Operation(
+            summary = "Account lanes",
+            description = "Per-lane queue depth, executed tasks, handoffs to a second lane and service time of the account-partitioned executor"
+    )
+    @GetMapping("/transfer-engine/lanes")
+    public ResponseEntity<TransferLanesReport> getTransferLanes() {
+        return ResponseEntity.ok(accountLanes.getStats());
+    }
+
+    @Operation(
+            summary = "Asynchronous transfer queue",
+            description = "Capacity, depth, worker utilisation, rejections and queue wait of the asynchronous transfer pool"
+    )
+    @GetMapping("/transfer-queue")
+    public ResponseEntity<TransferQueueStats> getTransferQueueStats() {
+        return ResponseEntity.ok(transferWorkQueue.getStats());
+    }
+
+    @Operation(
+            summary = "Asynchronous audit writer",
+            description = "Queue depth, batch sizes, flush latency and spilled or dropped audits of the audit writer"
+    )
+    @GetMapping("/audit-writer")
+    public ResponseEntity<AuditWriterStats> getAuditWriterStats() {
+        return ResponseEntity.ok(auditWriter.getStats());
+    }
+
+    @Operation(
+            summary = "Transfer outbox relay",
+            description = "Backlog, age of the oldest pending event and relay lag of the transfer outbox"
+    )
+    @GetMapping("/outbox")
+    public ResponseEntity<OutboxRelayStats> getOutboxRelayStats() {
+        return ResponseEntity.ok(outboxRelay.getStats());
+    }
+
+    @Operation(
+            summary = "Principal cache",
+            description = "Hit rate, size and invalidations of the authenticated principal cache and its cluster event bus"
+    )
+    @GetMapping("/principal-cache")
+    public ResponseEntity<PrincipalCacheStats> getPrincipalCacheStats() {
+        return ResponseEntity.ok(principalCache.getStats());
+    }
+
+    @Operation(
+            summary = "Token revocations",
+            description = "Revoked token ids, per-user version cut-offs and rejected requests of the token revocation registry"
+    )
+    @GetMapping("/token-revocations")
+    public ResponseEntity<TokenRevocationStats> getTokenRevocationStats() {
+        return ResponseEntity.ok(tokenRevocationRegistry.getStats());
+    }
+
+    @Operation(
+            summary = "Password hashing pool",
+            description = "Workers, queue depth, rejections and hashing latency of the bounded BCrypt pool"
+    )
+    @GetMapping("/password-hashing")
+    public ResponseEntity<PasswordHashingStats> getPasswordHashingStats() {
+        return ResponseEntity.ok(passwordHashingExecutor.getStats());
+    }
+
+    @Operation(
+            summary = "Login throttle",
+            description = "Tracked usernames and client IPs, recorded failures and throttled login attempts"
+    )
+    @GetMapping("/login-throttle")
+    public ResponseEntity<LoginThrottleStats> getLoginThrottleStats() {
+        return ResponseEntity.ok(loginThrottle.getStats());
+    }
+
+    @Operation(
+            summary = "Hot accounts",
+            description = "Most contended accounts by row-lock wait time over a sliding window, with lock acquisitions and wait-time percentiles"
+    )
+    @GetMapping("/hot-accounts")
+    public ResponseEntity<HotAccountsReport> getHotAccounts(
+            @RequestParam(defaultValue = "10") int limit,
+            @RequestParam(defaultValue = "60") long windowSeconds) {
+        return ResponseEntity.ok(hotAccountTracker.getHotAccounts(limit, windowSeconds));
+    }
+
+    @Operation(
+            summary = "Balance checkpoints",
+            description = "Checkpoint job settings and the ranges, checkpoints and duration of its last pass"
+    )
+    @GetMapping("/balance-checkpoints")
+    public ResponseEntity<BalanceCheckpointStats> getBalanceCheckpointStats() {
+        return ResponseEntity.ok(balanceCheckpointJob.getStats());
+    }
+
+    @Operation(
+            summary = "Run balance checkpoints",
+            description = "Starts a checkpoint pass in the background and returns 202 with the job statistics, or 409 when a pass is already running"
+    )
+    @PostMapping("/balance-checkpoints")
+    public ResponseEntity<BalanceCheckpointStats> runBalanceCheckpoints() {
+        HttpStatus status = balanceCheckpointJob.startCheckpoints() ? HttpStatus.ACCEPTED : HttpStatus.CONFLICT;
+        return ResponseEntity.status(status).body(balanceCheckpointJob.getStats());
+    }
+
+    @Operation(
+            summary = "Striped accounts",
+            description = "Striped accounts with their stripe counts, stripe credits, folds and the last rebalance pass"
+    )
+    @GetMapping("/striped-accounts")
+    public ResponseEntity<AccountStripingStats> getAccountStripingStats() {
+        return ResponseEntity.ok(stripeRebalanceJob.getStats());
+    }
+
+    @Operation(
+            summary = "Stripe an account",
+            description = "Spreads the account's credits over the given number of balance stripes, re-striping it if it already is"
+    )
+    @PutMapping("/striped-accounts/{accountId}")
+    public ResponseEntity<AccountStripingStats> stripeAccount(@PathVariable String accountId, @RequestParam int stripes) {
+        stripedBalances.enableStriping(accountId, stripes);
+        return ResponseEntity.ok(stripeRebalanceJob.getStats());
+    }
+
+    @Operation(
+            summary = "Unstripe an account",
+            description = "Folds the account's stripes into its balance and stops striping its credits"
+    )
+    @DeleteMapping("/striped-accounts/{accountId}")
+    public ResponseEntity<AccountStripingStats> unstripeAccount(@PathVariable String accountId) {
+        stripedBalances.disableStriping(accountId);
+        return ResponseEntity.ok(stripeRebalanceJob.getStats());
+    }
+}
@@ -1,5 +1,7 @@
 package com.example.payment_transfer_service.controller;
 
+import com.example.payment_transfer_service.dto.BatchTransferRequest;
+import com.example.payment_transfer_service.dto.BatchTransferResult;
 import com.example.payment_transfer_service.dto.TransferRequest;
 import com.example.payment_transfer_service.dto.TransferResult;
 import com.example.payment_transfer_service.entity.Transaction;
@@ -14,9 +16,13 @@ import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.net.URI;
+
 @RestController
 @RequestMapping("/api/v1/payments")
 @RequiredArgsConstructor
@@ -71,6 +77,89 @@ public class PaymentController {
         }
     }
 
+    @Operation(
+            summary = "Submit transfer for asynchronous processing",
+            description = "Validate and persist the transfer as PENDING, then execute it on a bounded worker pool. "
+                    + "Poll the returned transaction for its final status"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "202",
+                    description = "Transfer accepted - poll the Location header for the final status",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = TransferResult.class)
+                    )
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "Invalid transfer request",
+                    content = @Content
+            ),
+            @ApiResponse(
+                    responseCode = "401",
+                    description = "Unauthorized - Invalid or missing token",
+                    content = @Content
+            ),
+            @ApiResponse(
+                    responseCode = "503",
+                    description = "Transfer queue is full - retry later",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = TransferResult.class)
+                    )
+            )
+    })
+    @PostMapping("/transfer/async")
+    public ResponseEntity<TransferResult> submitTransfer(
+            @Parameter(description = "Transfer request details including amount, source and destination accounts", required = true)
+            @Valid @RequestBody TransferRequest request) {
+        TransferResult result = paymentTransferService.submitTransfer(request);
+
+        if (result.isSuccess()) {
+            return ResponseEntity.accepted()
+                    .location(URI.create("/api/v1/payments/transactions/" + result.getTransactionId()))
+                    .body(result);
+        } else {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, "1")
+                    .body(result);
+        }
+    }
+
+    @Operation(
+            summary = "Transfer funds in batch",
+            description = "Execute up to 500 transfers in a single unit of work. Each transfer is validated and "
+                    + "applied independently, so a failing transfer does not roll back the others"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Batch processed - inspect the per-transfer results for individual outcomes",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = BatchTransferResult.class)
+                    )
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "Invalid batch request",
+                    content = @Content
+            ),
+            @ApiResponse(
+                    responseCode = "401",
+                    description = "Unauthorized - Invalid or missing token",
+                    content = @Content
+            )
+    })
+    @PostMapping("/transfers/batch")
+    public ResponseEntity<BatchTransferResult> transferFundsBatch(
+            @Parameter(description = "Transfers to execute, processed in the given order", required = true)
+            @Valid @RequestBody BatchTransferRequest request) {
+        BatchTransferResult result = paymentTransferService.transferFundsBatch(request.getTransfers());
+        return ResponseEntity.ok(result);
+    }
+
     @Operation(
             summary = "Get transaction details",
             description = "Retrieve detailed information about a specific transaction"
@@ -28,16 +28,41 @@ public class TransactionController {
 
     @GetMapping("/user/{userId}")
     public ResponseEntity<List<UserTransactionHistory>> getUserTransactions(@PathVariable String userId) {
-        List<UserTransactionHistory> transactions = paymentTransferService.getUserTransactionHistory(userId);
-        return ResponseEntity.ok(transactions);
+        TransactionHistoryPage page = paymentTransferService.getUserTransactionHistory(userId);
+        return withNextCursor(page);
+    }
+
+    @GetMapping("/user/{userId}/history")
+    public ResponseEntity<TransactionHistoryPage> getUserTransactionHistory(
+            @PathVariable String userId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int limit) {
+        return ResponseEntity.ok(paymentTransferService.getUserTransactionHistoryPage(userId, cursor, limit));
     }
 
     @GetMapping("/account/{accountId}")
     public ResponseEntity<List<UserTransactionHistory>> getAccountTransactions(
             @PathVariable String accountId,
             @RequestParam String userId) {
-        List<UserTransactionHistory> transactions =
-                paymentTransferService.getAccountTransactionHistory(accountId, userId);
-        return ResponseEntity.ok(transactions);
+        TransactionHistoryPage page = paymentTransferService.getAccountTransactionHistory(accountId, userId);
+        return withNextCursor(page);
+    }
+
+    @GetMapping("/account/{accountId}/history")
+    public ResponseEntity<TransactionHistoryPage> getAccountTransactionHistory(
+            @PathVariable String accountId,
+            @RequestParam String userId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int limit) {
+        return ResponseEntity.ok(
+                paymentTransferService.getAccountTransactionHistoryPage(accountId, userId, cursor, limit));
+    }
+
+    private ResponseEntity<List<UserTransactionHistory>> withNextCursor(TransactionHistoryPage page) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.isHasMore()) {
+            response.header(TransactionHistoryPage.NEXT_CURSOR_HEADER, page.getNextCursor());
+        }
+        return response.body(page.getItems());
     }
 }
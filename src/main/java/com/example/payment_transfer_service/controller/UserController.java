@@ -1,6 +1,8 @@
 package com.example.payment_transfer_service.controller;
 
 import com.example.payment_transfer_service.dto.*;
+import com.example.payment_transfer_service.exception.PaymentException;
+import com.example.payment_transfer_service.security.SecurityUtils;
 import com.example.payment_transfer_service.service.UserService;
 import com.example.payment_transfer_service.service.PaymentTransferService;
 import jakarta.validation.Valid;
@@ -31,10 +33,27 @@ public class UserController {
         return ResponseEntity.ok(user);
     }
 
+    @PutMapping("/{userId}/password")
+    public ResponseEntity<Void> changePassword(@PathVariable String userId,
+                                               @Valid @RequestBody ChangePasswordRequest request) {
+        requireCurrentUser(userId);
+        userService.changePassword(userId, request);
+        return ResponseEntity.noContent().build();
+    }
+
     @GetMapping("/{userId}/transactions")
     public ResponseEntity<List<UserTransactionHistory>> getUserTransactions(@PathVariable String userId) {
-        List<UserTransactionHistory> transactions = paymentTransferService.getUserTransactionHistory(userId);
-        return ResponseEntity.ok(transactions);
+        TransactionHistoryPage page = paymentTransferService.getUserTransactionHistory(userId);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.isHasMore()) {
+            response.header(TransactionHistoryPage.NEXT_CURSOR_HEADER, page.getNextCursor());
+        }
+        return response.body(page.getItems());
     }
 
+    private void requireCurrentUser(String userId) {
+        if (!userId.equals(SecurityUtils.getCurrentUserId())) {
+            throw new PaymentException("Access denied", "ACCESS_DENIED");
+        }
+    }
 }
@@ -0,0 +1,18 @@
+package com.example.payment_transfer_service.dto;
+
+import lombok.Data;
+import lombok.Builder;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+public class AccountBalance {
+    private String accountId;
+    private BigDecimal balance;
+    private String currency;
+    private LocalDateTime asOf;
+    private long postingSeq;
+    private LocalDateTime checkpointAt;
+}
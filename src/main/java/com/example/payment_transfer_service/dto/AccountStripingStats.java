@@ -0,0 +1,22 @@
+package com.example.payment_transfer_service.dto;
+
+import lombok.Data;
+import lombok.Builder;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+@Data
+@Builder
+public class AccountStripingStats {
+    private Map<String, Integer> stripedAccounts;
+    private long stripeCredits;
+    private long folds;
+    private long foldedCredits;
+    private boolean rebalanceEnabled;
+    private long rebalanceRuns;
+    private long rebalanceFailures;
+    private LocalDateTime lastRebalanceStartedAt;
+    private long lastRebalanceDurationMs;
+    private int lastRebalanceCredits;
+}
@@ -0,0 +1,22 @@
+package com.example.payment_transfer_service.dto;
+
+import lombok.Data;
+import lombok.Builder;
+
+@Data
+@Builder
+public class AuditWriterStats {
+    private int queueDepth;
+    private int queueRemainingCapacity;
+    private long enqueued;
+    private long written;
+    private long batches;
+    private long lastBatchSize;
+    private double averageBatchSize;
+    private double averageFlushMs;
+    private double maxFlushMs;
+    private long writeFailures;
+    private long spilled;
+    private long replayed;
+    private long dropped;
+}
@@ -0,0 +1,22 @@
+package com.example.payment_transfer_service.dto;
+
+import lombok.Data;
+import lombok.Builder;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+public class BalanceCheckpointStats {
+    private boolean enabled;
+    private boolean running;
+    private int chunkSize;
+    private int parallelism;
+    private long runs;
+    private long checkpointsWritten;
+    private LocalDateTime lastRunStartedAt;
+    private long lastRunDurationMs;
+    private int lastRunChunks;
+    private int lastRunFailedChunks;
+    private long lastRunCheckpoints;
+}
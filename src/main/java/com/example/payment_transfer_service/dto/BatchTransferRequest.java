@@ -0,0 +1,15 @@
+package com.example.payment_transfer_service.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class BatchTransferRequest {
+    @NotEmpty(message = "At least one transfer is required")
+    @Size(max = 500, message = "A batch must not contain more than 500 transfers")
+    private List<@Valid TransferRequest> transfers;
+}
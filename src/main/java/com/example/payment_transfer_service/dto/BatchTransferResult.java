@@ -0,0 +1,29 @@
+package com.example.payment_transfer_service.dto;
+
+import lombok.Data;
+import lombok.Builder;
+import lombok.AllArgsConstructor;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class BatchTransferResult {
+    private int total;
+    private int succeeded;
+    private int failed;
+    private List<TransferResult> results;
+
+    public static BatchTransferResult of(List<TransferResult> results) {
+        int succeeded = (int) results.stream().filter(TransferResult::isSuccess).count();
+        return BatchTransferResult.builder()
+                .total(results.size())
+                .succeeded(succeeded)
+                .failed(results.size() - succeeded)
+                .results(results)
+                .build();
+    }
+}
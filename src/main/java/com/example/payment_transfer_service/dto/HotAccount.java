@@ -0,0 +1,16 @@
+package com.example.payment_transfer_service.dto;
+
+import lombok.Data;
+import lombok.Builder;
+
+@Data
+@Builder
+public class HotAccount {
+    private String accountId;
+    private long lockAcquisitions;
+    private double totalLockWaitMs;
+    private double averageLockWaitMs;
+    private double p50LockWaitMs;
+    private double p99LockWaitMs;
+    private double maxLockWaitMs;
+}
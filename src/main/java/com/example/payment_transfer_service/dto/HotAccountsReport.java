@@ -0,0 +1,14 @@
+package com.example.payment_transfer_service.dto;
+
+import lombok.Data;
+import lombok.Builder;
+
+import java.util.List;
+
+@Data
+@Builder
+public class HotAccountsReport {
+    private long windowSeconds;
+    private int trackedAccounts;
+    private List<HotAccount> accounts;
+}
@@ -0,0 +1,15 @@
+package com.example.payment_transfer_service.dto;
+
+import lombok.Data;
+import lombok.Builder;
+
+@Data
+@Builder
+public class LoginThrottleStats {
+    private long trackedKeys;
+    private long failures;
+    private long throttled;
+    private int maxFailuresPerUsername;
+    private int maxFailuresPerIp;
+    private long windowSeconds;
+}
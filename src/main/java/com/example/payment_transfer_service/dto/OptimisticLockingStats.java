@@ -0,0 +1,16 @@
+package com.example.payment_transfer_service.dto;
+
+import lombok.Data;
+import lombok.Builder;
+
+@Data
+@Builder
+public class OptimisticLockingStats {
+    private long attempts;
+    private long conflicts;
+    private long retries;
+    private long exhausted;
+    private long fallbacks;
+    private long cooldownsStarted;
+    private long accountsInCooldown;
+}
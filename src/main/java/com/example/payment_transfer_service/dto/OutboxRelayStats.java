@@ -0,0 +1,20 @@
+package com.example.payment_transfer_service.dto;
+
+import lombok.Data;
+import lombok.Builder;
+
+@Data
+@Builder
+public class OutboxRelayStats {
+    private boolean enabled;
+    private int batchSize;
+    private long backlog;
+    private long oldestPendingAgeMs;
+    private long relayed;
+    private long batches;
+    private long failures;
+    private long lastBatchSize;
+    private long lastRelayLagMs;
+    private long maxRelayLagMs;
+    private double averageRelayLagMs;
+}
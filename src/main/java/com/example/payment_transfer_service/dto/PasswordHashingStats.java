@@ -0,0 +1,18 @@
+package com.example.payment_transfer_service.dto;
+
+import lombok.Data;
+import lombok.Builder;
+
+@Data
+@Builder
+public class PasswordHashingStats {
+    private int workers;
+    private int activeWorkers;
+    private int queueCapacity;
+    private int depth;
+    private long completed;
+    private long rejected;
+    private long timedOut;
+    private double averageQueueWaitMs;
+    private double averageHashMs;
+}
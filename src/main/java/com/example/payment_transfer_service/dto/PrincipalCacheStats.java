@@ -0,0 +1,17 @@
+package com.example.payment_transfer_service.dto;
+
+import lombok.Data;
+import lombok.Builder;
+
+@Data
+@Builder
+public class PrincipalCacheStats {
+    private long size;
+    private long hits;
+    private long misses;
+    private double hitRate;
+    private long invalidations;
+    private long clusterEventsPublished;
+    private long clusterEventsReceived;
+    private long clusterConnectionFailures;
+}
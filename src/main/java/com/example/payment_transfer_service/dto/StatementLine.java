@@ -0,0 +1,34 @@
+package com.example.payment_transfer_service.dto;
+
+import com.example.payment_transfer_service.entity.TransactionStatus;
+import com.example.payment_transfer_service.entity.TransactionType;
+import lombok.Data;
+import lombok.Builder;
+import lombok.AllArgsConstructor;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * One row of an account statement export, read as a JPQL constructor projection so that streamed rows
+ * never enter the persistence context.
+ */
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class StatementLine {
+    private String transactionId;
+    private LocalDateTime createdAt;
+    private LocalDateTime completedAt;
+    private String sourceAccountId;
+    private String destinationAccountId;
+    private BigDecimal amount;
+    private String currency;
+    private TransactionStatus status;
+    private TransactionType transactionType;
+    private String description;
+    private String reference;
+    private BigDecimal balanceAfter;
+}
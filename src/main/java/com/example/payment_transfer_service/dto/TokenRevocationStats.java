@@ -0,0 +1,16 @@
+package com.example.payment_transfer_service.dto;
+
+import lombok.Data;
+import lombok.Builder;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+public class TokenRevocationStats {
+    private long revokedTokens;
+    private long revokedUsers;
+    private long rejectedRequests;
+    private long refreshes;
+    private LocalDateTime lastRefreshAt;
+}
@@ -0,0 +1,20 @@
+package com.example.payment_transfer_service.dto;
+
+import lombok.Data;
+import lombok.Builder;
+
+import java.util.List;
+
+@Data
+@Builder
+public class TransactionHistoryPage {
+
+    /**
+     * Response header carrying {@link #nextCursor} on the capped list endpoints.
+     */
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
+    private List<UserTransactionHistory> items;
+    private String nextCursor;
+    private boolean hasMore;
+}
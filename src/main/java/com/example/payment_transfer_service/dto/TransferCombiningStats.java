@@ -0,0 +1,19 @@
+package com.example.payment_transfer_service.dto;
+
+import lombok.Data;
+import lombok.Builder;
+
+@Data
+@Builder
+public class TransferCombiningStats {
+    private boolean enabled;
+    private long windowMicros;
+    private int maxBatch;
+    private long combinedWrites;
+    private long combinedTransfers;
+    private long uncombinedTransfers;
+    private long failedWrites;
+    private double averageBatchSize;
+    private int largestBatch;
+    private int openBatches;
+}
@@ -0,0 +1,16 @@
+package com.example.payment_transfer_service.dto;
+
+import lombok.Data;
+import lombok.Builder;
+
+@Data
+@Builder
+public class TransferLane {
+    private int lane;
+    private int depth;
+    private boolean busy;
+    private long executed;
+    private long handoffs;
+    private double averageServiceMs;
+    private double maxServiceMs;
+}
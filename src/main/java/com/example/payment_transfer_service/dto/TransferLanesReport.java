@@ -0,0 +1,17 @@
+package com.example.payment_transfer_service.dto;
+
+import lombok.Data;
+import lombok.Builder;
+
+import java.util.List;
+
+@Data
+@Builder
+public class TransferLanesReport {
+    private boolean enabled;
+    private int queueCapacity;
+    private long submitted;
+    private long rejected;
+    private long handoffs;
+    private List<TransferLane> lanes;
+}
@@ -0,0 +1,19 @@
+package com.example.payment_transfer_service.dto;
+
+import lombok.Data;
+import lombok.Builder;
+
+@Data
+@Builder
+public class TransferQueueStats {
+    private int capacity;
+    private int depth;
+    private int activeWorkers;
+    private int workers;
+    private long submitted;
+    private long rejected;
+    private long completed;
+    private long failed;
+    private double averageQueueWaitMs;
+    private double maxQueueWaitMs;
+}
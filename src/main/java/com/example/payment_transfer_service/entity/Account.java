@@ -54,6 +54,14 @@ public class Account {
     @Column(name = "updated_at")
     private LocalDateTime updatedAt;
 
+    /** Sequence number of the account's latest ledger posting. */
+    @Column(name = "posting_seq", nullable = false)
+    private long postingSeq;
+
+    /** Number of balance stripes that take the account's credits, or 0 when the account is not striped. */
+    @Column(name = "stripes", nullable = false)
+    private int stripes;
+
     @Version
     private Long version;
 
@@ -65,7 +73,23 @@ public class Account {
         return status == AccountStatus.ACTIVE;
     }
 
+    public boolean isStriped() {
+        return stripes > 0;
+    }
+
+    /**
+     * Claims the sequence number of the account's next ledger posting. Callers must hold the account row,
+     * either locked or version-checked.
+     */
+    public long nextPostingSeq() {
+        return ++postingSeq;
+    }
+
     public String getDisplayName() {
+        return displayName(accountName, accountType);
+    }
+
+    public static String displayName(String accountName, AccountType accountType) {
         return accountName + " (" + accountType + ")";
     }
 
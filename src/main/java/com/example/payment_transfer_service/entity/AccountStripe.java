@@ -0,0 +1,48 @@
+package com.example.payment_transfer_service.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.domain.Persistable;
+
+import java.math.BigDecimal;
+
+/**
+ * One slice of a striped account's balance. Credits to the account are spread over its stripes so that
+ * they update different rows, and the stripes are folded back into the account row before it is debited.
+ * The account's balance is the account row's balance plus the balances of all its stripes.
+ */
+@Entity
+@Table(name = "account_stripes")
+@IdClass(AccountStripeId.class)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AccountStripe implements Persistable<AccountStripeId> {
+
+    @Id
+    @Column(name = "account_id")
+    private String accountId;
+
+    @Id
+    @Column(name = "stripe")
+    private int stripe;
+
+    @Column(name = "balance", nullable = false, precision = 19, scale = 2)
+    private BigDecimal balance;
+
+    @Override
+    public AccountStripeId getId() {
+        return new AccountStripeId(accountId, stripe);
+    }
+
+    /**
+     * Stripes are created empty and only changed by native updates afterwards, so saving one is always an
+     * insert and needs no lookup by key first.
+     */
+    @Override
+    public boolean isNew() {
+        return true;
+    }
+}
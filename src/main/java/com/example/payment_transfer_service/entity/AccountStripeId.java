@@ -0,0 +1,20 @@
+package com.example.payment_transfer_service.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+
+/**
+ * Primary key of an {@link AccountStripe}: the account and the stripe number.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AccountStripeId implements Serializable {
+
+    private String accountId;
+
+    private int stripe;
+}
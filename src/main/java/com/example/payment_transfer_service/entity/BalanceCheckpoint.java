@@ -0,0 +1,53 @@
+package com.example.payment_transfer_service.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Immutable;
+import org.springframework.data.domain.Persistable;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Snapshot of an account's balance and posting sequence number. The snapshot time is taken after the
+ * account row was read, so every posting up to {@code postingSeq} was posted before it; postings above
+ * it are the delta to apply for later points in time.
+ */
+@Entity
+@Table(name = "balance_checkpoints")
+@IdClass(BalanceCheckpointId.class)
+@Immutable
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BalanceCheckpoint implements Persistable<BalanceCheckpointId> {
+
+    @Id
+    @Column(name = "account_id")
+    private String accountId;
+
+    @Id
+    @Column(name = "checkpoint_at")
+    private LocalDateTime checkpointAt;
+
+    @Column(name = "balance", nullable = false, precision = 19, scale = 2)
+    private BigDecimal balance;
+
+    @Column(name = "posting_seq", nullable = false)
+    private long postingSeq;
+
+    @Override
+    public BalanceCheckpointId getId() {
+        return new BalanceCheckpointId(accountId, checkpointAt);
+    }
+
+    /**
+     * Checkpoints are never updated, so saving one is always an insert and needs no lookup by key first.
+     */
+    @Override
+    public boolean isNew() {
+        return true;
+    }
+}
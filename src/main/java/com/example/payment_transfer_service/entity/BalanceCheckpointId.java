@@ -0,0 +1,21 @@
+package com.example.payment_transfer_service.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+/**
+ * Primary key of a {@link BalanceCheckpoint}: the account and the time of the snapshot.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BalanceCheckpointId implements Serializable {
+
+    private String accountId;
+
+    private LocalDateTime checkpointAt;
+}
@@ -0,0 +1,82 @@
+package com.example.payment_transfer_service.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+import org.hibernate.annotations.Immutable;
+import org.springframework.data.domain.Persistable;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * One leg of a completed transfer in the double-entry ledger: a signed movement on a single account,
+ * numbered by the account's {@code posting_seq} and carrying the balance it left behind. Rows are only
+ * ever inserted, so an account's history is the range {@code (account_id, seq)} of its primary key.
+ */
+@Entity
+@Table(name = "ledger_postings")
+@IdClass(LedgerPostingId.class)
+@Immutable
+@Data
+@NoArgsConstructor
+public class LedgerPosting implements Persistable<LedgerPostingId> {
+
+    @Id
+    @Column(name = "account_id")
+    private String accountId;
+
+    @Id
+    @Column(name = "seq")
+    private Long seq;
+
+    @Column(name = "transaction_id", nullable = false)
+    private String transactionId;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "transaction_id", insertable = false, updatable = false)
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private Transaction transaction;
+
+    /** Negative for the debit leg, positive for the credit leg. */
+    @Column(name = "amount", nullable = false, precision = 19, scale = 2)
+    private BigDecimal amount;
+
+    @Column(name = "balance_after", nullable = false, precision = 19, scale = 2)
+    private BigDecimal balanceAfter;
+
+    @Column(name = "posted_at", nullable = false)
+    private LocalDateTime postedAt;
+
+    public static LedgerPosting of(String accountId, long seq, String transactionId, BigDecimal amount,
+                                   BigDecimal balanceAfter, LocalDateTime postedAt) {
+        LedgerPosting posting = new LedgerPosting();
+        posting.setAccountId(accountId);
+        posting.setSeq(seq);
+        posting.setTransactionId(transactionId);
+        posting.setAmount(amount);
+        posting.setBalanceAfter(balanceAfter);
+        posting.setPostedAt(postedAt);
+        return posting;
+    }
+
+    public BigDecimal getBalanceBefore() {
+        return balanceAfter.subtract(amount);
+    }
+
+    @Override
+    public LedgerPostingId getId() {
+        return new LedgerPostingId(accountId, seq);
+    }
+
+    /**
+     * Postings are never updated, so saving one is always an insert and needs no lookup by key first.
+     */
+    @Override
+    public boolean isNew() {
+        return true;
+    }
+}
@@ -0,0 +1,20 @@
+package com.example.payment_transfer_service.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+
+/**
+ * Primary key of a {@link LedgerPosting}: the account and its posting sequence number.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class LedgerPostingId implements Serializable {
+
+    private String accountId;
+
+    private Long seq;
+}
@@ -0,0 +1,110 @@
+package com.example.payment_transfer_service.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * One row per finished transfer, written in the same database transaction as the balance change and
+ * drained by the outbox relay into {@code transaction_audit} and the registered event sinks.
+ */
+@Entity
+@Table(name = "transfer_outbox")
+@Data
+@NoArgsConstructor
+public class OutboxEvent {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "transfer_outbox_seq")
+    @SequenceGenerator(name = "transfer_outbox_seq", sequenceName = "transfer_outbox_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(name = "transaction_id", nullable = false)
+    private String transactionId;
+
+    @Column(name = "user_id", nullable = false)
+    private String userId;
+
+    @Column(name = "source_account_id", nullable = false)
+    private String sourceAccountId;
+
+    @Column(name = "destination_account_id", nullable = false)
+    private String destinationAccountId;
+
+    @Column(name = "amount", nullable = false, precision = 19, scale = 2)
+    private BigDecimal amount;
+
+    @Column(name = "source_balance_before", precision = 19, scale = 2)
+    private BigDecimal sourceBalanceBefore;
+
+    @Column(name = "source_balance_after", precision = 19, scale = 2)
+    private BigDecimal sourceBalanceAfter;
+
+    @Column(name = "dest_balance_before", precision = 19, scale = 2)
+    private BigDecimal destBalanceBefore;
+
+    @Column(name = "dest_balance_after", precision = 19, scale = 2)
+    private BigDecimal destBalanceAfter;
+
+    @Column(name = "status")
+    @Enumerated(EnumType.STRING)
+    private TransactionStatus status;
+
+    @Column(name = "description")
+    private String description;
+
+    @Column(name = "reference")
+    private String reference;
+
+    @Column(name = "success")
+    private boolean success;
+
+    @Column(name = "error_message")
+    private String errorMessage;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    public static OutboxEvent of(TransactionAudit audit) {
+        OutboxEvent event = new OutboxEvent();
+        event.setTransactionId(audit.getTransactionId());
+        event.setUserId(audit.getUserId());
+        event.setSourceAccountId(audit.getSourceAccountId());
+        event.setDestinationAccountId(audit.getDestinationAccountId());
+        event.setAmount(audit.getAmount());
+        event.setSourceBalanceBefore(audit.getSourceBalanceBefore());
+        event.setSourceBalanceAfter(audit.getSourceBalanceAfter());
+        event.setDestBalanceBefore(audit.getDestBalanceBefore());
+        event.setDestBalanceAfter(audit.getDestBalanceAfter());
+        event.setStatus(audit.getStatus());
+        event.setDescription(audit.getDescription());
+        event.setReference(audit.getReference());
+        event.setSuccess(audit.isSuccess());
+        event.setErrorMessage(audit.getErrorMessage());
+        event.setCreatedAt(audit.getCreatedAt() != null ? audit.getCreatedAt() : LocalDateTime.now());
+        return event;
+    }
+
+    public TransactionAudit toAudit() {
+        TransactionAudit audit = new TransactionAudit();
+        audit.setTransactionId(transactionId);
+        audit.setUserId(userId);
+        audit.setSourceAccountId(sourceAccountId);
+        audit.setDestinationAccountId(destinationAccountId);
+        audit.setAmount(amount);
+        audit.setSourceBalanceBefore(sourceBalanceBefore);
+        audit.setSourceBalanceAfter(sourceBalanceAfter);
+        audit.setDestBalanceBefore(destBalanceBefore);
+        audit.setDestBalanceAfter(destBalanceAfter);
+        audit.setStatus(status);
+        audit.setDescription(description);
+        audit.setReference(reference);
+        audit.setSuccess(success);
+        audit.setErrorMessage(errorMessage);
+        audit.setCreatedAt(createdAt);
+        return audit;
+    }
+}
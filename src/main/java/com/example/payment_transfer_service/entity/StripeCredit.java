@@ -0,0 +1,54 @@
+package com.example.payment_transfer_service.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Immutable;
+import org.springframework.data.domain.Persistable;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Credit leg of a completed transfer that was added to a stripe of its destination account and is not yet
+ * in the ledger. The leg is posted, with the account's next sequence number, when the stripes are folded
+ * back into the account row, and the row is deleted then.
+ */
+@Entity
+@Table(name = "stripe_credits")
+@Immutable
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StripeCredit implements Persistable<String> {
+
+    @Id
+    @Column(name = "transaction_id")
+    private String transactionId;
+
+    @Column(name = "account_id", nullable = false)
+    private String accountId;
+
+    @Column(name = "stripe", nullable = false)
+    private int stripe;
+
+    @Column(name = "amount", nullable = false, precision = 19, scale = 2)
+    private BigDecimal amount;
+
+    @Column(name = "credited_at", nullable = false)
+    private LocalDateTime creditedAt;
+
+    @Override
+    public String getId() {
+        return transactionId;
+    }
+
+    /**
+     * Pending credits are never updated, so saving one is always an insert and needs no lookup by key first.
+     */
+    @Override
+    public boolean isNew() {
+        return true;
+    }
+}
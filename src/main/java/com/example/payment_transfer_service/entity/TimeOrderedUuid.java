@@ -0,0 +1,21 @@
+package com.example.payment_transfer_service.entity;
+
+import org.hibernate.annotations.IdGeneratorType;
+
+import java.lang.annotation.Retention;
+import java.lang.annotation.Target;
+
+import static java.lang.annotation.ElementType.FIELD;
+import static java.lang.annotation.ElementType.METHOD;
+import static java.lang.annotation.RetentionPolicy.RUNTIME;
+
+/**
+ * Generates the identifier as a UUIDv7: a millisecond timestamp followed by a per-JVM counter and random
+ * bits. Consecutive inserts land next to each other in the primary-key index instead of at random pages.
+ * Applies to {@code String} and {@link java.util.UUID} identifiers.
+ */
+@IdGeneratorType(TimeOrderedUuidGenerator.class)
+@Retention(RUNTIME)
+@Target({FIELD, METHOD})
+public @interface TimeOrderedUuid {
+}
@@ -0,0 +1,80 @@
+package com.example.payment_transfer_service.entity;
+
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.generator.BeforeExecutionGenerator;
+import org.hibernate.generator.EventType;
+import org.hibernate.generator.EventTypeSets;
+import org.hibernate.id.factory.spi.CustomIdGeneratorCreationContext;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Member;
+import java.lang.reflect.Method;
+import java.util.EnumSet;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Hibernate generator behind {@link TimeOrderedUuid}, and the UUIDv7 source it draws from.
+ *
+ * <p>The 48-bit Unix millisecond timestamp is followed by a 12-bit counter that orders ids created in the
+ * same millisecond on this JVM; the timestamp and counter advance together as one value, so ids stay
+ * strictly increasing even if the clock steps back or more than 4096 ids are taken in a millisecond. The
+ * remaining 62 bits are random, which keeps ids from different nodes unique without coordination. The
+ * canonical lowercase string form sorts in the same order as the UUID.
+ */
+public class TimeOrderedUuidGenerator implements BeforeExecutionGenerator {
+
+    private static final int COUNTER_BITS = 12;
+    private static final Source SHARED = new Source(System::currentTimeMillis);
+
+    private final boolean stringValued;
+
+    public TimeOrderedUuidGenerator(TimeOrderedUuid config, Member member, CustomIdGeneratorCreationContext context) {
+        Class<?> type = member instanceof Field field ? field.getType() : ((Method) member).getReturnType();
+        if (type != String.class && type != UUID.class) {
+            throw new IllegalArgumentException("@TimeOrderedUuid requires a String or UUID identifier, found " + type.getName());
+        }
+        this.stringValued = type == String.class;
+    }
+
+    /**
+     * Returns the next time-ordered UUID of this JVM.
+     */
+    public static UUID nextUuid() {
+        return SHARED.next();
+    }
+
+    @Override
+    public Object generate(SharedSessionContractImplementor session, Object owner, Object currentValue, EventType eventType) {
+        UUID uuid = nextUuid();
+        return stringValued ? uuid.toString() : uuid;
+    }
+
+    @Override
+    public EnumSet<EventType> getEventTypes() {
+        return EventTypeSets.INSERT_ONLY;
+    }
+
+    static final class Source {
+
+        private final LongSupplier clock;
+        private final AtomicLong lastTimestampAndCounter = new AtomicLong();
+
+        Source(LongSupplier clock) {
+            this.clock = clock;
+        }
+
+        UUID next() {
+            long now = clock.getAsLong() << COUNTER_BITS;
+            long timestampAndCounter = lastTimestampAndCounter.updateAndGet(last -> Math.max(last + 1, now));
+
+            long mostSignificant = (timestampAndCounter >>> COUNTER_BITS) << 16
+                    | 0x7000L
+                    | (timestampAndCounter & ((1L << COUNTER_BITS) - 1));
+            long leastSignificant = ThreadLocalRandom.current().nextLong() >>> 2 | 0x8000000000000000L;
+            return new UUID(mostSignificant, leastSignificant);
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package com.example.payment_transfer_service.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Either a single revoked token ({@code tokenId} set) or a cut-off below which all of a user's tokens are
+ * revoked ({@code minTokenVersion} set). Rows are only needed until every token they cover has expired.
+ */
+@Entity
+@Table(name = "token_revocations")
+@Data
+@NoArgsConstructor
+public class TokenRevocation {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "token_revocations_seq")
+    @SequenceGenerator(name = "token_revocations_seq", sequenceName = "token_revocations_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private String userId;
+
+    @Column(name = "token_id")
+    private String tokenId;
+
+    @Column(name = "min_token_version")
+    private Long minTokenVersion;
+
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt;
+
+    @Column(name = "revoked_at", nullable = false)
+    private LocalDateTime revokedAt;
+
+    public static TokenRevocation ofToken(String userId, String tokenId, LocalDateTime expiresAt) {
+        TokenRevocation revocation = new TokenRevocation();
+        revocation.setUserId(userId);
+        revocation.setTokenId(tokenId);
+        revocation.setExpiresAt(expiresAt);
+        revocation.setRevokedAt(LocalDateTime.now());
+        return revocation;
+    }
+
+    public static TokenRevocation ofUser(String userId, long minTokenVersion, LocalDateTime expiresAt) {
+        TokenRevocation revocation = new TokenRevocation();
+        revocation.setUserId(userId);
+        revocation.setMinTokenVersion(minTokenVersion);
+        revocation.setExpiresAt(expiresAt);
+        revocation.setRevokedAt(LocalDateTime.now());
+        return revocation;
+    }
+}
@@ -53,6 +53,9 @@ public class User {
     @Version
     private Long version;
 
+    @Column(name = "token_version", nullable = false)
+    private long tokenVersion;
+
     @OneToMany(mappedBy = "user", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
     private List<Account> accounts;
 
@@ -5,6 +5,7 @@ import com.example.payment_transfer_service.dto.ValidationErrorResponse;
 
 import jakarta.servlet.http.HttpServletRequest;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -83,6 +84,40 @@ public class GlobalExceptionHandler {
         return ResponseEntity.badRequest().body(error);
     }
 
+    @ExceptionHandler(LoginThrottledException.class)
+    public ResponseEntity<ErrorResponse> handleLoginThrottled(
+            LoginThrottledException e, HttpServletRequest request) {
+        log.warn("Login throttled: {} - Path: {}", e.getMessage(), request.getRequestURI());
+
+        ErrorResponse error = createErrorResponse(
+                e.getErrorCode(),
+                e.getMessage(),
+                request.getRequestURI(),
+                HttpStatus.TOO_MANY_REQUESTS
+        );
+
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()))
+                .body(error);
+    }
+
+    @ExceptionHandler(PasswordHashingBusyException.class)
+    public ResponseEntity<ErrorResponse> handlePasswordHashingBusy(
+            PasswordHashingBusyException e, HttpServletRequest request) {
+        log.warn("Password hashing pool saturated - Path: {}", request.getRequestURI());
+
+        ErrorResponse error = createErrorResponse(
+                e.getErrorCode(),
+                e.getMessage(),
+                request.getRequestURI(),
+                HttpStatus.SERVICE_UNAVAILABLE
+        );
+
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(error);
+    }
+
     @ExceptionHandler(PaymentException.class)
     public ResponseEntity<ErrorResponse> handlePaymentException(
             PaymentException e, HttpServletRequest request) {
@@ -195,6 +230,21 @@ public class GlobalExceptionHandler {
     }
 
 
+    @ExceptionHandler(org.springframework.security.core.AuthenticationException.class)
+    public ResponseEntity<ErrorResponse> handleAuthenticationFailure(
+            org.springframework.security.core.AuthenticationException e, HttpServletRequest request) {
+        log.warn("Authentication failed: {} - Path: {}", e.getMessage(), request.getRequestURI());
+
+        ErrorResponse error = createErrorResponse(
+                "INVALID_CREDENTIALS",
+                "Invalid username or password",
+                request.getRequestURI(),
+                HttpStatus.UNAUTHORIZED
+        );
+
+        return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(error);
+    }
+
     @ExceptionHandler(org.springframework.security.access.AccessDeniedException.class)
     public ResponseEntity<ErrorResponse> handleAccessDenied(
             org.springframework.security.access.AccessDeniedException e, HttpServletRequest request) {
@@ -0,0 +1,15 @@
+package com.example.payment_transfer_service.exception;
+
+public class LoginThrottledException extends PaymentException {
+    private final long retryAfterSeconds;
+
+    public LoginThrottledException(long retryAfterSeconds) {
+        super(String.format("Too many failed login attempts, retry in %d seconds", retryAfterSeconds),
+                "LOGIN_THROTTLED");
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
@@ -0,0 +1,7 @@
+package com.example.payment_transfer_service.exception;
+
+public class PasswordHashingBusyException extends PaymentException {
+    public PasswordHashingBusyException() {
+        super("Too many sign-in requests are being processed, please retry shortly", "AUTHENTICATION_BUSY");
+    }
+}
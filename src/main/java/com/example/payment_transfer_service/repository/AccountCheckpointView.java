@@ -0,0 +1,15 @@
+package com.example.payment_transfer_service.repository;
+
+import java.math.BigDecimal;
+
+/**
+ * Projection of the account columns captured by a balance checkpoint.
+ */
+public interface AccountCheckpointView {
+
+    String getId();
+
+    BigDecimal getBalance();
+
+    long getPostingSeq();
+}
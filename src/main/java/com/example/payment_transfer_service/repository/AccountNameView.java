@@ -0,0 +1,20 @@
+package com.example.payment_transfer_service.repository;
+
+import com.example.payment_transfer_service.entity.Account;
+import com.example.payment_transfer_service.entity.AccountType;
+
+/**
+ * Projection of the columns needed to render an account's display name without loading the entity.
+ */
+public interface AccountNameView {
+
+    String getId();
+
+    String getAccountName();
+
+    AccountType getAccountType();
+
+    default String getDisplayName() {
+        return Account.displayName(getAccountName(), getAccountType());
+    }
+}
@@ -0,0 +1,11 @@
+package com.example.payment_transfer_service.repository;
+
+/**
+ * Projection of an account id and its owner, used for authorization checks without loading the entity.
+ */
+public interface AccountOwnerView {
+
+    String getId();
+
+    String getUserId();
+}
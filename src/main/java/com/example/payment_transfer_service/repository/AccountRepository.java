@@ -3,12 +3,15 @@ package com.example.payment_transfer_service.repository;
 import com.example.payment_transfer_service.entity.Account;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import jakarta.persistence.LockModeType;
 
+import java.math.BigDecimal;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -19,6 +22,57 @@ public interface AccountRepository extends JpaRepository<Account, String> {
     @Query("SELECT a FROM Account a WHERE a.id = :id")
     Optional<Account> findByIdForUpdate(@Param("id") String id);
 
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT a FROM Account a WHERE a.id IN :ids ORDER BY a.id")
+    List<Account> findAllByIdForUpdate(@Param("ids") Collection<String> ids);
+
+    @Query(value = "UPDATE accounts SET balance = balance - :amount, posting_seq = posting_seq + 1, version = version + 1, updated_at = CURRENT_TIMESTAMP " +
+            "WHERE account_id = :id AND status = 'ACTIVE' AND currency = :currency AND stripes = 0 AND balance >= :amount " +
+            "RETURNING balance AS balance, posting_seq AS seq", nativeQuery = true)
+    Optional<BalancePostingView> debitIfSufficient(@Param("id") String id, @Param("amount") BigDecimal amount,
+                                           @Param("currency") String currency);
+
+    @Query(value = "UPDATE accounts SET balance = balance + :amount, posting_seq = posting_seq + 1, version = version + 1, updated_at = CURRENT_TIMESTAMP " +
+            "WHERE account_id = :id AND status = 'ACTIVE' AND currency = :currency AND stripes = 0 " +
+            "RETURNING balance AS balance, posting_seq AS seq", nativeQuery = true)
+    Optional<BalancePostingView> creditIfActive(@Param("id") String id, @Param("amount") BigDecimal amount,
+                                        @Param("currency") String currency);
+
+    /**
+     * Undoes one guarded debit or credit of the current transaction, including the posting sequence number
+     * it claimed. The row is still locked by the update being reverted.
+     */
+    @Modifying
+    @Query(value = "UPDATE accounts SET balance = balance + :delta, posting_seq = posting_seq - 1, version = version + 1, " +
+            "updated_at = CURRENT_TIMESTAMP WHERE account_id = :id", nativeQuery = true)
+    int revertGuardedUpdate(@Param("id") String id, @Param("delta") BigDecimal delta);
+
+    @Query("SELECT a.id AS id, a.accountName AS accountName, a.accountType AS accountType FROM Account a WHERE a.id IN :ids")
+    List<AccountNameView> findNamesByIdIn(@Param("ids") Collection<String> ids);
+
+    @Query("SELECT a.id AS id, a.userId AS userId FROM Account a WHERE a.id IN :ids")
+    List<AccountOwnerView> findOwnersByIdIn(@Param("ids") Collection<String> ids);
+
+    // Balance checkpoint chunks: every chunkSize-th account id bounds a range, and a range only returns
+    // accounts whose posting sequence number has moved since their last checkpoint
+
+    @Query(value = "SELECT account_id FROM (SELECT account_id, ROW_NUMBER() OVER (ORDER BY account_id) AS rn " +
+            "FROM accounts) ranked WHERE MOD(rn, :chunkSize) = 0 ORDER BY account_id", nativeQuery = true)
+    List<String> findChunkBoundaries(@Param("chunkSize") int chunkSize);
+
+    @Query("SELECT a.id AS id, a.balance AS balance, a.postingSeq AS postingSeq FROM Account a " +
+            "WHERE a.id > :fromId AND a.id <= :toId AND NOT EXISTS (SELECT c.accountId FROM BalanceCheckpoint c " +
+            "WHERE c.accountId = a.id AND c.postingSeq = a.postingSeq)")
+    List<AccountCheckpointView> findCheckpointCandidates(@Param("fromId") String fromId, @Param("toId") String toId);
+
+    @Query("SELECT a.id AS id, a.balance AS balance, a.postingSeq AS postingSeq FROM Account a " +
+            "WHERE a.id > :fromId AND NOT EXISTS (SELECT c.accountId FROM BalanceCheckpoint c " +
+            "WHERE c.accountId = a.id AND c.postingSeq = a.postingSeq)")
+    List<AccountCheckpointView> findCheckpointCandidatesAfter(@Param("fromId") String fromId);
+
+    @Query("SELECT a FROM Account a WHERE a.stripes > 0 ORDER BY a.id")
+    List<Account> findStriped();
+
     List<Account> findByUserIdOrderByCreatedAtDesc(String userId);
 
     @Query("SELECT a FROM Account a WHERE a.userId = :userId AND a.status = 'ACTIVE'")
@@ -0,0 +1,59 @@
+package com.example.payment_transfer_service.repository;
+
+import com.example.payment_transfer_service.entity.AccountStripe;
+import com.example.payment_transfer_service.entity.AccountStripeId;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+@Repository
+public interface AccountStripeRepository extends JpaRepository<AccountStripe, AccountStripeId> {
+
+    /**
+     * Adds a credit to one stripe, provided the account is active in the given currency. Only that stripe's
+     * row is locked; the account row is read but not locked.
+     */
+    @Modifying
+    @Query(value = "UPDATE account_stripes SET balance = balance + :amount " +
+            "WHERE account_id = :id AND stripe = :stripe AND EXISTS (SELECT 1 FROM accounts a " +
+            "WHERE a.account_id = :id AND a.status = 'ACTIVE' AND a.currency = :currency)", nativeQuery = true)
+    int creditIfActive(@Param("id") String id, @Param("stripe") int stripe, @Param("amount") BigDecimal amount,
+                       @Param("currency") String currency);
+
+    /**
+     * Undoes a stripe credit of the current transaction. The stripe row is still locked by the credit.
+     */
+    @Modifying
+    @Query(value = "UPDATE account_stripes SET balance = balance - :amount WHERE account_id = :id AND stripe = :stripe",
+            nativeQuery = true)
+    int revertCredit(@Param("id") String id, @Param("stripe") int stripe, @Param("amount") BigDecimal amount);
+
+    /**
+     * Locks all stripes of the account, in stripe order, and returns their balances.
+     */
+    @Query(value = "SELECT balance FROM account_stripes WHERE account_id = :id ORDER BY stripe FOR UPDATE",
+            nativeQuery = true)
+    List<BigDecimal> lockBalances(@Param("id") String id);
+
+    @Modifying
+    @Query(value = "UPDATE account_stripes SET balance = 0 WHERE account_id = :id", nativeQuery = true)
+    int resetBalances(@Param("id") String id);
+
+    /**
+     * Balance of the account row plus its stripes, read in one statement so that a concurrent fold, which
+     * moves stripe balances into the account row, is seen either entirely or not at all.
+     */
+    @Query(value = "SELECT a.balance + COALESCE((SELECT SUM(s.balance) FROM account_stripes s " +
+            "WHERE s.account_id = a.account_id), 0) FROM accounts a WHERE a.account_id = :id", nativeQuery = true)
+    BigDecimal totalBalance(@Param("id") String id);
+
+    @Modifying
+    @Query("DELETE FROM AccountStripe s WHERE s.accountId = :id")
+    int deleteByAccountId(@Param("id") String id);
+
+}
@@ -0,0 +1,22 @@
+package com.example.payment_transfer_service.repository;
+
+import com.example.payment_transfer_service.entity.BalanceCheckpoint;
+import com.example.payment_transfer_service.entity.BalanceCheckpointId;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface BalanceCheckpointRepository extends JpaRepository<BalanceCheckpoint, BalanceCheckpointId> {
+
+    @Query("SELECT c FROM BalanceCheckpoint c WHERE c.accountId = :accountId AND c.checkpointAt <= :asOf " +
+            "ORDER BY c.checkpointAt DESC")
+    List<BalanceCheckpoint> findLatestAtOrBefore(@Param("accountId") String accountId, @Param("asOf") LocalDateTime asOf,
+                                                 Pageable pageable);
+
+}
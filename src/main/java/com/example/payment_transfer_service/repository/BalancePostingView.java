@@ -0,0 +1,13 @@
+package com.example.payment_transfer_service.repository;
+
+import java.math.BigDecimal;
+
+/**
+ * Balance and posting sequence number returned by a guarded balance update.
+ */
+public interface BalancePostingView {
+
+    BigDecimal getBalance();
+
+    Long getSeq();
+}
@@ -0,0 +1,69 @@
+package com.example.payment_transfer_service.repository;
+
+import com.example.payment_transfer_service.dto.StatementLine;
+import com.example.payment_transfer_service.entity.LedgerPosting;
+import com.example.payment_transfer_service.entity.LedgerPostingId;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Stream;
+
+@Repository
+public interface LedgerPostingRepository extends JpaRepository<LedgerPosting, LedgerPostingId> {
+
+    // Newest-first ranges of the (account_id, seq) primary key; only the page size of the Pageable is used
+
+    @Query("SELECT p FROM LedgerPosting p JOIN FETCH p.transaction WHERE p.accountId = :accountId ORDER BY p.seq DESC")
+    List<LedgerPosting> findLatestByAccountId(@Param("accountId") String accountId, Pageable pageable);
+
+    @Query("SELECT p FROM LedgerPosting p JOIN FETCH p.transaction WHERE p.accountId = :accountId AND p.seq < :seq " +
+            "ORDER BY p.seq DESC")
+    List<LedgerPosting> findByAccountIdBefore(@Param("accountId") String accountId, @Param("seq") long seq,
+                                              Pageable pageable);
+
+    // Seeks on (account_id, posted_at) for point-in-time balances
+
+    @Query("SELECT p FROM LedgerPosting p WHERE p.accountId = :accountId AND p.postedAt <= :asOf " +
+            "ORDER BY p.postedAt DESC, p.seq DESC")
+    List<LedgerPosting> findLatestAtOrBefore(@Param("accountId") String accountId, @Param("asOf") LocalDateTime asOf,
+                                             Pageable pageable);
+
+    @Query("SELECT p FROM LedgerPosting p WHERE p.accountId = :accountId AND p.postedAt > :asOf " +
+            "ORDER BY p.postedAt, p.seq")
+    List<LedgerPosting> findEarliestAfter(@Param("accountId") String accountId, @Param("asOf") LocalDateTime asOf,
+                                          Pageable pageable);
+
+    /**
+     * Delta since a balance checkpoint: a range scan of the primary key above the checkpoint's sequence
+     * number, so its length is bounded by the postings written since the checkpoint.
+     */
+    @Query("SELECT SUM(p.amount) AS delta, MAX(p.seq) AS lastSeq FROM LedgerPosting p " +
+            "WHERE p.accountId = :accountId AND p.seq > :afterSeq AND p.postedAt <= :asOf")
+    PostingDeltaView sumAfter(@Param("accountId") String accountId, @Param("afterSeq") long afterSeq,
+                              @Param("asOf") LocalDateTime asOf);
+
+    /**
+     * Streams an account's postings in a period in sequence order over a server-side cursor, joined to
+     * their transactions. Must be consumed inside a transaction; the fetch size keeps the driver from
+     * buffering the whole result.
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT new com.example.payment_transfer_service.dto.StatementLine(t.id, t.createdAt, t.completedAt, " +
+            "t.sourceAccountId, t.destinationAccountId, t.amount, t.currency, t.status, t.transactionType, " +
+            "t.description, t.reference, p.balanceAfter) FROM LedgerPosting p JOIN p.transaction t " +
+            "WHERE p.accountId = :accountId AND p.postedAt >= :from AND p.postedAt < :to ORDER BY p.seq")
+    Stream<StatementLine> streamStatement(@Param("accountId") String accountId, @Param("from") LocalDateTime from,
+                                          @Param("to") LocalDateTime to);
+
+}
@@ -0,0 +1,24 @@
+package com.example.payment_transfer_service.repository;
+
+import com.example.payment_transfer_service.entity.OutboxEvent;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+
+    /**
+     * Locks the oldest pending events. Rows already locked by another relay are skipped, so
+     * concurrent relays claim disjoint batches instead of waiting on each other.
+     */
+    @Query(value = "SELECT * FROM transfer_outbox ORDER BY id LIMIT :limit FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<OutboxEvent> lockNextBatch(@Param("limit") int limit);
+
+    @Query("SELECT MIN(o.createdAt) FROM OutboxEvent o")
+    LocalDateTime findOldestCreatedAt();
+}
@@ -0,0 +1,13 @@
+package com.example.payment_transfer_service.repository;
+
+import java.math.BigDecimal;
+
+/**
+ * Sum and last sequence number of a run of ledger postings; both are {@code null} when the run is empty.
+ */
+public interface PostingDeltaView {
+
+    BigDecimal getDelta();
+
+    Long getLastSeq();
+}
@@ -0,0 +1,17 @@
+package com.example.payment_transfer_service.repository;
+
+import com.example.payment_transfer_service.entity.StripeCredit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface StripeCreditRepository extends JpaRepository<StripeCredit, String> {
+
+    @Query("SELECT c FROM StripeCredit c WHERE c.accountId = :accountId ORDER BY c.creditedAt, c.transactionId")
+    List<StripeCredit> findByAccountId(@Param("accountId") String accountId);
+
+}
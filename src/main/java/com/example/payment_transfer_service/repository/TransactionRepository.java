@@ -1,25 +1,43 @@
 package com.example.payment_transfer_service.repository;
 
 import com.example.payment_transfer_service.entity.Transaction;
+import com.example.payment_transfer_service.entity.TransactionStatus;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import jakarta.persistence.LockModeType;
+
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface TransactionRepository extends JpaRepository<Transaction, String> {
 
-    List<Transaction> findByUserIdOrderByCreatedAtDesc(String userId);
-
     Page<Transaction> findByUserIdOrderByCreatedAtDesc(String userId, Pageable pageable);
 
-    @Query("SELECT t FROM Transaction t WHERE (t.sourceAccountId = :accountId OR t.destinationAccountId = :accountId) AND t.userId = :userId ORDER BY t.createdAt DESC")
-    List<Transaction> findAccountTransactionsByUserId(@Param("accountId") String accountId, @Param("userId") String userId);
+    // Keyset pages over (created_at, transaction_id); only the page size of the Pageable is used
+
+    @Query("SELECT t FROM Transaction t WHERE t.userId = :userId ORDER BY t.createdAt DESC, t.id DESC")
+    List<Transaction> findLatestByUserId(@Param("userId") String userId, Pageable pageable);
+
+    @Query("SELECT t FROM Transaction t WHERE t.userId = :userId AND (t.createdAt, t.id) < (:createdAt, :transactionId) " +
+            "ORDER BY t.createdAt DESC, t.id DESC")
+    List<Transaction> findByUserIdBefore(@Param("userId") String userId, @Param("createdAt") LocalDateTime createdAt,
+                                         @Param("transactionId") String transactionId, Pageable pageable);
 
     boolean existsByReferenceAndUserId(String reference, String userId);
 
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT t FROM Transaction t WHERE t.id = :id")
+    Optional<Transaction> findByIdForUpdate(@Param("id") String id);
+
+    List<Transaction> findByStatusAndCreatedAtBeforeOrderByCreatedAt(TransactionStatus status, LocalDateTime cutoff,
+                                                                     Pageable pageable);
+
 }
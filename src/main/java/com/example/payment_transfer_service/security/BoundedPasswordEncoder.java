@@ -0,0 +1,33 @@
+package com.example.payment_transfer_service.security;
+
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+/**
+ * Runs the delegate's hashing and verification on the {@link PasswordHashingExecutor} so that every caller,
+ * including the authentication provider, shares the same bounded pool.
+ */
+public class BoundedPasswordEncoder implements PasswordEncoder {
+
+    private final PasswordEncoder delegate;
+    private final PasswordHashingExecutor hashingExecutor;
+
+    public BoundedPasswordEncoder(PasswordEncoder delegate, PasswordHashingExecutor hashingExecutor) {
+        this.delegate = delegate;
+        this.hashingExecutor = hashingExecutor;
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return hashingExecutor.execute(() -> delegate.encode(rawPassword));
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return hashingExecutor.execute(() -> delegate.matches(rawPassword, encodedPassword));
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+}
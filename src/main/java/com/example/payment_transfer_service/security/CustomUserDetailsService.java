@@ -4,22 +4,53 @@ import com.example.payment_transfer_service.entity.User;
 import com.example.payment_transfer_service.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Set;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
-public class CustomUserDetailsService implements UserDetailsService {
+public class CustomUserDetailsService implements UserDetailsService, UserDetailsPasswordService {
 
     private final UserRepository userRepository;
+    private final PrincipalCache principalCache;
+
+    /**
+     * Users granted {@code ROLE_ADMIN}, which the operations endpoints under {@code /api/v1/ops} require.
+     */
+    @Value("${app.security.admin-usernames:}")
+    private Set<String> adminUsernames = Set.of();
 
     @Override
-    @Transactional
     public UserDetails loadUserByUsername(String usernameOrId) throws UsernameNotFoundException {
+        return principalCache.get(usernameOrId, this::loadPrincipal);
+    }
+
+    /**
+     * Stores a hash re-encoded at login because the stored one used an outdated BCrypt cost. Issued
+     * tokens stay valid since the password itself did not change.
+     */
+    @Override
+    public UserDetails updatePassword(UserDetails userDetails, String newPasswordHash) {
+        UserPrincipal principal = (UserPrincipal) userDetails;
+        User user = userRepository.findById(principal.getId())
+                .orElseThrow(() -> new UsernameNotFoundException("User not found: " + principal.getId()));
+
+        user.setPasswordHash(newPasswordHash);
+        User savedUser = userRepository.save(user);
+        principalCache.invalidate(user.getId());
+
+        log.info("Re-hashed password of user {} with the current BCrypt cost", user.getUsername());
+        return createPrincipal(savedUser);
+    }
+
+    private UserPrincipal loadPrincipal(String usernameOrId) {
         User user;
 
         user = userRepository.findById(usernameOrId).orElse(null);
@@ -30,6 +61,12 @@ public class CustomUserDetailsService implements UserDetailsService {
         }
 
         log.debug("Loading user details for: {}", user.getUsername());
-        return UserPrincipal.create(user);
+        return createPrincipal(user);
+    }
+
+    private UserPrincipal createPrincipal(User user) {
+        return UserPrincipal.create(user, adminUsernames.contains(user.getUsername())
+                ? UserPrincipal.ADMIN_ROLES
+                : UserPrincipal.DEFAULT_ROLES);
     }
 }
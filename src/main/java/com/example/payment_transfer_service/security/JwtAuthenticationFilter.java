@@ -8,13 +8,13 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.util.StringUtils;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.util.Optional;
 
 @Component
 @RequiredArgsConstructor
@@ -22,23 +22,26 @@ import java.io.IOException;
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final JwtUtil jwtUtil;
-    private final CustomUserDetailsService userDetailsService;
+    private final TokenRevocationRegistry revocationRegistry;
 
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
                                     FilterChain filterChain) throws ServletException, IOException {
         try {
             String jwt = parseJwt(request);
-            if (jwt != null && jwtUtil.validateJwtToken(jwt)) {
-                String userId = jwtUtil.getUserIdFromJwtToken(jwt);
+            Optional<VerifiedJwt> verified = jwtUtil.verify(jwt);
+            if (verified.isPresent() && revocationRegistry.isRevoked(verified.get())) {
+                log.debug("Rejected revoked token {} of user {}", verified.get().tokenId(), verified.get().subject());
+            } else if (verified.isPresent()) {
+                VerifiedJwt token = verified.get();
 
-                UserDetails userDetails = userDetailsService.loadUserByUsername(userId);
+                UserPrincipal principal = UserPrincipal.fromToken(token);
                 UsernamePasswordAuthenticationToken authentication =
-                        new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
+                        new UsernamePasswordAuthenticationToken(principal, token, principal.getAuthorities());
                 authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
 
                 SecurityContextHolder.getContext().setAuthentication(authentication);
-                log.debug("Set Authentication for user: {}", userId);
+                log.debug("Set Authentication for user: {}", token.subject());
             }
         } catch (Exception e) {
             log.error("Cannot set user authentication: {}", e.getMessage());
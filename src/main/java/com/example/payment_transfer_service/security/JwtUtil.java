@@ -1,53 +1,146 @@
 package com.example.payment_transfer_service.security;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
+import io.jsonwebtoken.security.SecurityException;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
+import java.nio.charset.StandardCharsets;
 import java.security.Key;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
 import java.util.Date;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
 
 @Component
 @Slf4j
 public class JwtUtil {
 
-    @Value("${app.jwt.secret:mySecretKeyThatShouldBeAtLeast256BitsLongForHS256Algorithm}")
-    private String jwtSecret;
+    static final String USERNAME_CLAIM = "username";
+    static final String ROLES_CLAIM = "roles";
+    static final String TOKEN_VERSION_CLAIM = "ver";
 
-    @Value("${app.jwt.expiration:86400000}")
-    private int jwtExpirationMs;
+    private final Key signingKey;
+    private final JwtParser jwtParser;
+    private final int jwtExpirationMs;
 
-    private Key getSigningKey() {
-        return Keys.hmacShaKeyFor(jwtSecret.getBytes());
+    /**
+     * Tokens that passed signature verification, keyed by the SHA-256 digest of the compact token. An entry
+     * expires together with its token, so a cached token is never accepted after its {@code exp}.
+     */
+    private final Cache<String, VerifiedJwt> verifiedTokens;
+
+    public JwtUtil(@Value("${app.jwt.secret:mySecretKeyThatShouldBeAtLeast256BitsLongForHS256Algorithm}") String jwtSecret,
+                   @Value("${app.jwt.expiration:86400000}") int jwtExpirationMs,
+                   @Value("${app.jwt.verified-cache.max-size:10000}") long verifiedCacheMaxSize) {
+        this.signingKey = Keys.hmacShaKeyFor(jwtSecret.getBytes());
+        this.jwtParser = Jwts.parserBuilder()
+                .setSigningKey(signingKey)
+                .build();
+        this.jwtExpirationMs = jwtExpirationMs;
+        this.verifiedTokens = Caffeine.newBuilder()
+                .maximumSize(verifiedCacheMaxSize)
+                .expireAfter(new Expiry<String, VerifiedJwt>() {
+                    @Override
+                    public long expireAfterCreate(String key, VerifiedJwt token, long currentTime) {
+                        return Math.max(0, Duration.between(Instant.now(), token.expiresAt()).toNanos());
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String key, VerifiedJwt token, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+
+                    @Override
+                    public long expireAfterRead(String key, VerifiedJwt token, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .build();
     }
 
-    public String generateJwtToken(String userId) {
+    /**
+     * Issues a token carrying everything the authentication filter needs to rebuild the principal, so
+     * authenticated requests never load the user from the database.
+     */
+    public String generateJwtToken(UserPrincipal principal) {
+        Date issuedAt = new Date();
         return Jwts.builder()
-                .setSubject(userId)
-                .setIssuedAt(new Date())
-                .setExpiration(new Date((new Date()).getTime() + jwtExpirationMs))
-                .signWith(getSigningKey(), SignatureAlgorithm.HS256)
+                .setId(UUID.randomUUID().toString())
+                .setSubject(principal.getId())
+                .claim(USERNAME_CLAIM, principal.getUsername())
+                .claim(ROLES_CLAIM, principal.getRoles())
+                .claim(TOKEN_VERSION_CLAIM, principal.getTokenVersion())
+                .setIssuedAt(issuedAt)
+                .setExpiration(new Date(issuedAt.getTime() + jwtExpirationMs))
+                .signWith(signingKey, SignatureAlgorithm.HS256)
                 .compact();
     }
 
+    /**
+     * Verifies the token once and returns its subject and expiry. Repeated presentations of the same token
+     * are answered from the verified-token cache without recomputing the HMAC.
+     */
+    public Optional<VerifiedJwt> verify(String token) {
+        if (token == null || token.isEmpty()) {
+            return Optional.empty();
+        }
+
+        String digest = digest(token);
+        VerifiedJwt cached = verifiedTokens.getIfPresent(digest);
+        if (cached != null) {
+            if (!cached.isExpired(Instant.now())) {
+                return Optional.of(cached);
+            }
+            verifiedTokens.invalidate(digest);
+        }
+
+        Optional<VerifiedJwt> verified = verifySignature(token);
+        verified.ifPresent(jwt -> verifiedTokens.put(digest, jwt));
+        return verified;
+    }
+
     public String getUserIdFromJwtToken(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody()
-                .getSubject();
+        return verify(token)
+                .map(VerifiedJwt::subject)
+                .orElseThrow(() -> new JwtException("Invalid JWT token"));
     }
 
     public boolean validateJwtToken(String authToken) {
+        return verify(authToken).isPresent();
+    }
+
+    Optional<VerifiedJwt> verifySignature(String token) {
         try {
-            Jwts.parserBuilder()
-                    .setSigningKey(getSigningKey())
-                    .build()
-                    .parseClaimsJws(authToken);
-            return true;
+            Claims claims = jwtParser.parseClaimsJws(token).getBody();
+            if (claims.getExpiration() == null) {
+                log.error("JWT token has no expiration");
+                return Optional.empty();
+            }
+            String username = claims.get(USERNAME_CLAIM, String.class);
+            Number tokenVersion = claims.get(TOKEN_VERSION_CLAIM, Number.class);
+            List<?> roles = claims.get(ROLES_CLAIM, List.class);
+            if (claims.getId() == null || username == null || tokenVersion == null || roles == null) {
+                log.error("JWT token is missing required claims");
+                return Optional.empty();
+            }
+            return Optional.of(new VerifiedJwt(
+                    claims.getSubject(),
+                    claims.getId(),
+                    username,
+                    roles.stream().map(String::valueOf).toList(),
+                    tokenVersion.longValue(),
+                    claims.getExpiration().toInstant()));
         } catch (SecurityException e) {
             log.error("Invalid JWT signature: {}", e.getMessage());
         } catch (MalformedJwtException e) {
@@ -56,9 +149,20 @@ public class JwtUtil {
             log.error("JWT token is expired: {}", e.getMessage());
         } catch (UnsupportedJwtException e) {
             log.error("JWT token is unsupported: {}", e.getMessage());
+        } catch (RequiredTypeException e) {
+            log.error("JWT token has malformed claims: {}", e.getMessage());
         } catch (IllegalArgumentException e) {
             log.error("JWT claims string is empty: {}", e.getMessage());
         }
-        return false;
+        return Optional.empty();
+    }
+
+    private static String digest(String token) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.US_ASCII));
+            return Base64.getEncoder().encodeToString(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
     }
 }
@@ -0,0 +1,124 @@
+package com.example.payment_transfer_service.security;
+
+import com.example.payment_transfer_service.dto.LoginThrottleStats;
+import com.example.payment_transfer_service.exception.LoginThrottledException;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Locale;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Limits failed logins per username and per client IP over a sliding window. Throttled attempts are turned
+ * away before the password is hashed, so a credential-stuffing burst costs no BCrypt work once it trips
+ * the limit. State is per instance and bounded by the number of tracked keys.
+ */
+@Component
+@Slf4j
+public class LoginThrottle {
+
+    private final int maxFailuresPerUsername;
+    private final int maxFailuresPerIp;
+    private final long windowMs;
+    private final Cache<String, FailureWindow> windows;
+
+    private final LongAdder failures = new LongAdder();
+    private final LongAdder throttled = new LongAdder();
+
+    public LoginThrottle(@Value("${app.security.login-throttle.max-failures-per-username:5}") int maxFailuresPerUsername,
+                         @Value("${app.security.login-throttle.max-failures-per-ip:50}") int maxFailuresPerIp,
+                         @Value("${app.security.login-throttle.window-seconds:300}") long windowSeconds,
+                         @Value("${app.security.login-throttle.max-tracked-keys:100000}") long maxTrackedKeys) {
+        this.maxFailuresPerUsername = maxFailuresPerUsername;
+        this.maxFailuresPerIp = maxFailuresPerIp;
+        this.windowMs = Duration.ofSeconds(windowSeconds).toMillis();
+        this.windows = Caffeine.newBuilder()
+                .maximumSize(maxTrackedKeys)
+                .expireAfterAccess(Duration.ofSeconds(windowSeconds))
+                .build();
+    }
+
+    /**
+     * @throws LoginThrottledException if the username or the client IP has used up its failures
+     */
+    public void checkAllowed(String username, String clientIp) {
+        long now = System.currentTimeMillis();
+        long retryAfterMs = Math.max(
+                retryAfterMs(usernameKey(username), maxFailuresPerUsername, now),
+                retryAfterMs(ipKey(clientIp), maxFailuresPerIp, now));
+        if (retryAfterMs > 0) {
+            throttled.increment();
+            log.warn("Throttled login for username {} from {}", username, clientIp);
+            throw new LoginThrottledException(Math.max(1, (retryAfterMs + 999) / 1000));
+        }
+    }
+
+    public void recordFailure(String username, String clientIp) {
+        long now = System.currentTimeMillis();
+        failures.increment();
+        windows.get(usernameKey(username), key -> new FailureWindow()).add(now, maxFailuresPerUsername);
+        windows.get(ipKey(clientIp), key -> new FailureWindow()).add(now, maxFailuresPerIp);
+    }
+
+    /**
+     * Clears the username's failures. The IP keeps its count, so one valid account cannot be used to reset
+     * the limit for a stuffing run from the same address.
+     */
+    public void recordSuccess(String username) {
+        windows.invalidate(usernameKey(username));
+    }
+
+    private long retryAfterMs(String key, int limit, long now) {
+        FailureWindow window = windows.getIfPresent(key);
+        return window == null ? 0 : window.retryAfterMs(now, limit, windowMs);
+    }
+
+    private static String usernameKey(String username) {
+        return "user:" + username.toLowerCase(Locale.ROOT);
+    }
+
+    private static String ipKey(String clientIp) {
+        return "ip:" + clientIp;
+    }
+
+    public LoginThrottleStats getStats() {
+        return LoginThrottleStats.builder()
+                .trackedKeys(windows.estimatedSize())
+                .failures(failures.sum())
+                .throttled(throttled.sum())
+                .maxFailuresPerUsername(maxFailuresPerUsername)
+                .maxFailuresPerIp(maxFailuresPerIp)
+                .windowSeconds(windowMs / 1000)
+                .build();
+    }
+
+    /**
+     * Timestamps of the most recent failures, at most {@code limit} of them.
+     */
+    private static final class FailureWindow {
+        private final Deque<Long> timestamps = new ArrayDeque<>();
+
+        synchronized void add(long now, int limit) {
+            timestamps.addLast(now);
+            while (timestamps.size() > limit) {
+                timestamps.removeFirst();
+            }
+        }
+
+        synchronized long retryAfterMs(long now, int limit, long windowMs) {
+            while (!timestamps.isEmpty() && timestamps.peekFirst() <= now - windowMs) {
+                timestamps.removeFirst();
+            }
+            if (timestamps.size() < limit) {
+                return 0;
+            }
+            return timestamps.peekFirst() + windowMs - now;
+        }
+    }
+}
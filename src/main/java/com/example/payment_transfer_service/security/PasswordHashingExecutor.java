@@ -0,0 +1,126 @@
+package com.example.payment_transfer_service.security;
+
+import com.example.payment_transfer_service.dto.PasswordHashingStats;
+import com.example.payment_transfer_service.exception.PasswordHashingBusyException;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Bounded pool for password hashing and verification. BCrypt is deliberately CPU-bound, so running it on
+ * request threads lets a login burst occupy every Tomcat thread. Here at most {@code workers} hashes run at
+ * once, a fixed number wait, and any further request fails immediately with
+ * {@link PasswordHashingBusyException} instead of queueing behind them.
+ */
+@Component
+@Slf4j
+public class PasswordHashingExecutor {
+
+    private final int queueCapacity;
+    private final long timeoutMs;
+    private final ThreadPoolExecutor executor;
+
+    private final LongAdder completed = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder timedOut = new LongAdder();
+    private final LongAdder queueWaitNanos = new LongAdder();
+    private final LongAdder hashNanos = new LongAdder();
+
+    public PasswordHashingExecutor(@Value("${app.security.password-hashing.workers:0}") int workers,
+                                   @Value("${app.security.password-hashing.queue-capacity:64}") int queueCapacity,
+                                   @Value("${app.security.password-hashing.timeout-ms:5000}") long timeoutMs) {
+        int poolSize = workers > 0 ? workers : Runtime.getRuntime().availableProcessors();
+        this.queueCapacity = queueCapacity;
+        this.timeoutMs = timeoutMs;
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), new HashingThreadFactory(), new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    /**
+     * Runs the hashing task on the pool and waits for its result.
+     *
+     * @throws PasswordHashingBusyException if the queue is full or the task does not finish in time
+     */
+    public <T> T execute(Supplier<T> task) {
+        long enqueuedAt = System.nanoTime();
+        Future<T> future;
+        try {
+            future = executor.submit(() -> run(task, enqueuedAt));
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            throw new PasswordHashingBusyException();
+        }
+
+        try {
+            return future.get(timeoutMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            timedOut.increment();
+            throw new PasswordHashingBusyException();
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new PasswordHashingBusyException();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException("Password hashing failed", e.getCause());
+        }
+    }
+
+    private <T> T run(Supplier<T> task, long enqueuedAt) {
+        long startedAt = System.nanoTime();
+        queueWaitNanos.add(startedAt - enqueuedAt);
+        try {
+            return task.get();
+        } finally {
+            hashNanos.add(System.nanoTime() - startedAt);
+            completed.increment();
+        }
+    }
+
+    public PasswordHashingStats getStats() {
+        long finished = completed.sum();
+        return PasswordHashingStats.builder()
+                .workers(executor.getMaximumPoolSize())
+                .activeWorkers(executor.getActiveCount())
+                .queueCapacity(queueCapacity)
+                .depth(executor.getQueue().size())
+                .completed(finished)
+                .rejected(rejected.sum())
+                .timedOut(timedOut.sum())
+                .averageQueueWaitMs(finished == 0 ? 0 : queueWaitNanos.sum() / finished / 1_000_000.0)
+                .averageHashMs(finished == 0 ? 0 : hashNanos.sum() / finished / 1_000_000.0)
+                .build();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private static final class HashingThreadFactory implements ThreadFactory {
+        private final AtomicInteger sequence = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "password-hashing-" + sequence.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
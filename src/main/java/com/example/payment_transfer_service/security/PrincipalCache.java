@@ -0,0 +1,121 @@
+package com.example.payment_transfer_service.security;
+
+import com.example.payment_transfer_service.dto.PrincipalCacheStats;
+import com.example.payment_transfer_service.service.ClusterEventBus;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Caches the {@link UserPrincipal} built for each authenticated request. Principals are stored by user id;
+ * usernames, which never change, map to the id so that login lookups share the same entries.
+ * <p>
+ * Entries are invalidated after the transaction that changed the user commits, on this instance directly
+ * and on the others through the {@link ClusterEventBus}. The TTL bounds staleness if an event is lost.
+ */
+@Component
+@Slf4j
+public class PrincipalCache {
+
+    static final String INVALIDATION_TOPIC = "principal-invalidated";
+
+    private final ClusterEventBus clusterEventBus;
+    private final Cache<String, UserPrincipal> principalsById;
+    private final Cache<String, String> idsByUsername;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder invalidations = new LongAdder();
+
+    public PrincipalCache(ClusterEventBus clusterEventBus,
+                          @Value("${app.security.principal-cache.max-size:10000}") long maxSize,
+                          @Value("${app.security.principal-cache.ttl-seconds:300}") long ttlSeconds) {
+        this.clusterEventBus = clusterEventBus;
+        this.principalsById = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .build();
+        this.idsByUsername = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .build();
+
+        clusterEventBus.subscribe(INVALIDATION_TOPIC, this::evict);
+        clusterEventBus.onReconnect(this::evictAll);
+    }
+
+    /**
+     * Returns the cached principal for a user id or username, loading and caching it on a miss.
+     */
+    public UserPrincipal get(String usernameOrId, Function<String, UserPrincipal> loader) {
+        UserPrincipal principal = principalsById.getIfPresent(usernameOrId);
+        if (principal == null) {
+            String userId = idsByUsername.getIfPresent(usernameOrId);
+            if (userId != null) {
+                principal = principalsById.getIfPresent(userId);
+            }
+        }
+
+        if (principal != null) {
+            hits.increment();
+            return principal;
+        }
+
+        misses.increment();
+        principal = loader.apply(usernameOrId);
+        principalsById.put(principal.getId(), principal);
+        idsByUsername.put(principal.getUsername(), principal.getId());
+        return principal;
+    }
+
+    /**
+     * Drops the user's principal on every instance once the current transaction commits.
+     */
+    public void invalidate(String userId) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evict(userId);
+                }
+            });
+        } else {
+            evict(userId);
+        }
+        clusterEventBus.publish(INVALIDATION_TOPIC, userId);
+    }
+
+    void evict(String userId) {
+        principalsById.invalidate(userId);
+        invalidations.increment();
+        log.debug("Evicted cached principal for user {}", userId);
+    }
+
+    void evictAll() {
+        principalsById.invalidateAll();
+        log.info("Cleared principal cache after cluster event reconnect");
+    }
+
+    public PrincipalCacheStats getStats() {
+        long hitCount = hits.sum();
+        long missCount = misses.sum();
+        long lookups = hitCount + missCount;
+        return PrincipalCacheStats.builder()
+                .size(principalsById.estimatedSize())
+                .hits(hitCount)
+                .misses(missCount)
+                .hitRate(lookups == 0 ? 0 : (double) hitCount / lookups)
+                .invalidations(invalidations.sum())
+                .clusterEventsPublished(clusterEventBus.getPublished())
+                .clusterEventsReceived(clusterEventBus.getReceived())
+                .clusterConnectionFailures(clusterEventBus.getConnectionFailures())
+                .build();
+    }
+}
@@ -0,0 +1,180 @@
+package com.example.payment_transfer_service.security;
+
+import com.example.payment_transfer_service.dto.TokenRevocationStats;
+import com.example.payment_transfer_service.entity.TokenRevocation;
+import com.example.payment_transfer_service.repository.TokenRevocationRepository;
+import com.example.payment_transfer_service.service.ClusterEventBus;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * In-memory view of revoked tokens, checked on every authenticated request. A token is revoked when its id
+ * was denylisted at logout or when its version is below the user's minimum, which is raised on suspension
+ * and password changes.
+ * <p>
+ * The {@code token_revocations} table is the source of truth. It is loaded at startup and re-read
+ * incrementally on a schedule and whenever another instance announces a revocation on the
+ * {@link ClusterEventBus}. Entries are dropped once every token they cover has expired, so the maps stay
+ * proportional to the revocations of the last token lifetime.
+ */
+@Component
+@Slf4j
+public class TokenRevocationRegistry {
+
+    static final String REVOCATION_TOPIC = "token-revoked";
+
+    private final TokenRevocationRepository revocationRepository;
+    private final ClusterEventBus clusterEventBus;
+    private final long tokenLifetimeMs;
+    private final long refreshOverlapMs;
+
+    private final Map<String, Instant> revokedTokenIds = new ConcurrentHashMap<>();
+    private final Map<String, UserCutoff> userCutoffs = new ConcurrentHashMap<>();
+
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder refreshes = new LongAdder();
+    private volatile LocalDateTime lastRefreshAt;
+
+    public TokenRevocationRegistry(TokenRevocationRepository revocationRepository,
+                                   ClusterEventBus clusterEventBus,
+                                   @Value("${app.jwt.expiration:86400000}") long tokenLifetimeMs,
+                                   @Value("${app.security.revocation.refresh-overlap-ms:60000}") long refreshOverlapMs) {
+        this.revocationRepository = revocationRepository;
+        this.clusterEventBus = clusterEventBus;
+        this.tokenLifetimeMs = tokenLifetimeMs;
+        this.refreshOverlapMs = refreshOverlapMs;
+
+        clusterEventBus.subscribe(REVOCATION_TOPIC, userId -> refresh());
+        clusterEventBus.onReconnect(this::reload);
+    }
+
+    @PostConstruct
+    public synchronized void reload() {
+        LocalDateTime now = LocalDateTime.now();
+        List<TokenRevocation> revocations = revocationRepository.findByExpiresAtAfter(now);
+
+        revokedTokenIds.clear();
+        userCutoffs.clear();
+        revocations.forEach(this::apply);
+        lastRefreshAt = now;
+        log.info("Loaded {} active token revocations", revocations.size());
+    }
+
+    /**
+     * Picks up revocations written by other instances. Rows are re-read with an overlap so that a
+     * revocation committed shortly after it was stamped is not missed; applying a row twice is harmless.
+     */
+    @Scheduled(fixedDelayString = "${app.security.revocation.refresh-interval-ms:30000}")
+    public synchronized void refresh() {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime since = (lastRefreshAt != null ? lastRefreshAt : now).minusNanos(refreshOverlapMs * 1_000_000);
+
+        revocationRepository.findByRevokedAtGreaterThanEqualAndExpiresAtAfter(since, now).forEach(this::apply);
+        purgeExpired(Instant.now());
+        lastRefreshAt = now;
+        refreshes.increment();
+    }
+
+    @Scheduled(fixedDelayString = "${app.security.revocation.cleanup-interval-ms:3600000}")
+    public void deleteExpired() {
+        int deleted = revocationRepository.deleteExpired(LocalDateTime.now());
+        if (deleted > 0) {
+            log.info("Deleted {} expired token revocations", deleted);
+        }
+    }
+
+    public boolean isRevoked(VerifiedJwt token) {
+        boolean revoked = revokedTokenIds.containsKey(token.tokenId());
+        if (!revoked) {
+            UserCutoff cutoff = userCutoffs.get(token.subject());
+            revoked = cutoff != null && token.tokenVersion() < cutoff.minTokenVersion();
+        }
+        if (revoked) {
+            rejected.increment();
+        }
+        return revoked;
+    }
+
+    /**
+     * Revokes a single token until it expires.
+     */
+    public void revokeToken(VerifiedJwt token) {
+        record(TokenRevocation.ofToken(token.subject(), token.tokenId(), toLocalDateTime(token.expiresAt())));
+        log.info("Revoked token {} of user {}", token.tokenId(), token.subject());
+    }
+
+    /**
+     * Revokes every token of the user issued with a version below {@code minTokenVersion}.
+     */
+    public void revokeUserTokens(String userId, long minTokenVersion) {
+        LocalDateTime expiresAt = LocalDateTime.now().plusNanos(tokenLifetimeMs * 1_000_000);
+        record(TokenRevocation.ofUser(userId, minTokenVersion, expiresAt));
+        log.info("Revoked tokens of user {} below version {}", userId, minTokenVersion);
+    }
+
+    private void record(TokenRevocation revocation) {
+        TokenRevocation saved = revocationRepository.save(revocation);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    apply(saved);
+                }
+            });
+        } else {
+            apply(saved);
+        }
+        clusterEventBus.publish(REVOCATION_TOPIC, saved.getUserId());
+    }
+
+    private void apply(TokenRevocation revocation) {
+        Instant expiresAt = revocation.getExpiresAt().atZone(ZoneId.systemDefault()).toInstant();
+        if (revocation.getTokenId() != null) {
+            revokedTokenIds.put(revocation.getTokenId(), expiresAt);
+        }
+        if (revocation.getMinTokenVersion() != null) {
+            UserCutoff cutoff = new UserCutoff(revocation.getMinTokenVersion(), expiresAt);
+            userCutoffs.merge(revocation.getUserId(), cutoff, UserCutoff::max);
+        }
+    }
+
+    private void purgeExpired(Instant now) {
+        revokedTokenIds.values().removeIf(expiresAt -> !expiresAt.isAfter(now));
+        userCutoffs.values().removeIf(cutoff -> !cutoff.expiresAt().isAfter(now));
+    }
+
+    private static LocalDateTime toLocalDateTime(Instant instant) {
+        return LocalDateTime.ofInstant(instant, ZoneId.systemDefault());
+    }
+
+    public TokenRevocationStats getStats() {
+        return TokenRevocationStats.builder()
+                .revokedTokens(revokedTokenIds.size())
+                .revokedUsers(userCutoffs.size())
+                .rejectedRequests(rejected.sum())
+                .refreshes(refreshes.sum())
+                .lastRefreshAt(lastRefreshAt)
+                .build();
+    }
+
+    private record UserCutoff(long minTokenVersion, Instant expiresAt) {
+
+        UserCutoff max(UserCutoff other) {
+            return new UserCutoff(Math.max(minTokenVersion, other.minTokenVersion),
+                    expiresAt.isAfter(other.expiresAt) ? expiresAt : other.expiresAt);
+        }
+    }
+}
@@ -8,31 +8,67 @@ import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 
 import java.util.Collection;
-import java.util.Collections;
+import java.util.List;
 
 @AllArgsConstructor
 @Getter
 public class UserPrincipal implements UserDetails {
 
+    static final List<String> DEFAULT_ROLES = List.of("ROLE_USER");
+    static final List<String> ADMIN_ROLES = List.of("ROLE_USER", "ROLE_ADMIN");
+
     private String id;
     private String username;
     private String email;
+    private String firstName;
+    private String lastName;
     private String password;
     private boolean isActive;
+    private long tokenVersion;
+    private List<String> roles;
 
     public static UserPrincipal create(User user) {
+        return create(user, DEFAULT_ROLES);
+    }
+
+    public static UserPrincipal create(User user, List<String> roles) {
         return new UserPrincipal(
                 user.getId(),
                 user.getUsername(),
                 user.getEmail(),
+                user.getFirstName(),
+                user.getLastName(),
                 user.getPasswordHash(),
-                user.isActive()
+                user.isActive(),
+                user.getTokenVersion(),
+                roles
+        );
+    }
+
+    /**
+     * Builds the principal from the claims of a verified token. Tokens are only issued to active users and
+     * are revoked when the user is suspended, so a token that passed the revocation check implies an
+     * active user. Email, names and password are not carried in the token.
+     */
+    public static UserPrincipal fromToken(VerifiedJwt token) {
+        return new UserPrincipal(
+                token.subject(),
+                token.username(),
+                null,
+                null,
+                null,
+                null,
+                true,
+                token.tokenVersion(),
+                token.roles()
         );
     }
 
     @Override
     public Collection<? extends GrantedAuthority> getAuthorities() {
-        return Collections.singletonList(new SimpleGrantedAuthority("ROLE_USER"));
+        return roles.stream()
+                .map(SimpleGrantedAuthority::new)
+                .toList();
     }
 
     @Override
@@ -0,0 +1,15 @@
+package com.example.payment_transfer_service.security;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Claims of a token whose signature and expiry have been checked.
+ */
+public record VerifiedJwt(String subject, String tokenId, String username, List<String> roles,
+                          long tokenVersion, Instant expiresAt) {
+
+    public boolean isExpired(Instant now) {
+        return !expiresAt.isAfter(now);
+    }
+}
@@ -0,0 +1,55 @@
+package com.example.payment_transfer_service.service;
+
+import com.example.payment_transfer_service.repository.AccountNameView;
+import com.example.payment_transfer_service.repository.AccountRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Bounded cache of account display names for history rendering. Misses for a whole page are resolved
+ * with a single {@code IN} query. Entries are evicted when the account changes and expire after a TTL,
+ * which bounds staleness for changes made by other instances.
+ */
+@Component
+@Slf4j
+public class AccountDisplayNameCache {
+
+    private final AccountRepository accountRepository;
+    private final Cache<String, String> displayNames;
+
+    public AccountDisplayNameCache(AccountRepository accountRepository,
+                                   @Value("${app.accounts.display-name-cache.max-size:10000}") long maxSize,
+                                   @Value("${app.accounts.display-name-cache.ttl-seconds:600}") long ttlSeconds) {
+        this.accountRepository = accountRepository;
+        this.displayNames = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .build();
+    }
+
+    /**
+     * Returns the display names of the given accounts. Accounts that do not exist are absent from the result.
+     */
+    public Map<String, String> getDisplayNames(Collection<String> accountIds) {
+        return displayNames.getAll(accountIds, this::loadDisplayNames);
+    }
+
+    public void evict(String accountId) {
+        displayNames.invalidate(accountId);
+    }
+
+    private Map<String, String> loadDisplayNames(Collection<? extends String> accountIds) {
+        log.debug("Loading display names for {} accounts", accountIds.size());
+        return accountRepository.findNamesByIdIn(Set.copyOf(accountIds)).stream()
+                .collect(Collectors.toMap(AccountNameView::getId, AccountNameView::getDisplayName));
+    }
+}
@@ -0,0 +1,247 @@
+package com.example.payment_transfer_service.service;
+
+import com.example.payment_transfer_service.dto.TransferLane;
+import com.example.payment_transfer_service.dto.TransferLanesReport;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Account-partitioned execution of transfers. Every account belongs to one of N single-threaded lanes, by
+ * the hash of its id, and a transfer runs while it holds the lanes of both its accounts. Transfers that
+ * share an account are therefore serialized in memory, in the order they were submitted, instead of
+ * queueing on the account's row lock.
+ * <p>
+ * A transfer whose accounts share a lane simply runs on that lane. Otherwise it is queued on the lower
+ * of its two lanes and, once it reaches the head, handed off to the higher lane, where it runs while the
+ * lower lane waits for it. A lane only ever waits for a higher lane, so lanes cannot wait for each other
+ * in a cycle, and shutting them down lowest first lets every handoff finish.
+ * <p>
+ * New transfers are rejected once their entry lane holds {@code queue-capacity} tasks; handoffs are always
+ * accepted, as the transfer already holds its lower lane.
+ */
+@Component
+@Slf4j
+public class AccountLaneExecutor {
+
+    private static final long SHUTDOWN_TIMEOUT_MS = 30_000;
+
+    private final boolean enabled;
+    private final int queueCapacity;
+    private final List<Lane> lanes = new ArrayList<>();
+
+    private final LongAdder submitted = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder handoffs = new LongAdder();
+
+    public AccountLaneExecutor(TransferMetrics transferMetrics,
+                               @Value("${app.transfer.lanes.enabled:false}") boolean enabled,
+                               @Value("${app.transfer.lanes.count:8}") int count,
+                               @Value("${app.transfer.lanes.queue-capacity:1000}") int queueCapacity) {
+        this.enabled = enabled;
+        this.queueCapacity = queueCapacity;
+        if (enabled) {
+            for (int index = 0; index < Math.max(1, count); index++) {
+                lanes.add(new Lane(index, transferMetrics));
+            }
+            log.info("Running transfers on {} account lanes", lanes.size());
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    int laneOf(String accountId) {
+        return Math.floorMod(accountId.hashCode(), lanes.size());
+    }
+
+    /**
+     * Runs the work while holding the lanes of both accounts and returns its result. Blocks the caller
+     * until the work has run; throws {@link RejectedExecutionException} when the entry lane is full.
+     */
+    public <T> T execute(String firstAccountId, String secondAccountId, Callable<T> work) {
+        int first = laneOf(firstAccountId);
+        int second = laneOf(secondAccountId);
+        Lane entry = lanes.get(Math.min(first, second));
+        Lane upper = lanes.get(Math.max(first, second));
+
+        if (entry.executor.getQueue().size() >= queueCapacity) {
+            rejected.increment();
+            throw new RejectedExecutionException("Lane " + entry.index + " is full");
+        }
+
+        CompletableFuture<T> result = new CompletableFuture<>();
+        try {
+            entry.execute(entry == upper ? work : () -> handoff(entry, upper, work), result);
+            submitted.increment();
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            throw e;
+        }
+
+        try {
+            return result.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof Error cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Runs on the lower lane: passes the work to the higher lane and holds the lower lane until it is done.
+     */
+    private <T> T handoff(Lane lower, Lane upper, Callable<T> work) throws Exception {
+        CompletableFuture<T> handedOff = new CompletableFuture<>();
+        lower.handoffs.increment();
+        handoffs.increment();
+        upper.execute(work, handedOff);
+        try {
+            return handedOff.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof Exception cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof Error cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    public TransferLanesReport getStats() {
+        return TransferLanesReport.builder()
+                .enabled(enabled)
+                .queueCapacity(queueCapacity)
+                .submitted(submitted.sum())
+                .rejected(rejected.sum())
+                .handoffs(handoffs.sum())
+                .lanes(lanes.stream().map(Lane::getStats).toList())
+                .build();
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        shutdown(SHUTDOWN_TIMEOUT_MS);
+    }
+
+    void shutdown(long timeoutMs) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + timeoutMs;
+        // Lowest first: a draining lane may still hand transfers off to the lanes above it
+        for (Lane lane : lanes) {
+            lane.executor.shutdown();
+            long remaining = deadline - System.currentTimeMillis();
+            if (!lane.executor.awaitTermination(Math.max(0, remaining), TimeUnit.MILLISECONDS)) {
+                List<Runnable> dropped = lane.executor.shutdownNow();
+                log.warn("Lane {} did not drain within {}ms, rejecting {} queued transfers",
+                        lane.index, timeoutMs, dropped.size());
+                // Fails their callers, and the lower lanes waiting on dropped handoffs
+                dropped.forEach(task -> ((LaneTask<?>) task).reject());
+            }
+        }
+    }
+
+    private static final class Lane {
+        private final int index;
+        private final ThreadPoolExecutor executor;
+        private final Timer serviceTimer;
+
+        private final LongAdder executed = new LongAdder();
+        private final LongAdder handoffs = new LongAdder();
+        private final LongAdder serviceNanos = new LongAdder();
+        private final AtomicLong maxServiceNanos = new AtomicLong();
+
+        private Lane(int index, TransferMetrics transferMetrics) {
+            this.index = index;
+            this.executor = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>(),
+                    runnable -> {
+                        Thread thread = new Thread(runnable, "transfer-lane-" + index);
+                        thread.setDaemon(true);
+                        return thread;
+                    });
+            this.serviceTimer = transferMetrics.laneServiceTimer(index);
+            transferMetrics.registerLaneDepth(index, executor.getQueue());
+        }
+
+        private <T> void execute(Callable<T> work, CompletableFuture<T> result) {
+            executor.execute(new LaneTask<>(this, work, result));
+        }
+
+        private void record(long serviceNanos) {
+            executed.increment();
+            this.serviceNanos.add(serviceNanos);
+            maxServiceNanos.accumulateAndGet(serviceNanos, Math::max);
+            serviceTimer.record(serviceNanos, TimeUnit.NANOSECONDS);
+        }
+
+        private TransferLane getStats() {
+            long count = executed.sum();
+            return TransferLane.builder()
+                    .lane(index)
+                    .depth(executor.getQueue().size())
+                    .busy(executor.getActiveCount() > 0)
+                    .executed(count)
+                    .handoffs(handoffs.sum())
+                    .averageServiceMs(count == 0 ? 0 : serviceNanos.sum() / count / 1_000_000.0)
+                    .maxServiceMs(maxServiceNanos.get() / 1_000_000.0)
+                    .build();
+        }
+    }
+
+    /**
+     * Work queued on a lane. The lane's counters are recorded before the result is completed, so they
+     * already include the task once its caller resumes; a task dropped at shutdown is rejected instead.
+     */
+    private static final class LaneTask<T> implements Runnable {
+        private final Lane lane;
+        private final Callable<T> work;
+        private final CompletableFuture<T> result;
+
+        private LaneTask(Lane lane, Callable<T> work, CompletableFuture<T> result) {
+            this.lane = lane;
+            this.work = work;
+            this.result = result;
+        }
+
+        @Override
+        public void run() {
+            long startNanos = System.nanoTime();
+            T value = null;
+            Throwable failure = null;
+            try {
+                value = work.call();
+            } catch (Throwable e) {
+                failure = e;
+            }
+            lane.record(System.nanoTime() - startNanos);
+            if (failure != null) {
+                result.completeExceptionally(failure);
+            } else {
+                result.complete(value);
+            }
+        }
+
+        private void reject() {
+            result.completeExceptionally(new RejectedExecutionException("Lane " + lane.index + " shut down"));
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package com.example.payment_transfer_service.service;
+
+import com.example.payment_transfer_service.repository.AccountOwnerView;
+import com.example.payment_transfer_service.repository.AccountRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Bounded map from account id to owning user id for ownership checks. An account never changes owner, so
+ * entries are loaded lazily, one {@code IN} query for all misses of a check, and only evicted when the
+ * account is created or changes status. Unknown accounts are not cached, so a newly created account is
+ * visible to every instance on its first check.
+ */
+@Component
+@Slf4j
+public class AccountOwnershipIndex {
+
+    private final AccountRepository accountRepository;
+    private final Cache<String, String> ownersByAccountId;
+
+    public AccountOwnershipIndex(AccountRepository accountRepository,
+                                 @Value("${app.accounts.ownership-index.max-size:100000}") long maxSize,
+                                 @Value("${app.accounts.ownership-index.ttl-seconds:3600}") long ttlSeconds) {
+        this.accountRepository = accountRepository;
+        this.ownersByAccountId = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .build();
+    }
+
+    public boolean owns(String userId, String accountId) {
+        return ownsAll(userId, List.of(accountId));
+    }
+
+    /**
+     * Returns whether the user owns every one of the given accounts. Accounts that do not exist are not owned.
+     */
+    public boolean ownsAll(String userId, Collection<String> accountIds) {
+        Map<String, String> owners = ownersByAccountId.getAll(accountIds, this::loadOwners);
+        return accountIds.stream().allMatch(accountId -> userId.equals(owners.get(accountId)));
+    }
+
+    public void evict(String accountId) {
+        ownersByAccountId.invalidate(accountId);
+    }
+
+    private Map<String, String> loadOwners(Collection<? extends String> accountIds) {
+        log.debug("Loading owners for {} accounts", accountIds.size());
+        return accountRepository.findOwnersByIdIn(Set.copyOf(accountIds)).stream()
+                .collect(Collectors.toMap(AccountOwnerView::getId, AccountOwnerView::getUserId));
+    }
+}
@@ -14,6 +14,7 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
 import java.util.stream.Collectors;
@@ -25,6 +26,9 @@ public class AccountService {
 
     private final AccountRepository accountRepository;
     private final UserRepository userRepository;
+    private final AccountDisplayNameCache displayNameCache;
+    private final AccountOwnershipIndex ownershipIndex;
+    private final StripedBalanceService stripedBalances;
 
     @Transactional
     public AccountSummary createAccount(AccountCreationRequest request) {
@@ -48,6 +52,7 @@ public class AccountService {
         account.setVersion(0L);
 
         Account savedAccount = accountRepository.save(account);
+        ownershipIndex.evict(savedAccount.getId());
 
         log.info("Created account successfully with ID: {}", savedAccount.getId());
 
@@ -80,15 +85,20 @@ public class AccountService {
 
         account.setStatus(status);
         Account updatedAccount = accountRepository.save(account);
+        displayNameCache.evict(accountId);
+        ownershipIndex.evict(accountId);
 
         log.info("Updated account {} status to {}", accountId, status);
 
         return mapToAccountSummary(updatedAccount);
     }
 
-    @Transactional(readOnly = true)
     public boolean validateAccountOwnership(String accountId, String userId) {
-        return accountRepository.findByIdAndUserId(accountId, userId).isPresent();
+        return ownershipIndex.owns(userId, accountId);
+    }
+
+    public boolean validateAccountOwnership(Collection<String> accountIds, String userId) {
+        return ownershipIndex.ownsAll(userId, accountIds);
     }
 
 
@@ -101,7 +111,7 @@ public class AccountService {
                 .id(account.getId())
                 .accountName(account.getAccountName())
                 .accountType(account.getAccountType())
-                .balance(account.getBalance())
+                .balance(stripedBalances.totalBalance(account))
                 .currency(account.getCurrency())
                 .status(account.getStatus())
                 .createdAt(account.getCreatedAt())
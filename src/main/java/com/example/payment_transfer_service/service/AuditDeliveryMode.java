@@ -0,0 +1,14 @@
+package com.example.payment_transfer_service.service;
+
+public enum AuditDeliveryMode {
+    /**
+     * Audits are written to the transfer outbox in the caller's transaction and relayed to
+     * {@code transaction_audit} and the event sinks afterwards.
+     */
+    OUTBOX,
+
+    /**
+     * Audits are handed to the in-process {@link AuditWriter} and written in batches off the request path.
+     */
+    WRITER
+}
@@ -1,43 +1,34 @@
 package com.example.payment_transfer_service.service;
 
 import com.example.payment_transfer_service.entity.*;
-import com.example.payment_transfer_service.repository.TransactionAuditRepository;
+import com.example.payment_transfer_service.repository.OutboxEventRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Propagation;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class AuditService {
 
-    private final TransactionAuditRepository auditRepository;
+    private final AuditWriter auditWriter;
+    private final OutboxEventRepository outboxRepository;
+
+    @Value("${app.audit.delivery:OUTBOX}")
+    private AuditDeliveryMode deliveryMode;
 
-    @Transactional(propagation = Propagation.REQUIRES_NEW)
     public void recordSuccessfulTransfer(Transaction transaction,
                                          BigDecimal sourceBalanceBefore, BigDecimal sourceBalanceAfter,
                                          BigDecimal destBalanceBefore, BigDecimal destBalanceAfter) {
         try {
-            TransactionAudit audit = new TransactionAudit();
-            audit.setTransactionId(transaction.getId());
-            audit.setUserId(transaction.getUserId());
-            audit.setSourceAccountId(transaction.getSourceAccountId());
-            audit.setDestinationAccountId(transaction.getDestinationAccountId());
-            audit.setAmount(transaction.getAmount());
-            audit.setSourceBalanceBefore(sourceBalanceBefore);
-            audit.setSourceBalanceAfter(sourceBalanceAfter);
-            audit.setDestBalanceBefore(destBalanceBefore);
-            audit.setDestBalanceAfter(destBalanceAfter);
-            audit.setStatus(transaction.getStatus());
-            audit.setDescription(transaction.getDescription());
-            audit.setReference(transaction.getReference());
-            audit.setSuccess(true);
-
-            auditRepository.save(audit);
+            deliver(successfulTransferAudit(transaction,
+                    sourceBalanceBefore, sourceBalanceAfter, destBalanceBefore, destBalanceAfter));
 
             log.info("Transfer audit recorded: {} - Amount: {} - Status: SUCCESS",
                     transaction.getId(), transaction.getAmount());
@@ -47,21 +38,11 @@ public class AuditService {
         }
     }
 
-    @Transactional(propagation = Propagation.REQUIRES_NEW)
     public void recordFailedTransfer(String userId, String sourceAccountId, String destinationAccountId,
                                      BigDecimal amount, String errorMessage) {
         try {
-            TransactionAudit audit = new TransactionAudit();
-            audit.setTransactionId("FAILED_" + System.currentTimeMillis());
-            audit.setUserId(userId);
-            audit.setSourceAccountId(sourceAccountId);
-            audit.setDestinationAccountId(destinationAccountId);
-            audit.setAmount(amount);
-            audit.setStatus(TransactionStatus.FAILED);
-            audit.setSuccess(false);
-            audit.setErrorMessage(errorMessage);
-
-            auditRepository.save(audit);
+            deliver(failedTransferAudit(userId, sourceAccountId, destinationAccountId,
+                    amount, errorMessage));
 
             log.warn("Failed transfer audit recorded: User {} - Amount: {} - Error: {}",
                     userId, amount, errorMessage);
@@ -70,4 +51,76 @@ public class AuditService {
             log.error("Failed to record failed transfer audit", e);
         }
     }
+
+    public void recordTransfers(List<TransactionAudit> audits) {
+        try {
+            deliverAll(audits);
+
+            log.info("Batch transfer audit recorded: {} entries", audits.size());
+
+        } catch (Exception e) {
+            log.error("Failed to record batch transfer audit of {} entries", audits.size(), e);
+        }
+    }
+
+    /**
+     * In {@link AuditDeliveryMode#OUTBOX} mode the audit joins the caller's transaction, so it commits or
+     * rolls back together with the balance change. Without an active transaction there is nothing to be
+     * atomic with and the audit goes to the writer instead.
+     */
+    private void deliver(TransactionAudit audit) {
+        if (usesOutbox()) {
+            outboxRepository.save(OutboxEvent.of(audit));
+        } else {
+            auditWriter.enqueue(audit);
+        }
+    }
+
+    private void deliverAll(List<TransactionAudit> audits) {
+        if (usesOutbox()) {
+            outboxRepository.saveAll(audits.stream().map(OutboxEvent::of).toList());
+        } else {
+            auditWriter.enqueueAll(audits);
+        }
+    }
+
+    private boolean usesOutbox() {
+        return deliveryMode != AuditDeliveryMode.WRITER && TransactionSynchronizationManager.isActualTransactionActive();
+    }
+
+    public TransactionAudit successfulTransferAudit(Transaction transaction,
+                                                    BigDecimal sourceBalanceBefore, BigDecimal sourceBalanceAfter,
+                                                    BigDecimal destBalanceBefore, BigDecimal destBalanceAfter) {
+        TransactionAudit audit = new TransactionAudit();
+        audit.setTransactionId(transaction.getId());
+        audit.setUserId(transaction.getUserId());
+        audit.setSourceAccountId(transaction.getSourceAccountId());
+        audit.setDestinationAccountId(transaction.getDestinationAccountId());
+        audit.setAmount(transaction.getAmount());
+        audit.setSourceBalanceBefore(sourceBalanceBefore);
+        audit.setSourceBalanceAfter(sourceBalanceAfter);
+        audit.setDestBalanceBefore(destBalanceBefore);
+        audit.setDestBalanceAfter(destBalanceAfter);
+        audit.setStatus(transaction.getStatus());
+        audit.setDescription(transaction.getDescription());
+        audit.setReference(transaction.getReference());
+        audit.setSuccess(true);
+        audit.setCreatedAt(LocalDateTime.now());
+        return audit;
+    }
+
+    public TransactionAudit failedTransferAudit(String userId, String sourceAccountId, String destinationAccountId,
+                                                BigDecimal amount, String errorMessage) {
+        TransactionAudit audit = new TransactionAudit();
+        audit.setTransactionId("FAILED_" + System.currentTimeMillis());
+        audit.setUserId(userId);
+        audit.setSourceAccountId(sourceAccountId);
+        audit.setDestinationAccountId(destinationAccountId);
+        audit.setAmount(amount);
+        audit.setStatus(TransactionStatus.FAILED);
+        audit.setSuccess(false);
+        audit.setErrorMessage(errorMessage);
+        audit.setCreatedAt(LocalDateTime.now());
+        return audit;
+    }
 }
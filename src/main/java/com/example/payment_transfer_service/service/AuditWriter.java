@@ -0,0 +1,253 @@
+package com.example.payment_transfer_service.service;
+
+import com.example.payment_transfer_service.dto.AuditWriterStats;
+import com.example.payment_transfer_service.entity.TransactionAudit;
+import com.example.payment_transfer_service.repository.TransactionAuditRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Writes transfer audits off the request path. Audits are queued in a bounded in-memory buffer and a
+ * single writer thread flushes them to {@code transaction_audit} in JDBC batches, as soon as a batch is
+ * full or the flush interval has passed since its first entry.
+ * <p>
+ * Audits that cannot be buffered (queue full), cannot be written (database failure) or are still
+ * queued at shutdown are appended to a newline-delimited JSON spill file, which is replayed into the
+ * database the next time the writer starts. Audits still buffered in memory when the process dies
+ * abruptly are not covered by the spill file; that is everything queued but not yet flushed, up to
+ * {@code queue-capacity} audits when the database falls behind.
+ */
+@Component
+@Slf4j
+public class AuditWriter {
+
+    private final TransactionAuditRepository auditRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+
+    private final int batchSize;
+    private final long flushIntervalNanos;
+    private final Path spillFile;
+    private final BlockingQueue<TransactionAudit> queue;
+
+    private final LongAdder enqueued = new LongAdder();
+    private final LongAdder written = new LongAdder();
+    private final LongAdder batches = new LongAdder();
+    private final LongAdder writeFailures = new LongAdder();
+    private final LongAdder spilled = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder replayed = new LongAdder();
+    private final LongAdder flushNanos = new LongAdder();
+    private final AtomicLong maxFlushNanos = new AtomicLong();
+    private final AtomicLong lastBatchSize = new AtomicLong();
+
+    private volatile boolean running;
+    private Thread writerThread;
+
+    public AuditWriter(TransactionAuditRepository auditRepository,
+                       TransactionTemplate transactionTemplate,
+                       ObjectMapper objectMapper,
+                       @Value("${app.audit.writer.queue-capacity:10000}") int queueCapacity,
+                       @Value("${app.audit.writer.batch-size:100}") int batchSize,
+                       @Value("${app.audit.writer.flush-interval-ms:200}") long flushIntervalMs,
+                       @Value("${app.audit.writer.spill-file:audit-spill.ndjson}") String spillFile) {
+        this.auditRepository = auditRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.objectMapper = objectMapper;
+        this.batchSize = Math.max(1, batchSize);
+        this.flushIntervalNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(1, flushIntervalMs));
+        this.spillFile = Paths.get(spillFile);
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+    }
+
+    @PostConstruct
+    public void start() {
+        running = true;
+        writerThread = new Thread(this::runWriter, "audit-writer");
+        writerThread.setDaemon(true);
+        writerThread.start();
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        if (writerThread != null) {
+            writerThread.join(TimeUnit.SECONDS.toMillis(10));
+        }
+
+        List<TransactionAudit> remaining = new ArrayList<>();
+        queue.drainTo(remaining);
+        if (!remaining.isEmpty()) {
+            log.warn("Audit writer stopped with {} queued audits, spilling them to {}", remaining.size(), spillFile);
+            spill(remaining);
+        }
+    }
+
+    public void enqueue(TransactionAudit audit) {
+        if (queue.offer(audit)) {
+            enqueued.increment();
+        } else {
+            log.warn("Audit queue is full, spilling audit for transaction {} to {}", audit.getTransactionId(), spillFile);
+            spill(List.of(audit));
+        }
+    }
+
+    public void enqueueAll(Collection<TransactionAudit> audits) {
+        audits.forEach(this::enqueue);
+    }
+
+    private void runWriter() {
+        replaySpillFile();
+
+        List<TransactionAudit> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                TransactionAudit first = queue.poll(flushIntervalNanos, TimeUnit.NANOSECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+
+                long deadline = System.nanoTime() + flushIntervalNanos;
+                while (batch.size() < batchSize) {
+                    queue.drainTo(batch, batchSize - batch.size());
+                    long remaining = deadline - System.nanoTime();
+                    if (batch.size() >= batchSize || remaining <= 0 || !running) {
+                        break;
+                    }
+                    TransactionAudit next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                running = false;
+            }
+
+            if (!batch.isEmpty()) {
+                flush(batch);
+                batch.clear();
+            }
+        }
+    }
+
+    private void flush(List<TransactionAudit> batch) {
+        long start = System.nanoTime();
+        try {
+            transactionTemplate.executeWithoutResult(status -> auditRepository.saveAll(batch));
+
+            long elapsed = System.nanoTime() - start;
+            written.add(batch.size());
+            batches.increment();
+            lastBatchSize.set(batch.size());
+            flushNanos.add(elapsed);
+            maxFlushNanos.accumulateAndGet(elapsed, Math::max);
+
+            log.debug("Flushed {} transfer audits in {} ms", batch.size(), elapsed / 1_000_000);
+
+        } catch (RuntimeException e) {
+            writeFailures.increment();
+            log.error("Failed to write batch of {} transfer audits, spilling to {}", batch.size(), spillFile, e);
+            spill(batch);
+        }
+    }
+
+    private synchronized void spill(List<TransactionAudit> audits) {
+        try (BufferedWriter writer = Files.newBufferedWriter(spillFile, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+            for (TransactionAudit audit : audits) {
+                audit.setId(null);
+                writer.write(objectMapper.writeValueAsString(audit));
+                writer.newLine();
+            }
+            spilled.add(audits.size());
+        } catch (IOException e) {
+            dropped.add(audits.size());
+            log.error("Failed to spill {} transfer audits to {}, they are lost", audits.size(), spillFile, e);
+        }
+    }
+
+    private void replaySpillFile() {
+        Path replayFile = spillFile.resolveSibling(spillFile.getFileName() + ".replay");
+        List<TransactionAudit> audits = new ArrayList<>();
+
+        synchronized (this) {
+            if (!Files.exists(spillFile)) {
+                return;
+            }
+            try {
+                Files.move(spillFile, replayFile, StandardCopyOption.REPLACE_EXISTING);
+            } catch (IOException e) {
+                log.error("Cannot move audit spill file {} aside for replay", spillFile, e);
+                return;
+            }
+        }
+
+        try {
+            for (String line : Files.readAllLines(replayFile, StandardCharsets.UTF_8)) {
+                if (!line.isBlank()) {
+                    audits.add(objectMapper.readValue(line, TransactionAudit.class));
+                }
+            }
+        } catch (IOException e) {
+            log.error("Cannot read audit spill file {}, leaving it in place", replayFile, e);
+            return;
+        }
+
+        log.info("Replaying {} spilled transfer audits from {}", audits.size(), replayFile);
+        replayed.add(audits.size());
+        for (int from = 0; from < audits.size(); from += batchSize) {
+            List<TransactionAudit> batch = audits.subList(from, Math.min(from + batchSize, audits.size()));
+            flush(new ArrayList<>(batch));
+        }
+
+        try {
+            Files.deleteIfExists(replayFile);
+        } catch (IOException e) {
+            log.warn("Cannot delete replayed audit spill file {}", replayFile, e);
+        }
+    }
+
+    public AuditWriterStats getStats() {
+        long batchCount = batches.sum();
+        return AuditWriterStats.builder()
+                .queueDepth(queue.size())
+                .queueRemainingCapacity(queue.remainingCapacity())
+                .enqueued(enqueued.sum())
+                .written(written.sum())
+                .batches(batchCount)
+                .lastBatchSize(lastBatchSize.get())
+                .averageBatchSize(batchCount == 0 ? 0 : (double) written.sum() / batchCount)
+                .averageFlushMs(batchCount == 0 ? 0 : flushNanos.sum() / batchCount / 1_000_000.0)
+                .maxFlushMs(maxFlushNanos.get() / 1_000_000.0)
+                .writeFailures(writeFailures.sum())
+                .spilled(spilled.sum())
+                .replayed(replayed.sum())
+                .dropped(dropped.sum())
+                .build();
+    }
+}
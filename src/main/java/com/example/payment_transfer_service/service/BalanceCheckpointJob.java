@@ -0,0 +1,225 @@
+package com.example.payment_transfer_service.service;
+
+import com.example.payment_transfer_service.dto.BalanceCheckpointStats;
+import com.example.payment_transfer_service.entity.BalanceCheckpoint;
+import com.example.payment_transfer_service.repository.AccountCheckpointView;
+import com.example.payment_transfer_service.repository.AccountRepository;
+import com.example.payment_transfer_service.repository.BalanceCheckpointRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Writes balance checkpoints for every account whose posting sequence number moved since its last
+ * checkpoint. The account-id space is cut into ranges of {@code chunk-size} accounts with one index scan,
+ * and the ranges are checkpointed in parallel, each in its own short transaction, so a run never holds a
+ * long transaction or locks any account row.
+ * <p>
+ * Scheduled and manually requested passes run on the job's own coordinator thread, so a pass never holds
+ * a scheduler or request thread while it waits for its ranges.
+ */
+@Component
+@Slf4j
+public class BalanceCheckpointJob {
+
+    private final AccountRepository accountRepository;
+    private final BalanceCheckpointRepository checkpointRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    private final boolean enabled;
+    private final int chunkSize;
+    private final int parallelism;
+    private final ExecutorService executor;
+    private final ExecutorService coordinator;
+
+    private final AtomicBoolean running = new AtomicBoolean();
+    private final LongAdder runs = new LongAdder();
+    private final LongAdder checkpointsWritten = new LongAdder();
+    private volatile LocalDateTime lastRunStartedAt;
+    private volatile long lastRunDurationMs;
+    private volatile int lastRunChunks;
+    private volatile int lastRunFailedChunks;
+    private volatile long lastRunCheckpoints;
+
+    public BalanceCheckpointJob(AccountRepository accountRepository,
+                                BalanceCheckpointRepository checkpointRepository,
+                                TransactionTemplate transactionTemplate,
+                                @Value("${app.ledger.checkpoint.enabled:true}") boolean enabled,
+                                @Value("${app.ledger.checkpoint.chunk-size:1000}") int chunkSize,
+                                @Value("${app.ledger.checkpoint.parallelism:4}") int parallelism) {
+        this.accountRepository = accountRepository;
+        this.checkpointRepository = checkpointRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.enabled = enabled;
+        this.chunkSize = Math.max(1, chunkSize);
+        this.parallelism = Math.max(1, parallelism);
+        this.executor = Executors.newFixedThreadPool(this.parallelism, new CheckpointThreadFactory("balance-checkpoint-"));
+        this.coordinator = Executors.newSingleThreadExecutor(new CheckpointThreadFactory("balance-checkpoint-pass-"));
+    }
+
+    @Scheduled(cron = "${app.ledger.checkpoint.cron:0 5 0 * * *}")
+    public void runScheduled() {
+        if (enabled) {
+            startCheckpoints();
+        }
+    }
+
+    /**
+     * Starts a checkpoint pass on the coordinator thread and returns right away. Returns {@code false}
+     * when a pass is already running.
+     */
+    public boolean startCheckpoints() {
+        if (!running.compareAndSet(false, true)) {
+            log.info("Balance checkpoint pass already running, skipping");
+            return false;
+        }
+        try {
+            coordinator.execute(this::runPass);
+        } catch (RejectedExecutionException e) {
+            running.set(false);
+            throw e;
+        }
+        return true;
+    }
+
+    /**
+     * Runs one checkpoint pass on the calling thread and returns the number of checkpoints written, or
+     * {@code -1} when a pass is already running. A failed range is logged and skipped; its accounts are
+     * picked up by the next pass, and their balances stay answerable from older checkpoints and the ledger
+     * meanwhile.
+     */
+    public long createCheckpoints() {
+        if (!running.compareAndSet(false, true)) {
+            log.info("Balance checkpoint pass already running, skipping");
+            return -1;
+        }
+        return runPass();
+    }
+
+    private long runPass() {
+        LocalDateTime startedAt = LocalDateTime.now();
+        long startNanos = System.nanoTime();
+        try {
+            List<String> boundaries = accountRepository.findChunkBoundaries(chunkSize);
+
+            List<Future<Integer>> chunks = new ArrayList<>(boundaries.size() + 1);
+            String fromId = "";
+            for (String toId : boundaries) {
+                String lower = fromId;
+                chunks.add(executor.submit(() -> checkpointRange(lower, toId)));
+                fromId = toId;
+            }
+            String lastFromId = fromId;
+            chunks.add(executor.submit(() -> checkpointRange(lastFromId, null)));
+
+            long written = 0;
+            int failed = 0;
+            for (Future<Integer> chunk : chunks) {
+                try {
+                    written += chunk.get();
+                } catch (ExecutionException e) {
+                    failed++;
+                    log.error("Balance checkpoint range failed", e.getCause());
+                }
+            }
+
+            runs.increment();
+            checkpointsWritten.add(written);
+            lastRunStartedAt = startedAt;
+            lastRunDurationMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+            lastRunChunks = chunks.size();
+            lastRunFailedChunks = failed;
+            lastRunCheckpoints = written;
+
+            log.info("Balance checkpoint pass wrote {} checkpoints in {} ranges ({} failed) in {} ms",
+                    written, chunks.size(), failed, lastRunDurationMs);
+            return written;
+
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.warn("Balance checkpoint pass interrupted");
+            return 0;
+        } finally {
+            running.set(false);
+        }
+    }
+
+    /**
+     * Checkpoints the accounts with ids in {@code (fromId, toId]}, or above {@code fromId} when
+     * {@code toId} is {@code null}. The snapshot time is taken after the rows were read, so it is later
+     * than every posting the snapshot includes.
+     */
+    int checkpointRange(String fromId, String toId) {
+        Integer written = transactionTemplate.execute(status -> {
+            List<AccountCheckpointView> accounts = toId != null
+                    ? accountRepository.findCheckpointCandidates(fromId, toId)
+                    : accountRepository.findCheckpointCandidatesAfter(fromId);
+            if (accounts.isEmpty()) {
+                return 0;
+            }
+
+            LocalDateTime checkpointAt = LocalDateTime.now();
+            checkpointRepository.saveAll(accounts.stream()
+                    .map(account -> new BalanceCheckpoint(account.getId(), checkpointAt,
+                            account.getBalance(), account.getPostingSeq()))
+                    .toList());
+            return accounts.size();
+        });
+        return written != null ? written : 0;
+    }
+
+    public BalanceCheckpointStats getStats() {
+        return BalanceCheckpointStats.builder()
+                .enabled(enabled)
+                .running(running.get())
+                .chunkSize(chunkSize)
+                .parallelism(parallelism)
+                .runs(runs.sum())
+                .checkpointsWritten(checkpointsWritten.sum())
+                .lastRunStartedAt(lastRunStartedAt)
+                .lastRunDurationMs(lastRunDurationMs)
+                .lastRunChunks(lastRunChunks)
+                .lastRunFailedChunks(lastRunFailedChunks)
+                .lastRunCheckpoints(lastRunCheckpoints)
+                .build();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        coordinator.shutdownNow();
+        executor.shutdownNow();
+    }
+
+    private static final class CheckpointThreadFactory implements ThreadFactory {
+        private final String prefix;
+        private final AtomicInteger sequence = new AtomicInteger();
+
+        private CheckpointThreadFactory(String prefix) {
+            this.prefix = prefix;
+        }
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, prefix + sequence.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
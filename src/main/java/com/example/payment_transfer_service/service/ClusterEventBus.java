@@ -0,0 +1,181 @@
+package com.example.payment_transfer_service.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.regex.Pattern;
+
+/**
+ * Broadcasts small events to every instance of the service over PostgreSQL {@code LISTEN/NOTIFY}.
+ * <p>
+ * Events published inside a transaction are delivered when it commits and dropped when it rolls back.
+ * Each instance listens on a dedicated connection outside the pool. Notifications sent while that
+ * connection is down are lost, so subscribers are told about every reconnect and can resynchronise.
+ */
+@Component
+@Slf4j
+public class ClusterEventBus {
+
+    private static final Pattern CHANNEL_NAME = Pattern.compile("[a-z_][a-z0-9_]*");
+    private static final char SEPARATOR = '|';
+
+    private final JdbcTemplate jdbcTemplate;
+    private final DataSourceProperties dataSourceProperties;
+    private final boolean enabled;
+    private final String channel;
+    private final long reconnectDelayMs;
+
+    private final Map<String, List<Consumer<String>>> subscribers = new ConcurrentHashMap<>();
+    private final List<Runnable> reconnectListeners = new CopyOnWriteArrayList<>();
+
+    private final LongAdder published = new LongAdder();
+    private final LongAdder received = new LongAdder();
+    private final LongAdder connectionFailures = new LongAdder();
+
+    private volatile boolean running;
+    private Thread listenerThread;
+
+    public ClusterEventBus(JdbcTemplate jdbcTemplate,
+                           DataSourceProperties dataSourceProperties,
+                           @Value("${app.cluster.events.enabled:true}") boolean enabled,
+                           @Value("${app.cluster.events.channel:payment_cluster_events}") String channel,
+                           @Value("${app.cluster.events.reconnect-delay-ms:5000}") long reconnectDelayMs) {
+        if (!CHANNEL_NAME.matcher(channel).matches()) {
+            throw new IllegalArgumentException("Invalid cluster event channel name: " + channel);
+        }
+        this.jdbcTemplate = jdbcTemplate;
+        this.dataSourceProperties = dataSourceProperties;
+        this.enabled = enabled;
+        this.channel = channel;
+        this.reconnectDelayMs = reconnectDelayMs;
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!enabled) {
+            log.info("Cluster events are disabled, changes are not propagated to other instances");
+            return;
+        }
+        running = true;
+        listenerThread = new Thread(this::listen, "cluster-event-listener");
+        listenerThread.setDaemon(true);
+        listenerThread.start();
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        if (listenerThread != null) {
+            listenerThread.interrupt();
+            listenerThread.join(TimeUnit.SECONDS.toMillis(5));
+        }
+    }
+
+    public void subscribe(String topic, Consumer<String> handler) {
+        subscribers.computeIfAbsent(topic, key -> new CopyOnWriteArrayList<>()).add(handler);
+    }
+
+    public void onReconnect(Runnable listener) {
+        reconnectListeners.add(listener);
+    }
+
+    /**
+     * Sends an event to all instances, including this one. Joins the caller's transaction when there is one.
+     */
+    public void publish(String topic, String payload) {
+        if (!enabled) {
+            return;
+        }
+        jdbcTemplate.query("SELECT pg_notify(?, ?)", resultSet -> null, channel, topic + SEPARATOR + payload);
+        published.increment();
+    }
+
+    private void listen() {
+        boolean reconnect = false;
+        while (running) {
+            try (Connection connection = DriverManager.getConnection(dataSourceProperties.determineUrl(),
+                    dataSourceProperties.determineUsername(), dataSourceProperties.determinePassword())) {
+                PGConnection pgConnection = connection.unwrap(PGConnection.class);
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("LISTEN " + channel);
+                }
+                log.info("Listening for cluster events on channel {}", channel);
+
+                if (reconnect) {
+                    reconnectListeners.forEach(Runnable::run);
+                }
+                reconnect = true;
+
+                while (running) {
+                    PGNotification[] notifications = pgConnection.getNotifications(1000);
+                    if (notifications != null) {
+                        for (PGNotification notification : notifications) {
+                            dispatch(notification.getParameter());
+                        }
+                    }
+                }
+            } catch (SQLException e) {
+                if (!running) {
+                    return;
+                }
+                connectionFailures.increment();
+                log.warn("Cluster event connection failed, retrying in {} ms: {}", reconnectDelayMs, e.getMessage());
+                try {
+                    Thread.sleep(reconnectDelayMs);
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    void dispatch(String message) {
+        int separator = message.indexOf(SEPARATOR);
+        if (separator < 0) {
+            log.warn("Ignoring malformed cluster event: {}", message);
+            return;
+        }
+        received.increment();
+
+        String topic = message.substring(0, separator);
+        String payload = message.substring(separator + 1);
+        for (Consumer<String> handler : subscribers.getOrDefault(topic, List.of())) {
+            try {
+                handler.accept(payload);
+            } catch (RuntimeException e) {
+                log.error("Cluster event handler for topic {} failed", topic, e);
+            }
+        }
+    }
+
+    public long getPublished() {
+        return published.sum();
+    }
+
+    public long getReceived() {
+        return received.sum();
+    }
+
+    public long getConnectionFailures() {
+        return connectionFailures.sum();
+    }
+}
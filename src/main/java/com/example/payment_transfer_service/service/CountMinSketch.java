@@ -0,0 +1,63 @@
+package com.example.payment_transfer_service.service;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Fixed-size frequency sketch. Each key is added to one counter per row and its estimate is the smallest
+ * of those counters, so estimates never undercount and overcount by at most {@code total / width} with
+ * high probability. Updates are lock-free.
+ */
+final class CountMinSketch {
+
+    private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+
+    private final int width;
+    private final AtomicLongArray[] rows;
+
+    CountMinSketch(int width, int depth) {
+        this.width = width;
+        this.rows = new AtomicLongArray[depth];
+        for (int row = 0; row < depth; row++) {
+            rows[row] = new AtomicLongArray(width);
+        }
+    }
+
+    /**
+     * Adds {@code amount} to the key and returns its new estimate.
+     */
+    long add(String key, long amount) {
+        long hash = mix(key.hashCode());
+        long estimate = Long.MAX_VALUE;
+        for (int row = 0; row < rows.length; row++) {
+            estimate = Math.min(estimate, rows[row].addAndGet(index(hash, row), amount));
+        }
+        return estimate;
+    }
+
+    long estimate(String key) {
+        long hash = mix(key.hashCode());
+        long estimate = Long.MAX_VALUE;
+        for (int row = 0; row < rows.length; row++) {
+            estimate = Math.min(estimate, rows[row].get(index(hash, row)));
+        }
+        return estimate;
+    }
+
+    void clear() {
+        for (AtomicLongArray row : rows) {
+            for (int i = 0; i < width; i++) {
+                row.set(i, 0);
+            }
+        }
+    }
+
+    private int index(long hash, int row) {
+        return (int) Long.remainderUnsigned(mix(hash + (row + 1) * GOLDEN_GAMMA), width);
+    }
+
+    private static long mix(long value) {
+        value = (value ^ (value >>> 33)) * 0xFF51AFD7ED558CCDL;
+        value = (value ^ (value >>> 33)) * 0xC4CEB9FE1A85EC53L;
+        return value ^ (value >>> 33);
+    }
+}
@@ -0,0 +1,40 @@
+package com.example.payment_transfer_service.service;
+
+import com.example.payment_transfer_service.entity.Transaction;
+import com.example.payment_transfer_service.exception.PaymentException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Position in a history listing ordered by {@code (created_at, transaction_id)} descending: the key of the
+ * last row returned. Handed to clients as an opaque URL-safe token.
+ */
+record HistoryCursor(LocalDateTime createdAt, String transactionId) {
+
+    private static final String SEPARATOR = "|";
+
+    static HistoryCursor after(Transaction transaction) {
+        return new HistoryCursor(transaction.getCreatedAt(), transaction.getId());
+    }
+
+    String encode() {
+        String key = createdAt + SEPARATOR + transactionId;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(key.getBytes(StandardCharsets.UTF_8));
+    }
+
+    static HistoryCursor decode(String token) {
+        try {
+            String key = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = key.indexOf(SEPARATOR);
+            if (separator <= 0 || separator == key.length() - 1) {
+                throw new IllegalArgumentException("Malformed cursor");
+            }
+            return new HistoryCursor(LocalDateTime.parse(key.substring(0, separator)), key.substring(separator + 1));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new PaymentException("Invalid history cursor", "INVALID_CURSOR");
+        }
+    }
+}
@@ -0,0 +1,284 @@
+package com.example.payment_transfer_service.service;
+
+import com.example.payment_transfer_service.dto.HotAccount;
+import com.example.payment_transfer_service.dto.HotAccountsReport;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.LongSupplier;
+
+/**
+ * Streaming heavy-hitters tracker for row-lock contention. Every lock acquisition is counted, together
+ * with the time spent waiting for it, in a pair of count-min sketches per time epoch, and only the
+ * top-K accounts by wait time per epoch keep a wait-time histogram. Memory is fixed by the sketch size,
+ * K and the number of retained epochs, no matter how many accounts are locked.
+ */
+@Component
+public class HotAccountTracker {
+
+    private static final double NANOS_PER_MS = 1_000_000.0;
+
+    private static final int SUB_BUCKETS = 4;
+    private static final int MIN_EXPONENT = 10;
+    private static final int MAX_EXPONENT = 40;
+    private static final int HISTOGRAM_BUCKETS = 1 + (MAX_EXPONENT - MIN_EXPONENT + 1) * SUB_BUCKETS;
+
+    private final boolean enabled;
+    private final int topK;
+    private final int sketchWidth;
+    private final int sketchDepth;
+    private final long epochMillis;
+    private final int epochs;
+    private final LongSupplier clock;
+
+    private final AtomicReferenceArray<Epoch> ring;
+
+    @Autowired
+    public HotAccountTracker(
+            @Value("${app.transfer.hot-accounts.enabled:true}") boolean enabled,
+            @Value("${app.transfer.hot-accounts.top-k:32}") int topK,
+            @Value("${app.transfer.hot-accounts.sketch-width:1024}") int sketchWidth,
+            @Value("${app.transfer.hot-accounts.sketch-depth:4}") int sketchDepth,
+            @Value("${app.transfer.hot-accounts.epoch-seconds:10}") long epochSeconds,
+            @Value("${app.transfer.hot-accounts.epochs:30}") int epochs) {
+        this(enabled, topK, sketchWidth, sketchDepth, epochSeconds, epochs, System::currentTimeMillis);
+    }
+
+    HotAccountTracker(boolean enabled, int topK, int sketchWidth, int sketchDepth, long epochSeconds, int epochs,
+                      LongSupplier clock) {
+        this.enabled = enabled;
+        this.topK = Math.max(1, topK);
+        this.sketchWidth = Math.max(16, sketchWidth);
+        this.sketchDepth = Math.max(1, sketchDepth);
+        this.epochMillis = Math.max(1, epochSeconds) * 1000;
+        this.epochs = Math.max(1, epochs);
+        this.clock = clock;
+        this.ring = new AtomicReferenceArray<>(this.epochs);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Records one row-lock acquisition on the account and how long the caller waited for it.
+     */
+    public void recordLockWait(String accountId, long waitNanos) {
+        if (!enabled || accountId == null) {
+            return;
+        }
+        Epoch epoch = currentEpoch();
+        if (epoch == null) {
+            return;
+        }
+        long nanos = Math.max(0, waitNanos);
+        epoch.acquisitions.add(accountId, 1);
+        long waitEstimate = epoch.waitNanos.add(accountId, nanos);
+
+        Candidate candidate = epoch.candidates.get(accountId);
+        if (candidate == null) {
+            if (epoch.candidates.size() >= topK && waitEstimate <= epoch.admissionThreshold) {
+                return;
+            }
+            candidate = epoch.admit(accountId, waitEstimate);
+            if (candidate == null) {
+                return;
+            }
+        }
+        candidate.record(nanos);
+    }
+
+    /**
+     * Returns the accounts with the most lock-wait time over the trailing window, hottest first. The
+     * window is rounded up to whole epochs and capped at the retained history.
+     */
+    public HotAccountsReport getHotAccounts(int limit, long windowSeconds) {
+        int windowEpochs = (int) Math.min(epochs, Math.max(1,
+                (Math.max(0, windowSeconds) * 1000 + epochMillis - 1) / epochMillis));
+        long current = clock.getAsLong() / epochMillis;
+
+        List<Epoch> window = new ArrayList<>(windowEpochs);
+        for (int i = 0; i < epochs; i++) {
+            Epoch epoch = ring.get(i);
+            if (epoch != null && epoch.number <= current && epoch.number > current - windowEpochs) {
+                window.add(epoch);
+            }
+        }
+
+        Map<String, long[]> histograms = new HashMap<>();
+        Map<String, Long> maxima = new HashMap<>();
+        for (Epoch epoch : window) {
+            epoch.candidates.forEach((accountId, candidate) -> {
+                long[] merged = histograms.computeIfAbsent(accountId, id -> new long[HISTOGRAM_BUCKETS]);
+                for (int bucket = 0; bucket < HISTOGRAM_BUCKETS; bucket++) {
+                    merged[bucket] += candidate.histogram.get(bucket);
+                }
+                maxima.merge(accountId, candidate.maxNanos.get(), Math::max);
+            });
+        }
+
+        List<HotAccount> accounts = new ArrayList<>(histograms.size());
+        histograms.forEach((accountId, histogram) -> {
+            long acquisitions = 0;
+            long waitNanos = 0;
+            for (Epoch epoch : window) {
+                acquisitions += epoch.acquisitions.estimate(accountId);
+                waitNanos += epoch.waitNanos.estimate(accountId);
+            }
+            long maxNanos = maxima.get(accountId);
+            accounts.add(HotAccount.builder()
+                    .accountId(accountId)
+                    .lockAcquisitions(acquisitions)
+                    .totalLockWaitMs(waitNanos / NANOS_PER_MS)
+                    .averageLockWaitMs(acquisitions == 0 ? 0 : waitNanos / NANOS_PER_MS / acquisitions)
+                    .p50LockWaitMs(percentile(histogram, 0.50, maxNanos) / NANOS_PER_MS)
+                    .p99LockWaitMs(percentile(histogram, 0.99, maxNanos) / NANOS_PER_MS)
+                    .maxLockWaitMs(maxNanos / NANOS_PER_MS)
+                    .build());
+        });
+        accounts.sort(Comparator.comparingDouble(HotAccount::getTotalLockWaitMs).reversed()
+                .thenComparing(HotAccount::getAccountId));
+
+        return HotAccountsReport.builder()
+                .windowSeconds(windowEpochs * epochMillis / 1000)
+                .trackedAccounts(accounts.size())
+                .accounts(accounts.subList(0, Math.min(Math.max(0, limit), accounts.size())))
+                .build();
+    }
+
+    /**
+     * Returns the slot for the current epoch, replacing whatever older epoch it held. A caller that
+     * finds a newer epoch in the slot was delayed across the boundary and its sample is dropped.
+     */
+    private Epoch currentEpoch() {
+        long number = clock.getAsLong() / epochMillis;
+        int slot = (int) Math.floorMod(number, (long) epochs);
+        while (true) {
+            Epoch epoch = ring.get(slot);
+            if (epoch != null && epoch.number == number) {
+                return epoch;
+            }
+            if (epoch != null && epoch.number > number) {
+                return null;
+            }
+            Epoch fresh = new Epoch(number);
+            if (ring.compareAndSet(slot, epoch, fresh)) {
+                return fresh;
+            }
+        }
+    }
+
+    static int bucketOf(long nanos) {
+        if (nanos < (1L << MIN_EXPONENT)) {
+            return 0;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(nanos);
+        if (exponent > MAX_EXPONENT) {
+            return HISTOGRAM_BUCKETS - 1;
+        }
+        int subBucket = (int) ((nanos >>> (exponent - 2)) & (SUB_BUCKETS - 1));
+        return 1 + (exponent - MIN_EXPONENT) * SUB_BUCKETS + subBucket;
+    }
+
+    static long bucketUpperBound(int bucket) {
+        if (bucket == 0) {
+            return 1L << MIN_EXPONENT;
+        }
+        int exponent = MIN_EXPONENT + (bucket - 1) / SUB_BUCKETS;
+        int subBucket = (bucket - 1) % SUB_BUCKETS;
+        return (long) (SUB_BUCKETS + 1 + subBucket) << (exponent - 2);
+    }
+
+    private static long percentile(long[] histogram, double quantile, long maxNanos) {
+        long count = 0;
+        for (long bucketCount : histogram) {
+            count += bucketCount;
+        }
+        if (count == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(quantile * count));
+        long seen = 0;
+        for (int bucket = 0; bucket < histogram.length; bucket++) {
+            seen += histogram[bucket];
+            if (seen >= rank) {
+                return Math.min(bucketUpperBound(bucket), maxNanos);
+            }
+        }
+        return maxNanos;
+    }
+
+    private final class Epoch {
+
+        private final long number;
+        private final CountMinSketch acquisitions = new CountMinSketch(sketchWidth, sketchDepth);
+        private final CountMinSketch waitNanos = new CountMinSketch(sketchWidth, sketchDepth);
+        private final Map<String, Candidate> candidates = new ConcurrentHashMap<>();
+
+        /** Wait estimate of the coolest candidate once the set is full; cheaper accounts skip the lock. */
+        private volatile long admissionThreshold;
+
+        private Epoch(long number) {
+            this.number = number;
+        }
+
+        /**
+         * Adds the account to the top-K set, evicting the candidate with the smallest wait estimate when
+         * the set is full. K is small, so a linear scan under the lock beats maintaining a heap whose
+         * keys change on every sample.
+         */
+        private synchronized Candidate admit(String accountId, long waitEstimate) {
+            Candidate existing = candidates.get(accountId);
+            if (existing != null) {
+                return existing;
+            }
+            if (candidates.size() >= topK) {
+                String coolest = null;
+                long coolestEstimate = Long.MAX_VALUE;
+                for (String candidateId : candidates.keySet()) {
+                    long estimate = waitNanos.estimate(candidateId);
+                    if (estimate < coolestEstimate) {
+                        coolest = candidateId;
+                        coolestEstimate = estimate;
+                    }
+                }
+                if (coolestEstimate >= waitEstimate) {
+                    admissionThreshold = coolestEstimate;
+                    return null;
+                }
+                candidates.remove(coolest);
+            }
+            Candidate candidate = new Candidate();
+            candidates.put(accountId, candidate);
+            if (candidates.size() >= topK) {
+                long threshold = Long.MAX_VALUE;
+                for (String candidateId : candidates.keySet()) {
+                    threshold = Math.min(threshold, waitNanos.estimate(candidateId));
+                }
+                admissionThreshold = threshold;
+            }
+            return candidate;
+        }
+    }
+
+    private static final class Candidate {
+
+        private final AtomicLongArray histogram = new AtomicLongArray(HISTOGRAM_BUCKETS);
+        private final AtomicLong maxNanos = new AtomicLong();
+
+        private void record(long nanos) {
+            histogram.incrementAndGet(bucketOf(nanos));
+            maxNanos.accumulateAndGet(nanos, Math::max);
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package com.example.payment_transfer_service.service;
+
+import com.example.payment_transfer_service.dto.AccountBalance;
+import com.example.payment_transfer_service.entity.Account;
+import com.example.payment_transfer_service.entity.BalanceCheckpoint;
+import com.example.payment_transfer_service.entity.LedgerPosting;
+import com.example.payment_transfer_service.entity.Transaction;
+import com.example.payment_transfer_service.exception.AccountNotFoundException;
+import com.example.payment_transfer_service.exception.PaymentException;
+import com.example.payment_transfer_service.repository.AccountRepository;
+import com.example.payment_transfer_service.repository.BalanceCheckpointRepository;
+import com.example.payment_transfer_service.repository.LedgerPostingRepository;
+import com.example.payment_transfer_service.repository.PostingDeltaView;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Double-entry ledger. Every completed transfer is written as two immutable postings, a debit of the
+ * source and a credit of the destination, each numbered by its account's posting sequence and carrying
+ * the balance after the movement. Account history, statements and point-in-time balances are then
+ * ordered range scans of one account's postings instead of OR filters over both transaction columns.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class LedgerService {
+
+    private static final Pageable SINGLE_ROW = PageRequest.of(0, 1);
+
+    private final LedgerPostingRepository ledgerPostingRepository;
+    private final AccountRepository accountRepository;
+    private final AccountService accountService;
+    private final BalanceCheckpointRepository checkpointRepository;
+
+    /**
+     * Builds the debit and credit postings of a completed transfer. The transaction must already have its
+     * id, and the sequence numbers must have been claimed while the accounts were held.
+     */
+    public List<LedgerPosting> transferPostings(Transaction transaction,
+                                                long sourceSeq, BigDecimal sourceBalanceAfter,
+                                                long destSeq, BigDecimal destBalanceAfter) {
+        return List.of(
+                posting(transaction, transaction.getSourceAccountId(), sourceSeq,
+                        transaction.getAmount().negate(), sourceBalanceAfter),
+                posting(transaction, transaction.getDestinationAccountId(), destSeq,
+                        transaction.getAmount(), destBalanceAfter));
+    }
+
+    /**
+     * Builds only the debit posting of a completed transfer, for a transfer whose credit was added to a
+     * stripe of the destination and is posted when the stripes are folded.
+     */
+    public LedgerPosting debitPosting(Transaction transaction, long sourceSeq, BigDecimal sourceBalanceAfter) {
+        return posting(transaction, transaction.getSourceAccountId(), sourceSeq,
+                transaction.getAmount().negate(), sourceBalanceAfter);
+    }
+
+    /**
+     * Writes postings in the caller's transaction, so they commit or roll back with the balance change.
+     */
+    public void recordPostings(List<LedgerPosting> postings) {
+        ledgerPostingRepository.saveAll(postings);
+    }
+
+    /**
+     * Newest-first window of an account's postings with their transactions, starting below the given
+     * sequence number, or at the newest posting when it is {@code null}.
+     */
+    public List<LedgerPosting> findPostings(String accountId, Long beforeSeq, int count) {
+        Pageable window = PageRequest.of(0, count);
+        return beforeSeq == null
+                ? ledgerPostingRepository.findLatestByAccountId(accountId, window)
+                : ledgerPostingRepository.findByAccountIdBefore(accountId, beforeSeq, window);
+    }
+
+    /**
+     * Balance of an account at the given time. It starts from the latest {@link BalanceCheckpoint} at or
+     * before that time and adds the postings above the checkpoint's sequence number that were posted by
+     * then. Without such a checkpoint it is the balance after the latest posting at or before the time,
+     * the balance the first posting started from, or, for an account without postings, the current
+     * balance. A missing time means now.
+     */
+    @Transactional(readOnly = true)
+    public AccountBalance getBalanceAsOf(String accountId, String userId, LocalDateTime asOf) {
+        if (!accountService.validateAccountOwnership(accountId, userId)) {
+            throw new PaymentException("Account access denied", "ACCOUNT_ACCESS_DENIED");
+        }
+
+        Account account = accountRepository.findById(accountId)
+                .orElseThrow(() -> new AccountNotFoundException(accountId));
+        LocalDateTime pointInTime = asOf != null ? asOf : LocalDateTime.now();
+
+        AccountBalance.AccountBalanceBuilder balance = AccountBalance.builder()
+                .accountId(accountId)
+                .currency(account.getCurrency())
+                .asOf(pointInTime);
+
+        List<BalanceCheckpoint> checkpoints = checkpointRepository.findLatestAtOrBefore(accountId, pointInTime,
+                SINGLE_ROW);
+        if (!checkpoints.isEmpty()) {
+            BalanceCheckpoint checkpoint = checkpoints.get(0);
+            PostingDeltaView delta = ledgerPostingRepository.sumAfter(accountId, checkpoint.getPostingSeq(), pointInTime);
+            return balance
+                    .balance(delta.getDelta() != null ? checkpoint.getBalance().add(delta.getDelta()) : checkpoint.getBalance())
+                    .postingSeq(delta.getLastSeq() != null ? delta.getLastSeq() : checkpoint.getPostingSeq())
+                    .checkpointAt(checkpoint.getCheckpointAt())
+                    .build();
+        }
+
+        List<LedgerPosting> latest = ledgerPostingRepository.findLatestAtOrBefore(accountId, pointInTime, SINGLE_ROW);
+        if (!latest.isEmpty()) {
+            LedgerPosting posting = latest.get(0);
+            return balance.balance(posting.getBalanceAfter()).postingSeq(posting.getSeq()).build();
+        }
+
+        List<LedgerPosting> first = ledgerPostingRepository.findEarliestAfter(accountId, pointInTime, SINGLE_ROW);
+        if (!first.isEmpty()) {
+            LedgerPosting posting = first.get(0);
+            return balance.balance(posting.getBalanceBefore()).postingSeq(posting.getSeq() - 1).build();
+        }
+
+        return balance.balance(account.getBalance()).postingSeq(account.getPostingSeq()).build();
+    }
+
+    private LedgerPosting posting(Transaction transaction, String accountId, long seq,
+                                  BigDecimal amount, BigDecimal balanceAfter) {
+        return LedgerPosting.of(accountId, seq, transaction.getId(), amount, balanceAfter, transaction.getCompletedAt());
+    }
+}
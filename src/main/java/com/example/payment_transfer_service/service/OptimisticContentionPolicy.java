@@ -0,0 +1,152 @@
+package com.example.payment_transfer_service.service;
+
+import com.example.payment_transfer_service.dto.OptimisticLockingStats;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Retry and fallback policy for the optimistic transfer engine. Transfers retry version conflicts with
+ * bounded, jittered exponential backoff. An account whose transfers exhaust their retries repeatedly is
+ * moved to the pessimistic path for a cool-down window, after which it is tried optimistically again.
+ */
+@Component
+@Slf4j
+public class OptimisticContentionPolicy {
+
+    private final int maxAttempts;
+    private final long backoffBaseMs;
+    private final long backoffMaxMs;
+    private final int fallbackThreshold;
+    private final long cooldownMs;
+
+    private final Map<String, AccountContention> contention = new ConcurrentHashMap<>();
+
+    private final LongAdder attempts = new LongAdder();
+    private final LongAdder conflicts = new LongAdder();
+    private final LongAdder retries = new LongAdder();
+    private final LongAdder exhausted = new LongAdder();
+    private final LongAdder fallbacks = new LongAdder();
+    private final LongAdder cooldownsStarted = new LongAdder();
+
+    public OptimisticContentionPolicy(
+            @Value("${app.transfer.optimistic.max-attempts:3}") int maxAttempts,
+            @Value("${app.transfer.optimistic.backoff-base-ms:5}") long backoffBaseMs,
+            @Value("${app.transfer.optimistic.backoff-max-ms:100}") long backoffMaxMs,
+            @Value("${app.transfer.optimistic.fallback-threshold:2}") int fallbackThreshold,
+            @Value("${app.transfer.optimistic.cooldown-ms:30000}") long cooldownMs) {
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.backoffBaseMs = Math.max(1, backoffBaseMs);
+        this.backoffMaxMs = Math.max(this.backoffBaseMs, backoffMaxMs);
+        this.fallbackThreshold = Math.max(1, fallbackThreshold);
+        this.cooldownMs = cooldownMs;
+    }
+
+    public int getMaxAttempts() {
+        return maxAttempts;
+    }
+
+    public boolean isCoolingDown(Collection<String> accountIds) {
+        long now = System.currentTimeMillis();
+        boolean coolingDown = false;
+
+        for (String accountId : accountIds) {
+            AccountContention state = contention.get(accountId);
+            if (state == null || state.cooldownUntil == 0) {
+                continue;
+            }
+            if (state.cooldownUntil > now) {
+                coolingDown = true;
+            } else {
+                contention.remove(accountId, state);
+                log.info("Account {} left the pessimistic cool-down window", accountId);
+            }
+        }
+        return coolingDown;
+    }
+
+    public void recordAttempt() {
+        attempts.increment();
+    }
+
+    public void recordConflict() {
+        conflicts.increment();
+    }
+
+    public void recordFallback() {
+        fallbacks.increment();
+    }
+
+    public void recordSuccess(Collection<String> accountIds) {
+        for (String accountId : accountIds) {
+            contention.computeIfPresent(accountId, (id, state) -> state.cooldownUntil == 0 ? null : state);
+        }
+    }
+
+    /**
+     * Records that a transfer exhausted its retries because of the given accounts. Once an account
+     * reaches the fallback threshold it is placed on the pessimistic path for the cool-down window.
+     */
+    public void recordExhausted(Collection<String> accountIds) {
+        exhausted.increment();
+        long now = System.currentTimeMillis();
+
+        for (String accountId : accountIds) {
+            contention.compute(accountId, (id, state) -> {
+                AccountContention next = state == null ? new AccountContention() : state;
+                next.failures++;
+                if (next.failures >= fallbackThreshold && next.cooldownUntil <= now) {
+                    next.cooldownUntil = now + cooldownMs;
+                    next.failures = 0;
+                    cooldownsStarted.increment();
+                    log.warn("Account {} keeps failing optimistic transfers, using pessimistic locking for {} ms",
+                            id, cooldownMs);
+                }
+                return next;
+            });
+        }
+    }
+
+    /**
+     * Sleeps before the next attempt using exponential backoff with equal jitter, capped at the
+     * configured maximum.
+     *
+     * @return {@code false} if the thread was interrupted and the caller should stop retrying
+     */
+    public boolean backoff(int attempt) {
+        retries.increment();
+        long cap = Math.min(backoffMaxMs, backoffBaseMs << Math.min(attempt - 1, 20));
+        long delay = cap / 2 + ThreadLocalRandom.current().nextLong(cap / 2 + 1);
+        try {
+            Thread.sleep(delay);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    public OptimisticLockingStats getStats() {
+        long now = System.currentTimeMillis();
+        return OptimisticLockingStats.builder()
+                .attempts(attempts.sum())
+                .conflicts(conflicts.sum())
+                .retries(retries.sum())
+                .exhausted(exhausted.sum())
+                .fallbacks(fallbacks.sum())
+                .cooldownsStarted(cooldownsStarted.sum())
+                .accountsInCooldown(contention.values().stream().filter(s -> s.cooldownUntil > now).count())
+                .build();
+    }
+
+    private static final class AccountContention {
+        private int failures;
+        private long cooldownUntil;
+    }
+}
@@ -0,0 +1,134 @@
+package com.example.payment_transfer_service.service;
+
+import com.example.payment_transfer_service.dto.OutboxRelayStats;
+import com.example.payment_transfer_service.entity.OutboxEvent;
+import com.example.payment_transfer_service.entity.TransactionAudit;
+import com.example.payment_transfer_service.repository.OutboxEventRepository;
+import com.example.payment_transfer_service.repository.TransactionAuditRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Drains the transfer outbox. Each batch is claimed with {@code FOR UPDATE SKIP LOCKED}, copied into
+ * {@code transaction_audit}, published to every {@link TransferEventSink} and deleted, all in one
+ * transaction, so several instances can relay in parallel without processing a row twice.
+ */
+@Component
+@Slf4j
+public class OutboxRelay {
+
+    private final OutboxEventRepository outboxRepository;
+    private final TransactionAuditRepository auditRepository;
+    private final ObjectProvider<TransferEventSink> eventSinks;
+    private final TransactionTemplate transactionTemplate;
+
+    private final boolean enabled;
+    private final int batchSize;
+
+    private final LongAdder relayed = new LongAdder();
+    private final LongAdder batches = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+    private final LongAdder lagMillis = new LongAdder();
+    private final AtomicLong lastBatchSize = new AtomicLong();
+    private final AtomicLong lastRelayLagMs = new AtomicLong();
+    private final AtomicLong maxRelayLagMs = new AtomicLong();
+
+    public OutboxRelay(OutboxEventRepository outboxRepository,
+                       TransactionAuditRepository auditRepository,
+                       ObjectProvider<TransferEventSink> eventSinks,
+                       TransactionTemplate transactionTemplate,
+                       @Value("${app.audit.outbox.relay-enabled:true}") boolean enabled,
+                       @Value("${app.audit.outbox.batch-size:500}") int batchSize) {
+        this.outboxRepository = outboxRepository;
+        this.auditRepository = auditRepository;
+        this.eventSinks = eventSinks;
+        this.transactionTemplate = transactionTemplate;
+        this.enabled = enabled;
+        this.batchSize = Math.max(1, batchSize);
+    }
+
+    @Scheduled(fixedDelayString = "${app.audit.outbox.poll-interval-ms:200}")
+    public void relayPending() {
+        if (!enabled) {
+            return;
+        }
+
+        try {
+            int relayedInBatch;
+            do {
+                relayedInBatch = relayBatch();
+            } while (relayedInBatch == batchSize);
+
+        } catch (RuntimeException e) {
+            failures.increment();
+            log.error("Outbox relay failed, pending events will be retried", e);
+        }
+    }
+
+    public int relayBatch() {
+        List<OutboxEvent> events = transactionTemplate.execute(status -> {
+            List<OutboxEvent> batch = outboxRepository.lockNextBatch(batchSize);
+            if (batch.isEmpty()) {
+                return batch;
+            }
+
+            List<TransactionAudit> audits = batch.stream().map(OutboxEvent::toAudit).toList();
+            auditRepository.saveAll(audits);
+            eventSinks.orderedStream().forEach(sink -> sink.publish(batch));
+            outboxRepository.deleteAllInBatch(batch);
+            return batch;
+        });
+
+        if (events == null || events.isEmpty()) {
+            return 0;
+        }
+        recordBatch(events);
+        return events.size();
+    }
+
+    private void recordBatch(List<OutboxEvent> events) {
+        LocalDateTime now = LocalDateTime.now();
+        long batchLag = 0;
+        for (OutboxEvent event : events) {
+            long lag = Math.max(0, Duration.between(event.getCreatedAt(), now).toMillis());
+            lagMillis.add(lag);
+            batchLag = Math.max(batchLag, lag);
+        }
+
+        relayed.add(events.size());
+        batches.increment();
+        lastBatchSize.set(events.size());
+        lastRelayLagMs.set(batchLag);
+        maxRelayLagMs.accumulateAndGet(batchLag, Math::max);
+
+        log.debug("Relayed {} outbox events, oldest was {} ms old", events.size(), batchLag);
+    }
+
+    public OutboxRelayStats getStats() {
+        LocalDateTime oldest = outboxRepository.findOldestCreatedAt();
+        long relayedCount = relayed.sum();
+        return OutboxRelayStats.builder()
+                .enabled(enabled)
+                .batchSize(batchSize)
+                .backlog(outboxRepository.count())
+                .oldestPendingAgeMs(oldest != null ? Math.max(0, Duration.between(oldest, LocalDateTime.now()).toMillis()) : 0)
+                .relayed(relayedCount)
+                .batches(batches.sum())
+                .failures(failures.sum())
+                .lastBatchSize(lastBatchSize.get())
+                .lastRelayLagMs(lastRelayLagMs.get())
+                .maxRelayLagMs(maxRelayLagMs.get())
+                .averageRelayLagMs(relayedCount == 0 ? 0 : (double) lagMillis.sum() / relayedCount)
+                .build();
+    }
+}
@@ -1,5 +1,7 @@
 package com.example.payment_transfer_service.service;
 
+import com.example.payment_transfer_service.dto.BatchTransferResult;
+import com.example.payment_transfer_service.dto.TransactionHistoryPage;
 import com.example.payment_transfer_service.dto.TransferRequest;
 import com.example.payment_transfer_service.dto.UserTransferRequest;
 import com.example.payment_transfer_service.dto.TransferResult;
@@ -7,23 +9,41 @@ import com.example.payment_transfer_service.dto.UserTransactionHistory;
 import com.example.payment_transfer_service.entity.*;
 import com.example.payment_transfer_service.exception.*;
 import com.example.payment_transfer_service.repository.AccountRepository;
+import com.example.payment_transfer_service.repository.BalancePostingView;
 import com.example.payment_transfer_service.repository.TransactionRepository;
 import com.example.payment_transfer_service.repository.UserRepository;
 
 import com.example.payment_transfer_service.security.UserPrincipal;
+import io.micrometer.core.instrument.Timer;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.PessimisticLockingFailureException;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.security.concurrent.DelegatingSecurityContextCallable;
+import org.springframework.security.concurrent.DelegatingSecurityContextRunnable;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.math.BigDecimal;
+import java.sql.SQLException;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
@@ -31,57 +51,317 @@ import java.util.stream.Collectors;
 @Slf4j
 public class PaymentTransferService {
 
+    private static final int NO_STRIPE = -1;
+
     private final AccountRepository accountRepository;
     private final TransactionRepository transactionRepository;
     private final UserRepository userRepository;
     private final AccountService accountService;
     private final AuditService auditService;
+    private final OptimisticContentionPolicy contentionPolicy;
+    private final TransactionTemplate transactionTemplate;
+    private final TransferWorkQueue transferWorkQueue;
+    private final AccountDisplayNameCache displayNameCache;
+    private final TransferMetrics transferMetrics;
+    private final HotAccountTracker hotAccountTracker;
+    private final LedgerService ledgerService;
+    private final StripedBalanceService stripedBalances;
+    private final TransferCombiner transferCombiner;
+    private final AccountLaneExecutor accountLanes;
+
+    @Value("${app.transfer.engine:PESSIMISTIC}")
+    private TransferEngineMode engineMode;
+
+    @Value("${app.history.max-page-size:200}")
+    private int maxHistoryPageSize = 200;
+
+    @Value("${app.history.max-list-size:500}")
+    private int maxHistoryListSize = 500;
 
-    @Transactional
     public TransferResult transferFunds(TransferRequest request) {
-        log.info("Starting legacy transfer from {} to {} for amount {}",
+        return runTransfer(request, null);
+    }
+
+    /**
+     * Accepts a transfer for asynchronous execution. The request is validated and persisted as a
+     * {@code PENDING} transaction in its own transaction, so that it can be polled immediately, and is
+     * then handed to the {@link TransferWorkQueue}. When the queue is full the transfer is rejected
+     * with {@code QUEUE_FULL} and, if it was already persisted, marked as failed.
+     */
+    public TransferResult submitTransfer(TransferRequest request) {
+        validateTransferRequest(request);
+
+        if (!transferWorkQueue.hasCapacity()) {
+            log.warn("Rejecting asynchronous transfer from {} to {}: queue is full",
+                    request.getSourceAccountId(), request.getDestinationAccountId());
+            return TransferResult.failure("Transfer queue is full, please retry later", "QUEUE_FULL");
+        }
+
+        Transaction transaction = transactionTemplate.execute(status -> createPendingTransaction(request));
+        String transactionId = transaction.getId();
+
+        try {
+            transferWorkQueue.submit(new DelegatingSecurityContextRunnable(
+                    () -> completePendingTransfer(transactionId), SecurityContextHolder.getContext()));
+        } catch (RejectedExecutionException e) {
+            log.warn("Rejecting asynchronous transfer {}: queue is full", transactionId);
+            transactionTemplate.executeWithoutResult(status -> transactionRepository.findById(transactionId)
+                    .ifPresent(pending -> {
+                        pending.setStatus(TransactionStatus.FAILED);
+                        pending.setFailureReason("Transfer queue is full");
+                        transactionRepository.save(pending);
+                    }));
+            return TransferResult.failure("Transfer queue is full, please retry later", "QUEUE_FULL");
+        }
+
+        log.info("Asynchronous transfer {} accepted from {} to {} for amount {}", transactionId,
                 request.getSourceAccountId(), request.getDestinationAccountId(), request.getAmount());
 
-        String userId = null;
-        BigDecimal sourceBalanceBefore = null;
-        BigDecimal destBalanceBefore = null;
-        Transaction transaction = null;
+        return TransferResult.builder()
+                .success(true)
+                .transactionId(transactionId)
+                .message("Transfer accepted for processing")
+                .transactionType(transaction.getTransactionType())
+                .build();
+    }
+
+    /**
+     * Executes a transfer previously persisted by {@link #submitTransfer(TransferRequest)}. Transfers that
+     * are no longer {@code PENDING} are skipped. The status is checked again under the transaction's row
+     * lock, so a transfer resubmitted by the {@link PendingTransferSweeper} never runs twice.
+     */
+    public TransferResult completePendingTransfer(String transactionId) {
+        Transaction pending = getTransactionById(transactionId);
+
+        if (pending.getStatus() != TransactionStatus.PENDING) {
+            log.warn("Skipping asynchronous transfer {} in status {}", transactionId, pending.getStatus());
+            return TransferResult.failure("Transfer is no longer pending", "TRANSFER_NOT_PENDING");
+        }
+
+        TransferRequest request = new TransferRequest();
+        request.setSourceAccountId(pending.getSourceAccountId());
+        request.setDestinationAccountId(pending.getDestinationAccountId());
+        request.setAmount(pending.getAmount());
+        request.setCurrency(pending.getCurrency());
+        request.setDescription(pending.getDescription());
+        request.setReference(pending.getReference());
+
+        return runTransfer(request, transactionId);
+    }
 
+    private TransferResult runTransfer(TransferRequest request, String pendingTransactionId) {
+        TransferEngineMode mode = engineMode != null ? engineMode : TransferEngineMode.PESSIMISTIC;
+        Timer.Sample sample = transferMetrics.startTransfer();
+        boolean success = false;
+        try {
+            TransferResult result;
+            if (accountLanes.isEnabled()) {
+                result = runOnLanes(request, mode, pendingTransactionId);
+            } else {
+                result = transferCombiner.isEnabled() ? combineTransfer(request, pendingTransactionId) : null;
+                if (result == null) {
+                    result = runOnEngine(request, mode, pendingTransactionId);
+                }
+            }
+            success = result != null && result.isSuccess();
+            return result;
+        } finally {
+            transferMetrics.recordTransfer(sample, mode, success);
+        }
+    }
+
+    /**
+     * Runs the transfer with the configured engine. A deadlock or lock timeout aborts the database
+     * transaction, so it is classified here, once the transaction has rolled back, and the failure is
+     * recorded in a new one.
+     */
+    private TransferResult runOnEngine(TransferRequest request, TransferEngineMode mode, String pendingTransactionId) {
+        try {
+            return mode == TransferEngineMode.OPTIMISTIC
+                    ? transferOptimistically(request, pendingTransactionId)
+                    : transactionTemplate.execute(status -> executeTransfer(request, mode, pendingTransactionId));
+        } catch (RuntimeException e) {
+            String lockFailure = lockFailureCode(e);
+            if (lockFailure == null) {
+                throw e;
+            }
+            return recordLockFailure(request, pendingTransactionId, lockFailure);
+        }
+    }
+
+    private TransferResult recordLockFailure(TransferRequest request, String pendingTransactionId, String lockFailure) {
+        log.warn("Legacy transfer from {} to {} failed to lock its accounts: {}",
+                request.getSourceAccountId(), request.getDestinationAccountId(), lockFailure);
+        transferMetrics.recordError(lockFailure);
+
+        String currentUserId;
+        try {
+            currentUserId = getCurrentUserId();
+        } catch (RuntimeException e) {
+            currentUserId = "UNKNOWN";
+        }
+        String userId = currentUserId;
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                if (pendingTransactionId == null) {
+                    Transaction transaction = newTransaction(request, userId);
+                    transaction.setStatus(TransactionStatus.FAILED);
+                    transaction.setFailureReason("Accounts are busy: " + lockFailure);
+                    transactionRepository.save(transaction);
+                } else {
+                    transactionRepository.findById(pendingTransactionId)
+                            .filter(pending -> pending.getStatus() == TransactionStatus.PENDING)
+                            .ifPresent(pending -> {
+                                pending.setStatus(TransactionStatus.FAILED);
+                                pending.setFailureReason("Accounts are busy: " + lockFailure);
+                                transactionRepository.save(pending);
+                            });
+                }
+                auditService.recordFailedTransfer(userId, request.getSourceAccountId(),
+                        request.getDestinationAccountId(), request.getAmount(), "Accounts are busy: " + lockFailure);
+            });
+        } catch (Exception saveException) {
+            log.error("Failed to record the lock failure of the transfer", saveException);
+        }
+
+        return TransferResult.failure("Accounts are busy, please retry", lockFailure);
+    }
+
+    /**
+     * Runs the transfer on the {@link AccountLaneExecutor} lanes of its two accounts, so transfers sharing an
+     * account wait in memory instead of on the account's row lock. Transfers on lanes are not combined, as
+     * their lanes already serialize them per destination. Rejected with {@code QUEUE_FULL} when the lane is full.
+     */
+    private TransferResult runOnLanes(TransferRequest request, TransferEngineMode mode, String pendingTransactionId) {
+        try {
+            return accountLanes.execute(request.getSourceAccountId(), request.getDestinationAccountId(),
+                    new DelegatingSecurityContextCallable<>(() -> runOnEngine(request, mode, pendingTransactionId),
+                            SecurityContextHolder.getContext()));
+        } catch (RejectedExecutionException e) {
+            log.warn("Rejecting transfer from {} to {}: {}",
+                    request.getSourceAccountId(), request.getDestinationAccountId(), e.getMessage());
+            transferMetrics.recordError("QUEUE_FULL");
+            return TransferResult.failure("Transfer queue is full, please retry later", "QUEUE_FULL");
+        }
+    }
+
+    /**
+     * Hands the transfer to the {@link TransferCombiner}, which may apply it together with concurrent
+     * transfers to the same destination in one transaction. Returns {@code null} when it was not combined
+     * and must run on its own. Striped destinations are not combined, their credits do not contend.
+     */
+    private TransferResult combineTransfer(TransferRequest request, String pendingTransactionId) {
+        if (stripedBalances.isStriped(request.getDestinationAccountId())) {
+            return null;
+        }
+        String userId;
         try {
             userId = getCurrentUserId();
-            validateTransferRequest(request);
-            transaction = createPendingTransaction(request);
+        } catch (RuntimeException e) {
+            // Left to the single-transfer path, which reports it
+            return null;
+        }
+        return transferCombiner.combine(request.getDestinationAccountId(),
+                new BatchTransfer(request, userId, pendingTransactionId),
+                transfers -> transactionTemplate.execute(status -> applyTransfers(transfers)));
+    }
+
+    /**
+     * Runs the transfer without row locks, each attempt in its own transaction, and retries version
+     * conflicts according to the {@link OptimisticContentionPolicy}. Accounts in their cool-down window,
+     * and transfers that run out of attempts, are completed on the pessimistic path instead.
+     */
+    private TransferResult transferOptimistically(TransferRequest request, String pendingTransactionId) {
+        List<String> accountIds = List.of(request.getSourceAccountId(), request.getDestinationAccountId());
+
+        if (contentionPolicy.isCoolingDown(accountIds)) {
+            contentionPolicy.recordFallback();
+            return transactionTemplate.execute(status -> executeTransfer(request, TransferEngineMode.PESSIMISTIC, pendingTransactionId));
+        }
+
+        Set<String> conflictingAccountIds = new HashSet<>();
+        for (int attempt = 1; attempt <= contentionPolicy.getMaxAttempts(); attempt++) {
+            try {
+                contentionPolicy.recordAttempt();
+                TransferResult result = transactionTemplate.execute(
+                        status -> executeTransfer(request, TransferEngineMode.OPTIMISTIC, pendingTransactionId));
+                contentionPolicy.recordSuccess(accountIds);
+                return result;
+
+            } catch (ObjectOptimisticLockingFailureException e) {
+                contentionPolicy.recordConflict();
+                if (e.getIdentifier() instanceof String accountId && accountIds.contains(accountId)) {
+                    conflictingAccountIds.add(accountId);
+                } else {
+                    conflictingAccountIds.addAll(accountIds);
+                }
+                log.debug("Optimistic transfer attempt {} from {} to {} conflicted",
+                        attempt, request.getSourceAccountId(), request.getDestinationAccountId());
 
-            String firstAccountId = request.getSourceAccountId().compareTo(request.getDestinationAccountId()) < 0
-                    ? request.getSourceAccountId() : request.getDestinationAccountId();
-            String secondAccountId = request.getSourceAccountId().equals(firstAccountId)
-                    ? request.getDestinationAccountId() : request.getSourceAccountId();
+                if (attempt < contentionPolicy.getMaxAttempts() && !contentionPolicy.backoff(attempt)) {
+                    break;
+                }
+            }
+        }
 
-            Account firstAccount = lockAndGetAccount(firstAccountId);
-            Account secondAccount = lockAndGetAccount(secondAccountId);
+        log.warn("Optimistic transfer from {} to {} exhausted its retries, falling back to pessimistic locking",
+                request.getSourceAccountId(), request.getDestinationAccountId());
+        contentionPolicy.recordExhausted(conflictingAccountIds);
+        contentionPolicy.recordFallback();
+        return transactionTemplate.execute(status -> executeTransfer(request, TransferEngineMode.PESSIMISTIC, pendingTransactionId));
+    }
 
-            Account sourceAccount = request.getSourceAccountId().equals(firstAccountId)
-                    ? firstAccount : secondAccount;
-            Account destinationAccount = request.getDestinationAccountId().equals(firstAccountId)
-                    ? firstAccount : secondAccount;
+    private TransferResult executeTransfer(TransferRequest request, TransferEngineMode mode, String pendingTransactionId) {
+        log.info("Starting legacy transfer from {} to {} for amount {}",
+                request.getSourceAccountId(), request.getDestinationAccountId(), request.getAmount());
 
-            sourceBalanceBefore = sourceAccount.getBalance();
-            destBalanceBefore = destinationAccount.getBalance();
+        String userId = null;
+        Transaction transaction = null;
 
-            validateAccountsForTransfer(sourceAccount, destinationAccount, request.getAmount());
-            processTransfer(sourceAccount, destinationAccount, request.getAmount());
+        try {
+            Timer.Sample phase = transferMetrics.startPhase();
+            userId = getCurrentUserId();
+            validateTransferRequest(request);
+            if (pendingTransactionId != null) {
+                Transaction pending = lockPendingTransaction(pendingTransactionId);
+                if (pending.getStatus() != TransactionStatus.PENDING) {
+                    log.warn("Skipping asynchronous transfer {} in status {}", pendingTransactionId, pending.getStatus());
+                    return TransferResult.failure("Transfer is no longer pending", "TRANSFER_NOT_PENDING");
+                }
+                transaction = pending;
+            } else {
+                transaction = newTransaction(request, userId);
+            }
+            transferMetrics.stopPhase(phase, mode, TransferPhase.VALIDATION);
 
-            BigDecimal sourceBalanceAfter = sourceAccount.getBalance();
-            BigDecimal destBalanceAfter = destinationAccount.getBalance();
+            phase = transferMetrics.startPhase();
+            BalanceChange change = applyBalanceChange(request, mode, transaction.getCurrency());
+            transferMetrics.stopPhase(phase, mode, TransferPhase.BALANCE_UPDATE);
 
+            // A synchronous transfer's row is only persisted here, already COMPLETED, so it is flushed as a
+            // single INSERT next to the batched balance updates instead of an INSERT followed by an UPDATE.
+            phase = transferMetrics.startPhase();
             transaction.setStatus(TransactionStatus.COMPLETED);
             transaction.setCompletedAt(LocalDateTime.now());
+            transaction = transactionRepository.save(transaction);
+            if (change.destStripe() == NO_STRIPE) {
+                ledgerService.recordPostings(ledgerService.transferPostings(transaction,
+                        change.sourceSeq(), change.sourceBalanceAfter(), change.destSeq(), change.destBalanceAfter()));
+            } else {
+                // The credit leg is posted when the destination's stripes are folded into its account row
+                ledgerService.recordPostings(List.of(
+                        ledgerService.debitPosting(transaction, change.sourceSeq(), change.sourceBalanceAfter())));
+                stripedBalances.recordCredit(transaction, change.destStripe());
+            }
+            transferMetrics.stopPhase(phase, mode, TransferPhase.TRANSACTION_WRITE);
             log.info("Transaction created: {} at {}", transaction.getId(), transaction.getCreatedAt());
-            transactionRepository.save(transaction);
+            transferMetrics.timeCommit(mode);
 
+            phase = transferMetrics.startPhase();
             auditService.recordSuccessfulTransfer(transaction,
-                    sourceBalanceBefore, sourceBalanceAfter,
-                    destBalanceBefore, destBalanceAfter);
+                    change.sourceBalanceBefore(), change.sourceBalanceAfter(),
+                    change.destBalanceBefore(), change.destBalanceAfter());
+            transferMetrics.stopPhase(phase, mode, TransferPhase.AUDIT);
 
             log.info("Legacy transfer completed successfully. Transaction ID: {}", transaction.getId());
 
@@ -89,10 +369,12 @@ public class PaymentTransferService {
 
         } catch (PaymentException e) {
             log.error("Legacy transfer failed: {}", e.getMessage());
+            transferMetrics.recordError(e.getErrorCode());
 
             if (transaction != null) {
                 try {
                     transaction.setStatus(TransactionStatus.FAILED);
+                    transaction.setFailureReason(e.getMessage());
                     transactionRepository.save(transaction);
                 } catch (Exception saveException) {
                     log.error("Failed to update transaction status to FAILED", saveException);
@@ -110,11 +392,21 @@ public class PaymentTransferService {
             return TransferResult.failure(e.getMessage(), e.getErrorCode());
 
         } catch (Exception e) {
+            if (mode == TransferEngineMode.OPTIMISTIC && e instanceof ObjectOptimisticLockingFailureException conflict) {
+                throw conflict;
+            }
+            // The database has aborted the transaction; runOnEngine records the failure once it rolled back
+            if (lockFailureCode(e) != null && e instanceof RuntimeException lockFailure) {
+                throw lockFailure;
+            }
+
             log.error("Unexpected error during legacy transfer", e);
+            transferMetrics.recordError("INTERNAL_ERROR");
 
             if (transaction != null) {
                 try {
                     transaction.setStatus(TransactionStatus.FAILED);
+                    transaction.setFailureReason("Internal server error");
                     transactionRepository.save(transaction);
                 } catch (Exception saveException) {
                     log.error("Failed to update transaction status to FAILED", saveException);
@@ -133,30 +425,245 @@ public class PaymentTransferService {
         }
     }
 
+    /**
+     * Classifies a database lock failure by the SQL state in its cause chain: {@code DEADLOCK} for a
+     * deadlock victim, {@code LOCK_TIMEOUT} for a lock wait that gave up. Returns {@code null} for
+     * anything else.
+     */
+    static String lockFailureCode(Throwable e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof SQLException sqlException && sqlException.getSQLState() != null) {
+                switch (sqlException.getSQLState()) {
+                    case "40P01", "40001":
+                        return "DEADLOCK";
+                    case "55P03", "HYT00":
+                        return "LOCK_TIMEOUT";
+                    default:
+                        break;
+                }
+            }
+            if (cause.getCause() == cause) {
+                break;
+            }
+        }
+        return e instanceof PessimisticLockingFailureException ? "LOCK_TIMEOUT" : null;
+    }
+
+    /**
+     * Executes a batch of transfers as one unit of work. The union of all involved accounts is
+     * locked once, in account-id order, and each transfer is then validated and applied against the
+     * locked balances in memory. A transfer that fails validation is reported in its own result and
+     * does not affect the others; account updates, transaction rows and audits are written with
+     * JDBC batching when the batch completes.
+     */
+    @Transactional
+    public BatchTransferResult transferFundsBatch(List<TransferRequest> requests) {
+        log.info("Starting batch transfer of {} legs", requests.size());
+
+        String userId = getCurrentUserId();
+        List<TransferResult> results = applyTransfers(requests.stream()
+                .map(request -> new BatchTransfer(request, userId, null))
+                .toList());
+
+        BatchTransferResult result = BatchTransferResult.of(results);
+        log.info("Batch transfer finished: {} succeeded, {} failed", result.getSucceeded(), result.getFailed());
+        return result;
+    }
+
+    /**
+     * Applies the transfers in the current transaction, returning one result per transfer, in order. The
+     * union of all involved accounts is locked once, in account-id order, and each transfer is validated
+     * and applied against the locked balances in memory, so an account shared by several transfers is
+     * updated once with their combined change. Pending transfers complete their existing transaction row.
+     * As in {@link #executeTransfer}, a transfer that fails after passing request validation leaves a
+     * {@code FAILED} transaction row.
+     */
+    private List<TransferResult> applyTransfers(List<BatchTransfer> transfers) {
+        Set<String> accountIds = new TreeSet<>();
+        for (BatchTransfer transfer : transfers) {
+            accountIds.add(transfer.request().getSourceAccountId());
+            accountIds.add(transfer.request().getDestinationAccountId());
+        }
+
+        List<Account> accounts = accountRepository.findAllByIdForUpdate(accountIds);
+        accounts.forEach(stripedBalances::fold);
+        Map<String, Account> lockedAccounts = accounts.stream()
+                .collect(Collectors.toMap(Account::getId, Function.identity()));
+
+        List<TransferResult> results = new ArrayList<>(Collections.nCopies(transfers.size(), null));
+        List<BatchLeg> completedLegs = new ArrayList<>();
+        List<Transaction> failedTransactions = new ArrayList<>();
+        List<TransactionAudit> audits = new ArrayList<>();
+
+        for (int i = 0; i < transfers.size(); i++) {
+            TransferRequest request = transfers.get(i).request();
+            String userId = transfers.get(i).userId();
+            Transaction transaction = null;
+            try {
+                validateTransferRequest(request);
+                if (transfers.get(i).pendingTransactionId() != null) {
+                    Transaction pending = lockPendingTransaction(transfers.get(i).pendingTransactionId());
+                    if (pending.getStatus() != TransactionStatus.PENDING) {
+                        results.set(i, TransferResult.failure("Transfer is no longer pending", "TRANSFER_NOT_PENDING"));
+                        continue;
+                    }
+                    transaction = pending;
+                } else {
+                    transaction = newTransaction(request, userId);
+                }
+
+                Account sourceAccount = getLockedAccount(lockedAccounts, request.getSourceAccountId());
+                Account destinationAccount = getLockedAccount(lockedAccounts, request.getDestinationAccountId());
+
+                validateAccountsForTransfer(sourceAccount, destinationAccount, request.getAmount());
+
+                BigDecimal sourceBalanceBefore = sourceAccount.getBalance();
+                BigDecimal destBalanceBefore = destinationAccount.getBalance();
+                sourceAccount.setBalance(sourceBalanceBefore.subtract(request.getAmount()));
+                destinationAccount.setBalance(destBalanceBefore.add(request.getAmount()));
+                long sourceSeq = sourceAccount.nextPostingSeq();
+                long destSeq = destinationAccount.nextPostingSeq();
+
+                transaction.setStatus(TransactionStatus.COMPLETED);
+                transaction.setCompletedAt(LocalDateTime.now());
+
+                completedLegs.add(new BatchLeg(i, transaction,
+                        sourceBalanceBefore, sourceAccount.getBalance(), sourceSeq,
+                        destBalanceBefore, destinationAccount.getBalance(), destSeq));
+
+            } catch (PaymentException e) {
+                log.warn("Batch transfer leg {} failed: {}", i, e.getMessage());
+                transferMetrics.recordError(e.getErrorCode());
+                results.set(i, TransferResult.failure(e.getMessage(), e.getErrorCode()));
+                if (transaction != null) {
+                    transaction.setStatus(TransactionStatus.FAILED);
+                    transaction.setFailureReason(e.getMessage());
+                    failedTransactions.add(transaction);
+                }
+                audits.add(auditService.failedTransferAudit(userId,
+                        request.getSourceAccountId(), request.getDestinationAccountId(),
+                        request.getAmount(), e.getMessage()));
+            }
+        }
+
+        accountRepository.saveAll(lockedAccounts.values());
+        List<Transaction> transactions = new ArrayList<>(completedLegs.size() + failedTransactions.size());
+        completedLegs.forEach(leg -> transactions.add(leg.transaction()));
+        transactions.addAll(failedTransactions);
+        transactionRepository.saveAll(transactions);
+
+        List<LedgerPosting> postings = new ArrayList<>(completedLegs.size() * 2);
+        for (BatchLeg leg : completedLegs) {
+            postings.addAll(ledgerService.transferPostings(leg.transaction(),
+                    leg.sourceSeq(), leg.sourceBalanceAfter(), leg.destSeq(), leg.destBalanceAfter()));
+        }
+        ledgerService.recordPostings(postings);
+
+        for (BatchLeg leg : completedLegs) {
+            results.set(leg.index(), TransferResult.success(leg.transaction().getId(), "Transfer completed successfully"));
+            audits.add(auditService.successfulTransferAudit(leg.transaction(),
+                    leg.sourceBalanceBefore(), leg.sourceBalanceAfter(),
+                    leg.destBalanceBefore(), leg.destBalanceAfter()));
+        }
+
+        auditService.recordTransfers(audits);
+        return results;
+    }
+
+    /**
+     * Returns the newest {@code app.history.max-list-size} transactions of the user. The page carries a
+     * cursor for {@link #getUserTransactionHistoryPage} when the history is longer than that.
+     */
     @Transactional(readOnly = true)
-    public List<UserTransactionHistory> getUserTransactionHistory(String userId) {
-        List<Transaction> transactions = transactionRepository.findByUserIdOrderByCreatedAtDesc(userId);
-        return transactions.stream()
-                .map(transaction -> mapToUserTransactionHistory(transaction, userId))
-                .collect(Collectors.toList());
+    public TransactionHistoryPage getUserTransactionHistory(String userId) {
+        return fetchUserHistory(userId, null, maxHistoryListSize);
+    }
+
+    /**
+     * Keyset page of the user's history, newest first. Each page is a single index range scan on
+     * {@code (user_id, created_at, transaction_id)} that starts after the cursor, so the cost does not
+     * grow with the depth of the page.
+     */
+    @Transactional(readOnly = true)
+    public TransactionHistoryPage getUserTransactionHistoryPage(String userId, String cursor, int limit) {
+        return fetchUserHistory(userId, cursor, clampHistoryPageSize(limit));
     }
 
     @Transactional(readOnly = true)
     public Page<UserTransactionHistory> getUserTransactionHistory(String userId, Pageable pageable) {
         Page<Transaction> transactions = transactionRepository.findByUserIdOrderByCreatedAtDesc(userId, pageable);
-        return transactions.map(transaction -> mapToUserTransactionHistory(transaction, userId));
+        Map<String, String> accountNames = resolveAccountNames(transactions.getContent());
+        return transactions.map(transaction -> mapToUserTransactionHistory(transaction, accountNames));
     }
 
     @Transactional(readOnly = true)
-    public List<UserTransactionHistory> getAccountTransactionHistory(String accountId, String userId) {
+    public TransactionHistoryPage getAccountTransactionHistory(String accountId, String userId) {
+        return fetchAccountHistory(accountId, userId, null, maxHistoryListSize);
+    }
+
+    /**
+     * Page of the account's completed transfers, newest first, read from its ledger postings: one range
+     * scan of the {@code (account_id, seq)} key below the cursor, with the transactions fetched alongside.
+     */
+    @Transactional(readOnly = true)
+    public TransactionHistoryPage getAccountTransactionHistoryPage(String accountId, String userId, String cursor, int limit) {
+        return fetchAccountHistory(accountId, userId, cursor, clampHistoryPageSize(limit));
+    }
+
+    private TransactionHistoryPage fetchUserHistory(String userId, String cursor, int limit) {
+        Pageable window = PageRequest.of(0, limit + 1);
+        List<Transaction> transactions;
+        if (cursor == null || cursor.isBlank()) {
+            transactions = transactionRepository.findLatestByUserId(userId, window);
+        } else {
+            HistoryCursor position = HistoryCursor.decode(cursor);
+            transactions = transactionRepository.findByUserIdBefore(
+                    userId, position.createdAt(), position.transactionId(), window);
+        }
+        return toHistoryPage(transactions, limit);
+    }
+
+    private TransactionHistoryPage fetchAccountHistory(String accountId, String userId, String cursor, int limit) {
         if (!accountService.validateAccountOwnership(accountId, userId)) {
             throw new PaymentException("Account access denied", "ACCOUNT_ACCESS_DENIED");
         }
 
-        List<Transaction> transactions = transactionRepository.findAccountTransactionsByUserId(accountId, userId);
-        return transactions.stream()
-                .map(transaction -> mapToUserTransactionHistory(transaction, userId, accountId))
+        Long beforeSeq = cursor == null || cursor.isBlank() ? null : PostingCursor.decode(cursor).seq();
+        List<LedgerPosting> window = ledgerService.findPostings(accountId, beforeSeq, limit + 1);
+
+        boolean hasMore = window.size() > limit;
+        List<LedgerPosting> postings = hasMore ? window.subList(0, limit) : window;
+        List<Transaction> transactions = postings.stream().map(LedgerPosting::getTransaction).toList();
+        return toHistoryPage(transactions, hasMore,
+                hasMore ? new PostingCursor(postings.get(postings.size() - 1).getSeq()).encode() : null);
+    }
+
+    /**
+     * Builds a page from a window fetched with one extra row; the extra row only signals that more
+     * history follows.
+     */
+    private TransactionHistoryPage toHistoryPage(List<Transaction> window, int limit) {
+        boolean hasMore = window.size() > limit;
+        List<Transaction> transactions = hasMore ? window.subList(0, limit) : window;
+        return toHistoryPage(transactions, hasMore,
+                hasMore ? HistoryCursor.after(transactions.get(transactions.size() - 1)).encode() : null);
+    }
+
+    private TransactionHistoryPage toHistoryPage(List<Transaction> transactions, boolean hasMore, String nextCursor) {
+        Map<String, String> accountNames = resolveAccountNames(transactions);
+        List<UserTransactionHistory> items = transactions.stream()
+                .map(transaction -> mapToUserTransactionHistory(transaction, accountNames))
                 .collect(Collectors.toList());
+
+        return TransactionHistoryPage.builder()
+                .items(items)
+                .hasMore(hasMore)
+                .nextCursor(nextCursor)
+                .build();
+    }
+
+    private int clampHistoryPageSize(int limit) {
+        return Math.max(1, Math.min(limit, maxHistoryPageSize));
     }
 
     private void validateUserTransferRequest(UserTransferRequest request) {
@@ -239,17 +746,26 @@ public class PaymentTransferService {
         validateAccountsForTransfer(sourceAccount, destinationAccount, amount);
     }
 
-    private UserTransactionHistory mapToUserTransactionHistory(Transaction transaction, String userId) {
-        return mapToUserTransactionHistory(transaction, userId, null);
+    /**
+     * Resolves the display names of every account referenced by a result page in one lookup, instead of
+     * one query per row and side.
+     */
+    private Map<String, String> resolveAccountNames(List<Transaction> transactions) {
+        Set<String> accountIds = new HashSet<>();
+        for (Transaction transaction : transactions) {
+            accountIds.add(transaction.getSourceAccountId());
+            accountIds.add(transaction.getDestinationAccountId());
+        }
+        return accountIds.isEmpty() ? Map.of() : displayNameCache.getDisplayNames(accountIds);
     }
 
-    private UserTransactionHistory mapToUserTransactionHistory(Transaction transaction, String userId, String focusAccountId) {
+    UserTransactionHistory mapToUserTransactionHistory(Transaction transaction, Map<String, String> accountNames) {
         return UserTransactionHistory.builder()
                 .id(transaction.getId())
                 .sourceAccountId(transaction.getSourceAccountId())
-                .sourceAccountName(getAccountDisplayName(transaction.getSourceAccountId()))
+                .sourceAccountName(accountNames.getOrDefault(transaction.getSourceAccountId(), "Unknown Account"))
                 .destinationAccountId(transaction.getDestinationAccountId())
-                .destinationAccountName(getAccountDisplayName(transaction.getDestinationAccountId()))
+                .destinationAccountName(accountNames.getOrDefault(transaction.getDestinationAccountId(), "Unknown Account"))
                 .amount(transaction.getAmount())
                 .currency(transaction.getCurrency())
                 .status(transaction.getStatus())
@@ -261,12 +777,6 @@ public class PaymentTransferService {
                 .build();
     }
 
-    private String getAccountDisplayName(String accountId) {
-        return accountRepository.findById(accountId)
-                .map(Account::getDisplayName)
-                .orElse("Unknown Account");
-    }
-
     private void validateTransferRequest(TransferRequest request) {
         if (request.getSourceAccountId().equals(request.getDestinationAccountId())) {
             throw new PaymentException("Source and destination accounts cannot be the same", "SAME_ACCOUNT");
@@ -296,27 +806,249 @@ public class PaymentTransferService {
     }
 
     private Transaction createPendingTransaction(TransferRequest request) {
-        String userId = getCurrentUserId();
+        Transaction transaction = newTransaction(request, getCurrentUserId());
+        transaction.setStatus(TransactionStatus.PENDING);
+
+        return transactionRepository.save(transaction);
+    }
+
+    private Transaction newTransaction(TransferRequest request, String userId) {
         Transaction transaction = new Transaction();
         transaction.setUserId(userId);
         transaction.setSourceAccountId(request.getSourceAccountId());
         transaction.setDestinationAccountId(request.getDestinationAccountId());
         transaction.setAmount(request.getAmount());
         transaction.setCurrency(request.getCurrency() != null ? request.getCurrency() : "USD");
-        transaction.setStatus(TransactionStatus.PENDING);
         transaction.setTransactionType(TransactionType.EXTERNAL_TRANSFER);
         transaction.setDescription(request.getDescription());
         transaction.setReference(request.getReference());
+        return transaction;
+    }
 
-        return transactionRepository.save(transaction);
+    /**
+     * Applies the balance change with the configured engine, except for striped accounts. A transfer to a
+     * striped account credits one of its stripes, and one from a striped account runs on row locks, because
+     * its stripes must be folded into the locked account row before it can be debited.
+     */
+    private BalanceChange applyBalanceChange(TransferRequest request, TransferEngineMode mode, String currency) {
+        if (stripedBalances.isStriped(request.getDestinationAccountId())) {
+            return applyStripedCredit(request, currency);
+        }
+        if (stripedBalances.isStriped(request.getSourceAccountId())) {
+            return applyLockedTransfer(request);
+        }
+        return switch (mode) {
+            case GUARDED_UPDATE -> applyGuardedTransfer(request, currency);
+            case OPTIMISTIC -> applyVersionedTransfer(request);
+            case PESSIMISTIC -> applyLockedTransfer(request);
+        };
+    }
+
+    private BalanceChange applyLockedTransfer(TransferRequest request) {
+        String firstAccountId = request.getSourceAccountId().compareTo(request.getDestinationAccountId()) < 0
+                ? request.getSourceAccountId() : request.getDestinationAccountId();
+        String secondAccountId = request.getSourceAccountId().equals(firstAccountId)
+                ? request.getDestinationAccountId() : request.getSourceAccountId();
+
+        Account firstAccount = transferMetrics.timeLockWait(true, () -> lockAndGetAccount(firstAccountId));
+        Account secondAccount = transferMetrics.timeLockWait(false, () -> lockAndGetAccount(secondAccountId));
+
+        Account sourceAccount = request.getSourceAccountId().equals(firstAccountId)
+                ? firstAccount : secondAccount;
+        Account destinationAccount = request.getDestinationAccountId().equals(firstAccountId)
+                ? firstAccount : secondAccount;
+
+        stripedBalances.fold(firstAccount);
+        stripedBalances.fold(secondAccount);
+
+        BigDecimal sourceBalanceBefore = sourceAccount.getBalance();
+        BigDecimal destBalanceBefore = destinationAccount.getBalance();
+
+        validateAccountsForTransfer(sourceAccount, destinationAccount, request.getAmount());
+        processTransfer(sourceAccount, destinationAccount, request.getAmount());
+
+        return new BalanceChange(sourceBalanceBefore, sourceAccount.getBalance(), sourceAccount.getPostingSeq(),
+                destBalanceBefore, destinationAccount.getBalance(), destinationAccount.getPostingSeq(), NO_STRIPE);
+    }
+
+    /**
+     * Debits the locked source account and credits one stripe of the striped destination, whose account
+     * row is not locked. The source's own stripes, if any, are folded before the debit; stripe locks are
+     * taken in account-id order, and a stripe credit made before a failed debit is reversed, because the
+     * surrounding transaction still commits the FAILED transaction row. The destination's balances are not
+     * known here and are left out of the audit.
+     */
+    private BalanceChange applyStripedCredit(TransferRequest request, String currency) {
+        String sourceAccountId = request.getSourceAccountId();
+        String destinationAccountId = request.getDestinationAccountId();
+        BigDecimal amount = request.getAmount();
+
+        Account sourceAccount = transferMetrics.timeLockWait(true, () -> lockAndGetAccount(sourceAccountId));
+
+        boolean creditFirst = destinationAccountId.compareTo(sourceAccountId) < 0;
+        int stripe = creditFirst ? stripedCredit(destinationAccountId, amount, currency) : NO_STRIPE;
+        try {
+            stripedBalances.fold(sourceAccount);
+            validateSourceForDebit(sourceAccount, amount, currency);
+            if (!creditFirst) {
+                stripe = stripedCredit(destinationAccountId, amount, currency);
+            }
+        } catch (RuntimeException e) {
+            if (creditFirst) {
+                stripedBalances.revertCredit(destinationAccountId, stripe, amount);
+            }
+            throw e;
+        }
+
+        BigDecimal sourceBalanceBefore = sourceAccount.getBalance();
+        sourceAccount.setBalance(sourceBalanceBefore.subtract(amount));
+        long sourceSeq = sourceAccount.nextPostingSeq();
+        accountRepository.save(sourceAccount);
+
+        return new BalanceChange(sourceBalanceBefore, sourceAccount.getBalance(), sourceSeq, null, null, 0, stripe);
+    }
+
+    private int stripedCredit(String accountId, BigDecimal amount, String currency) {
+        int stripe = stripedBalances.credit(accountId, amount, currency);
+        if (stripe == NO_STRIPE) {
+            stripedBalances.refresh(accountId);
+            throw rejectedGuardedUpdate(accountId, amount, currency, false);
+        }
+        return stripe;
+    }
+
+    private void validateSourceForDebit(Account sourceAccount, BigDecimal amount, String currency) {
+        if (!sourceAccount.isActive()) {
+            throw new AccountInactiveException(sourceAccount.getId(), sourceAccount.getStatus().toString());
+        }
+
+        if (!sourceAccount.getCurrency().equals(currency)) {
+            throw new CurrencyMismatchException(sourceAccount.getCurrency(), currency);
+        }
+
+        if (sourceAccount.getBalance().compareTo(amount) < 0) {
+            throw new InsufficientFundsException(sourceAccount.getId(), sourceAccount.getBalance(), amount);
+        }
+    }
+
+    /**
+     * Reads both accounts without locks and relies on the {@code @Version} check when the updates are
+     * flushed. The flush happens here, before the transfer is marked completed and audited, so that a
+     * conflict surfaces as an {@link ObjectOptimisticLockingFailureException} for the retry loop.
+     */
+    private BalanceChange applyVersionedTransfer(TransferRequest request) {
+        Account sourceAccount = accountRepository.findById(request.getSourceAccountId())
+                .orElseThrow(() -> new AccountNotFoundException(request.getSourceAccountId()));
+        Account destinationAccount = accountRepository.findById(request.getDestinationAccountId())
+                .orElseThrow(() -> new AccountNotFoundException(request.getDestinationAccountId()));
+
+        if (sourceAccount.isStriped() || destinationAccount.isStriped()) {
+            // Striped since this instance last looked; its stripes can only be folded under the row lock
+            return applyLockedTransfer(request);
+        }
+
+        BigDecimal sourceBalanceBefore = sourceAccount.getBalance();
+        BigDecimal destBalanceBefore = destinationAccount.getBalance();
+
+        validateAccountsForTransfer(sourceAccount, destinationAccount, request.getAmount());
+        processTransfer(sourceAccount, destinationAccount, request.getAmount());
+        accountRepository.flush();
+
+        return new BalanceChange(sourceBalanceBefore, sourceAccount.getBalance(), sourceAccount.getPostingSeq(),
+                destBalanceBefore, destinationAccount.getBalance(), destinationAccount.getPostingSeq(), NO_STRIPE);
+    }
+
+    /**
+     * Applies the transfer as two guarded UPDATE statements, issued in account-id order so that
+     * concurrent opposite transfers cannot deadlock. Each statement only matches an active, unstriped
+     * account in the transfer currency (and, for the debit, with sufficient funds), so a row count of zero means
+     * the transfer must not proceed. Each statement also claims the account's next posting sequence
+     * number. If the second statement is rejected, the first one is reversed
+     * before the failure is reported, because the surrounding transaction still commits the FAILED
+     * transaction row.
+     */
+    private BalanceChange applyGuardedTransfer(TransferRequest request, String currency) {
+        String sourceAccountId = request.getSourceAccountId();
+        String destinationAccountId = request.getDestinationAccountId();
+        BigDecimal amount = request.getAmount();
+
+        BalancePostingView sourceAfter;
+        BalancePostingView destAfter;
+
+        if (sourceAccountId.compareTo(destinationAccountId) < 0) {
+            sourceAfter = guardedDebit(sourceAccountId, amount, currency);
+            try {
+                destAfter = guardedCredit(destinationAccountId, amount, currency);
+            } catch (RuntimeException e) {
+                accountRepository.revertGuardedUpdate(sourceAccountId, amount);
+                throw e;
+            }
+        } else {
+            destAfter = guardedCredit(destinationAccountId, amount, currency);
+            try {
+                sourceAfter = guardedDebit(sourceAccountId, amount, currency);
+            } catch (RuntimeException e) {
+                accountRepository.revertGuardedUpdate(destinationAccountId, amount.negate());
+                throw e;
+            }
+        }
+
+        return new BalanceChange(sourceAfter.getBalance().add(amount), sourceAfter.getBalance(), sourceAfter.getSeq(),
+                destAfter.getBalance().subtract(amount), destAfter.getBalance(), destAfter.getSeq(), NO_STRIPE);
+    }
+
+    private BalancePostingView guardedDebit(String accountId, BigDecimal amount, String currency) {
+        return accountRepository.debitIfSufficient(accountId, amount, currency)
+                .orElseThrow(() -> rejectedGuardedUpdate(accountId, amount, currency, true));
+    }
+
+    private BalancePostingView guardedCredit(String accountId, BigDecimal amount, String currency) {
+        return accountRepository.creditIfActive(accountId, amount, currency)
+                .orElseThrow(() -> rejectedGuardedUpdate(accountId, amount, currency, false));
+    }
+
+    private PaymentException rejectedGuardedUpdate(String accountId, BigDecimal amount, String currency, boolean debit) {
+        Account account = accountRepository.findById(accountId).orElse(null);
+
+        if (account == null) {
+            return new AccountNotFoundException(accountId);
+        }
+
+        if (!account.isActive()) {
+            return new AccountInactiveException(accountId, account.getStatus().toString());
+        }
+
+        if (!account.getCurrency().equals(currency)) {
+            return debit
+                    ? new CurrencyMismatchException(account.getCurrency(), currency)
+                    : new CurrencyMismatchException(currency, account.getCurrency());
+        }
+
+        if (!debit || account.isStriped()) {
+            // Only a change of the account's striping rejects an update to an active account in its currency
+            return new PaymentException("Account " + accountId + " is being re-striped, please retry", "ACCOUNT_BUSY");
+        }
+
+        return new InsufficientFundsException(accountId, account.getBalance(), amount);
     }
 
     private Account lockAndGetAccount(String accountId) {
-        return accountRepository.findByIdForUpdate(accountId)
+        long startNanos = System.nanoTime();
+        Account account = accountRepository.findByIdForUpdate(accountId)
                 .orElseThrow(() -> new AccountNotFoundException(accountId));
+        hotAccountTracker.recordLockWait(accountId, System.nanoTime() - startNanos);
+        return account;
+    }
+
+    private Account getLockedAccount(Map<String, Account> lockedAccounts, String accountId) {
+        Account account = lockedAccounts.get(accountId);
+        if (account == null) {
+            throw new AccountNotFoundException(accountId);
+        }
+        return account;
     }
 
-    private void validateAccountsForTransfer(Account sourceAccount, Account destinationAccount, BigDecimal amount) {
+    void validateAccountsForTransfer(Account sourceAccount, Account destinationAccount, BigDecimal amount) {
         if (sourceAccount.getStatus() != AccountStatus.ACTIVE) {
             throw new AccountInactiveException(sourceAccount.getId(), sourceAccount.getStatus().toString());
         }
@@ -334,18 +1066,50 @@ public class PaymentTransferService {
         }
     }
 
-    private void processTransfer(Account sourceAccount, Account destinationAccount, BigDecimal amount) {
+    void processTransfer(Account sourceAccount, Account destinationAccount, BigDecimal amount) {
         BigDecimal newSourceBalance = sourceAccount.getBalance().subtract(amount);
         sourceAccount.setBalance(newSourceBalance);
+        sourceAccount.nextPostingSeq();
         accountRepository.save(sourceAccount);
 
         BigDecimal newDestinationBalance = destinationAccount.getBalance().add(amount);
         destinationAccount.setBalance(newDestinationBalance);
+        destinationAccount.nextPostingSeq();
         accountRepository.save(destinationAccount);
     }
 
+    /**
+     * Locks the row of an asynchronous transfer, so that a transfer resubmitted while it is still running
+     * elsewhere waits for it and then sees that it is no longer {@code PENDING}.
+     */
+    private Transaction lockPendingTransaction(String transactionId) {
+        return transactionRepository.findByIdForUpdate(transactionId)
+                .orElseThrow(() -> new PaymentException("Transaction not found", "TRANSACTION_NOT_FOUND"));
+    }
+
     public Transaction getTransactionById(String transactionId) {
         return transactionRepository.findById(transactionId)
                 .orElseThrow(() -> new PaymentException("Transaction not found", "TRANSACTION_NOT_FOUND"));
     }
+
+    /**
+     * Balances and posting sequence numbers of both legs; {@code destStripe} is the stripe credited instead
+     * of the destination's account row, or {@code NO_STRIPE}.
+     */
+    private record BalanceChange(BigDecimal sourceBalanceBefore, BigDecimal sourceBalanceAfter, long sourceSeq,
+                                 BigDecimal destBalanceBefore, BigDecimal destBalanceAfter, long destSeq,
+                                 int destStripe) {
+    }
+
+    /**
+     * One transfer of a batch, with the user it runs for and, for an asynchronous transfer, its pending
+     * transaction.
+     */
+    private record BatchTransfer(TransferRequest request, String userId, String pendingTransactionId) {
+    }
+
+    private record BatchLeg(int index, Transaction transaction,
+                            BigDecimal sourceBalanceBefore, BigDecimal sourceBalanceAfter, long sourceSeq,
+                            BigDecimal destBalanceBefore, BigDecimal destBalanceAfter, long destSeq) {
+    }
 }
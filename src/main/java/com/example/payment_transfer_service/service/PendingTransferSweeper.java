@@ -0,0 +1,116 @@
+package com.example.payment_transfer_service.service;
+
+import com.example.payment_transfer_service.entity.Transaction;
+import com.example.payment_transfer_service.entity.TransactionStatus;
+import com.example.payment_transfer_service.repository.TransactionRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.concurrent.DelegatingSecurityContextRunnable;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextImpl;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Resubmits asynchronous transfers that stayed {@code PENDING} for longer than {@code stale-after-ms},
+ * because the instance that accepted them stopped before its {@link TransferWorkQueue} drained, crashed,
+ * or restarted. Each is resubmitted to the local queue and runs as the user who submitted it. A transfer
+ * that is in fact still running elsewhere is not executed twice: the worker re-checks the status under the
+ * transaction's row lock.
+ */
+@Component
+@Slf4j
+public class PendingTransferSweeper {
+
+    private final TransactionRepository transactionRepository;
+    private final PaymentTransferService paymentTransferService;
+    private final TransferWorkQueue transferWorkQueue;
+    private final boolean enabled;
+    private final long staleAfterMs;
+    private final int batchSize;
+
+    private final Set<String> resubmitting = ConcurrentHashMap.newKeySet();
+    private final LongAdder resubmitted = new LongAdder();
+
+    public PendingTransferSweeper(TransactionRepository transactionRepository,
+                                  PaymentTransferService paymentTransferService,
+                                  TransferWorkQueue transferWorkQueue,
+                                  @Value("${app.transfer.async.sweep.enabled:true}") boolean enabled,
+                                  @Value("${app.transfer.async.sweep.stale-after-ms:300000}") long staleAfterMs,
+                                  @Value("${app.transfer.async.sweep.batch-size:100}") int batchSize) {
+        this.transactionRepository = transactionRepository;
+        this.paymentTransferService = paymentTransferService;
+        this.transferWorkQueue = transferWorkQueue;
+        this.enabled = enabled;
+        this.staleAfterMs = staleAfterMs;
+        this.batchSize = batchSize;
+    }
+
+    @Scheduled(initialDelayString = "${app.transfer.async.sweep.initial-delay-ms:10000}",
+            fixedDelayString = "${app.transfer.async.sweep.interval-ms:60000}")
+    public void runScheduled() {
+        if (enabled) {
+            sweep();
+        }
+    }
+
+    /**
+     * Resubmits up to {@code batch-size} stale transfers, oldest first, while the queue has room, and
+     * returns how many were resubmitted. Transfers this instance already resubmitted and has not finished
+     * are skipped.
+     */
+    public int sweep() {
+        LocalDateTime cutoff = LocalDateTime.now().minus(Duration.ofMillis(staleAfterMs));
+        List<Transaction> stale = transactionRepository.findByStatusAndCreatedAtBeforeOrderByCreatedAt(
+                TransactionStatus.PENDING, cutoff, PageRequest.of(0, batchSize));
+
+        int count = 0;
+        for (Transaction transaction : stale) {
+            String transactionId = transaction.getId();
+            if (!transferWorkQueue.hasCapacity()) {
+                break;
+            }
+            if (!resubmitting.add(transactionId)) {
+                continue;
+            }
+            try {
+                transferWorkQueue.submit(new DelegatingSecurityContextRunnable(() -> {
+                    try {
+                        paymentTransferService.completePendingTransfer(transactionId);
+                    } finally {
+                        resubmitting.remove(transactionId);
+                    }
+                }, submitterContext(transaction)));
+                count++;
+            } catch (RejectedExecutionException e) {
+                resubmitting.remove(transactionId);
+                break;
+            }
+        }
+
+        if (count > 0) {
+            resubmitted.add(count);
+            log.warn("Resubmitted {} asynchronous transfers that were PENDING since before {}", count, cutoff);
+        }
+        return count;
+    }
+
+    private static SecurityContext submitterContext(Transaction transaction) {
+        return new SecurityContextImpl(
+                new UsernamePasswordAuthenticationToken(transaction.getUserId(), null, List.of()));
+    }
+
+    public long getResubmitted() {
+        return resubmitted.sum();
+    }
+}
@@ -0,0 +1,32 @@
+package com.example.payment_transfer_service.service;
+
+import com.example.payment_transfer_service.exception.PaymentException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Position in an account's ledger listing ordered by posting sequence number descending: the sequence
+ * number of the last posting returned. Handed to clients as an opaque URL-safe token.
+ */
+record PostingCursor(long seq) {
+
+    private static final String PREFIX = "seq:";
+
+    String encode() {
+        String key = PREFIX + seq;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(key.getBytes(StandardCharsets.UTF_8));
+    }
+
+    static PostingCursor decode(String token) {
+        try {
+            String key = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            if (!key.startsWith(PREFIX)) {
+                throw new IllegalArgumentException("Malformed cursor");
+            }
+            return new PostingCursor(Long.parseLong(key.substring(PREFIX.length())));
+        } catch (IllegalArgumentException e) {
+            throw new PaymentException("Invalid history cursor", "INVALID_CURSOR");
+        }
+    }
+}
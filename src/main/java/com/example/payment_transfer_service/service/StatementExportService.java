@@ -0,0 +1,120 @@
+package com.example.payment_transfer_service.service;
+
+import com.example.payment_transfer_service.dto.StatementLine;
+import com.example.payment_transfer_service.exception.PaymentException;
+import com.example.payment_transfer_service.repository.LedgerPostingRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Writes account statements row by row from a database cursor over the account's ledger postings, so
+ * memory use does not depend on the size of the account's history and every row carries its running
+ * balance.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class StatementExportService {
+
+    private static final String CSV_HEADER = "transactionId,createdAt,completedAt,direction,counterpartyAccountId," +
+            "amount,currency,status,transactionType,reference,description,balanceAfter";
+
+    private final LedgerPostingRepository ledgerPostingRepository;
+    private final AccountService accountService;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Checks access and the period before the response is committed, so that failures still produce a
+     * regular error response instead of a truncated download.
+     */
+    public void validateStatementRequest(String accountId, String userId, LocalDateTime from, LocalDateTime to) {
+        if (!accountService.validateAccountOwnership(accountId, userId)) {
+            throw new PaymentException("Account access denied", "ACCOUNT_ACCESS_DENIED");
+        }
+        if (!from.isBefore(to)) {
+            throw new PaymentException("Statement period start must be before its end", "INVALID_STATEMENT_PERIOD");
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public long writeStatement(String accountId, StatementFormat format, LocalDateTime from, LocalDateTime to,
+                               OutputStream outputStream) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+        long rows = 0;
+
+        if (format == StatementFormat.CSV) {
+            writer.write(CSV_HEADER);
+            writer.write('\n');
+        }
+
+        try (Stream<StatementLine> lines = ledgerPostingRepository.streamStatement(accountId, from, to)) {
+            Iterator<StatementLine> iterator = lines.iterator();
+            while (iterator.hasNext()) {
+                StatementLine line = iterator.next();
+                if (format == StatementFormat.CSV) {
+                    writeCsvRow(writer, accountId, line);
+                } else {
+                    writer.write(objectMapper.writeValueAsString(line));
+                    writer.write('\n');
+                }
+                rows++;
+            }
+        }
+
+        writer.flush();
+        log.info("Exported statement for account {} with {} rows as {}", accountId, rows, format);
+        return rows;
+    }
+
+    private void writeCsvRow(Writer writer, String accountId, StatementLine line) throws IOException {
+        boolean debit = accountId.equals(line.getSourceAccountId());
+        writer.write(csv(line.getTransactionId()));
+        writer.write(',');
+        writer.write(csv(line.getCreatedAt()));
+        writer.write(',');
+        writer.write(csv(line.getCompletedAt()));
+        writer.write(',');
+        writer.write(debit ? "DEBIT" : "CREDIT");
+        writer.write(',');
+        writer.write(csv(debit ? line.getDestinationAccountId() : line.getSourceAccountId()));
+        writer.write(',');
+        writer.write(csv(line.getAmount() != null ? line.getAmount().toPlainString() : null));
+        writer.write(',');
+        writer.write(csv(line.getCurrency()));
+        writer.write(',');
+        writer.write(csv(line.getStatus()));
+        writer.write(',');
+        writer.write(csv(line.getTransactionType()));
+        writer.write(',');
+        writer.write(csv(line.getReference()));
+        writer.write(',');
+        writer.write(csv(line.getDescription()));
+        writer.write(',');
+        writer.write(csv(line.getBalanceAfter() != null ? line.getBalanceAfter().toPlainString() : null));
+        writer.write('\n');
+    }
+
+    private String csv(Object value) {
+        if (value == null) {
+            return "";
+        }
+        String text = value.toString();
+        if (text.indexOf(',') >= 0 || text.indexOf('"') >= 0 || text.indexOf('\n') >= 0 || text.indexOf('\r') >= 0) {
+            return '"' + text.replace("\"", "\"\"") + '"';
+        }
+        return text;
+    }
+}
@@ -0,0 +1,33 @@
+package com.example.payment_transfer_service.service;
+
+import com.example.payment_transfer_service.exception.PaymentException;
+
+public enum StatementFormat {
+    NDJSON("application/x-ndjson", "ndjson"),
+    CSV("text/csv", "csv");
+
+    private final String contentType;
+    private final String fileExtension;
+
+    StatementFormat(String contentType, String fileExtension) {
+        this.contentType = contentType;
+        this.fileExtension = fileExtension;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    public String getFileExtension() {
+        return fileExtension;
+    }
+
+    public static StatementFormat from(String format) {
+        for (StatementFormat candidate : values()) {
+            if (candidate.name().equalsIgnoreCase(format)) {
+                return candidate;
+            }
+        }
+        throw new PaymentException("Unsupported statement format: " + format, "INVALID_STATEMENT_FORMAT");
+    }
+}
@@ -0,0 +1,95 @@
+package com.example.payment_transfer_service.service;
+
+import com.example.payment_transfer_service.dto.AccountStripingStats;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Periodically folds the stripes of every striped account into its account row, each account in its own
+ * short transaction. This evens the stripes out by emptying them, bounds how long a stripe credit waits
+ * for its ledger posting, and keeps the fold a debit has to do small.
+ */
+@Component
+@Slf4j
+public class StripeRebalanceJob {
+
+    private final StripedBalanceService stripedBalances;
+    private final boolean enabled;
+
+    private final AtomicBoolean running = new AtomicBoolean();
+    private final LongAdder runs = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+    private volatile LocalDateTime lastRunStartedAt;
+    private volatile long lastRunDurationMs;
+    private volatile int lastRunCredits;
+
+    public StripeRebalanceJob(StripedBalanceService stripedBalances,
+                              @Value("${app.ledger.striping.rebalance.enabled:true}") boolean enabled) {
+        this.stripedBalances = stripedBalances;
+        this.enabled = enabled;
+    }
+
+    @Scheduled(fixedDelayString = "${app.ledger.striping.rebalance.interval-ms:2000}")
+    public void runScheduled() {
+        if (enabled && !stripedBalances.getStripedAccounts().isEmpty()) {
+            rebalance();
+        }
+    }
+
+    /**
+     * Folds every striped account once and returns the number of credits posted, or {@code -1} when a pass
+     * is already running. An account that fails is logged and left for the next pass.
+     */
+    public int rebalance() {
+        if (!running.compareAndSet(false, true)) {
+            return -1;
+        }
+
+        LocalDateTime startedAt = LocalDateTime.now();
+        long startNanos = System.nanoTime();
+        try {
+            int posted = 0;
+            for (String accountId : stripedBalances.getStripedAccounts().keySet()) {
+                try {
+                    posted += stripedBalances.fold(accountId);
+                } catch (RuntimeException e) {
+                    failures.increment();
+                    log.warn("Failed to fold the stripes of account {}", accountId, e);
+                }
+            }
+
+            runs.increment();
+            lastRunStartedAt = startedAt;
+            lastRunDurationMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+            lastRunCredits = posted;
+            if (posted > 0) {
+                log.debug("Stripe rebalance posted {} credits in {} ms", posted, lastRunDurationMs);
+            }
+            return posted;
+        } finally {
+            running.set(false);
+        }
+    }
+
+    public AccountStripingStats getStats() {
+        return AccountStripingStats.builder()
+                .stripedAccounts(stripedBalances.getStripedAccounts())
+                .stripeCredits(stripedBalances.getStripeCredits())
+                .folds(stripedBalances.getFolds())
+                .foldedCredits(stripedBalances.getFoldedCredits())
+                .rebalanceEnabled(enabled)
+                .rebalanceRuns(runs.sum())
+                .rebalanceFailures(failures.sum())
+                .lastRebalanceStartedAt(lastRunStartedAt)
+                .lastRebalanceDurationMs(lastRunDurationMs)
+                .lastRebalanceCredits(lastRunCredits)
+                .build();
+    }
+}
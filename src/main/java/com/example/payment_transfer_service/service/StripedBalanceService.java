@@ -0,0 +1,290 @@
+package com.example.payment_transfer_service.service;
+
+import com.example.payment_transfer_service.entity.Account;
+import com.example.payment_transfer_service.entity.AccountStripe;
+import com.example.payment_transfer_service.entity.LedgerPosting;
+import com.example.payment_transfer_service.entity.StripeCredit;
+import com.example.payment_transfer_service.entity.Transaction;
+import com.example.payment_transfer_service.exception.AccountNotFoundException;
+import com.example.payment_transfer_service.exception.PaymentException;
+import com.example.payment_transfer_service.repository.AccountRepository;
+import com.example.payment_transfer_service.repository.AccountStripeRepository;
+import com.example.payment_transfer_service.repository.LedgerPostingRepository;
+import com.example.payment_transfer_service.repository.StripeCreditRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.IntStream;
+
+/**
+ * Balance striping for hot accounts. A striped account's balance is its account row plus K stripe rows,
+ * and credits to it are spread round-robin over the stripes, so concurrent credits update different rows
+ * and never wait for the account row.
+ * <p>
+ * A stripe credit is not posted to the ledger right away, because the account's sequence number and
+ * running balance live on the account row. It is kept as a {@link StripeCredit} until the stripes are
+ * folded: under the account row lock, the stripes are locked, every pending credit is posted with the
+ * account's next sequence number, at the time of the fold, and the stripe balances move into the account
+ * row. Posting at fold time keeps {@code posted_at} ascending with the sequence number, which point-in-time
+ * balances rely on; a striped credit counts towards them from the fold on. Every debit of a
+ * striped account folds first, so the insufficient-funds check and the ledger always see the full
+ * balance, and the {@link StripeRebalanceJob} folds periodically so stripes stay small and the ledger
+ * stays current.
+ * <p>
+ * To stay deadlock-free, a transaction takes its account row locks first, in account-id order, and only
+ * then stripe locks, again in account-id order.
+ * <p>
+ * Which accounts are striped is kept in memory, loaded at startup and refreshed when an instance announces
+ * a change on the {@link ClusterEventBus}. The {@code stripes} column is authoritative: a locked account
+ * is always folded according to its row, whatever the in-memory view says.
+ */
+@Service
+@Slf4j
+public class StripedBalanceService {
+
+    static final String STRIPING_TOPIC = "account-striping";
+
+    private final AccountRepository accountRepository;
+    private final AccountStripeRepository stripeRepository;
+    private final StripeCreditRepository stripeCreditRepository;
+    private final LedgerPostingRepository ledgerPostingRepository;
+    private final ClusterEventBus clusterEventBus;
+    private final int maxStripes;
+
+    private final Map<String, Integer> stripedAccounts = new ConcurrentHashMap<>();
+    private final AtomicInteger nextStripe = new AtomicInteger();
+
+    private final LongAdder stripeCredits = new LongAdder();
+    private final LongAdder folds = new LongAdder();
+    private final LongAdder foldedCredits = new LongAdder();
+
+    public StripedBalanceService(AccountRepository accountRepository,
+                                 AccountStripeRepository stripeRepository,
+                                 StripeCreditRepository stripeCreditRepository,
+                                 LedgerPostingRepository ledgerPostingRepository,
+                                 ClusterEventBus clusterEventBus,
+                                 @Value("${app.ledger.striping.max-stripes:64}") int maxStripes) {
+        this.accountRepository = accountRepository;
+        this.stripeRepository = stripeRepository;
+        this.stripeCreditRepository = stripeCreditRepository;
+        this.ledgerPostingRepository = ledgerPostingRepository;
+        this.clusterEventBus = clusterEventBus;
+        this.maxStripes = maxStripes;
+
+        clusterEventBus.subscribe(STRIPING_TOPIC, this::refresh);
+        clusterEventBus.onReconnect(this::reload);
+    }
+
+    @PostConstruct
+    public void reload() {
+        Map<String, Integer> striped = new TreeMap<>();
+        accountRepository.findStriped().forEach(account -> striped.put(account.getId(), account.getStripes()));
+
+        stripedAccounts.keySet().retainAll(striped.keySet());
+        stripedAccounts.putAll(striped);
+        if (!striped.isEmpty()) {
+            log.info("Loaded {} striped accounts", striped.size());
+        }
+    }
+
+    /**
+     * Re-reads whether one account is striped.
+     */
+    public void refresh(String accountId) {
+        accountRepository.findById(accountId).ifPresentOrElse(this::apply, () -> stripedAccounts.remove(accountId));
+    }
+
+    public boolean isStriped(String accountId) {
+        return !stripedAccounts.isEmpty() && stripedAccounts.containsKey(accountId);
+    }
+
+    public Map<String, Integer> getStripedAccounts() {
+        return new TreeMap<>(stripedAccounts);
+    }
+
+    /**
+     * Adds a credit to the next stripe of the account, without touching the account row. Returns the stripe
+     * credited, or {@code -1} when the account is not active in the currency or no longer has that stripe.
+     * The caller records the credit with {@link #recordCredit} once its transaction has an id.
+     */
+    public int credit(String accountId, BigDecimal amount, String currency) {
+        Integer stripes = stripedAccounts.get(accountId);
+        if (stripes == null) {
+            return -1;
+        }
+        int stripe = Math.floorMod(nextStripe.getAndIncrement(), stripes);
+        if (stripeRepository.creditIfActive(accountId, stripe, amount, currency) == 0) {
+            return -1;
+        }
+        stripeCredits.increment();
+        return stripe;
+    }
+
+    public void revertCredit(String accountId, int stripe, BigDecimal amount) {
+        stripeRepository.revertCredit(accountId, stripe, amount);
+        stripeCredits.decrement();
+    }
+
+    public void recordCredit(Transaction transaction, int stripe) {
+        stripeCreditRepository.save(new StripeCredit(transaction.getId(), transaction.getDestinationAccountId(),
+                stripe, transaction.getAmount(), transaction.getCompletedAt()));
+    }
+
+    /**
+     * Folds the stripes of a locked account into its row: posts the pending stripe credits in the order
+     * they completed, stamped with the fold time, and moves the stripe balances into the account's balance. Does nothing for an account
+     * that is not striped. The caller must hold the account row and save it afterwards. Returns the number
+     * of credits posted.
+     */
+    public int fold(Account account) {
+        if (!account.isStriped()) {
+            return 0;
+        }
+
+        BigDecimal held = stripeRepository.lockBalances(account.getId()).stream()
+                .reduce(BigDecimal.ZERO, BigDecimal::add);
+        List<StripeCredit> credits = stripeCreditRepository.findByAccountId(account.getId());
+        if (credits.isEmpty() && held.signum() == 0) {
+            return 0;
+        }
+
+        LocalDateTime postedAt = LocalDateTime.now();
+        BigDecimal balance = account.getBalance();
+        BigDecimal pending = BigDecimal.ZERO;
+        List<LedgerPosting> postings = new ArrayList<>(credits.size());
+        for (StripeCredit credit : credits) {
+            balance = balance.add(credit.getAmount());
+            pending = pending.add(credit.getAmount());
+            postings.add(LedgerPosting.of(account.getId(), account.nextPostingSeq(), credit.getTransactionId(),
+                    credit.getAmount(), balance, postedAt));
+        }
+        if (pending.compareTo(held) != 0) {
+            throw new IllegalStateException("Stripes of account " + account.getId() + " hold " + held
+                    + " but its pending credits add up to " + pending);
+        }
+
+        account.setBalance(balance);
+        ledgerPostingRepository.saveAll(postings);
+        stripeCreditRepository.deleteAllInBatch(credits);
+        stripeRepository.resetBalances(account.getId());
+
+        folds.increment();
+        foldedCredits.add(credits.size());
+        return credits.size();
+    }
+
+    /**
+     * Locks the account and folds its stripes. Returns the number of credits posted.
+     */
+    @Transactional
+    public int fold(String accountId) {
+        Account account = accountRepository.findByIdForUpdate(accountId)
+                .orElseThrow(() -> new AccountNotFoundException(accountId));
+        int posted = fold(account);
+        accountRepository.save(account);
+        return posted;
+    }
+
+    /**
+     * Balance of the account including its stripes. Costs no query for an account that is not striped; for
+     * a striped one, the account row and its stripes are re-read together, as the loaded row may predate a
+     * fold that has since emptied the stripes into it.
+     */
+    public BigDecimal totalBalance(Account account) {
+        if (!account.isStriped()) {
+            return account.getBalance();
+        }
+        BigDecimal total = stripeRepository.totalBalance(account.getId());
+        return total != null ? total : account.getBalance();
+    }
+
+    /**
+     * Stripes the account's balance over {@code stripes} rows, or re-stripes it when it already is. The
+     * current stripes are folded first, so the new ones start empty.
+     */
+    @Transactional
+    public void enableStriping(String accountId, int stripes) {
+        if (stripes < 2 || stripes > maxStripes) {
+            throw new PaymentException("Stripe count must be between 2 and " + maxStripes, "INVALID_STRIPE_COUNT");
+        }
+
+        Account account = accountRepository.findByIdForUpdate(accountId)
+                .orElseThrow(() -> new AccountNotFoundException(accountId));
+        fold(account);
+        stripeRepository.deleteByAccountId(accountId);
+        stripeRepository.saveAll(IntStream.range(0, stripes)
+                .mapToObj(stripe -> new AccountStripe(accountId, stripe, BigDecimal.ZERO))
+                .toList());
+        account.setStripes(stripes);
+        accountRepository.save(account);
+        announce(account);
+
+        log.info("Striped account {} over {} stripes", accountId, stripes);
+    }
+
+    /**
+     * Folds the account's stripes and turns striping off again.
+     */
+    @Transactional
+    public void disableStriping(String accountId) {
+        Account account = accountRepository.findByIdForUpdate(accountId)
+                .orElseThrow(() -> new AccountNotFoundException(accountId));
+        fold(account);
+        stripeRepository.deleteByAccountId(accountId);
+        account.setStripes(0);
+        accountRepository.save(account);
+        announce(account);
+
+        log.info("Stopped striping account {}", accountId);
+    }
+
+    private void announce(Account account) {
+        String accountId = account.getId();
+        int stripes = account.getStripes();
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                apply(accountId, stripes);
+            }
+        });
+        clusterEventBus.publish(STRIPING_TOPIC, accountId);
+    }
+
+    private void apply(Account account) {
+        apply(account.getId(), account.getStripes());
+    }
+
+    private void apply(String accountId, int stripes) {
+        if (stripes > 0) {
+            stripedAccounts.put(accountId, stripes);
+        } else {
+            stripedAccounts.remove(accountId);
+        }
+    }
+
+    public long getStripeCredits() {
+        return stripeCredits.sum();
+    }
+
+    public long getFolds() {
+        return folds.sum();
+    }
+
+    public long getFoldedCredits() {
+        return foldedCredits.sum();
+    }
+}
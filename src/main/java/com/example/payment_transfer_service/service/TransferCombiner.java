@@ -0,0 +1,169 @@
+package com.example.payment_transfer_service.service;
+
+import com.example.payment_transfer_service.dto.TransferCombiningStats;
+import com.example.payment_transfer_service.dto.TransferResult;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+
+/**
+ * Flat combining of concurrent transfers to the same destination. The first transfer to a destination
+ * opens a batch and becomes its combiner; transfers to that destination arriving within the next
+ * {@code window-micros}, up to {@code max-batch} of them, join the batch and wait. The combiner then
+ * applies the whole batch in one transaction, so the destination row is locked and updated once with
+ * the sum of the credits, and hands every waiting caller its own result.
+ * <p>
+ * A transfer that is alone in its window, or whose combined write failed, gets {@code null} back and
+ * runs on its own, so combining never changes the outcome of a transfer, only how it is written.
+ */
+@Component
+@Slf4j
+public class TransferCombiner {
+
+    private final TransferMetrics transferMetrics;
+    private final boolean enabled;
+    private final long windowNanos;
+    private final int maxBatch;
+
+    private final Map<String, Batch<?>> openBatches = new ConcurrentHashMap<>();
+
+    private final LongAdder combinedWrites = new LongAdder();
+    private final LongAdder combinedTransfers = new LongAdder();
+    private final LongAdder uncombinedTransfers = new LongAdder();
+    private final LongAdder failedWrites = new LongAdder();
+    private final AtomicInteger largestBatch = new AtomicInteger();
+
+    public TransferCombiner(TransferMetrics transferMetrics,
+                            @Value("${app.transfer.combining.enabled:false}") boolean enabled,
+                            @Value("${app.transfer.combining.window-micros:200}") long windowMicros,
+                            @Value("${app.transfer.combining.max-batch:32}") int maxBatch) {
+        this.transferMetrics = transferMetrics;
+        this.enabled = enabled;
+        this.windowNanos = TimeUnit.MICROSECONDS.toNanos(Math.max(1, windowMicros));
+        this.maxBatch = Math.max(2, maxBatch);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Adds the transfer to the open batch of its destination, opening one when there is none. The caller
+     * that opened the batch waits for the window to pass or the batch to fill up and then applies it with
+     * {@code apply}, which must return one result per transfer, in order. Returns the caller's result, or
+     * {@code null} when the transfer was not combined and must run on its own.
+     */
+    public <T> TransferResult combine(String destinationAccountId, T transfer,
+                                      Function<List<T>, List<TransferResult>> apply) {
+        CompletableFuture<TransferResult> result = new CompletableFuture<>();
+        Batch<T> batch;
+        boolean combiner;
+
+        while (true) {
+            @SuppressWarnings("unchecked")
+            Batch<T> open = (Batch<T>) openBatches.computeIfAbsent(destinationAccountId, id -> new Batch<T>());
+            open.lock.lock();
+            try {
+                if (!open.closed) {
+                    open.transfers.add(transfer);
+                    open.results.add(result);
+                    combiner = open.transfers.size() == 1;
+                    if (open.transfers.size() >= maxBatch) {
+                        close(destinationAccountId, open);
+                        open.full.signal();
+                    }
+                    batch = open;
+                    break;
+                }
+            } finally {
+                open.lock.unlock();
+            }
+            // Closed but not yet removed by its combiner
+            openBatches.remove(destinationAccountId, open);
+        }
+
+        if (!combiner) {
+            return result.join();
+        }
+
+        batch.lock.lock();
+        try {
+            long remaining = windowNanos;
+            while (!batch.closed && remaining > 0) {
+                remaining = batch.full.awaitNanos(remaining);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            close(destinationAccountId, batch);
+            batch.lock.unlock();
+        }
+
+        // The batch is closed, so its lists no longer change
+        if (batch.transfers.size() == 1) {
+            uncombinedTransfers.increment();
+            return null;
+        }
+
+        List<TransferResult> results = null;
+        try {
+            results = apply.apply(batch.transfers);
+            combinedWrites.increment();
+            combinedTransfers.add(batch.transfers.size());
+            largestBatch.accumulateAndGet(batch.transfers.size(), Math::max);
+            transferMetrics.recordCombinedWrite(batch.transfers.size());
+        } catch (RuntimeException e) {
+            log.warn("Combined write of {} transfers to {} failed, running them one by one: {}",
+                    batch.transfers.size(), destinationAccountId, e.getMessage());
+            failedWrites.increment();
+            uncombinedTransfers.add(batch.transfers.size());
+        } finally {
+            for (int i = 1; i < batch.results.size(); i++) {
+                batch.results.get(i).complete(results != null ? results.get(i) : null);
+            }
+        }
+        return results != null ? results.get(0) : null;
+    }
+
+    private void close(String destinationAccountId, Batch<?> batch) {
+        batch.closed = true;
+        openBatches.remove(destinationAccountId, batch);
+    }
+
+    public TransferCombiningStats getStats() {
+        long writes = combinedWrites.sum();
+        long transfers = combinedTransfers.sum();
+        return TransferCombiningStats.builder()
+                .enabled(enabled)
+                .windowMicros(TimeUnit.NANOSECONDS.toMicros(windowNanos))
+                .maxBatch(maxBatch)
+                .combinedWrites(writes)
+                .combinedTransfers(transfers)
+                .uncombinedTransfers(uncombinedTransfers.sum())
+                .failedWrites(failedWrites.sum())
+                .averageBatchSize(writes > 0 ? (double) transfers / writes : 0.0)
+                .largestBatch(largestBatch.get())
+                .openBatches(openBatches.size())
+                .build();
+    }
+
+    private static final class Batch<T> {
+        private final ReentrantLock lock = new ReentrantLock();
+        private final Condition full = lock.newCondition();
+        private final List<T> transfers = new ArrayList<>();
+        private final List<CompletableFuture<TransferResult>> results = new ArrayList<>();
+        private boolean closed;
+    }
+}
@@ -0,0 +1,20 @@
+package com.example.payment_transfer_service.service;
+
+public enum TransferEngineMode {
+    /**
+     * Locks both accounts with SELECT ... FOR UPDATE, validates and updates them through the entities.
+     */
+    PESSIMISTIC,
+
+    /**
+     * Applies the debit and the credit as single conditional UPDATE statements whose affected rows
+     * decide whether the transfer may proceed. No account is read before it is changed.
+     */
+    GUARDED_UPDATE,
+
+    /**
+     * Reads both accounts without locks and commits with {@code @Version} checks, retrying conflicts and
+     * falling back to {@link #PESSIMISTIC} for accounts that keep conflicting.
+     */
+    OPTIMISTIC
+}
@@ -0,0 +1,15 @@
+package com.example.payment_transfer_service.service;
+
+import com.example.payment_transfer_service.entity.OutboxEvent;
+
+import java.util.List;
+
+/**
+ * Downstream consumer of finished transfers, fed by the outbox relay. Events are published inside
+ * the relay transaction before the outbox rows are deleted; a sink that throws rolls the batch back
+ * and it is redelivered on the next poll, so sinks must tolerate duplicates.
+ */
+public interface TransferEventSink {
+
+    void publish(List<OutboxEvent> events);
+}
@@ -0,0 +1,158 @@
+package com.example.payment_transfer_service.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Timers and counters for the transfer pipeline. Every timer publishes a percentile histogram, so p99 per
+ * phase and per engine mode, including the wait for each account row lock, can be computed from the
+ * Prometheus buckets.
+ * <ul>
+ *   <li>{@code transfer.phase} - duration of each {@link TransferPhase} that completed. {@code balance_update}
+ *   includes the lock waits of the pessimistic engine.</li>
+ *   <li>{@code transfer.lock.wait} - time to acquire each account row lock, tagged by lock order, recorded
+ *   whether or not the transfer then succeeds.</li>
+ *   <li>{@code transfer.duration} - end to end, tagged by outcome.</li>
+ *   <li>{@code transfer.errors} - failed transfers by {@code PaymentException} error code.</li>
+ *   <li>{@code transfer.combined.size} - number of transfers absorbed by each combined write of the
+ *   {@link TransferCombiner}.</li>
+ *   <li>{@code transfer.lane.service} and {@code transfer.lane.depth} - per {@link AccountLaneExecutor} lane,
+ *   the time the lane is held by each task, including a wait for a second lane, and the tasks queued on it.</li>
+ * </ul>
+ */
+@Component
+public class TransferMetrics {
+
+    private static final Duration MIN_EXPECTED = Duration.ofMillis(1);
+    private static final Duration MAX_EXPECTED = Duration.ofSeconds(30);
+
+    private final MeterRegistry meterRegistry;
+    private final Map<TransferEngineMode, Map<TransferPhase, Timer>> phaseTimers = new EnumMap<>(TransferEngineMode.class);
+    private final Timer firstLockWait;
+    private final Timer secondLockWait;
+    private final DistributionSummary combinedWriteSize;
+
+    public TransferMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+        for (TransferEngineMode mode : TransferEngineMode.values()) {
+            Map<TransferPhase, Timer> timers = new EnumMap<>(TransferPhase.class);
+            for (TransferPhase phase : TransferPhase.values()) {
+                timers.put(phase, timer("transfer.phase", "Duration of one phase of a transfer")
+                        .tag("phase", phase.tagValue())
+                        .tag("engine", mode.name().toLowerCase())
+                        .register(meterRegistry));
+            }
+            phaseTimers.put(mode, timers);
+        }
+        this.firstLockWait = lockWaitTimer("first");
+        this.secondLockWait = lockWaitTimer("second");
+        this.combinedWriteSize = DistributionSummary.builder("transfer.combined.size")
+                .description("Transfers absorbed by one combined write")
+                .baseUnit("transfers")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    public Timer.Sample startPhase() {
+        return Timer.start(meterRegistry);
+    }
+
+    public void stopPhase(Timer.Sample sample, TransferEngineMode mode, TransferPhase phase) {
+        sample.stop(phaseTimers.get(mode).get(phase));
+    }
+
+    /**
+     * Times acquisition of a row lock; {@code first} is the lower account id, taken before {@code second}.
+     */
+    public <T> T timeLockWait(boolean first, Supplier<T> lock) {
+        return (first ? firstLockWait : secondLockWait).record(lock);
+    }
+
+    /**
+     * Times the commit of the current transaction, including the final flush, from the start of the
+     * commit until it completes. Does nothing outside a transaction.
+     */
+    public void timeCommit(TransferEngineMode mode) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        Timer commitTimer = phaseTimers.get(mode).get(TransferPhase.COMMIT);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            private Timer.Sample sample;
+
+            @Override
+            public void beforeCommit(boolean readOnly) {
+                sample = Timer.start(meterRegistry);
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                if (sample != null && status == STATUS_COMMITTED) {
+                    sample.stop(commitTimer);
+                }
+            }
+        });
+    }
+
+    public Timer.Sample startTransfer() {
+        return Timer.start(meterRegistry);
+    }
+
+    public void recordTransfer(Timer.Sample sample, TransferEngineMode mode, boolean success) {
+        sample.stop(timer("transfer.duration", "End-to-end duration of a transfer")
+                .tag("engine", mode.name().toLowerCase())
+                .tag("outcome", success ? "success" : "failure")
+                .register(meterRegistry));
+    }
+
+    public void recordCombinedWrite(int transfers) {
+        combinedWriteSize.record(transfers);
+    }
+
+    public Timer laneServiceTimer(int lane) {
+        return timer("transfer.lane.service", "Time an account lane is held by one task")
+                .tag("lane", Integer.toString(lane))
+                .register(meterRegistry);
+    }
+
+    public void registerLaneDepth(int lane, Collection<?> queue) {
+        Gauge.builder("transfer.lane.depth", queue, Collection::size)
+                .description("Tasks queued on an account lane")
+                .tag("lane", Integer.toString(lane))
+                .register(meterRegistry);
+    }
+
+    public void recordError(String errorCode) {
+        Counter.builder("transfer.errors")
+                .description("Failed transfers by error code")
+                .tag("error_code", errorCode != null ? errorCode : "UNKNOWN")
+                .register(meterRegistry)
+                .increment();
+    }
+
+    private Timer lockWaitTimer(String lock) {
+        return timer("transfer.lock.wait", "Time to acquire an account row lock")
+                .tag("lock", lock)
+                .register(meterRegistry);
+    }
+
+    private static Timer.Builder timer(String name, String description) {
+        return Timer.builder(name)
+                .description(description)
+                .publishPercentileHistogram()
+                .minimumExpectedValue(MIN_EXPECTED)
+                .maximumExpectedValue(MAX_EXPECTED);
+    }
+}
@@ -0,0 +1,16 @@
+package com.example.payment_transfer_service.service;
+
+/**
+ * Timed steps of a single transfer, in execution order.
+ */
+public enum TransferPhase {
+    VALIDATION,
+    BALANCE_UPDATE,
+    TRANSACTION_WRITE,
+    COMMIT,
+    AUDIT;
+
+    public String tagValue() {
+        return name().toLowerCase();
+    }
+}
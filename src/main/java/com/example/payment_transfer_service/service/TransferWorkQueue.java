@@ -0,0 +1,107 @@
+package com.example.payment_transfer_service.service;
+
+import com.example.payment_transfer_service.dto.TransferQueueStats;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bounded worker pool that executes asynchronously submitted transfers. The queue has a fixed capacity;
+ * once it is full, {@link #submit(Runnable)} rejects the work immediately instead of blocking the caller.
+ */
+@Component
+@Slf4j
+public class TransferWorkQueue {
+
+    private final int capacity;
+    private final ThreadPoolExecutor executor;
+
+    private final LongAdder submitted = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder completed = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder queueWaitNanos = new LongAdder();
+    private final AtomicLong maxQueueWaitNanos = new AtomicLong();
+
+    public TransferWorkQueue(@Value("${app.transfer.async.workers:8}") int workers,
+                             @Value("${app.transfer.async.queue-capacity:1000}") int capacity) {
+        this.capacity = capacity;
+        this.executor = new ThreadPoolExecutor(workers, workers, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(capacity), new WorkerThreadFactory(), new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    public boolean hasCapacity() {
+        return executor.getQueue().remainingCapacity() > 0;
+    }
+
+    public void submit(Runnable task) {
+        long enqueuedAt = System.nanoTime();
+        try {
+            executor.execute(() -> run(task, enqueuedAt));
+            submitted.increment();
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            throw e;
+        }
+    }
+
+    private void run(Runnable task, long enqueuedAt) {
+        long waited = System.nanoTime() - enqueuedAt;
+        queueWaitNanos.add(waited);
+        maxQueueWaitNanos.accumulateAndGet(waited, Math::max);
+        try {
+            task.run();
+            completed.increment();
+        } catch (RuntimeException e) {
+            failed.increment();
+            log.error("Asynchronous transfer task failed", e);
+        }
+    }
+
+    public TransferQueueStats getStats() {
+        long finished = completed.sum() + failed.sum();
+        return TransferQueueStats.builder()
+                .capacity(capacity)
+                .depth(executor.getQueue().size())
+                .activeWorkers(executor.getActiveCount())
+                .workers(executor.getMaximumPoolSize())
+                .submitted(submitted.sum())
+                .rejected(rejected.sum())
+                .completed(completed.sum())
+                .failed(failed.sum())
+                .averageQueueWaitMs(finished == 0 ? 0 : queueWaitNanos.sum() / finished / 1_000_000.0)
+                .maxQueueWaitMs(maxQueueWaitNanos.get() / 1_000_000.0)
+                .build();
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        executor.shutdown();
+        if (!executor.awaitTermination(30, TimeUnit.SECONDS)) {
+            log.warn("Transfer workers did not drain within 30s, {} queued transfers stay PENDING until "
+                    + "the pending-transfer sweep resubmits them", executor.getQueue().size());
+            executor.shutdownNow();
+        }
+    }
+
+    private static final class WorkerThreadFactory implements ThreadFactory {
+        private final AtomicInteger sequence = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "transfer-worker-" + sequence.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
@@ -7,6 +7,8 @@ import com.example.payment_transfer_service.entity.Account;
 import com.example.payment_transfer_service.exception.PaymentException;
 import com.example.payment_transfer_service.repository.UserRepository;
 import com.example.payment_transfer_service.repository.AccountRepository;
+import com.example.payment_transfer_service.security.PrincipalCache;
+import com.example.payment_transfer_service.security.TokenRevocationRegistry;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -26,6 +28,9 @@ public class UserService {
     private final UserRepository userRepository;
     private final AccountRepository accountRepository;
     private final PasswordEncoder passwordEncoder;
+    private final PrincipalCache principalCache;
+    private final TokenRevocationRegistry tokenRevocationRegistry;
+    private final StripedBalanceService stripedBalances;
 
     @Transactional
     public UserResponse createUser(UserRegistrationRequest request) {
@@ -65,6 +70,40 @@ public class UserService {
         return mapToUserResponse(user);
     }
 
+    @Transactional
+    public UserResponse updateUserStatus(String userId, UserStatus status) {
+        User user = userRepository.findById(userId)
+                .orElseThrow(() -> new PaymentException("User not found", "USER_NOT_FOUND"));
+
+        user.setStatus(status);
+        user.setTokenVersion(user.getTokenVersion() + 1);
+        User updatedUser = userRepository.save(user);
+        principalCache.invalidate(userId);
+        tokenRevocationRegistry.revokeUserTokens(userId, updatedUser.getTokenVersion());
+
+        log.info("Updated user {} status to {}", userId, status);
+
+        return mapToUserResponse(updatedUser);
+    }
+
+    @Transactional
+    public void changePassword(String userId, ChangePasswordRequest request) {
+        User user = userRepository.findById(userId)
+                .orElseThrow(() -> new PaymentException("User not found", "USER_NOT_FOUND"));
+
+        if (!passwordEncoder.matches(request.getCurrentPassword(), user.getPasswordHash())) {
+            throw new PaymentException("Current password is incorrect", "INVALID_PASSWORD");
+        }
+
+        user.setPasswordHash(passwordEncoder.encode(request.getNewPassword()));
+        user.setTokenVersion(user.getTokenVersion() + 1);
+        userRepository.save(user);
+        principalCache.invalidate(userId);
+        tokenRevocationRegistry.revokeUserTokens(userId, user.getTokenVersion());
+
+        log.info("Changed password for user {}", userId);
+    }
+
     private String generateUserId() {
         return "USR" + UUID.randomUUID().toString().substring(0, 8).toUpperCase();
     }
@@ -94,7 +133,7 @@ public class UserService {
                 .id(account.getId())
                 .accountName(account.getAccountName())
                 .accountType(account.getAccountType())
-                .balance(account.getBalance())
+                .balance(stripedBalances.totalBalance(account))
                 .currency(account.getCurrency())
                 .status(account.getStatus())
                 .createdAt(account.getCreatedAt())
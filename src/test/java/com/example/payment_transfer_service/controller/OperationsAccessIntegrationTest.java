@@ -0,0 +1,114 @@
+package com.example.payment_transfer_service.controller;
+
+import com.example.payment_transfer_service.dto.UserRegistrationRequest;
+import com.example.payment_transfer_service.repository.UserRepository;
+import com.example.payment_transfer_service.security.CustomUserDetailsService;
+import com.example.payment_transfer_service.security.JwtUtil;
+import com.example.payment_transfer_service.security.UserPrincipal;
+import com.example.payment_transfer_service.service.UserService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Calls the operations endpoints through the full security filter chain with real tokens: a customer's
+ * {@code ROLE_USER} token is refused, a token of a user listed in {@code app.security.admin-usernames} is not.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("h2")
+@TestPropertySource(properties = "app.security.admin-usernames=opsadmin")
+class OperationsAccessIntegrationTest {
+
+    private static final String ADMIN_USERNAME = "opsadmin";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private CustomUserDetailsService userDetailsService;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    private String customerToken;
+    private String adminToken;
+
+    @BeforeEach
+    void setUp() {
+        customerToken = tokenOf(createUser("customer" + Long.toString(System.nanoTime(), 36)));
+        if (userRepository.findByUsername(ADMIN_USERNAME).isEmpty()) {
+            createUser(ADMIN_USERNAME);
+        }
+        adminToken = tokenOf(ADMIN_USERNAME);
+    }
+
+    @Test
+    void customerCannotReadOperationsCounters() throws Exception {
+        mockMvc.perform(get("/api/v1/ops/hot-accounts").header(HttpHeaders.AUTHORIZATION, bearer(customerToken)))
+                .andExpect(status().isForbidden());
+        mockMvc.perform(get("/api/v1/ops/principal-cache").header(HttpHeaders.AUTHORIZATION, bearer(customerToken)))
+                .andExpect(status().isForbidden());
+    }
+
+    @Test
+    void adminReadsOperationsCounters() throws Exception {
+        mockMvc.perform(get("/api/v1/ops/hot-accounts").header(HttpHeaders.AUTHORIZATION, bearer(adminToken)))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void onlyAdminStartsBalanceCheckpointPass() throws Exception {
+        mockMvc.perform(post("/api/v1/ops/balance-checkpoints").header(HttpHeaders.AUTHORIZATION, bearer(customerToken)))
+                .andExpect(status().isForbidden());
+        mockMvc.perform(post("/api/v1/ops/balance-checkpoints").header(HttpHeaders.AUTHORIZATION, bearer(adminToken)))
+                .andExpect(status().isAccepted());
+    }
+
+    @Test
+    void customerCannotStripeOrUnstripeAccounts() throws Exception {
+        mockMvc.perform(put("/api/v1/ops/striped-accounts/{accountId}", "any-account").param("stripes", "4")
+                        .header(HttpHeaders.AUTHORIZATION, bearer(customerToken)))
+                .andExpect(status().isForbidden());
+        mockMvc.perform(delete("/api/v1/ops/striped-accounts/{accountId}", "any-account")
+                        .header(HttpHeaders.AUTHORIZATION, bearer(customerToken)))
+                .andExpect(status().isForbidden());
+    }
+
+    private String createUser(String username) {
+        UserRegistrationRequest registration = new UserRegistrationRequest();
+        registration.setUsername(username);
+        registration.setEmail(username + "@example.com");
+        registration.setPassword("Operations@123");
+        registration.setFirstName("Ops");
+        registration.setLastName("Access");
+        userService.createUser(registration);
+        return username;
+    }
+
+    private String tokenOf(String username) {
+        return jwtUtil.generateJwtToken((UserPrincipal) userDetailsService.loadUserByUsername(username));
+    }
+
+    private static String bearer(String token) {
+        return "Bearer " + token;
+    }
+}
@@ -0,0 +1,65 @@
+package com.example.payment_transfer_service.entity;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TimeOrderedUuidGeneratorTest {
+
+    @Test
+    void idsAreVersion7WithTheTimestampInTheLeadingBits() {
+        TimeOrderedUuidGenerator.Source source = new TimeOrderedUuidGenerator.Source(() -> 1_700_000_000_123L);
+
+        UUID uuid = source.next();
+
+        assertEquals(7, uuid.version());
+        assertEquals(2, uuid.variant());
+        assertEquals(1_700_000_000_123L, uuid.getMostSignificantBits() >>> 16);
+    }
+
+    @Test
+    void idsIncreaseWithinAMillisecondAndWhenTheClockStepsBack() {
+        AtomicLong clock = new AtomicLong(1_700_000_000_000L);
+        TimeOrderedUuidGenerator.Source source = new TimeOrderedUuidGenerator.Source(clock::get);
+
+        String previous = source.next().toString();
+        for (int i = 0; i < 10_000; i++) {
+            if (i == 5_000) {
+                clock.addAndGet(-1_000);
+            }
+            String next = source.next().toString();
+            assertTrue(next.compareTo(previous) > 0, next + " is not after " + previous);
+            previous = next;
+        }
+    }
+
+    @Test
+    void idsAreUniqueAcrossThreads() throws Exception {
+        Set<UUID> ids = ConcurrentHashMap.newKeySet();
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        List<Future<?>> workers = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            workers.add(pool.submit(() -> {
+                for (int i = 0; i < 20_000; i++) {
+                    ids.add(TimeOrderedUuidGenerator.nextUuid());
+                }
+            }));
+        }
+        for (Future<?> worker : workers) {
+            worker.get();
+        }
+        pool.shutdown();
+
+        assertEquals(160_000, ids.size());
+    }
+}
@@ -0,0 +1,100 @@
+package com.example.payment_transfer_service.security;
+
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.security.Keys;
+import org.junit.jupiter.api.Test;
+
+import java.util.Date;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class JwtUtilTest {
+
+    private static final String SECRET = "testSecretKeyThatIsDefinitelyLongEnoughForHS256Signing";
+
+    private static final UserPrincipal PRINCIPAL =
+            new UserPrincipal("user123", "testuser", "test@example.com", "John", "Doe", "hash", true, 3,
+                    List.of("ROLE_USER"));
+
+    private final JwtUtil jwtUtil = spy(new JwtUtil(SECRET, 60_000, 100));
+
+    @Test
+    void verify_ReturnsClaimsNeededToBuildPrincipal() {
+        String token = jwtUtil.generateJwtToken(PRINCIPAL);
+
+        VerifiedJwt verified = jwtUtil.verify(token).orElseThrow();
+        UserPrincipal principal = UserPrincipal.fromToken(verified);
+
+        assertNotNull(verified.tokenId());
+        assertEquals("user123", principal.getId());
+        assertEquals("testuser", principal.getUsername());
+        assertEquals(3, principal.getTokenVersion());
+        assertEquals(List.of("ROLE_USER"), principal.getAuthorities().stream().map(Object::toString).toList());
+        assertNotEquals(verified.tokenId(), jwtUtil.verify(jwtUtil.generateJwtToken(PRINCIPAL)).orElseThrow().tokenId());
+    }
+
+    @Test
+    void verify_RejectsTokenWithoutPrincipalClaims() {
+        String subjectOnly = Jwts.builder()
+                .setSubject("user123")
+                .setExpiration(new Date(System.currentTimeMillis() + 60_000))
+                .signWith(Keys.hmacShaKeyFor(SECRET.getBytes()), SignatureAlgorithm.HS256)
+                .compact();
+
+        assertTrue(jwtUtil.verify(subjectOnly).isEmpty());
+    }
+
+    @Test
+    void verify_CachesVerifiedTokens() {
+        String token = jwtUtil.generateJwtToken(PRINCIPAL);
+
+        Optional<VerifiedJwt> first = jwtUtil.verify(token);
+        Optional<VerifiedJwt> second = jwtUtil.verify(token);
+
+        assertTrue(first.isPresent());
+        assertEquals("user123", first.get().subject());
+        assertEquals(first, second);
+        verify(jwtUtil, times(1)).verifySignature(token);
+    }
+
+    @Test
+    void verify_RejectsTamperedToken() {
+        String token = jwtUtil.generateJwtToken(PRINCIPAL);
+        String tampered = token.substring(0, token.length() - 2) + (token.endsWith("AA") ? "BB" : "AA");
+
+        assertTrue(jwtUtil.verify(tampered).isEmpty());
+        assertFalse(jwtUtil.validateJwtToken(tampered));
+    }
+
+    @Test
+    void verify_RejectsExpiredAndUnexpiringTokens() {
+        String expired = Jwts.builder()
+                .setSubject("user123")
+                .setExpiration(new Date(System.currentTimeMillis() - 1_000))
+                .signWith(Keys.hmacShaKeyFor(SECRET.getBytes()), SignatureAlgorithm.HS256)
+                .compact();
+        String unexpiring = Jwts.builder()
+                .setSubject("user123")
+                .signWith(Keys.hmacShaKeyFor(SECRET.getBytes()), SignatureAlgorithm.HS256)
+                .compact();
+
+        assertTrue(jwtUtil.verify(expired).isEmpty());
+        assertTrue(jwtUtil.verify(unexpiring).isEmpty());
+    }
+
+    @Test
+    void verify_DoesNotServeCachedTokenAfterExpiry() throws InterruptedException {
+        JwtUtil shortLived = spy(new JwtUtil(SECRET, 2_000, 100));
+        String token = shortLived.generateJwtToken(PRINCIPAL);
+
+        assertTrue(shortLived.verify(token).isPresent());
+        Thread.sleep(2_100);
+
+        assertTrue(shortLived.verify(token).isEmpty());
+        verify(shortLived, times(2)).verifySignature(token);
+    }
+}
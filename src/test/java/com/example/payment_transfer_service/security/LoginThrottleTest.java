@@ -0,0 +1,50 @@
+package com.example.payment_transfer_service.security;
+
+import com.example.payment_transfer_service.exception.LoginThrottledException;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LoginThrottleTest {
+
+    private final LoginThrottle loginThrottle = new LoginThrottle(3, 5, 60, 1000);
+
+    @Test
+    void checkAllowed_ThrottlesUsernameAfterMaxFailures() {
+        for (int i = 0; i < 3; i++) {
+            loginThrottle.checkAllowed("testuser", "10.0.0.1");
+            loginThrottle.recordFailure("testuser", "10.0.0.1");
+        }
+
+        LoginThrottledException exception = assertThrows(LoginThrottledException.class, () ->
+                loginThrottle.checkAllowed("TestUser", "10.0.0.2"));
+
+        assertEquals("LOGIN_THROTTLED", exception.getErrorCode());
+        assertTrue(exception.getRetryAfterSeconds() > 0 && exception.getRetryAfterSeconds() <= 60);
+        assertDoesNotThrow(() -> loginThrottle.checkAllowed("otheruser", "10.0.0.2"));
+    }
+
+    @Test
+    void checkAllowed_ThrottlesIpAcrossUsernames() {
+        for (int i = 0; i < 5; i++) {
+            loginThrottle.recordFailure("user" + i, "10.0.0.1");
+        }
+
+        assertThrows(LoginThrottledException.class, () -> loginThrottle.checkAllowed("fresh", "10.0.0.1"));
+        assertDoesNotThrow(() -> loginThrottle.checkAllowed("fresh", "10.0.0.2"));
+        assertEquals(1, loginThrottle.getStats().getThrottled());
+    }
+
+    @Test
+    void recordSuccess_ResetsUsernameButNotIp() {
+        loginThrottle.recordFailure("testuser", "10.0.0.1");
+        loginThrottle.recordFailure("testuser", "10.0.0.1");
+        loginThrottle.recordSuccess("testuser");
+        loginThrottle.recordFailure("testuser", "10.0.0.1");
+        loginThrottle.recordFailure("testuser", "10.0.0.1");
+
+        assertDoesNotThrow(() -> loginThrottle.checkAllowed("testuser", "10.0.0.2"));
+        loginThrottle.recordFailure("another", "10.0.0.1");
+        assertThrows(LoginThrottledException.class, () -> loginThrottle.checkAllowed("someone", "10.0.0.1"));
+    }
+}
@@ -0,0 +1,80 @@
+package com.example.payment_transfer_service.security;
+
+import com.example.payment_transfer_service.exception.PasswordHashingBusyException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PasswordHashingExecutorTest {
+
+    private final PasswordHashingExecutor hashingExecutor = new PasswordHashingExecutor(1, 1, 5_000);
+    private final ExecutorService callers = Executors.newFixedThreadPool(2);
+
+    @AfterEach
+    void tearDown() {
+        callers.shutdownNow();
+        hashingExecutor.shutdown();
+    }
+
+    @Test
+    void execute_RejectsWhenQueueIsFull() throws InterruptedException {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        callers.submit(() -> hashingExecutor.execute(() -> {
+            started.countDown();
+            await(release);
+            return "busy";
+        }));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        callers.submit(() -> hashingExecutor.execute(() -> "queued"));
+        while (hashingExecutor.getStats().getDepth() < 1) {
+            Thread.sleep(5);
+        }
+
+        assertThrows(PasswordHashingBusyException.class, () -> hashingExecutor.execute(() -> "rejected"));
+        assertEquals(1, hashingExecutor.getStats().getRejected());
+        release.countDown();
+    }
+
+    @Test
+    void execute_TimesOutInsteadOfBlockingTheCaller() {
+        PasswordHashingExecutor slow = new PasswordHashingExecutor(1, 1, 50);
+        try {
+            assertThrows(PasswordHashingBusyException.class, () -> slow.execute(() -> {
+                await(new CountDownLatch(1));
+                return "never";
+            }));
+            assertEquals(1, slow.getStats().getTimedOut());
+        } finally {
+            slow.shutdown();
+        }
+    }
+
+    @Test
+    void boundedEncoder_HashesOnPoolAndRequestsUpgradeForLowerCost() {
+        BoundedPasswordEncoder encoder = new BoundedPasswordEncoder(new BCryptPasswordEncoder(5), hashingExecutor);
+        String weakHash = new BCryptPasswordEncoder(4).encode("Password123!");
+
+        String hash = encoder.encode("Password123!");
+
+        assertTrue(encoder.matches("Password123!", hash));
+        assertFalse(encoder.upgradeEncoding(hash));
+        assertTrue(encoder.upgradeEncoding(weakHash));
+        assertEquals(2, hashingExecutor.getStats().getCompleted());
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
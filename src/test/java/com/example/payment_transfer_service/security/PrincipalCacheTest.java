@@ -0,0 +1,76 @@
+package com.example.payment_transfer_service.security;
+
+import com.example.payment_transfer_service.dto.PrincipalCacheStats;
+import com.example.payment_transfer_service.service.ClusterEventBus;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class PrincipalCacheTest {
+
+    @Mock
+    private ClusterEventBus clusterEventBus;
+
+    private PrincipalCache principalCache;
+    private final AtomicInteger loads = new AtomicInteger();
+    private final Function<String, UserPrincipal> loader = key -> {
+        loads.incrementAndGet();
+        return new UserPrincipal("USR12345", "testuser", "test@example.com", "John", "Doe", "hash", true, 0,
+                List.of("ROLE_USER"));
+    };
+
+    @BeforeEach
+    void setUp() {
+        principalCache = new PrincipalCache(clusterEventBus, 100, 300);
+    }
+
+    @Test
+    void get_SharesEntryBetweenIdAndUsernameLookups() {
+        principalCache.get("testuser", loader);
+        principalCache.get("USR12345", loader);
+        principalCache.get("testuser", loader);
+
+        assertEquals(1, loads.get());
+        PrincipalCacheStats stats = principalCache.getStats();
+        assertEquals(2, stats.getHits());
+        assertEquals(1, stats.getMisses());
+        assertEquals(2.0 / 3, stats.getHitRate(), 1e-9);
+    }
+
+    @Test
+    void invalidate_EvictsLocallyAndPublishesToCluster() {
+        principalCache.get("USR12345", loader);
+
+        principalCache.invalidate("USR12345");
+        principalCache.get("testuser", loader);
+
+        assertEquals(2, loads.get());
+        verify(clusterEventBus).publish(PrincipalCache.INVALIDATION_TOPIC, "USR12345");
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void clusterEvent_EvictsPrincipalFromOtherInstance() {
+        ArgumentCaptor<Consumer<String>> handler = ArgumentCaptor.forClass(Consumer.class);
+        verify(clusterEventBus).subscribe(eq(PrincipalCache.INVALIDATION_TOPIC), handler.capture());
+        principalCache.get("USR12345", loader);
+
+        handler.getValue().accept("USR12345");
+        principalCache.get("USR12345", loader);
+
+        assertEquals(2, loads.get());
+    }
+}
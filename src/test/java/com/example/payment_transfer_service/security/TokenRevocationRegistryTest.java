@@ -0,0 +1,92 @@
+package com.example.payment_transfer_service.security;
+
+import com.example.payment_transfer_service.entity.TokenRevocation;
+import com.example.payment_transfer_service.repository.TokenRevocationRepository;
+import com.example.payment_transfer_service.service.ClusterEventBus;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TokenRevocationRegistryTest {
+
+    @Mock
+    private TokenRevocationRepository revocationRepository;
+
+    @Mock
+    private ClusterEventBus clusterEventBus;
+
+    private TokenRevocationRegistry registry;
+
+    @BeforeEach
+    void setUp() {
+        registry = new TokenRevocationRegistry(revocationRepository, clusterEventBus, 60_000, 60_000);
+    }
+
+    @Test
+    void revokeToken_RejectsOnlyThatToken() {
+        when(revocationRepository.save(any(TokenRevocation.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        VerifiedJwt revoked = token("jti-1", 0);
+
+        registry.revokeToken(revoked);
+
+        assertTrue(registry.isRevoked(revoked));
+        assertFalse(registry.isRevoked(token("jti-2", 0)));
+        verify(clusterEventBus).publish(TokenRevocationRegistry.REVOCATION_TOPIC, "USR12345");
+        assertEquals(1, registry.getStats().getRevokedTokens());
+        assertEquals(1, registry.getStats().getRejectedRequests());
+    }
+
+    @Test
+    void revokeUserTokens_RejectsOlderVersionsOnly() {
+        when(revocationRepository.save(any(TokenRevocation.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        registry.revokeUserTokens("USR12345", 2);
+
+        assertTrue(registry.isRevoked(token("jti-1", 1)));
+        assertFalse(registry.isRevoked(token("jti-2", 2)));
+    }
+
+    @Test
+    void reload_RestoresActiveRevocationsAndRefreshAddsNewOnes() {
+        LocalDateTime expiresAt = LocalDateTime.now().plusMinutes(1);
+        when(revocationRepository.findByExpiresAtAfter(any()))
+                .thenReturn(List.of(TokenRevocation.ofToken("USR12345", "jti-1", expiresAt)));
+        when(revocationRepository.findByRevokedAtGreaterThanEqualAndExpiresAtAfter(any(), any()))
+                .thenReturn(List.of(TokenRevocation.ofUser("USR12345", 5, expiresAt)));
+
+        registry.reload();
+        assertTrue(registry.isRevoked(token("jti-1", 9)));
+        assertFalse(registry.isRevoked(token("jti-2", 4)));
+
+        registry.refresh();
+        assertTrue(registry.isRevoked(token("jti-2", 4)));
+        assertFalse(registry.isRevoked(token("jti-3", 5)));
+    }
+
+    @Test
+    void refresh_PurgesExpiredRevocations() {
+        when(revocationRepository.findByRevokedAtGreaterThanEqualAndExpiresAtAfter(any(), any()))
+                .thenReturn(List.of(TokenRevocation.ofToken("USR12345", "jti-1", LocalDateTime.now().minusSeconds(1))));
+
+        registry.refresh();
+
+        assertFalse(registry.isRevoked(token("jti-1", 0)));
+        assertEquals(0, registry.getStats().getRevokedTokens());
+    }
+
+    private static VerifiedJwt token(String tokenId, long tokenVersion) {
+        return new VerifiedJwt("USR12345", tokenId, "testuser", List.of("ROLE_USER"), tokenVersion,
+                Instant.now().plusSeconds(60));
+    }
+}
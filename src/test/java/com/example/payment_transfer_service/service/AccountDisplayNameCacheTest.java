@@ -0,0 +1,77 @@
+package com.example.payment_transfer_service.service;
+
+import com.example.payment_transfer_service.entity.AccountType;
+import com.example.payment_transfer_service.repository.AccountNameView;
+import com.example.payment_transfer_service.repository.AccountRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AccountDisplayNameCacheTest {
+
+    @Mock
+    private AccountRepository accountRepository;
+
+    private AccountDisplayNameCache cache;
+
+    @BeforeEach
+    void setUp() {
+        cache = new AccountDisplayNameCache(accountRepository, 100, 600);
+    }
+
+    @Test
+    void getDisplayNames_LoadsOnlyMissesInOneQuery() {
+        when(accountRepository.findNamesByIdIn(Set.of("acc1", "acc2", "missing")))
+                .thenReturn(List.of(view("acc1", "Main", AccountType.CHECKING), view("acc2", "Rainy Day", AccountType.SAVINGS)));
+        when(accountRepository.findNamesByIdIn(Set.of("acc3")))
+                .thenReturn(List.of(view("acc3", "Spare", AccountType.SAVINGS)));
+
+        Map<String, String> first = cache.getDisplayNames(Set.of("acc1", "acc2", "missing"));
+        Map<String, String> second = cache.getDisplayNames(Set.of("acc1", "acc3"));
+
+        assertEquals(Map.of("acc1", "Main (CHECKING)", "acc2", "Rainy Day (SAVINGS)"), first);
+        assertEquals(Map.of("acc1", "Main (CHECKING)", "acc3", "Spare (SAVINGS)"), second);
+        verify(accountRepository, times(2)).findNamesByIdIn(anyCollection());
+    }
+
+    @Test
+    void evict_ReloadsAccountOnNextLookup() {
+        when(accountRepository.findNamesByIdIn(Set.of("acc1")))
+                .thenReturn(List.of(view("acc1", "Main", AccountType.CHECKING)))
+                .thenReturn(List.of(view("acc1", "Renamed", AccountType.CHECKING)));
+
+        cache.getDisplayNames(Set.of("acc1"));
+        cache.evict("acc1");
+
+        assertEquals("Renamed (CHECKING)", cache.getDisplayNames(Set.of("acc1")).get("acc1"));
+    }
+
+    private AccountNameView view(String id, String name, AccountType type) {
+        return new AccountNameView() {
+            @Override
+            public String getId() {
+                return id;
+            }
+
+            @Override
+            public String getAccountName() {
+                return name;
+            }
+
+            @Override
+            public AccountType getAccountType() {
+                return type;
+            }
+        };
+    }
+}
@@ -0,0 +1,167 @@
+package com.example.payment_transfer_service.service;
+
+import com.example.payment_transfer_service.dto.TransferLane;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Predicate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AccountLaneExecutorTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final ExecutorService callers = Executors.newFixedThreadPool(16);
+
+    private AccountLaneExecutor lanes;
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        callers.shutdownNow();
+        if (lanes != null) {
+            lanes.shutdown();
+        }
+    }
+
+    @Test
+    void execute_NeverRunsTwoTransfersOnOneAccountAtOnceAndCannotDeadlock() throws Exception {
+        lanes = new AccountLaneExecutor(new TransferMetrics(meterRegistry), true, 4, 1000);
+        List<String> accounts = accountsOnDistinctLanes(3);
+        Map<String, AtomicInteger> inFlight = new ConcurrentHashMap<>();
+        accounts.forEach(account -> inFlight.put(account, new AtomicInteger()));
+        AtomicInteger overlaps = new AtomicInteger();
+
+        // Transfers around a cycle of accounts on different lanes, in both directions
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<String>> results = new ArrayList<>();
+        for (int i = 0; i < 300; i++) {
+            String source = accounts.get(i % 3);
+            String destination = accounts.get((i + (i % 2 == 0 ? 1 : 2)) % 3);
+            results.add(callers.submit(() -> {
+                start.await();
+                return lanes.execute(source, destination, () -> {
+                    int onSource = inFlight.get(source).incrementAndGet();
+                    int onDestination = inFlight.get(destination).incrementAndGet();
+                    if (onSource > 1 || onDestination > 1) {
+                        overlaps.incrementAndGet();
+                    }
+                    Thread.sleep(0, 100_000);
+                    inFlight.get(source).decrementAndGet();
+                    inFlight.get(destination).decrementAndGet();
+                    return source + "->" + destination;
+                });
+            }));
+        }
+        start.countDown();
+
+        for (Future<String> result : results) {
+            assertNotNull(result.get(30, TimeUnit.SECONDS));
+        }
+        assertEquals(0, overlaps.get());
+        assertEquals(300, lanes.getStats().getSubmitted());
+        assertEquals(300, lanes.getStats().getHandoffs());
+        assertEquals(600, lanes.getStats().getLanes().stream().mapToLong(TransferLane::getExecuted).sum());
+        assertEquals(4, meterRegistry.find("transfer.lane.service").timers().size());
+    }
+
+    @Test
+    void execute_RunsTransfersWithinOneLaneWithoutHandoff() {
+        lanes = new AccountLaneExecutor(new TransferMetrics(meterRegistry), true, 1, 1000);
+
+        assertEquals("done", lanes.execute("acc1", "acc2", () -> "done"));
+
+        assertEquals(0, lanes.getStats().getHandoffs());
+        assertEquals(1, lanes.getStats().getLanes().get(0).getExecuted());
+    }
+
+    @Test
+    void execute_RethrowsTheFailureOfTheWork() {
+        lanes = new AccountLaneExecutor(new TransferMetrics(meterRegistry), true, 4, 1000);
+        List<String> accounts = accountsOnDistinctLanes(2);
+
+        IllegalStateException failure = assertThrows(IllegalStateException.class,
+                () -> lanes.execute(accounts.get(0), accounts.get(1), () -> {
+                    throw new IllegalStateException("rolled back");
+                }));
+
+        assertEquals("rolled back", failure.getMessage());
+    }
+
+    @Test
+    void execute_RejectsTransfersOnceTheLaneIsFull() throws Exception {
+        lanes = new AccountLaneExecutor(new TransferMetrics(meterRegistry), true, 1, 1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        Future<String> running = callers.submit(() -> lanes.execute("acc1", "acc2", () -> {
+            release.await();
+            return "first";
+        }));
+        awaitLane(TransferLane::isBusy);
+        Future<String> queued = callers.submit(() -> lanes.execute("acc1", "acc2", () -> "second"));
+        awaitLane(lane -> lane.getDepth() == 1);
+
+        assertThrows(RejectedExecutionException.class, () -> lanes.execute("acc1", "acc2", () -> "third"));
+
+        release.countDown();
+        assertEquals("first", running.get(5, TimeUnit.SECONDS));
+        assertEquals("second", queued.get(5, TimeUnit.SECONDS));
+        assertEquals(1, lanes.getStats().getRejected());
+    }
+
+    @Test
+    void shutdown_RejectsTransfersStillQueuedAfterTheTimeout() throws Exception {
+        lanes = new AccountLaneExecutor(new TransferMetrics(meterRegistry), true, 1, 10);
+        CountDownLatch release = new CountDownLatch(1);
+
+        Future<String> running = callers.submit(() -> lanes.execute("acc1", "acc2", () -> {
+            release.await();
+            return "first";
+        }));
+        awaitLane(TransferLane::isBusy);
+        Future<String> queued = callers.submit(() -> lanes.execute("acc1", "acc2", () -> "second"));
+        awaitLane(lane -> lane.getDepth() == 1);
+
+        lanes.shutdown(50);
+
+        ExecutionException dropped = assertThrows(ExecutionException.class, () -> queued.get(5, TimeUnit.SECONDS));
+        assertInstanceOf(RejectedExecutionException.class, dropped.getCause());
+        // The running transfer is interrupted rather than left holding its lane
+        assertThrows(ExecutionException.class, () -> running.get(5, TimeUnit.SECONDS));
+        assertThrows(RejectedExecutionException.class, () -> lanes.execute("acc1", "acc2", () -> "late"));
+    }
+
+    private List<String> accountsOnDistinctLanes(int count) {
+        List<String> accounts = new ArrayList<>();
+        List<Integer> used = new ArrayList<>();
+        for (int i = 0; accounts.size() < count; i++) {
+            String account = "ACC" + i;
+            if (!used.contains(lanes.laneOf(account))) {
+                used.add(lanes.laneOf(account));
+                accounts.add(account);
+            }
+        }
+        return accounts;
+    }
+
+    private void awaitLane(Predicate<TransferLane> condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (!condition.test(lanes.getStats().getLanes().get(0))) {
+            assertTrue(System.currentTimeMillis() < deadline, "lane did not reach the expected state");
+            Thread.sleep(5);
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package com.example.payment_transfer_service.service;
+
+import com.example.payment_transfer_service.repository.AccountOwnerView;
+import com.example.payment_transfer_service.repository.AccountRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AccountOwnershipIndexTest {
+
+    @Mock
+    private AccountRepository accountRepository;
+
+    private AccountOwnershipIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new AccountOwnershipIndex(accountRepository, 100, 3600);
+    }
+
+    @Test
+    void ownsAll_LoadsMissesInOneQueryAndAnswersRepeatsFromMemory() {
+        when(accountRepository.findOwnersByIdIn(Set.of("acc1", "acc2")))
+                .thenReturn(List.of(view("acc1", "user1"), view("acc2", "user1")));
+
+        assertTrue(index.ownsAll("user1", List.of("acc1", "acc2")));
+        assertTrue(index.owns("user1", "acc2"));
+        assertFalse(index.owns("user2", "acc1"));
+        verify(accountRepository, times(1)).findOwnersByIdIn(anyCollection());
+    }
+
+    @Test
+    void ownsAll_FailsWhenAnyAccountIsForeignOrMissing() {
+        when(accountRepository.findOwnersByIdIn(Set.of("acc1", "acc2", "missing")))
+                .thenReturn(List.of(view("acc1", "user1"), view("acc2", "user2")));
+
+        assertFalse(index.ownsAll("user1", List.of("acc1", "acc2", "missing")));
+    }
+
+    @Test
+    void missingAccountsAreNotCached() {
+        when(accountRepository.findOwnersByIdIn(Set.of("acc9")))
+                .thenReturn(List.of())
+                .thenReturn(List.of(view("acc9", "user1")));
+
+        assertFalse(index.owns("user1", "acc9"));
+        assertTrue(index.owns("user1", "acc9"));
+    }
+
+    private AccountOwnerView view(String id, String userId) {
+        return new AccountOwnerView() {
+            @Override
+            public String getId() {
+                return id;
+            }
+
+            @Override
+            public String getUserId() {
+                return userId;
+            }
+        };
+    }
+}
@@ -32,6 +32,15 @@ class AccountServiceTest {
     @Mock
     private UserRepository userRepository;
 
+    @Mock
+    private AccountDisplayNameCache displayNameCache;
+
+    @Mock
+    private AccountOwnershipIndex ownershipIndex;
+
+    @Mock
+    private StripedBalanceService stripedBalances;
+
     @InjectMocks
     private AccountService accountService;
 
@@ -41,6 +50,9 @@ class AccountServiceTest {
 
     @BeforeEach
     void setUp() {
+        lenient().when(stripedBalances.totalBalance(any(Account.class)))
+                .thenAnswer(invocation -> invocation.<Account>getArgument(0).getBalance());
+
         testUser = new User();
         testUser.setId("user123");
         testUser.setUsername("testuser");
@@ -82,6 +94,7 @@ class AccountServiceTest {
 
         verify(userRepository).findById("user123");
         verify(accountRepository).save(any(Account.class));
+        verify(ownershipIndex).evict("ACC12345");
     }
 
     @Test
@@ -196,6 +209,8 @@ class AccountServiceTest {
 
         verify(accountRepository).findByIdAndUserId("ACC12345", "user123");
         verify(accountRepository).save(testAccount);
+        verify(displayNameCache).evict("ACC12345");
+        verify(ownershipIndex).evict("ACC12345");
     }
 
     @Test
@@ -215,23 +230,28 @@ class AccountServiceTest {
 
     @Test
     void validateAccountOwnership_Success() {
-        when(accountRepository.findByIdAndUserId("ACC12345", "user123"))
-                .thenReturn(Optional.of(testAccount));
+        when(ownershipIndex.owns("user123", "ACC12345")).thenReturn(true);
 
         boolean result = accountService.validateAccountOwnership("ACC12345", "user123");
 
         assertTrue(result);
-        verify(accountRepository).findByIdAndUserId("ACC12345", "user123");
+        verify(accountRepository, never()).findByIdAndUserId(anyString(), anyString());
     }
 
     @Test
     void validateAccountOwnership_NoOwnership() {
-        when(accountRepository.findByIdAndUserId("ACC12345", "user123"))
-                .thenReturn(Optional.empty());
+        when(ownershipIndex.owns("user123", "ACC12345")).thenReturn(false);
 
         boolean result = accountService.validateAccountOwnership("ACC12345", "user123");
 
         assertFalse(result);
-        verify(accountRepository).findByIdAndUserId("ACC12345", "user123");
+    }
+
+    @Test
+    void validateAccountOwnership_ChecksAllAccountsInOneLookup() {
+        when(ownershipIndex.ownsAll("user123", List.of("ACC12345", "ACC67890"))).thenReturn(true);
+
+        assertTrue(accountService.validateAccountOwnership(List.of("ACC12345", "ACC67890"), "user123"));
+        verify(ownershipIndex, never()).owns(anyString(), anyString());
     }
 }
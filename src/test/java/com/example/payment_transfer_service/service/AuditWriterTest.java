@@ -0,0 +1,157 @@
+package com.example.payment_transfer_service.service;
+
+import com.example.payment_transfer_service.dto.AuditWriterStats;
+import com.example.payment_transfer_service.entity.TransactionAudit;
+import com.example.payment_transfer_service.entity.TransactionStatus;
+import com.example.payment_transfer_service.repository.TransactionAuditRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+class AuditWriterTest {
+
+    @TempDir
+    Path tempDir;
+
+    private final TransactionAuditRepository auditRepository = mock(TransactionAuditRepository.class);
+    private final TransactionTemplate transactionTemplate = mock(TransactionTemplate.class);
+    private final ObjectMapper objectMapper = new ObjectMapper()
+            .registerModule(new JavaTimeModule())
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+    private final List<List<TransactionAudit>> savedBatches = new CopyOnWriteArrayList<>();
+    private Path spillFile;
+    private AuditWriter writer;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        spillFile = tempDir.resolve("audit-spill.ndjson");
+        doAnswer(invocation -> {
+            ((Consumer<org.springframework.transaction.TransactionStatus>) invocation.getArgument(0)).accept(null);
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        if (writer != null) {
+            writer.stop();
+        }
+    }
+
+    @Test
+    void enqueue_FlushesInBatches() throws InterruptedException {
+        CountDownLatch flushed = recordSavedBatches(5);
+        writer = newWriter(100, 2, 50);
+        writer.start();
+
+        for (int i = 0; i < 5; i++) {
+            writer.enqueue(audit("TXN-" + i));
+        }
+
+        assertTrue(flushed.await(5, TimeUnit.SECONDS));
+        writer.stop();
+        assertTrue(savedBatches.stream().allMatch(batch -> batch.size() <= 2));
+
+        AuditWriterStats stats = writer.getStats();
+        assertEquals(5, stats.getEnqueued());
+        assertEquals(5, stats.getWritten());
+        assertEquals(0, stats.getSpilled());
+    }
+
+    @Test
+    void enqueue_SpillsWhenQueueIsFull() throws Exception {
+        writer = newWriter(1, 10, 50);
+
+        writer.enqueue(audit("TXN-1"));
+        writer.enqueue(audit("TXN-2"));
+
+        List<String> lines = Files.readAllLines(spillFile);
+        assertEquals(1, lines.size());
+        assertEquals("TXN-2", objectMapper.readValue(lines.get(0), TransactionAudit.class).getTransactionId());
+        assertEquals(1, writer.getStats().getSpilled());
+    }
+
+    @Test
+    void flush_SpillsBatchWhenDatabaseWriteFails() throws Exception {
+        when(auditRepository.saveAll(anyList())).thenThrow(new DataAccessResourceFailureException("db down"));
+        writer = newWriter(100, 10, 10);
+        writer.start();
+
+        writer.enqueue(audit("TXN-1"));
+        writer.stop();
+        writer = null;
+
+        List<String> lines = Files.readAllLines(spillFile);
+        assertEquals(1, lines.size());
+        assertEquals("TXN-1", objectMapper.readValue(lines.get(0), TransactionAudit.class).getTransactionId());
+    }
+
+    @Test
+    void start_ReplaysSpillFile() throws Exception {
+        TransactionAudit spilled = audit("TXN-SPILLED");
+        Files.writeString(spillFile, objectMapper.writeValueAsString(spilled) + System.lineSeparator());
+        CountDownLatch flushed = recordSavedBatches(1);
+
+        writer = newWriter(100, 10, 10);
+        writer.start();
+
+        assertTrue(flushed.await(5, TimeUnit.SECONDS));
+        assertEquals("TXN-SPILLED", savedBatches.get(0).get(0).getTransactionId());
+        assertEquals(spilled.getCreatedAt(), savedBatches.get(0).get(0).getCreatedAt());
+        assertFalse(Files.exists(spillFile));
+        assertEquals(1, writer.getStats().getReplayed());
+    }
+
+    private AuditWriter newWriter(int capacity, int batchSize, long flushIntervalMs) {
+        return new AuditWriter(auditRepository, transactionTemplate, objectMapper,
+                capacity, batchSize, flushIntervalMs, spillFile.toString());
+    }
+
+    private CountDownLatch recordSavedBatches(int expectedAudits) {
+        CountDownLatch latch = new CountDownLatch(expectedAudits);
+        when(auditRepository.saveAll(anyList())).thenAnswer(invocation -> {
+            List<TransactionAudit> batch = new ArrayList<>(invocation.getArgument(0));
+            savedBatches.add(batch);
+            batch.forEach(audit -> latch.countDown());
+            return batch;
+        });
+        return latch;
+    }
+
+    private TransactionAudit audit(String transactionId) {
+        TransactionAudit audit = new TransactionAudit();
+        audit.setTransactionId(transactionId);
+        audit.setUserId("user123");
+        audit.setSourceAccountId("ACC001");
+        audit.setDestinationAccountId("ACC002");
+        audit.setAmount(new BigDecimal("100.00"));
+        audit.setStatus(TransactionStatus.COMPLETED);
+        audit.setSuccess(true);
+        audit.setCreatedAt(LocalDateTime.of(2024, 1, 15, 10, 30));
+        return audit;
+    }
+}
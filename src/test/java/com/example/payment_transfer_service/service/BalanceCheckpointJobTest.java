@@ -0,0 +1,140 @@
+package com.example.payment_transfer_service.service;
+
+import com.example.payment_transfer_service.dto.BalanceCheckpointStats;
+import com.example.payment_transfer_service.entity.BalanceCheckpoint;
+import com.example.payment_transfer_service.repository.AccountCheckpointView;
+import com.example.payment_transfer_service.repository.AccountRepository;
+import com.example.payment_transfer_service.repository.BalanceCheckpointRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class BalanceCheckpointJobTest {
+
+    @Mock
+    private AccountRepository accountRepository;
+
+    @Mock
+    private BalanceCheckpointRepository checkpointRepository;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    private BalanceCheckpointJob job;
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+                invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+        job = new BalanceCheckpointJob(accountRepository, checkpointRepository, transactionTemplate, true, 2, 3);
+    }
+
+    @AfterEach
+    void tearDown() {
+        job.shutdown();
+    }
+
+    @Test
+    void createCheckpoints_CoversEveryAccountRangeOnce() {
+        when(accountRepository.findChunkBoundaries(2)).thenReturn(List.of("acc2", "acc4"));
+        when(accountRepository.findCheckpointCandidates("", "acc2"))
+                .thenReturn(List.of(view("acc1", "10.00", 3), view("acc2", "20.00", 1)));
+        when(accountRepository.findCheckpointCandidates("acc2", "acc4")).thenReturn(List.of(view("acc3", "30.00", 7)));
+        when(accountRepository.findCheckpointCandidatesAfter("acc4")).thenReturn(List.of());
+
+        long written = job.createCheckpoints();
+
+        assertEquals(3, written);
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<BalanceCheckpoint>> saved = ArgumentCaptor.forClass(List.class);
+        verify(checkpointRepository, times(2)).saveAll(saved.capture());
+        List<BalanceCheckpoint> checkpoints = saved.getAllValues().stream().flatMap(List::stream).toList();
+        assertEquals(3, checkpoints.size());
+        assertTrue(checkpoints.stream().anyMatch(checkpoint -> checkpoint.getAccountId().equals("acc3")
+                && checkpoint.getPostingSeq() == 7 && checkpoint.getBalance().equals(new BigDecimal("30.00"))));
+        assertTrue(checkpoints.stream().allMatch(checkpoint -> checkpoint.getCheckpointAt() != null));
+
+        BalanceCheckpointStats stats = job.getStats();
+        assertEquals(1, stats.getRuns());
+        assertEquals(3, stats.getLastRunChunks());
+        assertEquals(0, stats.getLastRunFailedChunks());
+        assertEquals(3, stats.getLastRunCheckpoints());
+        assertFalse(stats.isRunning());
+    }
+
+    @Test
+    void createCheckpoints_FailedRangeDoesNotStopTheOthers() {
+        when(accountRepository.findChunkBoundaries(2)).thenReturn(List.of("acc2"));
+        when(accountRepository.findCheckpointCandidates("", "acc2")).thenThrow(new IllegalStateException("db down"));
+        when(accountRepository.findCheckpointCandidatesAfter("acc2")).thenReturn(List.of(view("acc3", "30.00", 7)));
+
+        long written = job.createCheckpoints();
+
+        assertEquals(1, written);
+        assertEquals(1, job.getStats().getLastRunFailedChunks());
+        verify(checkpointRepository, times(1)).saveAll(anyList());
+    }
+
+    @Test
+    void startCheckpoints_RunsThePassInTheBackgroundOnlyOnce() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(accountRepository.findChunkBoundaries(2)).thenAnswer(invocation -> {
+            started.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return List.of();
+        });
+        when(accountRepository.findCheckpointCandidatesAfter("")).thenReturn(List.of(view("acc1", "10.00", 1)));
+
+        assertTrue(job.startCheckpoints());
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        assertFalse(job.startCheckpoints());
+        assertEquals(-1, job.createCheckpoints());
+        release.countDown();
+
+        long deadline = System.currentTimeMillis() + 5000;
+        while (job.getStats().isRunning() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        BalanceCheckpointStats stats = job.getStats();
+        assertFalse(stats.isRunning());
+        assertEquals(1, stats.getRuns());
+        assertEquals(1, stats.getLastRunCheckpoints());
+    }
+
+    private AccountCheckpointView view(String id, String balance, long postingSeq) {
+        return new AccountCheckpointView() {
+            @Override
+            public String getId() {
+                return id;
+            }
+
+            @Override
+            public BigDecimal getBalance() {
+                return new BigDecimal(balance);
+            }
+
+            @Override
+            public long getPostingSeq() {
+                return postingSeq;
+            }
+        };
+    }
+}
@@ -0,0 +1,85 @@
+package com.example.payment_transfer_service.service;
+
+import com.example.payment_transfer_service.dto.HotAccount;
+import com.example.payment_transfer_service.dto.HotAccountsReport;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HotAccountTrackerTest {
+
+    private static final long MS = 1_000_000L;
+
+    private final AtomicLong clock = new AtomicLong(1_000_000_000L);
+    private HotAccountTracker tracker;
+
+    @BeforeEach
+    void setUp() {
+        tracker = new HotAccountTracker(true, 4, 256, 4, 10, 6, clock::get);
+    }
+
+    @Test
+    void heavyHittersSurfaceAboveALongTailOfColdAccounts() {
+        for (int i = 0; i < 5_000; i++) {
+            tracker.recordLockWait("cold" + i, 50_000);
+            if (i % 10 == 0) {
+                tracker.recordLockWait("hot1", 20 * MS);
+                tracker.recordLockWait("hot2", 5 * MS);
+            }
+        }
+
+        HotAccountsReport report = tracker.getHotAccounts(2, 60);
+
+        assertEquals(2, report.getAccounts().size());
+        HotAccount hottest = report.getAccounts().get(0);
+        assertEquals("hot1", hottest.getAccountId());
+        assertEquals("hot2", report.getAccounts().get(1).getAccountId());
+        assertTrue(hottest.getLockAcquisitions() >= 500);
+        assertTrue(hottest.getP50LockWaitMs() >= 20 && hottest.getP50LockWaitMs() <= 25);
+        assertTrue(hottest.getP99LockWaitMs() <= hottest.getMaxLockWaitMs());
+        assertTrue(report.getTrackedAccounts() <= 4);
+    }
+
+    @Test
+    void samplesAgeOutOfTheWindow() {
+        tracker.recordLockWait("acc1", 10 * MS);
+        clock.addAndGet(30_000);
+        tracker.recordLockWait("acc2", 1 * MS);
+
+        assertEquals(2, tracker.getHotAccounts(10, 60).getAccounts().size());
+        HotAccountsReport recent = tracker.getHotAccounts(10, 10);
+        assertEquals(1, recent.getAccounts().size());
+        assertEquals("acc2", recent.getAccounts().get(0).getAccountId());
+
+        clock.addAndGet(60_000);
+        assertTrue(tracker.getHotAccounts(10, 60).getAccounts().isEmpty());
+    }
+
+    @Test
+    void windowIsCappedAtRetainedHistory() {
+        assertEquals(60, tracker.getHotAccounts(10, 3600).getWindowSeconds());
+        assertEquals(10, tracker.getHotAccounts(10, 1).getWindowSeconds());
+    }
+
+    @Test
+    void histogramBucketsBoundTheirValues() {
+        for (long nanos : new long[]{0, 1023, 1024, 1500, 999_999, 20 * MS, 1L << 45}) {
+            int bucket = HotAccountTracker.bucketOf(nanos);
+            assertTrue(nanos < HotAccountTracker.bucketUpperBound(bucket) || nanos >= 1L << 41);
+            if (bucket > 0) {
+                assertTrue(nanos >= HotAccountTracker.bucketUpperBound(bucket - 1));
+            }
+        }
+    }
+
+    @Test
+    void disabledTrackerRecordsNothing() {
+        HotAccountTracker disabled = new HotAccountTracker(false, 4, 256, 4, 10, 6, clock::get);
+        disabled.recordLockWait("acc1", 10 * MS);
+
+        assertTrue(disabled.getHotAccounts(10, 60).getAccounts().isEmpty());
+    }
+}
@@ -0,0 +1,225 @@
+package com.example.payment_transfer_service.service;
+
+import com.example.payment_transfer_service.dto.AccountBalance;
+import com.example.payment_transfer_service.dto.AccountCreationRequest;
+import com.example.payment_transfer_service.dto.TransactionHistoryPage;
+import com.example.payment_transfer_service.dto.TransferRequest;
+import com.example.payment_transfer_service.dto.UserRegistrationRequest;
+import com.example.payment_transfer_service.dto.UserTransactionHistory;
+import com.example.payment_transfer_service.entity.AccountType;
+import com.example.payment_transfer_service.entity.LedgerPosting;
+import com.example.payment_transfer_service.repository.AccountRepository;
+import com.example.payment_transfer_service.repository.UserRepository;
+import com.example.payment_transfer_service.security.UserPrincipal;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.context.SecurityContextImpl;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs transfers against embedded H2 and reads them back through the ledger: account history, point-in-time
+ * balances and statements.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE)
+@ActiveProfiles("h2")
+class LedgerIntegrationTest {
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private AccountService accountService;
+
+    @Autowired
+    private PaymentTransferService paymentTransferService;
+
+    @Autowired
+    private LedgerService ledgerService;
+
+    @Autowired
+    private StatementExportService statementExportService;
+
+    @Autowired
+    private BalanceCheckpointJob balanceCheckpointJob;
+
+    @Autowired
+    private StripedBalanceService stripedBalances;
+
+    @Autowired
+    private StripeRebalanceJob stripeRebalanceJob;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    private String userId;
+    private String sourceAccountId;
+    private String destinationAccountId;
+
+    @BeforeEach
+    void setUp() {
+        String suffix = Long.toString(System.nanoTime(), 36);
+        UserRegistrationRequest registration = new UserRegistrationRequest();
+        registration.setUsername("ledger" + suffix);
+        registration.setEmail("ledger" + suffix + "@example.com");
+        registration.setPassword("Ledger@123");
+        registration.setFirstName("Double");
+        registration.setLastName("Entry");
+        userId = userService.createUser(registration).getId();
+
+        sourceAccountId = createAccount("1000.00");
+        destinationAccountId = createAccount("0.00");
+
+        UserPrincipal principal = UserPrincipal.create(userRepository.findById(userId).orElseThrow());
+        SecurityContextHolder.setContext(new SecurityContextImpl(
+                new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities())));
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void completedTransfersArePostedAndReadBackFromTheLedger() throws Exception {
+        LocalDateTime beforeTransfers = LocalDateTime.now();
+        assertTrue(paymentTransferService.transferFunds(transfer("100.00")).isSuccess());
+        LocalDateTime betweenTransfers = LocalDateTime.now();
+        assertTrue(paymentTransferService.transferFunds(transfer("50.00")).isSuccess());
+        assertFalse(paymentTransferService.transferFunds(transfer("5000.00")).isSuccess());
+
+        assertEquals(2L, accountRepository.findById(sourceAccountId).orElseThrow().getPostingSeq());
+        assertEquals(2L, accountRepository.findById(destinationAccountId).orElseThrow().getPostingSeq());
+
+        TransactionHistoryPage first = paymentTransferService.getAccountTransactionHistoryPage(
+                destinationAccountId, userId, null, 1);
+        TransactionHistoryPage second = paymentTransferService.getAccountTransactionHistoryPage(
+                destinationAccountId, userId, first.getNextCursor(), 1);
+        assertEquals(List.of(new BigDecimal("50.00")), amounts(first));
+        assertTrue(first.isHasMore());
+        assertEquals(List.of(new BigDecimal("100.00")), amounts(second));
+        assertFalse(second.isHasMore());
+
+        assertEquals(new BigDecimal("1000.00"),
+                ledgerService.getBalanceAsOf(sourceAccountId, userId, beforeTransfers).getBalance());
+        assertEquals(new BigDecimal("900.00"),
+                ledgerService.getBalanceAsOf(sourceAccountId, userId, betweenTransfers).getBalance());
+        assertEquals(new BigDecimal("100.00"),
+                ledgerService.getBalanceAsOf(destinationAccountId, userId, betweenTransfers).getBalance());
+        assertEquals(new BigDecimal("150.00"),
+                ledgerService.getBalanceAsOf(destinationAccountId, userId, null).getBalance());
+
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        long rows = statementExportService.writeStatement(sourceAccountId, StatementFormat.CSV,
+                beforeTransfers, LocalDateTime.now().plusSeconds(1), output);
+        String[] lines = output.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(2, rows);
+        assertTrue(lines[1].endsWith(",900.00"));
+        assertTrue(lines[2].endsWith(",850.00"));
+    }
+
+    @Test
+    void pointInTimeBalancesStartFromTheLatestCheckpoint() {
+        assertTrue(paymentTransferService.transferFunds(transfer("100.00")).isSuccess());
+        assertTrue(balanceCheckpointJob.createCheckpoints() >= 2);
+        LocalDateTime afterCheckpoint = LocalDateTime.now();
+        assertTrue(paymentTransferService.transferFunds(transfer("25.00")).isSuccess());
+        LocalDateTime afterSecondTransfer = LocalDateTime.now();
+        assertTrue(paymentTransferService.transferFunds(transfer("5.00")).isSuccess());
+
+        AccountBalance atCheckpoint = ledgerService.getBalanceAsOf(sourceAccountId, userId, afterCheckpoint);
+        AccountBalance later = ledgerService.getBalanceAsOf(sourceAccountId, userId, afterSecondTransfer);
+
+        assertEquals(new BigDecimal("900.00"), atCheckpoint.getBalance());
+        assertNotNull(atCheckpoint.getCheckpointAt());
+        assertEquals(new BigDecimal("875.00"), later.getBalance());
+        assertEquals(2L, later.getPostingSeq());
+        assertEquals(atCheckpoint.getCheckpointAt(), later.getCheckpointAt());
+        assertEquals(new BigDecimal("130.00"),
+                ledgerService.getBalanceAsOf(destinationAccountId, userId, null).getBalance());
+
+        // Only accounts whose balance moved since their last checkpoint get a new one
+        long written = balanceCheckpointJob.createCheckpoints();
+        assertTrue(written >= 2);
+        assertEquals(0, balanceCheckpointJob.createCheckpoints());
+    }
+
+    @Test
+    void stripedAccountKeepsItsTotalAndPostsCreditsWhenStripesAreFolded() {
+        stripedBalances.enableStriping(destinationAccountId, 4);
+        assertTrue(stripedBalances.isStriped(destinationAccountId));
+
+        assertTrue(paymentTransferService.transferFunds(transfer("100.00")).isSuccess());
+        assertTrue(paymentTransferService.transferFunds(transfer("50.00")).isSuccess());
+        assertTrue(paymentTransferService.transferFunds(transfer("25.00")).isSuccess());
+        assertEquals(new BigDecimal("175.00"), accountService.getAccountById(destinationAccountId, userId).getBalance());
+        assertEquals(new BigDecimal("825.00"), accountService.getAccountById(sourceAccountId, userId).getBalance());
+
+        // The debit needs the stripes' funds, so it only passes the funds check once they are folded
+        assertTrue(paymentTransferService.transferFunds(transfer(destinationAccountId, sourceAccountId, "150.00")).isSuccess());
+        assertFalse(paymentTransferService.transferFunds(transfer(destinationAccountId, sourceAccountId, "30.00")).isSuccess());
+        assertTrue(paymentTransferService.transferFunds(transfer("10.00")).isSuccess());
+        assertTrue(stripeRebalanceJob.rebalance() >= 0);
+
+        assertEquals(new BigDecimal("35.00"), accountRepository.findById(destinationAccountId).orElseThrow().getBalance());
+        assertEquals(new BigDecimal("35.00"), accountService.getAccountById(destinationAccountId, userId).getBalance());
+        List<LedgerPosting> postings = ledgerService.findPostings(destinationAccountId, null, 10);
+        assertEquals(List.of(5L, 4L, 3L, 2L, 1L), postings.stream().map(LedgerPosting::getSeq).toList());
+        assertEquals(List.of(new BigDecimal("35.00"), new BigDecimal("25.00"), new BigDecimal("175.00"),
+                        new BigDecimal("150.00"), new BigDecimal("100.00")),
+                postings.stream().map(LedgerPosting::getBalanceAfter).toList());
+        // Folded credits are posted at fold time, so posted_at never decreases with seq
+        for (int i = 1; i < postings.size(); i++) {
+            assertFalse(postings.get(i - 1).getPostedAt().isBefore(postings.get(i).getPostedAt()));
+        }
+        assertEquals(new BigDecimal("35.00"),
+                ledgerService.getBalanceAsOf(destinationAccountId, userId, LocalDateTime.now()).getBalance());
+
+        stripedBalances.disableStriping(destinationAccountId);
+        assertFalse(stripedBalances.isStriped(destinationAccountId));
+        assertTrue(paymentTransferService.transferFunds(transfer("5.00")).isSuccess());
+        assertEquals(6L, accountRepository.findById(destinationAccountId).orElseThrow().getPostingSeq());
+    }
+
+    private List<BigDecimal> amounts(TransactionHistoryPage page) {
+        return page.getItems().stream().map(UserTransactionHistory::getAmount).toList();
+    }
+
+    private String createAccount(String balance) {
+        AccountCreationRequest request = new AccountCreationRequest();
+        request.setUserId(userId);
+        request.setAccountName("Ledger " + balance);
+        request.setAccountType(AccountType.CHECKING);
+        request.setInitialBalance(new BigDecimal(balance));
+        request.setCurrency("USD");
+        return accountService.createAccount(request).getId();
+    }
+
+    private TransferRequest transfer(String amount) {
+        return transfer(sourceAccountId, destinationAccountId, amount);
+    }
+
+    private TransferRequest transfer(String fromAccountId, String toAccountId, String amount) {
+        TransferRequest request = new TransferRequest();
+        request.setSourceAccountId(fromAccountId);
+        request.setDestinationAccountId(toAccountId);
+        request.setAmount(new BigDecimal(amount));
+        request.setCurrency("USD");
+        return request;
+    }
+}
@@ -0,0 +1,192 @@
+package com.example.payment_transfer_service.service;
+
+import com.example.payment_transfer_service.dto.AccountBalance;
+import com.example.payment_transfer_service.entity.Account;
+import com.example.payment_transfer_service.entity.BalanceCheckpoint;
+import com.example.payment_transfer_service.entity.LedgerPosting;
+import com.example.payment_transfer_service.entity.Transaction;
+import com.example.payment_transfer_service.exception.PaymentException;
+import com.example.payment_transfer_service.repository.AccountRepository;
+import com.example.payment_transfer_service.repository.BalanceCheckpointRepository;
+import com.example.payment_transfer_service.repository.LedgerPostingRepository;
+import com.example.payment_transfer_service.repository.PostingDeltaView;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class LedgerServiceTest {
+
+    private static final LocalDateTime AS_OF = LocalDateTime.of(2024, 1, 31, 23, 59);
+
+    @Mock
+    private LedgerPostingRepository ledgerPostingRepository;
+
+    @Mock
+    private AccountRepository accountRepository;
+
+    @Mock
+    private AccountService accountService;
+
+    @Mock
+    private BalanceCheckpointRepository checkpointRepository;
+
+    @InjectMocks
+    private LedgerService ledgerService;
+
+    private Account account;
+
+    @BeforeEach
+    void setUp() {
+        account = new Account();
+        account.setId("acc1");
+        account.setBalance(new BigDecimal("1000.00"));
+        account.setCurrency("USD");
+        account.setPostingSeq(9L);
+    }
+
+    @Test
+    void transferPostings_DebitsSourceAndCreditsDestination() {
+        Transaction transaction = new Transaction();
+        transaction.setId("txn1");
+        transaction.setSourceAccountId("acc1");
+        transaction.setDestinationAccountId("acc2");
+        transaction.setAmount(new BigDecimal("100.00"));
+        transaction.setCompletedAt(AS_OF);
+
+        List<LedgerPosting> postings = ledgerService.transferPostings(transaction,
+                4L, new BigDecimal("900.00"), 7L, new BigDecimal("600.00"));
+
+        assertEquals(2, postings.size());
+        assertEquals("acc1", postings.get(0).getAccountId());
+        assertEquals(4L, postings.get(0).getSeq());
+        assertEquals(new BigDecimal("-100.00"), postings.get(0).getAmount());
+        assertEquals(new BigDecimal("1000.00"), postings.get(0).getBalanceBefore());
+        assertEquals("acc2", postings.get(1).getAccountId());
+        assertEquals(7L, postings.get(1).getSeq());
+        assertEquals(new BigDecimal("100.00"), postings.get(1).getAmount());
+        assertEquals(new BigDecimal("500.00"), postings.get(1).getBalanceBefore());
+        assertTrue(postings.stream().allMatch(posting -> "txn1".equals(posting.getTransactionId())
+                && AS_OF.equals(posting.getPostedAt())));
+    }
+
+    @Test
+    void getBalanceAsOf_AddsPostingsSinceLatestCheckpoint() {
+        LocalDateTime checkpointAt = AS_OF.minusHours(12);
+        when(accountService.validateAccountOwnership("acc1", "user123")).thenReturn(true);
+        when(accountRepository.findById("acc1")).thenReturn(Optional.of(account));
+        when(checkpointRepository.findLatestAtOrBefore(eq("acc1"), eq(AS_OF), any()))
+                .thenReturn(List.of(new BalanceCheckpoint("acc1", checkpointAt, new BigDecimal("800.00"), 4L)));
+        when(ledgerPostingRepository.sumAfter("acc1", 4L, AS_OF)).thenReturn(delta("-75.50", 6L));
+
+        AccountBalance balance = ledgerService.getBalanceAsOf("acc1", "user123", AS_OF);
+
+        assertEquals(new BigDecimal("724.50"), balance.getBalance());
+        assertEquals(6L, balance.getPostingSeq());
+        assertEquals(checkpointAt, balance.getCheckpointAt());
+        verify(ledgerPostingRepository, never()).findLatestAtOrBefore(any(), any(), any());
+    }
+
+    @Test
+    void getBalanceAsOf_CheckpointWithoutLaterPostingsIsTheBalance() {
+        when(accountService.validateAccountOwnership("acc1", "user123")).thenReturn(true);
+        when(accountRepository.findById("acc1")).thenReturn(Optional.of(account));
+        when(checkpointRepository.findLatestAtOrBefore(eq("acc1"), eq(AS_OF), any()))
+                .thenReturn(List.of(new BalanceCheckpoint("acc1", AS_OF.minusDays(3), new BigDecimal("800.00"), 4L)));
+        when(ledgerPostingRepository.sumAfter("acc1", 4L, AS_OF)).thenReturn(delta(null, null));
+
+        AccountBalance balance = ledgerService.getBalanceAsOf("acc1", "user123", AS_OF);
+
+        assertEquals(new BigDecimal("800.00"), balance.getBalance());
+        assertEquals(4L, balance.getPostingSeq());
+    }
+
+    @Test
+    void getBalanceAsOf_UsesLatestPostingAtOrBeforeTime() {
+        when(accountService.validateAccountOwnership("acc1", "user123")).thenReturn(true);
+        when(accountRepository.findById("acc1")).thenReturn(Optional.of(account));
+        when(ledgerPostingRepository.findLatestAtOrBefore(eq("acc1"), eq(AS_OF), any()))
+                .thenReturn(List.of(posting(5L, "-50.00", "750.00")));
+
+        AccountBalance balance = ledgerService.getBalanceAsOf("acc1", "user123", AS_OF);
+
+        assertEquals(new BigDecimal("750.00"), balance.getBalance());
+        assertEquals(5L, balance.getPostingSeq());
+        assertEquals("USD", balance.getCurrency());
+        verify(ledgerPostingRepository, never()).findEarliestAfter(any(), any(), any());
+    }
+
+    @Test
+    void getBalanceAsOf_BeforeFirstPostingUsesItsOpeningBalance() {
+        when(accountService.validateAccountOwnership("acc1", "user123")).thenReturn(true);
+        when(accountRepository.findById("acc1")).thenReturn(Optional.of(account));
+        when(ledgerPostingRepository.findLatestAtOrBefore(eq("acc1"), eq(AS_OF), any())).thenReturn(List.of());
+        when(ledgerPostingRepository.findEarliestAfter(eq("acc1"), eq(AS_OF), any()))
+                .thenReturn(List.of(posting(1L, "200.00", "1200.00")));
+
+        AccountBalance balance = ledgerService.getBalanceAsOf("acc1", "user123", AS_OF);
+
+        assertEquals(new BigDecimal("1000.00"), balance.getBalance());
+        assertEquals(0L, balance.getPostingSeq());
+    }
+
+    @Test
+    void getBalanceAsOf_WithoutPostingsReturnsCurrentBalance() {
+        when(accountService.validateAccountOwnership("acc1", "user123")).thenReturn(true);
+        when(accountRepository.findById("acc1")).thenReturn(Optional.of(account));
+        when(ledgerPostingRepository.findLatestAtOrBefore(eq("acc1"), eq(AS_OF), any())).thenReturn(List.of());
+        when(ledgerPostingRepository.findEarliestAfter(eq("acc1"), eq(AS_OF), any())).thenReturn(List.of());
+
+        AccountBalance balance = ledgerService.getBalanceAsOf("acc1", "user123", AS_OF);
+
+        assertEquals(new BigDecimal("1000.00"), balance.getBalance());
+        assertEquals(9L, balance.getPostingSeq());
+    }
+
+    @Test
+    void getBalanceAsOf_RejectsForeignAccount() {
+        when(accountService.validateAccountOwnership("acc1", "intruder")).thenReturn(false);
+
+        PaymentException exception = assertThrows(PaymentException.class, () ->
+                ledgerService.getBalanceAsOf("acc1", "intruder", AS_OF));
+
+        assertEquals("ACCOUNT_ACCESS_DENIED", exception.getErrorCode());
+        verifyNoInteractions(ledgerPostingRepository, accountRepository, checkpointRepository);
+    }
+
+    private PostingDeltaView delta(String amount, Long lastSeq) {
+        return new PostingDeltaView() {
+            @Override
+            public BigDecimal getDelta() {
+                return amount != null ? new BigDecimal(amount) : null;
+            }
+
+            @Override
+            public Long getLastSeq() {
+                return lastSeq;
+            }
+        };
+    }
+
+    private LedgerPosting posting(long seq, String amount, String balanceAfter) {
+        LedgerPosting posting = new LedgerPosting();
+        posting.setAccountId("acc1");
+        posting.setSeq(seq);
+        posting.setAmount(new BigDecimal(amount));
+        posting.setBalanceAfter(new BigDecimal(balanceAfter));
+        return posting;
+    }
+}
@@ -0,0 +1,49 @@
+package com.example.payment_transfer_service.service;
+
+import com.example.payment_transfer_service.dto.OptimisticLockingStats;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OptimisticContentionPolicyTest {
+
+    @Test
+    void recordExhausted_StartsCooldownAfterThreshold() {
+        OptimisticContentionPolicy policy = new OptimisticContentionPolicy(3, 1, 10, 2, 60_000);
+
+        policy.recordExhausted(List.of("acc1"));
+        assertFalse(policy.isCoolingDown(List.of("acc1", "acc2")));
+
+        policy.recordExhausted(List.of("acc1"));
+        assertTrue(policy.isCoolingDown(List.of("acc1", "acc2")));
+        assertFalse(policy.isCoolingDown(List.of("acc2")));
+
+        OptimisticLockingStats stats = policy.getStats();
+        assertEquals(2, stats.getExhausted());
+        assertEquals(1, stats.getCooldownsStarted());
+        assertEquals(1, stats.getAccountsInCooldown());
+    }
+
+    @Test
+    void recordSuccess_ResetsFailuresOutsideCooldown() {
+        OptimisticContentionPolicy policy = new OptimisticContentionPolicy(3, 1, 10, 2, 60_000);
+
+        policy.recordExhausted(List.of("acc1"));
+        policy.recordSuccess(List.of("acc1"));
+        policy.recordExhausted(List.of("acc1"));
+
+        assertFalse(policy.isCoolingDown(List.of("acc1")));
+    }
+
+    @Test
+    void isCoolingDown_ExpiresAfterWindow() {
+        OptimisticContentionPolicy policy = new OptimisticContentionPolicy(3, 1, 10, 1, 0);
+
+        policy.recordExhausted(List.of("acc1"));
+
+        assertFalse(policy.isCoolingDown(List.of("acc1")));
+        assertEquals(0, policy.getStats().getAccountsInCooldown());
+    }
+}
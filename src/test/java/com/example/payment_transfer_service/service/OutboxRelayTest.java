@@ -0,0 +1,108 @@
+package com.example.payment_transfer_service.service;
+
+import com.example.payment_transfer_service.dto.OutboxRelayStats;
+import com.example.payment_transfer_service.entity.OutboxEvent;
+import com.example.payment_transfer_service.entity.TransactionAudit;
+import com.example.payment_transfer_service.entity.TransactionStatus;
+import com.example.payment_transfer_service.repository.OutboxEventRepository;
+import com.example.payment_transfer_service.repository.TransactionAuditRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class OutboxRelayTest {
+
+    @Mock
+    private OutboxEventRepository outboxRepository;
+
+    @Mock
+    private TransactionAuditRepository auditRepository;
+
+    @Mock
+    private ObjectProvider<TransferEventSink> eventSinks;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @Mock
+    private TransferEventSink eventSink;
+
+    private OutboxRelay relay;
+
+    @BeforeEach
+    void setUp() {
+        relay = new OutboxRelay(outboxRepository, auditRepository, eventSinks, transactionTemplate, true, 2);
+        lenient().when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+                invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+        lenient().when(eventSinks.orderedStream()).thenAnswer(invocation -> Stream.of(eventSink));
+    }
+
+    @Test
+    void relayPending_DrainsFullBatchesUntilOutboxIsEmpty() {
+        OutboxEvent first = event(1L, "TXN-1");
+        OutboxEvent second = event(2L, "TXN-2");
+        OutboxEvent third = event(3L, "TXN-3");
+        when(outboxRepository.lockNextBatch(2))
+                .thenReturn(List.of(first, second))
+                .thenReturn(List.of(third));
+
+        relay.relayPending();
+
+        verify(outboxRepository, times(2)).lockNextBatch(2);
+        verify(auditRepository).saveAll(argThat((List<TransactionAudit> audits) -> audits.size() == 2
+                && audits.get(0).getTransactionId().equals("TXN-1")));
+        verify(eventSink).publish(List.of(first, second));
+        verify(eventSink).publish(List.of(third));
+        verify(outboxRepository).deleteAllInBatch(List.of(first, second));
+        verify(outboxRepository).deleteAllInBatch(List.of(third));
+
+        when(outboxRepository.count()).thenReturn(0L);
+        OutboxRelayStats stats = relay.getStats();
+        assertEquals(3, stats.getRelayed());
+        assertEquals(2, stats.getBatches());
+        assertEquals(1, stats.getLastBatchSize());
+        assertTrue(stats.getMaxRelayLagMs() >= 5_000);
+    }
+
+    @Test
+    void relayPending_KeepsEventsWhenSinkFails() {
+        OutboxEvent event = event(1L, "TXN-1");
+        when(outboxRepository.lockNextBatch(2)).thenReturn(List.of(event));
+        doThrow(new IllegalStateException("sink down")).when(eventSink).publish(anyList());
+
+        relay.relayPending();
+
+        verify(outboxRepository, never()).deleteAllInBatch(anyList());
+        assertEquals(0, relay.getStats().getRelayed());
+        assertEquals(1, relay.getStats().getFailures());
+    }
+
+    private OutboxEvent event(Long id, String transactionId) {
+        OutboxEvent event = new OutboxEvent();
+        event.setId(id);
+        event.setTransactionId(transactionId);
+        event.setUserId("user123");
+        event.setSourceAccountId("ACC001");
+        event.setDestinationAccountId("ACC002");
+        event.setAmount(new BigDecimal("100.00"));
+        event.setStatus(TransactionStatus.COMPLETED);
+        event.setSuccess(true);
+        event.setCreatedAt(LocalDateTime.now().minusSeconds(5));
+        return event;
+    }
+}
@@ -1,25 +1,50 @@
 package com.example.payment_transfer_service.service;
 
+import com.example.payment_transfer_service.dto.BatchTransferResult;
+import com.example.payment_transfer_service.dto.TransactionHistoryPage;
 import com.example.payment_transfer_service.dto.TransferRequest;
 import com.example.payment_transfer_service.dto.TransferResult;
+import com.example.payment_transfer_service.dto.UserTransactionHistory;
 import com.example.payment_transfer_service.entity.*;
 import com.example.payment_transfer_service.exception.*;
 import com.example.payment_transfer_service.repository.AccountRepository;
+import com.example.payment_transfer_service.repository.BalancePostingView;
 import com.example.payment_transfer_service.repository.TransactionRepository;
 import com.example.payment_transfer_service.repository.UserRepository;
 import com.example.payment_transfer_service.security.UserPrincipal;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContext;
 import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.dao.CannotAcquireLockException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.math.BigDecimal;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.Callable;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Consumer;
+import java.util.function.Function;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
@@ -43,6 +68,38 @@ class PaymentTransferServiceTest {
     @Mock
     private AuditService auditService;
 
+    @Mock
+    private OptimisticContentionPolicy contentionPolicy;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @Mock
+    private TransferWorkQueue transferWorkQueue;
+
+    @Mock
+    private AccountDisplayNameCache displayNameCache;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Spy
+    private TransferMetrics transferMetrics = new TransferMetrics(meterRegistry);
+
+    @Mock
+    private HotAccountTracker hotAccountTracker;
+
+    @Mock
+    private LedgerService ledgerService;
+
+    @Mock
+    private StripedBalanceService stripedBalances;
+
+    @Mock
+    private TransferCombiner transferCombiner;
+
+    @Mock
+    private AccountLaneExecutor accountLanes;
+
     @Mock
     private SecurityContext securityContext;
 
@@ -87,6 +144,13 @@ class PaymentTransferServiceTest {
         testTransaction.setDestinationAccountId("acc2");
         testTransaction.setAmount(new BigDecimal("100.00"));
         testTransaction.setStatus(TransactionStatus.PENDING);
+
+        lenient().when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+                invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+        lenient().doAnswer(invocation -> {
+            invocation.<Consumer<org.springframework.transaction.TransactionStatus>>getArgument(0).accept(null);
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
     }
 
     private void setupSecurityContext() {
@@ -117,6 +181,66 @@ class PaymentTransferServiceTest {
         verify(auditService).recordSuccessfulTransfer(any(Transaction.class),
                 eq(new BigDecimal("1000.00")), eq(new BigDecimal("900.00")),
                 eq(new BigDecimal("500.00")), eq(new BigDecimal("600.00")));
+        assertEquals(1L, sourceAccount.getPostingSeq());
+        assertEquals(1L, destinationAccount.getPostingSeq());
+        verify(ledgerService).transferPostings(testTransaction,
+                1L, new BigDecimal("900.00"), 1L, new BigDecimal("600.00"));
+        verify(ledgerService).recordPostings(anyList());
+    }
+
+    @Test
+    void transferFunds_RecordsPhaseTimersLockWaitsAndErrorCodes() {
+        setupSecurityContext();
+
+        TransferRequest request = new TransferRequest();
+        request.setSourceAccountId("acc1");
+        request.setDestinationAccountId("acc2");
+        request.setAmount(new BigDecimal("100.00"));
+
+        when(transactionRepository.save(any(Transaction.class))).thenReturn(testTransaction);
+        when(accountRepository.findByIdForUpdate("acc1")).thenReturn(Optional.of(sourceAccount));
+        when(accountRepository.findByIdForUpdate("acc2")).thenReturn(Optional.of(destinationAccount));
+
+        paymentTransferService.transferFunds(request);
+        request.setAmount(new BigDecimal("5000.00"));
+        paymentTransferService.transferFunds(request);
+
+        assertEquals(2, meterRegistry.get("transfer.phase")
+                .tags("phase", TransferPhase.VALIDATION.tagValue(), "engine", "pessimistic").timer().count());
+        for (TransferPhase phase : List.of(TransferPhase.BALANCE_UPDATE, TransferPhase.TRANSACTION_WRITE, TransferPhase.AUDIT)) {
+            assertEquals(1, meterRegistry.get("transfer.phase")
+                    .tags("phase", phase.tagValue(), "engine", "pessimistic").timer().count());
+        }
+        assertEquals(2, meterRegistry.get("transfer.lock.wait").tag("lock", "first").timer().count());
+        assertEquals(2, meterRegistry.get("transfer.lock.wait").tag("lock", "second").timer().count());
+        assertEquals(1, meterRegistry.get("transfer.duration").tag("outcome", "success").timer().count());
+        assertEquals(1, meterRegistry.get("transfer.duration").tag("outcome", "failure").timer().count());
+        assertEquals(1, meterRegistry.get("transfer.errors").tag("error_code", "INSUFFICIENT_FUNDS").counter().count());
+        verify(hotAccountTracker, times(2)).recordLockWait(eq("acc1"), anyLong());
+        verify(hotAccountTracker, times(2)).recordLockWait(eq("acc2"), anyLong());
+    }
+
+    @Test
+    void transferFunds_LockTimeoutIsReportedApartFromInternalErrors() {
+        setupSecurityContext();
+
+        TransferRequest request = new TransferRequest();
+        request.setSourceAccountId("acc1");
+        request.setDestinationAccountId("acc2");
+        request.setAmount(new BigDecimal("100.00"));
+
+        when(transactionRepository.save(any(Transaction.class))).thenReturn(testTransaction);
+        when(accountRepository.findByIdForUpdate("acc1")).thenThrow(new CannotAcquireLockException("lock wait",
+                new SQLException("canceling statement due to lock timeout", "55P03")));
+
+        TransferResult result = paymentTransferService.transferFunds(request);
+
+        assertFalse(result.isSuccess());
+        assertEquals("LOCK_TIMEOUT", result.getErrorCode());
+        assertEquals(1, meterRegistry.get("transfer.errors").tag("error_code", "LOCK_TIMEOUT").counter().count());
+        assertEquals("DEADLOCK", PaymentTransferService.lockFailureCode(
+                new RuntimeException(new SQLException("deadlock detected", "40P01"))));
+        assertNull(PaymentTransferService.lockFailureCode(new IllegalStateException("boom")));
     }
 
     @Test
@@ -185,6 +309,479 @@ class PaymentTransferServiceTest {
                 eq(new BigDecimal("100.00")), anyString());
     }
 
+    @Test
+    void transferFunds_GuardedUpdate_Success() {
+        setupSecurityContext();
+        ReflectionTestUtils.setField(paymentTransferService, "engineMode", TransferEngineMode.GUARDED_UPDATE);
+
+        TransferRequest request = new TransferRequest();
+        request.setSourceAccountId("acc1");
+        request.setDestinationAccountId("acc2");
+        request.setAmount(new BigDecimal("100.00"));
+
+        testTransaction.setCurrency("USD");
+        when(transactionRepository.save(any(Transaction.class))).thenReturn(testTransaction);
+        when(accountRepository.debitIfSufficient("acc1", new BigDecimal("100.00"), "USD"))
+                .thenReturn(Optional.of(balanceView("900.00", 8L)));
+        when(accountRepository.creditIfActive("acc2", new BigDecimal("100.00"), "USD"))
+                .thenReturn(Optional.of(balanceView("600.00", 4L)));
+
+        TransferResult result = paymentTransferService.transferFunds(request);
+
+        assertTrue(result.isSuccess());
+        verify(accountRepository, never()).findByIdForUpdate(anyString());
+        verify(auditService).recordSuccessfulTransfer(any(Transaction.class),
+                eq(new BigDecimal("1000.00")), eq(new BigDecimal("900.00")),
+                eq(new BigDecimal("500.00")), eq(new BigDecimal("600.00")));
+        verify(ledgerService).transferPostings(testTransaction,
+                8L, new BigDecimal("900.00"), 4L, new BigDecimal("600.00"));
+    }
+
+    @Test
+    void transferFunds_GuardedUpdate_InsufficientFundsReversesCredit() {
+        setupSecurityContext();
+        ReflectionTestUtils.setField(paymentTransferService, "engineMode", TransferEngineMode.GUARDED_UPDATE);
+
+        TransferRequest request = new TransferRequest();
+        request.setSourceAccountId("acc2");
+        request.setDestinationAccountId("acc1");
+        request.setAmount(new BigDecimal("700.00"));
+
+        testTransaction.setCurrency("USD");
+        when(transactionRepository.save(any(Transaction.class))).thenReturn(testTransaction);
+        when(accountRepository.creditIfActive("acc1", new BigDecimal("700.00"), "USD"))
+                .thenReturn(Optional.of(balanceView("1700.00", 3L)));
+        when(accountRepository.debitIfSufficient("acc2", new BigDecimal("700.00"), "USD"))
+                .thenReturn(Optional.empty());
+        when(accountRepository.findById("acc2")).thenReturn(Optional.of(destinationAccount));
+
+        TransferResult result = paymentTransferService.transferFunds(request);
+
+        assertFalse(result.isSuccess());
+        assertEquals("INSUFFICIENT_FUNDS", result.getErrorCode());
+        verify(accountRepository).revertGuardedUpdate("acc1", new BigDecimal("-700.00"));
+        verify(ledgerService, never()).recordPostings(anyList());
+        ArgumentCaptor<Transaction> written = ArgumentCaptor.forClass(Transaction.class);
+        verify(transactionRepository, times(1)).save(written.capture());
+        assertEquals(TransactionStatus.FAILED, written.getValue().getStatus());
+    }
+
+    @Test
+    void transferFunds_ToStripedAccount_CreditsStripeWithoutLockingDestination() {
+        setupSecurityContext();
+
+        TransferRequest request = new TransferRequest();
+        request.setSourceAccountId("acc1");
+        request.setDestinationAccountId("acc2");
+        request.setAmount(new BigDecimal("100.00"));
+
+        when(stripedBalances.isStriped("acc2")).thenReturn(true);
+        when(transactionRepository.save(any(Transaction.class))).thenReturn(testTransaction);
+        when(accountRepository.findByIdForUpdate("acc1")).thenReturn(Optional.of(sourceAccount));
+        when(stripedBalances.credit("acc2", new BigDecimal("100.00"), "USD")).thenReturn(3);
+        when(ledgerService.debitPosting(testTransaction, 1L, new BigDecimal("900.00"))).thenReturn(new LedgerPosting());
+
+        TransferResult result = paymentTransferService.transferFunds(request);
+
+        assertTrue(result.isSuccess());
+        assertEquals(new BigDecimal("900.00"), sourceAccount.getBalance());
+        verify(accountRepository, never()).findByIdForUpdate("acc2");
+        verify(stripedBalances).fold(sourceAccount);
+        verify(ledgerService).recordPostings(argThat(postings -> postings.size() == 1));
+        verify(ledgerService, never()).transferPostings(any(), anyLong(), any(), anyLong(), any());
+        verify(stripedBalances).recordCredit(testTransaction, 3);
+        verify(auditService).recordSuccessfulTransfer(any(Transaction.class),
+                eq(new BigDecimal("1000.00")), eq(new BigDecimal("900.00")), isNull(), isNull());
+    }
+
+    @Test
+    void transferFunds_ToStripedAccount_RevertsStripeCreditWhenDebitFails() {
+        setupSecurityContext();
+
+        TransferRequest request = new TransferRequest();
+        request.setSourceAccountId("acc2");
+        request.setDestinationAccountId("acc1");
+        request.setAmount(new BigDecimal("700.00"));
+
+        when(stripedBalances.isStriped("acc1")).thenReturn(true);
+        when(transactionRepository.save(any(Transaction.class))).thenReturn(testTransaction);
+        when(accountRepository.findByIdForUpdate("acc2")).thenReturn(Optional.of(destinationAccount));
+        when(stripedBalances.credit("acc1", new BigDecimal("700.00"), "USD")).thenReturn(1);
+
+        TransferResult result = paymentTransferService.transferFunds(request);
+
+        assertFalse(result.isSuccess());
+        assertEquals("INSUFFICIENT_FUNDS", result.getErrorCode());
+        verify(stripedBalances).revertCredit("acc1", 1, new BigDecimal("700.00"));
+        verify(stripedBalances, never()).recordCredit(any(), anyInt());
+        verify(ledgerService, never()).recordPostings(anyList());
+    }
+
+    @Test
+    void transferFunds_FromStripedAccount_ChecksFundsAfterFoldingStripes() {
+        setupSecurityContext();
+        ReflectionTestUtils.setField(paymentTransferService, "engineMode", TransferEngineMode.GUARDED_UPDATE);
+
+        TransferRequest request = new TransferRequest();
+        request.setSourceAccountId("acc1");
+        request.setDestinationAccountId("acc2");
+        request.setAmount(new BigDecimal("1100.00"));
+
+        when(stripedBalances.isStriped("acc2")).thenReturn(false);
+        when(stripedBalances.isStriped("acc1")).thenReturn(true);
+        when(transactionRepository.save(any(Transaction.class))).thenReturn(testTransaction);
+        when(accountRepository.findByIdForUpdate("acc1")).thenReturn(Optional.of(sourceAccount));
+        when(accountRepository.findByIdForUpdate("acc2")).thenReturn(Optional.of(destinationAccount));
+        when(stripedBalances.fold(sourceAccount)).thenAnswer(invocation -> {
+            sourceAccount.setBalance(sourceAccount.getBalance().add(new BigDecimal("200.00")));
+            sourceAccount.nextPostingSeq();
+            return 1;
+        });
+
+        TransferResult result = paymentTransferService.transferFunds(request);
+
+        assertTrue(result.isSuccess());
+        assertEquals(new BigDecimal("100.00"), sourceAccount.getBalance());
+        verify(accountRepository, never()).debitIfSufficient(any(), any(), any());
+        verify(ledgerService).transferPostings(testTransaction,
+                2L, new BigDecimal("100.00"), 1L, new BigDecimal("1600.00"));
+    }
+
+    @Test
+    void transferFunds_Optimistic_RetriesVersionConflict() {
+        setupSecurityContext();
+        ReflectionTestUtils.setField(paymentTransferService, "engineMode", TransferEngineMode.OPTIMISTIC);
+
+        TransferRequest request = new TransferRequest();
+        request.setSourceAccountId("acc1");
+        request.setDestinationAccountId("acc2");
+        request.setAmount(new BigDecimal("100.00"));
+
+        when(contentionPolicy.getMaxAttempts()).thenReturn(3);
+        when(contentionPolicy.backoff(1)).thenReturn(true);
+        when(transactionRepository.save(any(Transaction.class))).thenReturn(testTransaction);
+        when(accountRepository.findById("acc1")).thenReturn(Optional.of(sourceAccount));
+        when(accountRepository.findById("acc2")).thenReturn(Optional.of(destinationAccount));
+        doThrow(new ObjectOptimisticLockingFailureException(Account.class, "acc2"))
+                .doNothing()
+                .when(accountRepository).flush();
+
+        TransferResult result = paymentTransferService.transferFunds(request);
+
+        assertTrue(result.isSuccess());
+        verify(contentionPolicy, times(2)).recordAttempt();
+        verify(contentionPolicy).recordConflict();
+        verify(contentionPolicy).recordSuccess(List.of("acc1", "acc2"));
+        verify(contentionPolicy, never()).recordExhausted(any());
+        verify(accountRepository, never()).findByIdForUpdate(anyString());
+        verify(auditService, never()).recordFailedTransfer(any(), any(), any(), any(), any());
+    }
+
+    @Test
+    void transferFunds_Optimistic_FallsBackToPessimisticWhenExhausted() {
+        setupSecurityContext();
+        ReflectionTestUtils.setField(paymentTransferService, "engineMode", TransferEngineMode.OPTIMISTIC);
+
+        TransferRequest request = new TransferRequest();
+        request.setSourceAccountId("acc1");
+        request.setDestinationAccountId("acc2");
+        request.setAmount(new BigDecimal("100.00"));
+
+        when(contentionPolicy.getMaxAttempts()).thenReturn(1);
+        when(transactionRepository.save(any(Transaction.class))).thenReturn(testTransaction);
+        when(accountRepository.findById("acc1")).thenReturn(Optional.of(sourceAccount));
+        when(accountRepository.findById("acc2")).thenReturn(Optional.of(destinationAccount));
+        doThrow(new ObjectOptimisticLockingFailureException(Account.class, "acc1"))
+                .when(accountRepository).flush();
+        when(accountRepository.findByIdForUpdate("acc1")).thenReturn(Optional.of(sourceAccount));
+        when(accountRepository.findByIdForUpdate("acc2")).thenReturn(Optional.of(destinationAccount));
+
+        TransferResult result = paymentTransferService.transferFunds(request);
+
+        assertTrue(result.isSuccess());
+        verify(contentionPolicy).recordExhausted(Set.of("acc1"));
+        verify(contentionPolicy).recordFallback();
+    }
+
+    @Test
+    void submitTransfer_Accepted() {
+        setupSecurityContext();
+
+        TransferRequest request = new TransferRequest();
+        request.setSourceAccountId("acc1");
+        request.setDestinationAccountId("acc2");
+        request.setAmount(new BigDecimal("100.00"));
+
+        when(transferWorkQueue.hasCapacity()).thenReturn(true);
+        when(transactionRepository.save(any(Transaction.class))).thenReturn(testTransaction);
+
+        TransferResult result = paymentTransferService.submitTransfer(request);
+
+        assertTrue(result.isSuccess());
+        assertEquals("txn123", result.getTransactionId());
+        verify(transferWorkQueue).submit(any(Runnable.class));
+        verify(accountRepository, never()).findByIdForUpdate(anyString());
+    }
+
+    @Test
+    void submitTransfer_QueueFullMarksTransactionFailed() {
+        setupSecurityContext();
+
+        TransferRequest request = new TransferRequest();
+        request.setSourceAccountId("acc1");
+        request.setDestinationAccountId("acc2");
+        request.setAmount(new BigDecimal("100.00"));
+
+        when(transferWorkQueue.hasCapacity()).thenReturn(true);
+        when(transactionRepository.save(any(Transaction.class))).thenReturn(testTransaction);
+        when(transactionRepository.findById("txn123")).thenReturn(Optional.of(testTransaction));
+        doThrow(new RejectedExecutionException("full")).when(transferWorkQueue).submit(any(Runnable.class));
+
+        TransferResult result = paymentTransferService.submitTransfer(request);
+
+        assertFalse(result.isSuccess());
+        assertEquals("QUEUE_FULL", result.getErrorCode());
+        assertEquals(TransactionStatus.FAILED, testTransaction.getStatus());
+    }
+
+    @Test
+    void completePendingTransfer_ExecutesPersistedTransfer() {
+        setupSecurityContext();
+
+        testTransaction.setCurrency("USD");
+        when(transactionRepository.findById("txn123")).thenReturn(Optional.of(testTransaction));
+        when(transactionRepository.findByIdForUpdate("txn123")).thenReturn(Optional.of(testTransaction));
+        when(transactionRepository.save(testTransaction)).thenReturn(testTransaction);
+        when(accountRepository.findByIdForUpdate("acc1")).thenReturn(Optional.of(sourceAccount));
+        when(accountRepository.findByIdForUpdate("acc2")).thenReturn(Optional.of(destinationAccount));
+
+        TransferResult result = paymentTransferService.completePendingTransfer("txn123");
+
+        assertTrue(result.isSuccess());
+        assertEquals(TransactionStatus.COMPLETED, testTransaction.getStatus());
+        assertEquals(new BigDecimal("900.00"), sourceAccount.getBalance());
+        verify(transactionRepository, times(1)).save(testTransaction);
+    }
+
+    @Test
+    void completePendingTransfer_SkipsTransferCompletedWhileWaitingForItsLock() {
+        setupSecurityContext();
+
+        Transaction completed = new Transaction();
+        completed.setId("txn123");
+        completed.setStatus(TransactionStatus.COMPLETED);
+        testTransaction.setCurrency("USD");
+        when(transactionRepository.findById("txn123")).thenReturn(Optional.of(testTransaction));
+        when(transactionRepository.findByIdForUpdate("txn123")).thenReturn(Optional.of(completed));
+
+        TransferResult result = paymentTransferService.completePendingTransfer("txn123");
+
+        assertFalse(result.isSuccess());
+        assertEquals("TRANSFER_NOT_PENDING", result.getErrorCode());
+        assertEquals(TransactionStatus.COMPLETED, completed.getStatus());
+        verify(accountRepository, never()).findByIdForUpdate(anyString());
+        verify(transactionRepository, never()).save(any(Transaction.class));
+        verify(auditService, never()).recordFailedTransfer(any(), any(), any(), any(), any());
+    }
+
+    @Test
+    void transferFundsBatch_PartialFailure() {
+        setupSecurityContext();
+
+        TransferRequest first = new TransferRequest();
+        first.setSourceAccountId("acc1");
+        first.setDestinationAccountId("acc2");
+        first.setAmount(new BigDecimal("100.00"));
+
+        TransferRequest overdraft = new TransferRequest();
+        overdraft.setSourceAccountId("acc2");
+        overdraft.setDestinationAccountId("acc1");
+        overdraft.setAmount(new BigDecimal("5000.00"));
+
+        TransferRequest second = new TransferRequest();
+        second.setSourceAccountId("acc2");
+        second.setDestinationAccountId("acc1");
+        second.setAmount(new BigDecimal("50.00"));
+
+        when(accountRepository.findAllByIdForUpdate(any()))
+                .thenReturn(List.of(sourceAccount, destinationAccount));
+
+        BatchTransferResult result = paymentTransferService.transferFundsBatch(List.of(first, overdraft, second));
+
+        assertEquals(3, result.getTotal());
+        assertEquals(2, result.getSucceeded());
+        assertEquals(1, result.getFailed());
+        assertTrue(result.getResults().get(0).isSuccess());
+        assertFalse(result.getResults().get(1).isSuccess());
+        assertEquals("INSUFFICIENT_FUNDS", result.getResults().get(1).getErrorCode());
+        assertTrue(result.getResults().get(2).isSuccess());
+
+        assertEquals(new BigDecimal("950.00"), sourceAccount.getBalance());
+        assertEquals(new BigDecimal("550.00"), destinationAccount.getBalance());
+        verify(accountRepository).findAllByIdForUpdate(new TreeSet<>(Set.of("acc1", "acc2")));
+        verify(accountRepository, never()).findByIdForUpdate(anyString());
+        verify(transactionRepository).saveAll(argThat(transactions -> ((List<Transaction>) transactions).stream()
+                .map(Transaction::getStatus).toList()
+                .equals(List.of(TransactionStatus.COMPLETED, TransactionStatus.COMPLETED, TransactionStatus.FAILED))));
+        verify(auditService).recordTransfers(argThat(audits -> audits.size() == 3));
+        verify(ledgerService).transferPostings(any(Transaction.class),
+                eq(1L), eq(new BigDecimal("900.00")), eq(1L), eq(new BigDecimal("600.00")));
+        verify(ledgerService).transferPostings(any(Transaction.class),
+                eq(2L), eq(new BigDecimal("550.00")), eq(2L), eq(new BigDecimal("950.00")));
+        verify(ledgerService).recordPostings(anyList());
+    }
+
+    @Test
+    void transferFundsBatch_UnknownAccount() {
+        setupSecurityContext();
+
+        TransferRequest request = new TransferRequest();
+        request.setSourceAccountId("acc1");
+        request.setDestinationAccountId("missing");
+        request.setAmount(new BigDecimal("10.00"));
+
+        when(accountRepository.findAllByIdForUpdate(any())).thenReturn(List.of(sourceAccount));
+
+        BatchTransferResult result = paymentTransferService.transferFundsBatch(List.of(request));
+
+        assertEquals(1, result.getFailed());
+        assertEquals("ACCOUNT_NOT_FOUND", result.getResults().get(0).getErrorCode());
+        assertEquals(new BigDecimal("1000.00"), sourceAccount.getBalance());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void transferFunds_Combined_UpdatesDestinationOnceForTheWholeBatch() {
+        setupSecurityContext();
+
+        TransferRequest request = new TransferRequest();
+        request.setSourceAccountId("acc1");
+        request.setDestinationAccountId("acc2");
+        request.setAmount(new BigDecimal("100.00"));
+
+        when(transferCombiner.isEnabled()).thenReturn(true);
+        // The caller is combined with a second, identical transfer to the same destination
+        when(transferCombiner.combine(eq("acc2"), any(), any())).thenAnswer(invocation -> {
+            Object transfer = invocation.getArgument(1);
+            Function<List<Object>, List<TransferResult>> apply = invocation.getArgument(2);
+            List<TransferResult> results = apply.apply(List.of(transfer, transfer));
+            assertEquals(2, results.size());
+            assertTrue(results.get(1).isSuccess());
+            return results.get(0);
+        });
+        when(accountRepository.findAllByIdForUpdate(any()))
+                .thenReturn(List.of(sourceAccount, destinationAccount));
+
+        TransferResult result = paymentTransferService.transferFunds(request);
+
+        assertTrue(result.isSuccess());
+        assertEquals(new BigDecimal("800.00"), sourceAccount.getBalance());
+        assertEquals(new BigDecimal("700.00"), destinationAccount.getBalance());
+        verify(accountRepository, never()).findByIdForUpdate(anyString());
+        verify(accountRepository).saveAll(argThat(accounts -> ((Collection<Account>) accounts).size() == 2));
+        verify(ledgerService).transferPostings(any(Transaction.class),
+                eq(1L), eq(new BigDecimal("900.00")), eq(1L), eq(new BigDecimal("600.00")));
+        verify(ledgerService).transferPostings(any(Transaction.class),
+                eq(2L), eq(new BigDecimal("800.00")), eq(2L), eq(new BigDecimal("700.00")));
+        verify(auditService).recordTransfers(argThat(audits -> audits.size() == 2));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void transferFunds_Combined_PersistsFailedTransactionForAFailedTransfer() {
+        setupSecurityContext();
+
+        TransferRequest request = new TransferRequest();
+        request.setSourceAccountId("acc1");
+        request.setDestinationAccountId("acc2");
+        request.setAmount(new BigDecimal("600.00"));
+
+        when(transferCombiner.isEnabled()).thenReturn(true);
+        // Combined with an identical transfer, which the source can no longer cover
+        when(transferCombiner.combine(eq("acc2"), any(), any())).thenAnswer(invocation -> {
+            Object transfer = invocation.getArgument(1);
+            Function<List<Object>, List<TransferResult>> apply = invocation.getArgument(2);
+            List<TransferResult> results = apply.apply(List.of(transfer, transfer));
+            assertEquals("INSUFFICIENT_FUNDS", results.get(1).getErrorCode());
+            return results.get(0);
+        });
+        when(accountRepository.findAllByIdForUpdate(any()))
+                .thenReturn(List.of(sourceAccount, destinationAccount));
+
+        TransferResult result = paymentTransferService.transferFunds(request);
+
+        assertTrue(result.isSuccess());
+        assertEquals(new BigDecimal("400.00"), sourceAccount.getBalance());
+        ArgumentCaptor<List<Transaction>> saved = ArgumentCaptor.forClass(List.class);
+        verify(transactionRepository).saveAll(saved.capture());
+        assertEquals(List.of(TransactionStatus.COMPLETED, TransactionStatus.FAILED),
+                saved.getValue().stream().map(Transaction::getStatus).toList());
+        assertTrue(saved.getValue().get(1).getFailureReason().startsWith("Insufficient funds"));
+    }
+
+    @Test
+    void transferFunds_NotCombined_RunsOnItsOwn() {
+        setupSecurityContext();
+
+        TransferRequest request = new TransferRequest();
+        request.setSourceAccountId("acc1");
+        request.setDestinationAccountId("acc2");
+        request.setAmount(new BigDecimal("100.00"));
+
+        when(transferCombiner.isEnabled()).thenReturn(true);
+        when(transferCombiner.combine(eq("acc2"), any(), any())).thenReturn(null);
+        when(transactionRepository.save(any(Transaction.class))).thenReturn(testTransaction);
+        when(accountRepository.findByIdForUpdate("acc1")).thenReturn(Optional.of(sourceAccount));
+        when(accountRepository.findByIdForUpdate("acc2")).thenReturn(Optional.of(destinationAccount));
+
+        TransferResult result = paymentTransferService.transferFunds(request);
+
+        assertTrue(result.isSuccess());
+        assertEquals(new BigDecimal("600.00"), destinationAccount.getBalance());
+        verify(accountRepository, never()).findAllByIdForUpdate(any());
+    }
+
+    @Test
+    void transferFunds_OnLanes_RunsOnTheLanesOfBothAccounts() {
+        setupSecurityContext();
+
+        TransferRequest request = new TransferRequest();
+        request.setSourceAccountId("acc1");
+        request.setDestinationAccountId("acc2");
+        request.setAmount(new BigDecimal("100.00"));
+
+        when(accountLanes.isEnabled()).thenReturn(true);
+        when(accountLanes.execute(eq("acc1"), eq("acc2"), any()))
+                .thenAnswer(invocation -> invocation.<Callable<?>>getArgument(2).call());
+        when(transactionRepository.save(any(Transaction.class))).thenReturn(testTransaction);
+        when(accountRepository.findByIdForUpdate("acc1")).thenReturn(Optional.of(sourceAccount));
+        when(accountRepository.findByIdForUpdate("acc2")).thenReturn(Optional.of(destinationAccount));
+
+        TransferResult result = paymentTransferService.transferFunds(request);
+
+        assertTrue(result.isSuccess());
+        assertEquals(new BigDecimal("600.00"), destinationAccount.getBalance());
+        verify(transferCombiner, never()).combine(any(), any(), any());
+    }
+
+    @Test
+    void transferFunds_OnLanes_RejectedWhenTheLaneIsFull() {
+        TransferRequest request = new TransferRequest();
+        request.setSourceAccountId("acc1");
+        request.setDestinationAccountId("acc2");
+        request.setAmount(new BigDecimal("100.00"));
+
+        when(accountLanes.isEnabled()).thenReturn(true);
+        when(accountLanes.execute(eq("acc1"), eq("acc2"), any()))
+                .thenThrow(new RejectedExecutionException("Lane 3 is full"));
+
+        TransferResult result = paymentTransferService.transferFunds(request);
+
+        assertFalse(result.isSuccess());
+        assertEquals("QUEUE_FULL", result.getErrorCode());
+        verify(accountRepository, never()).findByIdForUpdate(anyString());
+    }
+
     @Test
     void getTransactionById_Success() {
         when(transactionRepository.findById("txn123")).thenReturn(Optional.of(testTransaction));
@@ -202,4 +799,116 @@ class PaymentTransferServiceTest {
         assertThrows(PaymentException.class, () ->
                 paymentTransferService.getTransactionById("txn123"));
     }
+
+    @Test
+    void getUserTransactionHistory_ResolvesAccountNamesOncePerPage() {
+        Transaction second = historyTransaction("txn456", "acc2", "acc3", LocalDateTime.of(2024, 1, 14, 9, 0));
+
+        when(transactionRepository.findLatestByUserId(eq("user123"), any(Pageable.class)))
+                .thenReturn(List.of(testTransaction, second));
+        when(displayNameCache.getDisplayNames(Set.of("acc1", "acc2", "acc3")))
+                .thenReturn(Map.of("acc1", "Main (CHECKING)", "acc2", "Savings (SAVINGS)"));
+
+        List<UserTransactionHistory> history = paymentTransferService.getUserTransactionHistory("user123").getItems();
+
+        assertEquals(2, history.size());
+        assertEquals("Main (CHECKING)", history.get(0).getSourceAccountName());
+        assertEquals("Savings (SAVINGS)", history.get(0).getDestinationAccountName());
+        assertEquals("Unknown Account", history.get(1).getDestinationAccountName());
+        verify(displayNameCache, times(1)).getDisplayNames(anyCollection());
+        verify(accountRepository, never()).findById(anyString());
+    }
+
+    @Test
+    void getUserTransactionHistoryPage_ContinuesAfterCursor() {
+        Transaction newest = historyTransaction("txn3", "acc1", "acc2", LocalDateTime.of(2024, 1, 15, 12, 0));
+        Transaction middle = historyTransaction("txn2", "acc1", "acc2", LocalDateTime.of(2024, 1, 15, 11, 0));
+        Transaction oldest = historyTransaction("txn1", "acc1", "acc2", LocalDateTime.of(2024, 1, 15, 10, 0));
+        when(displayNameCache.getDisplayNames(anyCollection())).thenReturn(Map.of());
+
+        when(transactionRepository.findLatestByUserId("user123", PageRequest.of(0, 3)))
+                .thenReturn(List.of(newest, middle, oldest));
+        TransactionHistoryPage first = paymentTransferService.getUserTransactionHistoryPage("user123", null, 2);
+
+        assertEquals(List.of("txn3", "txn2"), first.getItems().stream().map(UserTransactionHistory::getId).toList());
+        assertTrue(first.isHasMore());
+        assertNotNull(first.getNextCursor());
+
+        when(transactionRepository.findByUserIdBefore("user123", middle.getCreatedAt(), "txn2", PageRequest.of(0, 3)))
+                .thenReturn(List.of(oldest));
+        TransactionHistoryPage second = paymentTransferService.getUserTransactionHistoryPage("user123", first.getNextCursor(), 2);
+
+        assertEquals(List.of("txn1"), second.getItems().stream().map(UserTransactionHistory::getId).toList());
+        assertFalse(second.isHasMore());
+        assertNull(second.getNextCursor());
+    }
+
+    @Test
+    void getUserTransactionHistoryPage_RejectsMalformedCursor() {
+        PaymentException exception = assertThrows(PaymentException.class, () ->
+                paymentTransferService.getUserTransactionHistoryPage("user123", "not-a-cursor", 20));
+
+        assertEquals("INVALID_CURSOR", exception.getErrorCode());
+        verifyNoInteractions(transactionRepository);
+    }
+
+    @Test
+    void getAccountTransactionHistoryPage_ScansPostingsBelowCursor() {
+        Transaction newest = historyTransaction("txn3", "acc1", "acc2", LocalDateTime.of(2024, 1, 15, 12, 0));
+        Transaction middle = historyTransaction("txn2", "acc2", "acc1", LocalDateTime.of(2024, 1, 15, 11, 0));
+        Transaction oldest = historyTransaction("txn1", "acc1", "acc2", LocalDateTime.of(2024, 1, 15, 10, 0));
+        when(accountService.validateAccountOwnership("acc1", "user123")).thenReturn(true);
+        when(displayNameCache.getDisplayNames(anyCollection())).thenReturn(Map.of());
+
+        when(ledgerService.findPostings("acc1", null, 3))
+                .thenReturn(List.of(posting(newest, 7L), posting(middle, 6L), posting(oldest, 5L)));
+        TransactionHistoryPage first = paymentTransferService.getAccountTransactionHistoryPage("acc1", "user123", null, 2);
+
+        assertEquals(List.of("txn3", "txn2"), first.getItems().stream().map(UserTransactionHistory::getId).toList());
+        assertTrue(first.isHasMore());
+
+        when(ledgerService.findPostings("acc1", 6L, 3)).thenReturn(List.of(posting(oldest, 5L)));
+        TransactionHistoryPage second = paymentTransferService.getAccountTransactionHistoryPage("acc1", "user123",
+                first.getNextCursor(), 2);
+
+        assertEquals(List.of("txn1"), second.getItems().stream().map(UserTransactionHistory::getId).toList());
+        assertFalse(second.isHasMore());
+        verifyNoInteractions(transactionRepository);
+    }
+
+    private LedgerPosting posting(Transaction transaction, long seq) {
+        LedgerPosting posting = new LedgerPosting();
+        posting.setAccountId("acc1");
+        posting.setSeq(seq);
+        posting.setTransactionId(transaction.getId());
+        posting.setTransaction(transaction);
+        return posting;
+    }
+
+    private BalancePostingView balanceView(String balance, long seq) {
+        return new BalancePostingView() {
+            @Override
+            public BigDecimal getBalance() {
+                return new BigDecimal(balance);
+            }
+
+            @Override
+            public Long getSeq() {
+                return seq;
+            }
+        };
+    }
+
+    private Transaction historyTransaction(String id, String sourceAccountId, String destinationAccountId,
+                                           LocalDateTime createdAt) {
+        Transaction transaction = new Transaction();
+        transaction.setId(id);
+        transaction.setUserId("user123");
+        transaction.setSourceAccountId(sourceAccountId);
+        transaction.setDestinationAccountId(destinationAccountId);
+        transaction.setAmount(new BigDecimal("50.00"));
+        transaction.setStatus(TransactionStatus.COMPLETED);
+        transaction.setCreatedAt(createdAt);
+        return transaction;
+    }
 }
@@ -0,0 +1,103 @@
+package com.example.payment_transfer_service.service;
+
+import com.example.payment_transfer_service.entity.Transaction;
+import com.example.payment_transfer_service.entity.TransactionStatus;
+import com.example.payment_transfer_service.repository.TransactionRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.List;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class PendingTransferSweeperTest {
+
+    @Mock
+    private TransactionRepository transactionRepository;
+
+    @Mock
+    private PaymentTransferService paymentTransferService;
+
+    @Mock
+    private TransferWorkQueue transferWorkQueue;
+
+    private PendingTransferSweeper sweeper;
+
+    @BeforeEach
+    void setUp() {
+        sweeper = new PendingTransferSweeper(transactionRepository, paymentTransferService, transferWorkQueue,
+                true, 300_000, 100);
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void sweep_ResubmitsStaleTransfersAsTheirSubmitter() {
+        when(transactionRepository.findByStatusAndCreatedAtBeforeOrderByCreatedAt(eq(TransactionStatus.PENDING), any(), any()))
+                .thenReturn(List.of(pending("txn1", "user1"), pending("txn2", "user2")));
+        when(transferWorkQueue.hasCapacity()).thenReturn(true);
+        AtomicReference<String> runAs = new AtomicReference<>();
+        when(paymentTransferService.completePendingTransfer("txn1")).thenAnswer(invocation -> {
+            runAs.set(SecurityContextHolder.getContext().getAuthentication().getName());
+            return null;
+        });
+
+        assertEquals(2, sweeper.sweep());
+
+        ArgumentCaptor<Runnable> tasks = ArgumentCaptor.forClass(Runnable.class);
+        verify(transferWorkQueue, times(2)).submit(tasks.capture());
+        tasks.getAllValues().get(0).run();
+        assertEquals("user1", runAs.get());
+        assertEquals(2, sweeper.getResubmitted());
+    }
+
+    @Test
+    void sweep_SkipsTransfersItResubmittedThatHaveNotFinished() {
+        when(transactionRepository.findByStatusAndCreatedAtBeforeOrderByCreatedAt(eq(TransactionStatus.PENDING), any(), any()))
+                .thenReturn(List.of(pending("txn1", "user1")));
+        when(transferWorkQueue.hasCapacity()).thenReturn(true);
+
+        assertEquals(1, sweeper.sweep());
+        assertEquals(0, sweeper.sweep());
+
+        ArgumentCaptor<Runnable> task = ArgumentCaptor.forClass(Runnable.class);
+        verify(transferWorkQueue).submit(task.capture());
+        task.getValue().run();
+
+        assertEquals(1, sweeper.sweep());
+    }
+
+    @Test
+    void sweep_StopsWhenTheQueueIsFull() {
+        when(transactionRepository.findByStatusAndCreatedAtBeforeOrderByCreatedAt(eq(TransactionStatus.PENDING), any(), any()))
+                .thenReturn(List.of(pending("txn1", "user1"), pending("txn2", "user2")));
+        when(transferWorkQueue.hasCapacity()).thenReturn(true);
+        doThrow(new RejectedExecutionException("full")).when(transferWorkQueue).submit(any(Runnable.class));
+
+        assertEquals(0, sweeper.sweep());
+
+        verify(transferWorkQueue, times(1)).submit(any(Runnable.class));
+    }
+
+    private static Transaction pending(String id, String userId) {
+        Transaction transaction = new Transaction();
+        transaction.setId(id);
+        transaction.setUserId(userId);
+        transaction.setStatus(TransactionStatus.PENDING);
+        return transaction;
+    }
+}
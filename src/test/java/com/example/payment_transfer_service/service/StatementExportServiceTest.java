@@ -0,0 +1,99 @@
+package com.example.payment_transfer_service.service;
+
+import com.example.payment_transfer_service.dto.StatementLine;
+import com.example.payment_transfer_service.entity.TransactionStatus;
+import com.example.payment_transfer_service.entity.TransactionType;
+import com.example.payment_transfer_service.exception.PaymentException;
+import com.example.payment_transfer_service.repository.LedgerPostingRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class StatementExportServiceTest {
+
+    private static final LocalDateTime FROM = LocalDateTime.of(2024, 1, 1, 0, 0);
+    private static final LocalDateTime TO = LocalDateTime.of(2024, 2, 1, 0, 0);
+
+    @Mock
+    private LedgerPostingRepository ledgerPostingRepository;
+
+    @Mock
+    private AccountService accountService;
+
+    private StatementExportService statementExportService;
+
+    @BeforeEach
+    void setUp() {
+        ObjectMapper objectMapper = new ObjectMapper()
+                .registerModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        statementExportService = new StatementExportService(ledgerPostingRepository, accountService, objectMapper);
+    }
+
+    @Test
+    void writeStatement_Csv_WritesHeaderAndEscapedRows() throws Exception {
+        when(ledgerPostingRepository.streamStatement("acc1", FROM, TO)).thenReturn(Stream.of(
+                line("txn1", "acc1", "acc2", "Rent, January"),
+                line("txn2", "acc3", "acc1", "Refund \"deposit\"")));
+
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        long rows = statementExportService.writeStatement("acc1", StatementFormat.CSV, FROM, TO, output);
+
+        String[] lines = output.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(2, rows);
+        assertEquals(3, lines.length);
+        assertTrue(lines[0].startsWith("transactionId,createdAt"));
+        assertEquals("txn1,2024-01-15T10:30,2024-01-15T10:30,DEBIT,acc2,100.00,USD,COMPLETED,INTERNAL_TRANSFER,REF-txn1,\"Rent, January\",900.00",
+                lines[1]);
+        assertTrue(lines[2].contains(",CREDIT,acc3,"));
+        assertTrue(lines[2].endsWith(",\"Refund \"\"deposit\"\"\",900.00"));
+    }
+
+    @Test
+    void writeStatement_Ndjson_WritesOneObjectPerLine() throws Exception {
+        when(ledgerPostingRepository.streamStatement("acc1", FROM, TO)).thenReturn(Stream.of(
+                line("txn1", "acc1", "acc2", "Rent"),
+                line("txn2", "acc1", "acc2", "Groceries")));
+
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        statementExportService.writeStatement("acc1", StatementFormat.NDJSON, FROM, TO, output);
+
+        String[] lines = output.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(2, lines.length);
+        assertTrue(lines[0].startsWith("{\"transactionId\":\"txn1\""));
+        assertTrue(lines[1].contains("\"description\":\"Groceries\""));
+    }
+
+    @Test
+    void validateStatementRequest_RejectsForeignAccount() {
+        when(accountService.validateAccountOwnership("acc1", "intruder")).thenReturn(false);
+
+        PaymentException exception = assertThrows(PaymentException.class, () ->
+                statementExportService.validateStatementRequest("acc1", "intruder", FROM, TO));
+
+        assertEquals("ACCOUNT_ACCESS_DENIED", exception.getErrorCode());
+        verifyNoInteractions(ledgerPostingRepository);
+    }
+
+    private StatementLine line(String transactionId, String source, String destination, String description) {
+        LocalDateTime timestamp = LocalDateTime.of(2024, 1, 15, 10, 30);
+        return new StatementLine(transactionId, timestamp, timestamp, source, destination,
+                new BigDecimal("100.00"), "USD", TransactionStatus.COMPLETED, TransactionType.INTERNAL_TRANSFER,
+                description, "REF-" + transactionId, new BigDecimal("900.00"));
+    }
+}
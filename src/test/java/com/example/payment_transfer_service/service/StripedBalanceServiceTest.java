@@ -0,0 +1,130 @@
+package com.example.payment_transfer_service.service;
+
+import com.example.payment_transfer_service.entity.Account;
+import com.example.payment_transfer_service.entity.LedgerPosting;
+import com.example.payment_transfer_service.entity.StripeCredit;
+import com.example.payment_transfer_service.repository.AccountRepository;
+import com.example.payment_transfer_service.repository.AccountStripeRepository;
+import com.example.payment_transfer_service.repository.LedgerPostingRepository;
+import com.example.payment_transfer_service.repository.StripeCreditRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class StripedBalanceServiceTest {
+
+    @Mock
+    private AccountRepository accountRepository;
+
+    @Mock
+    private AccountStripeRepository stripeRepository;
+
+    @Mock
+    private StripeCreditRepository stripeCreditRepository;
+
+    @Mock
+    private LedgerPostingRepository ledgerPostingRepository;
+
+    @Mock
+    private ClusterEventBus clusterEventBus;
+
+    private StripedBalanceService stripedBalances;
+
+    private Account account;
+
+    @BeforeEach
+    void setUp() {
+        account = new Account();
+        account.setId("acc1");
+        account.setBalance(new BigDecimal("100.00"));
+        account.setPostingSeq(7);
+        account.setStripes(4);
+
+        when(accountRepository.findStriped()).thenReturn(List.of(account));
+        stripedBalances = new StripedBalanceService(accountRepository, stripeRepository, stripeCreditRepository,
+                ledgerPostingRepository, clusterEventBus, 64);
+        stripedBalances.reload();
+    }
+
+    @Test
+    void fold_PostsPendingCreditsInOrderAtFoldTimeAndEmptiesTheStripes() {
+        LocalDateTime now = LocalDateTime.now();
+        List<StripeCredit> credits = List.of(
+                new StripeCredit("txn1", "acc1", 2, new BigDecimal("30.00"), now.minusSeconds(2)),
+                new StripeCredit("txn2", "acc1", 0, new BigDecimal("20.00"), now.minusSeconds(1)));
+        when(stripeRepository.lockBalances("acc1")).thenReturn(List.of(
+                new BigDecimal("20.00"), BigDecimal.ZERO, new BigDecimal("30.00"), BigDecimal.ZERO));
+        when(stripeCreditRepository.findByAccountId("acc1")).thenReturn(credits);
+
+        assertEquals(2, stripedBalances.fold(account));
+
+        assertEquals(new BigDecimal("150.00"), account.getBalance());
+        assertEquals(9L, account.getPostingSeq());
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<LedgerPosting>> postings = ArgumentCaptor.forClass(List.class);
+        verify(ledgerPostingRepository).saveAll(postings.capture());
+        assertEquals(List.of(8L, 9L), postings.getValue().stream().map(LedgerPosting::getSeq).toList());
+        assertEquals(List.of("txn1", "txn2"), postings.getValue().stream().map(LedgerPosting::getTransactionId).toList());
+        assertEquals(List.of(new BigDecimal("130.00"), new BigDecimal("150.00")),
+                postings.getValue().stream().map(LedgerPosting::getBalanceAfter).toList());
+        // Posted at fold time, so posted_at keeps ascending with seq
+        assertTrue(postings.getValue().stream().allMatch(posting -> !posting.getPostedAt().isBefore(now)));
+        verify(stripeCreditRepository).deleteAllInBatch(credits);
+        verify(stripeRepository).resetBalances("acc1");
+        assertEquals(1, stripedBalances.getFolds());
+        assertEquals(2, stripedBalances.getFoldedCredits());
+    }
+
+    @Test
+    void fold_RefusesStripesThatDoNotMatchTheirPendingCredits() {
+        when(stripeRepository.lockBalances("acc1")).thenReturn(List.of(new BigDecimal("5.00")));
+        when(stripeCreditRepository.findByAccountId("acc1")).thenReturn(List.of());
+
+        assertThrows(IllegalStateException.class, () -> stripedBalances.fold(account));
+
+        assertEquals(new BigDecimal("100.00"), account.getBalance());
+        verify(stripeRepository, never()).resetBalances(any());
+    }
+
+    @Test
+    void credit_SpreadsCreditsOverTheStripes() {
+        when(stripeRepository.creditIfActive(eq("acc1"), anyInt(), any(), eq("USD"))).thenReturn(1);
+
+        List<Integer> stripes = List.of(
+                stripedBalances.credit("acc1", BigDecimal.ONE, "USD"),
+                stripedBalances.credit("acc1", BigDecimal.ONE, "USD"),
+                stripedBalances.credit("acc1", BigDecimal.ONE, "USD"),
+                stripedBalances.credit("acc1", BigDecimal.ONE, "USD"),
+                stripedBalances.credit("acc1", BigDecimal.ONE, "USD"));
+
+        assertEquals(List.of(0, 1, 2, 3, 0), stripes);
+        assertEquals(-1, stripedBalances.credit("acc2", BigDecimal.ONE, "USD"));
+        when(stripeRepository.creditIfActive("acc1", 1, BigDecimal.TEN, "EUR")).thenReturn(0);
+        assertEquals(-1, stripedBalances.credit("acc1", BigDecimal.TEN, "EUR"));
+        assertEquals(5, stripedBalances.getStripeCredits());
+    }
+
+    @Test
+    void totalBalance_ReadsAccountAndStripesTogetherOnlyForStripedAccounts() {
+        when(stripeRepository.totalBalance("acc1")).thenReturn(new BigDecimal("142.00"));
+        Account plain = new Account();
+        plain.setId("acc2");
+        plain.setBalance(new BigDecimal("10.00"));
+
+        assertEquals(new BigDecimal("142.00"), stripedBalances.totalBalance(account));
+        assertEquals(new BigDecimal("10.00"), stripedBalances.totalBalance(plain));
+        verify(stripeRepository, never()).totalBalance("acc2");
+    }
+}
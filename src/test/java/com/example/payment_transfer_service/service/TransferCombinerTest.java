@@ -0,0 +1,88 @@
+package com.example.payment_transfer_service.service;
+
+import com.example.payment_transfer_service.dto.TransferResult;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TransferCombinerTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final ExecutorService executor = Executors.newFixedThreadPool(4);
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void combine_AppliesConcurrentTransfersToOneDestinationTogether() throws Exception {
+        // A long window, so the batch only closes once it is full
+        TransferCombiner combiner = new TransferCombiner(new TransferMetrics(meterRegistry), true, 10_000_000, 4);
+        List<List<String>> writes = new CopyOnWriteArrayList<>();
+        Function<List<String>, List<TransferResult>> apply = transfers -> {
+            writes.add(transfers);
+            return transfers.stream().map(transfer -> TransferResult.success(transfer, "ok")).toList();
+        };
+
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<TransferResult>> results = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            String transfer = "txn" + i;
+            results.add(executor.submit(() -> {
+                start.await();
+                return combiner.combine("acc2", transfer, apply);
+            }));
+        }
+        start.countDown();
+
+        for (int i = 0; i < 4; i++) {
+            assertEquals("txn" + i, results.get(i).get(5, TimeUnit.SECONDS).getTransactionId());
+        }
+        assertEquals(1, writes.size());
+        assertEquals(4, writes.get(0).size());
+        assertEquals(1, combiner.getStats().getCombinedWrites());
+        assertEquals(4, combiner.getStats().getLargestBatch());
+        assertEquals(1, meterRegistry.get("transfer.combined.size").summary().count());
+        assertEquals(4.0, meterRegistry.get("transfer.combined.size").summary().totalAmount());
+    }
+
+    @Test
+    void combine_ReturnsNullForATransferAloneInItsWindow() {
+        TransferCombiner combiner = new TransferCombiner(new TransferMetrics(meterRegistry), true, 100, 4);
+
+        assertNull(combiner.combine("acc2", "txn1", transfers -> fail("a lone transfer is not applied here")));
+
+        assertEquals(1, combiner.getStats().getUncombinedTransfers());
+        assertEquals(0, combiner.getStats().getOpenBatches());
+    }
+
+    @Test
+    void combine_ReturnsNullToEveryCallerWhenTheCombinedWriteFails() throws Exception {
+        TransferCombiner combiner = new TransferCombiner(new TransferMetrics(meterRegistry), true, 10_000_000, 2);
+        Function<List<String>, List<TransferResult>> apply = transfers -> {
+            throw new IllegalStateException("deadlock");
+        };
+
+        Future<TransferResult> first = executor.submit(() -> combiner.combine("acc2", "txn1", apply));
+        Future<TransferResult> second = executor.submit(() -> combiner.combine("acc2", "txn2", apply));
+
+        assertNull(first.get(5, TimeUnit.SECONDS));
+        assertNull(second.get(5, TimeUnit.SECONDS));
+        assertEquals(1, combiner.getStats().getFailedWrites());
+        assertEquals(2, combiner.getStats().getUncombinedTransfers());
+    }
+}
@@ -0,0 +1,181 @@
+package com.example.payment_transfer_service.service;
+
+import com.example.payment_transfer_service.dto.AccountCreationRequest;
+import com.example.payment_transfer_service.dto.TransferRequest;
+import com.example.payment_transfer_service.dto.TransferResult;
+import com.example.payment_transfer_service.dto.UserRegistrationRequest;
+import com.example.payment_transfer_service.entity.AccountType;
+import com.example.payment_transfer_service.entity.Transaction;
+import com.example.payment_transfer_service.entity.TransactionAudit;
+import com.example.payment_transfer_service.entity.TransactionStatus;
+import com.example.payment_transfer_service.repository.AccountRepository;
+import com.example.payment_transfer_service.repository.TransactionAuditRepository;
+import com.example.payment_transfer_service.repository.TransactionRepository;
+import com.example.payment_transfer_service.repository.UserRepository;
+import com.example.payment_transfer_service.security.UserPrincipal;
+import com.zaxxer.hikari.SQLExceptionOverride;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.context.SecurityContextImpl;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs a transfer against embedded H2 while another transaction holds its source account's row lock, so
+ * the transfer's lock wait times out. The failure is recorded after the transfer's transaction rolled back,
+ * as PostgreSQL aborts a transaction on a lock timeout or deadlock.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE)
+@ActiveProfiles("h2")
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:lock-failures-${random.uuid};MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;"
+                + "DEFAULT_NULL_ORDERING=HIGH;LOCK_TIMEOUT=200;DB_CLOSE_DELAY=-1",
+        "spring.datasource.hikari.exception-override-class-name="
+                + "com.example.payment_transfer_service.service.TransferLockFailureIntegrationTest$KeepConnectionOnLockTimeout"
+})
+class TransferLockFailureIntegrationTest {
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private AccountService accountService;
+
+    @Autowired
+    private PaymentTransferService paymentTransferService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private TransactionAuditRepository auditRepository;
+
+    private String userId;
+    private String sourceAccountId;
+    private String destinationAccountId;
+
+    @BeforeEach
+    void setUp() {
+        String suffix = Long.toString(System.nanoTime(), 36);
+        UserRegistrationRequest registration = new UserRegistrationRequest();
+        registration.setUsername("locks" + suffix);
+        registration.setEmail("locks" + suffix + "@example.com");
+        registration.setPassword("Locks@123");
+        registration.setFirstName("Row");
+        registration.setLastName("Lock");
+        userId = userService.createUser(registration).getId();
+
+        sourceAccountId = createAccount("1000.00");
+        destinationAccountId = createAccount("0.00");
+
+        UserPrincipal principal = UserPrincipal.create(userRepository.findById(userId).orElseThrow());
+        SecurityContextHolder.setContext(new SecurityContextImpl(
+                new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities())));
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void lockTimeoutIsRecordedAsFailedTransferAfterRollback() throws Exception {
+        CountDownLatch locked = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<Void> holder = CompletableFuture.runAsync(() -> transactionTemplate.executeWithoutResult(status -> {
+            accountRepository.findByIdForUpdate(sourceAccountId).orElseThrow();
+            locked.countDown();
+            try {
+                release.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }));
+        assertTrue(locked.await(5, TimeUnit.SECONDS));
+
+        TransferResult result;
+        try {
+            result = paymentTransferService.transferFunds(transfer("100.00"));
+        } finally {
+            release.countDown();
+            holder.get(10, TimeUnit.SECONDS);
+        }
+
+        assertFalse(result.isSuccess());
+        assertEquals("LOCK_TIMEOUT", result.getErrorCode());
+        assertEquals(new BigDecimal("1000.00"), accountRepository.findById(sourceAccountId).orElseThrow().getBalance());
+        assertEquals(new BigDecimal("0.00"), accountRepository.findById(destinationAccountId).orElseThrow().getBalance());
+
+        List<Transaction> transactions = transactionRepository.findLatestByUserId(userId, PageRequest.of(0, 10));
+        assertEquals(1, transactions.size());
+        assertEquals(TransactionStatus.FAILED, transactions.get(0).getStatus());
+        assertEquals("Accounts are busy: LOCK_TIMEOUT", transactions.get(0).getFailureReason());
+
+        // The audit goes through the outbox, which the relay drains in the background
+        long deadline = System.currentTimeMillis() + 5000;
+        List<TransactionAudit> audits = auditRepository.findByAccountId(sourceAccountId);
+        while (audits.isEmpty() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(50);
+            audits = auditRepository.findByAccountId(sourceAccountId);
+        }
+        assertEquals(1, audits.size());
+        assertFalse(audits.get(0).isSuccess());
+    }
+
+    /**
+     * H2 reports a lock timeout as an {@link java.sql.SQLTimeoutException}, which Hikari takes for a broken
+     * connection; PostgreSQL reports {@code 55P03} on a connection that stays usable, and so does H2 here.
+     */
+    public static class KeepConnectionOnLockTimeout implements SQLExceptionOverride {
+        @java.lang.Override
+        public SQLExceptionOverride.Override adjudicate(SQLException e) {
+            return "HYT00".equals(e.getSQLState())
+                    ? SQLExceptionOverride.Override.DO_NOT_EVICT
+                    : SQLExceptionOverride.Override.CONTINUE_EVICT;
+        }
+    }
+
+    private String createAccount(String balance) {
+        AccountCreationRequest request = new AccountCreationRequest();
+        request.setUserId(userId);
+        request.setAccountName("Locks " + balance);
+        request.setAccountType(AccountType.CHECKING);
+        request.setInitialBalance(new BigDecimal(balance));
+        request.setCurrency("USD");
+        return accountService.createAccount(request).getId();
+    }
+
+    private TransferRequest transfer(String amount) {
+        TransferRequest request = new TransferRequest();
+        request.setSourceAccountId(sourceAccountId);
+        request.setDestinationAccountId(destinationAccountId);
+        request.setAmount(new BigDecimal(amount));
+        request.setCurrency("USD");
+        return request;
+    }
+}
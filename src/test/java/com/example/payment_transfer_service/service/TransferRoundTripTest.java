@@ -0,0 +1,195 @@
+package com.example.payment_transfer_service.service;
+
+import com.example.payment_transfer_service.dto.AccountCreationRequest;
+import com.example.payment_transfer_service.dto.TransferRequest;
+import com.example.payment_transfer_service.dto.TransferResult;
+import com.example.payment_transfer_service.dto.UserRegistrationRequest;
+import com.example.payment_transfer_service.entity.AccountType;
+import com.example.payment_transfer_service.repository.UserRepository;
+import com.example.payment_transfer_service.security.UserPrincipal;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.ActiveProfiles;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Counts the JDBC round trips of one transfer against a real Hibernate session on embedded H2. Every
+ * {@code execute*} call on a statement of the calling thread is one round trip; a JDBC batch counts once.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE)
+@ActiveProfiles("h2")
+class TransferRoundTripTest {
+
+    private static final ThreadLocal<List<String>> EXECUTED = new ThreadLocal<>();
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private AccountService accountService;
+
+    @Autowired
+    private PaymentTransferService paymentTransferService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private String sourceAccountId;
+    private String destinationAccountId;
+
+    @BeforeEach
+    void setUp() {
+        String suffix = Long.toString(System.nanoTime(), 36);
+        UserRegistrationRequest registration = new UserRegistrationRequest();
+        registration.setUsername("trips" + suffix);
+        registration.setEmail("trips" + suffix + "@example.com");
+        registration.setPassword("Trips@123");
+        registration.setFirstName("Round");
+        registration.setLastName("Trip");
+        String userId = userService.createUser(registration).getId();
+
+        sourceAccountId = createAccount(userId, "1000.00");
+        destinationAccountId = createAccount(userId, "0.00");
+
+        UserPrincipal principal = UserPrincipal.create(userRepository.findById(userId).orElseThrow());
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities()));
+
+        // Warm up sequence allocation and statement caches outside the measured transfer
+        assertTrue(paymentTransferService.transferFunds(transfer("1.00")).isSuccess());
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void successfulTransfer_WritesTransactionRowOnceNextToBatchedBalanceUpdates() {
+        List<String> statements = countStatements(() ->
+                assertTrue(paymentTransferService.transferFunds(transfer("10.00")).isSuccess()));
+
+        // SELECT ... FOR UPDATE x2, one UPDATE batch for both accounts, INSERT transaction,
+        // one INSERT batch for both ledger postings, INSERT outbox
+        assertEquals(6, statements.size(), () -> String.join("\n", statements));
+        assertEquals(1, count(statements, "update accounts"), () -> String.join("\n", statements));
+        assertEquals(1, count(statements, "insert into payment_transactions"), () -> String.join("\n", statements));
+        assertEquals(0, count(statements, "update payment_transactions"), () -> String.join("\n", statements));
+        assertEquals(1, count(statements, "insert into ledger_postings"), () -> String.join("\n", statements));
+    }
+
+    @Test
+    void rejectedTransfer_WritesOnlyTheFailedRowAndItsAudit() {
+        List<String> statements = countStatements(() -> {
+            TransferResult result = paymentTransferService.transferFunds(transfer("5000.00"));
+            assertEquals("INSUFFICIENT_FUNDS", result.getErrorCode());
+        });
+
+        // SELECT ... FOR UPDATE x2, INSERT failed transaction, INSERT outbox
+        assertEquals(4, statements.size(), () -> String.join("\n", statements));
+        assertEquals(0, count(statements, "update "), () -> String.join("\n", statements));
+    }
+
+    /**
+     * Runs the work and returns the statements it executed. Outbox id sequence calls are left out: the
+     * pooled optimizer makes one per 50 audits, so whether one falls inside a given transfer depends on
+     * what ran before it.
+     */
+    private List<String> countStatements(Runnable work) {
+        List<String> statements = new ArrayList<>();
+        EXECUTED.set(statements);
+        try {
+            work.run();
+        } finally {
+            EXECUTED.remove();
+        }
+        statements.removeIf(sql -> sql.toLowerCase().contains("next value for"));
+        return statements;
+    }
+
+    private static long count(List<String> statements, String prefix) {
+        return statements.stream().filter(sql -> sql.toLowerCase().startsWith(prefix)).count();
+    }
+
+    private String createAccount(String userId, String balance) {
+        AccountCreationRequest request = new AccountCreationRequest();
+        request.setUserId(userId);
+        request.setAccountName("Round trip " + balance);
+        request.setAccountType(AccountType.CHECKING);
+        request.setInitialBalance(new BigDecimal(balance));
+        request.setCurrency("USD");
+        return accountService.createAccount(request).getId();
+    }
+
+    private TransferRequest transfer(String amount) {
+        TransferRequest request = new TransferRequest();
+        request.setSourceAccountId(sourceAccountId);
+        request.setDestinationAccountId(destinationAccountId);
+        request.setAmount(new BigDecimal(amount));
+        request.setCurrency("USD");
+        return request;
+    }
+
+    @TestConfiguration
+    static class StatementCountingConfig {
+
+        @Bean
+        static BeanPostProcessor statementCountingDataSource() {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String beanName) {
+                    return bean instanceof DataSource dataSource ? proxy(DataSource.class, dataSource, null) : bean;
+                }
+            };
+        }
+
+        /**
+         * Wraps connections and statements so that executions are recorded with the SQL they were
+         * prepared with.
+         */
+        @SuppressWarnings("unchecked")
+        private static <T> T proxy(Class<T> type, T target, String sql) {
+            return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (proxy, method, args) -> {
+                Object result;
+                try {
+                    result = method.invoke(target, args);
+                } catch (InvocationTargetException e) {
+                    throw e.getCause();
+                }
+                if (method.getName().startsWith("execute") && target instanceof Statement) {
+                    List<String> executed = EXECUTED.get();
+                    if (executed != null) {
+                        executed.add(sql != null ? sql : String.valueOf(args != null && args.length > 0 ? args[0] : ""));
+                    }
+                }
+                if (result instanceof Connection connection) {
+                    return proxy(Connection.class, connection, null);
+                }
+                if (result instanceof Statement statement && method.getReturnType().isInterface()) {
+                    Class<? extends Statement> statementType = (Class<? extends Statement>) method.getReturnType();
+                    return proxy((Class<Statement>) statementType, statement,
+                            args != null && args.length > 0 && args[0] instanceof String text ? text : null);
+                }
+                return result;
+            });
+        }
+    }
+}
@@ -0,0 +1,372 @@
+package com.example.payment_transfer_service.service;
+
+import com.example.payment_transfer_service.dto.AccountCreationRequest;
+import com.example.payment_transfer_service.dto.TransferRequest;
+import com.example.payment_transfer_service.dto.TransferResult;
+import com.example.payment_transfer_service.dto.UserRegistrationRequest;
+import com.example.payment_transfer_service.dto.UserResponse;
+import com.example.payment_transfer_service.entity.Account;
+import com.example.payment_transfer_service.entity.AccountType;
+import com.example.payment_transfer_service.entity.LedgerPosting;
+import com.example.payment_transfer_service.entity.Transaction;
+import com.example.payment_transfer_service.entity.TransactionStatus;
+import com.example.payment_transfer_service.repository.AccountRepository;
+import com.example.payment_transfer_service.repository.LedgerPostingRepository;
+import com.example.payment_transfer_service.repository.TransactionRepository;
+import com.example.payment_transfer_service.repository.UserRepository;
+import com.example.payment_transfer_service.security.UserPrincipal;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.CountAtBucket;
+import io.micrometer.core.instrument.distribution.HistogramSnapshot;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Throughput and correctness harness for the transfer engine. Seeds {@code stress.accounts} accounts through
+ * {@link AccountService}, runs {@code stress.transfers} transfers from {@code stress.threads} threads with
+ * account choice skewed by a Zipf distribution ({@code stress.zipf}, 0 is uniform), then reports TPS, the
+ * latency histogram and deadlock and lock-timeout counts, and checks that money was conserved. The
+ * {@code stress.striped-accounts} hottest accounts can be striped over {@code stress.stripes} stripes first.
+ *
+ * <p>Excluded from the default build; run with {@code mvn -Pstress test}. Point {@code stress.datasource.*}
+ * at a local PostgreSQL to measure real row locking instead of embedded H2.
+ */
+@Tag("stress")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE)
+@ActiveProfiles("stress")
+@Slf4j
+class TransferStressTest {
+
+    private static final Duration[] LATENCY_BUCKETS = {
+            Duration.ofMillis(1), Duration.ofMillis(2), Duration.ofMillis(5), Duration.ofMillis(10),
+            Duration.ofMillis(20), Duration.ofMillis(50), Duration.ofMillis(100), Duration.ofMillis(200),
+            Duration.ofMillis(500), Duration.ofSeconds(1), Duration.ofSeconds(2), Duration.ofSeconds(5)
+    };
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private AccountService accountService;
+
+    @Autowired
+    private PaymentTransferService paymentTransferService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private LedgerPostingRepository ledgerPostingRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private StripedBalanceService stripedBalances;
+
+    @Autowired
+    private StripeRebalanceJob stripeRebalanceJob;
+
+    @Value("${stress.accounts:200}")
+    private int accountCount;
+
+    @Value("${stress.threads:16}")
+    private int threads;
+
+    @Value("${stress.transfers:20000}")
+    private int transferCount;
+
+    @Value("${stress.zipf:1.1}")
+    private double zipfExponent;
+
+    @Value("${stress.initial-balance:1000.00}")
+    private BigDecimal initialBalance;
+
+    @Value("${stress.max-amount-cents:5000}")
+    private int maxAmountCents;
+
+    @Value("${stress.engine:PESSIMISTIC}")
+    private String engine;
+
+    @Value("${stress.striped-accounts:0}")
+    private int stripedAccounts;
+
+    @Value("${stress.stripes:8}")
+    private int stripes;
+
+    @Test
+    void concurrentTransfers_ConserveMoneyAndNeverOverdraw() throws Exception {
+        UserPrincipal principal = seedUser();
+        List<String> accountIds = seedAccounts(principal.getId());
+        // Zipf ranks start at the first account, so the first accounts are the hottest
+        accountIds.subList(0, Math.min(stripedAccounts, accountCount))
+                .forEach(accountId -> stripedBalances.enableStriping(accountId, stripes));
+        BigDecimal totalBefore = initialBalance.multiply(BigDecimal.valueOf(accountCount));
+
+        ZipfSampler sampler = new ZipfSampler(accountCount, zipfExponent);
+        SimpleMeterRegistry harnessRegistry = new SimpleMeterRegistry();
+        Timer latency = Timer.builder("stress.transfer")
+                .publishPercentiles(0.5, 0.9, 0.99, 0.999)
+                .serviceLevelObjectives(LATENCY_BUCKETS)
+                .distributionStatisticExpiry(Duration.ofDays(1))
+                .distributionStatisticBufferLength(1)
+                .register(harnessRegistry);
+        Map<String, LongAdder> outcomes = new ConcurrentHashMap<>();
+        double deadlocksBefore = errorCount("DEADLOCK");
+        double lockTimeoutsBefore = errorCount("LOCK_TIMEOUT");
+
+        AtomicInteger remaining = new AtomicInteger(transferCount);
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        List<Future<?>> workers = new ArrayList<>(threads);
+        for (int i = 0; i < threads; i++) {
+            workers.add(pool.submit(() -> {
+                SecurityContextHolder.getContext().setAuthentication(
+                        new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities()));
+                start.await();
+                while (remaining.getAndDecrement() > 0) {
+                    TransferRequest request = nextTransfer(accountIds, sampler);
+                    long startNanos = System.nanoTime();
+                    String outcome;
+                    try {
+                        TransferResult result = paymentTransferService.transferFunds(request);
+                        outcome = result.isSuccess() ? "SUCCESS" : result.getErrorCode();
+                    } catch (Exception e) {
+                        String lockFailure = PaymentTransferService.lockFailureCode(e);
+                        outcome = lockFailure != null ? lockFailure : e.getClass().getSimpleName();
+                    }
+                    latency.record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+                    outcomes.computeIfAbsent(outcome, key -> new LongAdder()).increment();
+                }
+                SecurityContextHolder.clearContext();
+                return null;
+            }));
+        }
+
+        long startedAt = System.nanoTime();
+        start.countDown();
+        for (Future<?> worker : workers) {
+            worker.get();
+        }
+        double elapsedSeconds = (System.nanoTime() - startedAt) / 1e9;
+        pool.shutdown();
+
+        long succeeded = outcomes.getOrDefault("SUCCESS", new LongAdder()).sum();
+        report(latency.takeSnapshot(), outcomes, elapsedSeconds,
+                errorCount("DEADLOCK") - deadlocksBefore, errorCount("LOCK_TIMEOUT") - lockTimeoutsBefore);
+
+        stripeRebalanceJob.rebalance();
+        List<Account> accounts = accountRepository.findAllById(accountIds);
+        BigDecimal totalAfter = accounts.stream().map(Account::getBalance).reduce(BigDecimal.ZERO, BigDecimal::add);
+        assertEquals(0, totalBefore.compareTo(totalAfter), "Sum of balances changed");
+        for (Account account : accounts) {
+            assertTrue(account.getBalance().signum() >= 0,
+                    () -> "Account " + account.getId() + " went negative: " + account.getBalance());
+        }
+        assertBalancesMatchCompletedTransfers(accounts, principal.getId(), succeeded);
+        assertLedgerMatchesBalances(accounts);
+        assertTrue(succeeded > 0, "No transfer succeeded");
+    }
+
+    private UserPrincipal seedUser() {
+        String suffix = Long.toString(System.nanoTime(), 36);
+        UserRegistrationRequest request = new UserRegistrationRequest();
+        request.setUsername("stress" + suffix);
+        request.setEmail("stress" + suffix + "@example.com");
+        request.setPassword("Stress@123");
+        request.setFirstName("Stress");
+        request.setLastName("Harness");
+        UserResponse user = userService.createUser(request);
+        return UserPrincipal.create(userRepository.findById(user.getId()).orElseThrow());
+    }
+
+    private List<String> seedAccounts(String userId) {
+        List<String> accountIds = new ArrayList<>(accountCount);
+        for (int i = 0; i < accountCount; i++) {
+            AccountCreationRequest request = new AccountCreationRequest();
+            request.setUserId(userId);
+            request.setAccountName("Stress " + i);
+            request.setAccountType(AccountType.CHECKING);
+            request.setInitialBalance(initialBalance);
+            request.setCurrency("USD");
+            accountIds.add(accountService.createAccount(request).getId());
+        }
+        return accountIds;
+    }
+
+    private TransferRequest nextTransfer(List<String> accountIds, ZipfSampler sampler) {
+        int source = sampler.sample();
+        int destination = sampler.sample();
+        while (destination == source) {
+            destination = sampler.sample();
+        }
+        TransferRequest request = new TransferRequest();
+        request.setSourceAccountId(accountIds.get(source));
+        request.setDestinationAccountId(accountIds.get(destination));
+        request.setAmount(BigDecimal.valueOf(ThreadLocalRandom.current().nextInt(1, maxAmountCents + 1), 2));
+        request.setCurrency("USD");
+        return request;
+    }
+
+    /**
+     * Replays the completed transfers of the run onto the seeded balances and expects the stored balances,
+     * so that no balance update was lost or applied without its transaction row.
+     */
+    private void assertBalancesMatchCompletedTransfers(List<Account> accounts, String userId, long succeeded) {
+        Map<String, BigDecimal> expected = new HashMap<>();
+        accounts.forEach(account -> expected.put(account.getId(), initialBalance));
+
+        long completed = 0;
+        for (Transaction transaction : transactionRepository.findAll()) {
+            if (!userId.equals(transaction.getUserId()) || transaction.getStatus() != TransactionStatus.COMPLETED) {
+                continue;
+            }
+            completed++;
+            expected.merge(transaction.getSourceAccountId(), transaction.getAmount().negate(), BigDecimal::add);
+            expected.merge(transaction.getDestinationAccountId(), transaction.getAmount(), BigDecimal::add);
+        }
+
+        assertEquals(succeeded, completed, "Completed transaction rows differ from successful transfers");
+        for (Account account : accounts) {
+            assertEquals(0, expected.get(account.getId()).compareTo(account.getBalance()),
+                    () -> "Balance of " + account.getId() + " does not match its completed transfers");
+        }
+    }
+
+    /**
+     * Walks each account's postings in sequence order and expects a gap-free chain of running balances
+     * that ends at the stored balance and sequence number.
+     */
+    private void assertLedgerMatchesBalances(List<Account> accounts) {
+        Map<String, List<LedgerPosting>> postings = new HashMap<>();
+        for (LedgerPosting posting : ledgerPostingRepository.findAll()) {
+            postings.computeIfAbsent(posting.getAccountId(), id -> new ArrayList<>()).add(posting);
+        }
+
+        for (Account account : accounts) {
+            List<LedgerPosting> chain = postings.getOrDefault(account.getId(), new ArrayList<>());
+            chain.sort(Comparator.comparing(LedgerPosting::getSeq));
+            assertEquals(account.getPostingSeq(), chain.size(), () -> "Postings of " + account.getId() + " have gaps");
+
+            BigDecimal running = initialBalance;
+            for (int i = 0; i < chain.size(); i++) {
+                LedgerPosting posting = chain.get(i);
+                assertEquals(i + 1, posting.getSeq());
+                running = running.add(posting.getAmount());
+                assertEquals(0, running.compareTo(posting.getBalanceAfter()),
+                        "Running balance of " + account.getId() + " breaks at posting " + posting.getSeq());
+            }
+            assertEquals(0, running.compareTo(account.getBalance()),
+                    () -> "Ledger of " + account.getId() + " does not end at its balance");
+        }
+    }
+
+    private double errorCount(String errorCode) {
+        Counter counter = meterRegistry.find("transfer.errors")
+                .tag("error_code", errorCode).counter();
+        return counter != null ? counter.count() : 0;
+    }
+
+    private void report(HistogramSnapshot snapshot, Map<String, LongAdder> outcomes, double elapsedSeconds,
+                        double deadlocks, double lockTimeouts) {
+        StringBuilder report = new StringBuilder();
+        report.append(String.format("%nTransfer stress: engine=%s accounts=%d threads=%d transfers=%d zipf=%.2f%n",
+                engine, accountCount, threads, transferCount, zipfExponent));
+        report.append(String.format("  elapsed %.2f s, %.1f TPS%n", elapsedSeconds, transferCount / elapsedSeconds));
+        report.append(String.format("  deadlocks %.0f, lock timeouts %.0f%n", deadlocks, lockTimeouts));
+
+        report.append("  outcomes:");
+        new TreeMap<>(outcomes).forEach((outcome, count) -> report.append(' ').append(outcome).append('=').append(count.sum()));
+        report.append(String.format("%n  latency ms: mean %.2f, max %.2f",
+                snapshot.mean(TimeUnit.MILLISECONDS), snapshot.max(TimeUnit.MILLISECONDS)));
+        for (ValueAtPercentile percentile : snapshot.percentileValues()) {
+            report.append(String.format(", p%s %.2f", trimPercentile(percentile.percentile() * 100),
+                    percentile.value(TimeUnit.MILLISECONDS)));
+        }
+        report.append(String.format("%n  histogram (<= ms: count)%n"));
+        double previous = 0;
+        for (CountAtBucket bucket : snapshot.histogramCounts()) {
+            report.append(String.format("    %8.0f: %d%n", bucket.bucket(TimeUnit.MILLISECONDS), (long) (bucket.count() - previous)));
+            previous = bucket.count();
+        }
+        report.append(String.format("    %8s: %d%n", "more", snapshot.count() - (long) previous));
+        log.info(report.toString());
+    }
+
+    private static String trimPercentile(double percentile) {
+        return percentile == Math.rint(percentile) ? Long.toString((long) percentile) : Double.toString(percentile);
+    }
+
+    /**
+     * Samples ranks 0..n-1 with probability proportional to {@code 1 / (rank + 1)^exponent} by binary search
+     * over the cumulative distribution.
+     */
+    private static final class ZipfSampler {
+
+        private final double[] cumulative;
+
+        ZipfSampler(int n, double exponent) {
+            cumulative = new double[n];
+            double sum = 0;
+            for (int rank = 0; rank < n; rank++) {
+                sum += 1 / Math.pow(rank + 1, exponent);
+                cumulative[rank] = sum;
+            }
+            for (int rank = 0; rank < n; rank++) {
+                cumulative[rank] /= sum;
+            }
+        }
+
+        int sample() {
+            double u = ThreadLocalRandom.current().nextDouble();
+            int low = 0;
+            int high = cumulative.length - 1;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (cumulative[mid] < u) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+    }
+}
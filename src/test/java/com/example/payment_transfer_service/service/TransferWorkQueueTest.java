@@ -0,0 +1,73 @@
+package com.example.payment_transfer_service.service;
+
+import com.example.payment_transfer_service.dto.TransferQueueStats;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TransferWorkQueueTest {
+
+    private final CountDownLatch release = new CountDownLatch(1);
+    private TransferWorkQueue queue;
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        release.countDown();
+        queue.shutdown();
+    }
+
+    @Test
+    void submit_RejectsWhenQueueIsFull() throws InterruptedException {
+        queue = new TransferWorkQueue(1, 1);
+        CountDownLatch started = new CountDownLatch(1);
+
+        queue.submit(() -> {
+            started.countDown();
+            awaitRelease();
+        });
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        queue.submit(this::awaitRelease);
+        assertFalse(queue.hasCapacity());
+        assertThrows(RejectedExecutionException.class, () -> queue.submit(() -> { }));
+
+        TransferQueueStats stats = queue.getStats();
+        assertEquals(1, stats.getCapacity());
+        assertEquals(1, stats.getDepth());
+        assertEquals(1, stats.getActiveWorkers());
+        assertEquals(2, stats.getSubmitted());
+        assertEquals(1, stats.getRejected());
+    }
+
+    @Test
+    void submit_CountsCompletedAndFailedTasks() throws InterruptedException {
+        queue = new TransferWorkQueue(2, 10);
+        CountDownLatch done = new CountDownLatch(2);
+
+        queue.submit(done::countDown);
+        queue.submit(() -> {
+            done.countDown();
+            throw new IllegalStateException("boom");
+        });
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        queue.shutdown();
+
+        TransferQueueStats stats = queue.getStats();
+        assertEquals(1, stats.getCompleted());
+        assertEquals(1, stats.getFailed());
+        assertEquals(0, stats.getDepth());
+    }
+
+    private void awaitRelease() {
+        try {
+            release.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
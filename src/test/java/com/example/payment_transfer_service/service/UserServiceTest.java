@@ -1,6 +1,7 @@
 package com.example.payment_transfer_service.service;
 
 import com.example.payment_transfer_service.dto.AccountSummary;
+import com.example.payment_transfer_service.dto.ChangePasswordRequest;
 import com.example.payment_transfer_service.dto.UserRegistrationRequest;
 import com.example.payment_transfer_service.dto.UserResponse;
 import com.example.payment_transfer_service.entity.Account;
@@ -11,6 +12,8 @@ import com.example.payment_transfer_service.entity.UserStatus;
 import com.example.payment_transfer_service.exception.PaymentException;
 import com.example.payment_transfer_service.repository.AccountRepository;
 import com.example.payment_transfer_service.repository.UserRepository;
+import com.example.payment_transfer_service.security.PrincipalCache;
+import com.example.payment_transfer_service.security.TokenRevocationRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -41,6 +44,15 @@ class UserServiceTest {
     @Mock
     private PasswordEncoder passwordEncoder;
 
+    @Mock
+    private PrincipalCache principalCache;
+
+    @Mock
+    private TokenRevocationRegistry tokenRevocationRegistry;
+
+    @Mock
+    private StripedBalanceService stripedBalances;
+
     @InjectMocks
     private UserService userService;
 
@@ -50,6 +62,9 @@ class UserServiceTest {
 
     @BeforeEach
     void setUp() {
+        lenient().when(stripedBalances.totalBalance(any(Account.class)))
+                .thenAnswer(invocation -> invocation.<Account>getArgument(0).getBalance());
+
         testUser = new User();
         testUser.setId("USR12345");
         testUser.setUsername("testuser");
@@ -269,4 +284,53 @@ class UserServiceTest {
         assertNotNull(result);
         verify(userRepository).save(any(User.class));
     }
+
+    @Test
+    void updateUserStatus_InvalidatesCachedPrincipal() {
+        when(userRepository.findById("USR12345")).thenReturn(Optional.of(testUser));
+        when(userRepository.save(testUser)).thenReturn(testUser);
+
+        UserResponse result = userService.updateUserStatus("USR12345", UserStatus.SUSPENDED);
+
+        assertEquals(UserStatus.SUSPENDED, result.getStatus());
+        assertEquals(1L, testUser.getTokenVersion());
+        verify(principalCache).invalidate("USR12345");
+        verify(tokenRevocationRegistry).revokeUserTokens("USR12345", 1L);
+    }
+
+    @Test
+    void changePassword_Success() {
+        ChangePasswordRequest request = new ChangePasswordRequest();
+        request.setCurrentPassword("OldPass123!");
+        request.setNewPassword("NewPass123!");
+
+        when(userRepository.findById("USR12345")).thenReturn(Optional.of(testUser));
+        when(passwordEncoder.matches("OldPass123!", "hashedPassword")).thenReturn(true);
+        when(passwordEncoder.encode("NewPass123!")).thenReturn("newHash");
+
+        userService.changePassword("USR12345", request);
+
+        assertEquals("newHash", testUser.getPasswordHash());
+        verify(userRepository).save(testUser);
+        verify(principalCache).invalidate("USR12345");
+        verify(tokenRevocationRegistry).revokeUserTokens("USR12345", 1L);
+    }
+
+    @Test
+    void changePassword_WrongCurrentPassword() {
+        ChangePasswordRequest request = new ChangePasswordRequest();
+        request.setCurrentPassword("wrong");
+        request.setNewPassword("NewPass123!");
+
+        when(userRepository.findById("USR12345")).thenReturn(Optional.of(testUser));
+        when(passwordEncoder.matches("wrong", "hashedPassword")).thenReturn(false);
+
+        PaymentException exception = assertThrows(PaymentException.class, () ->
+                userService.changePassword("USR12345", request));
+
+        assertEquals("INVALID_PASSWORD", exception.getErrorCode());
+        verify(userRepository, never()).save(any());
+        verify(principalCache, never()).invalidate(anyString());
+        verify(tokenRevocationRegistry, never()).revokeUserTokens(anyString(), anyLong());
+    }
 }